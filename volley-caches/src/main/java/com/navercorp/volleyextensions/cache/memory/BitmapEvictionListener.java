@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+import android.graphics.Bitmap;
+
+/**
+ * <pre>
+ * A listener which is notified when a memory cache evicts a bitmap to make room for new bitmaps.
+ *
+ * It is called only for evictions caused by the size limit of a cache.
+ * Bitmaps removed by {@code remove()} or {@code clear()} are not notified,
+ * because the caller of them may still use the bitmaps.
+ * Bitmaps trimmed by {@link TrimmableMemoryCache#trimToSize(int)} are not notified either,
+ * because trimming is for releasing memory.
+ * </pre>
+ * @see BitmapEvictionNotifier
+ */
+public interface BitmapEvictionListener {
+	/**
+	 * Called after {@code bitmap} has been evicted from a cache.
+	 * NOTE : This method may be called on any thread which puts bitmaps into the cache.
+	 * @param key the key which the bitmap was cached for
+	 * @param bitmap the evicted bitmap
+	 */
+	void onBitmapEvicted(String key, Bitmap bitmap);
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+/**
+ * <pre>
+ * A memory cache which can notify a {@link BitmapEvictionListener} of the bitmaps evicted by it.
+ * </pre>
+ * @see BitmapEvictionListener
+ */
+public interface BitmapEvictionNotifier {
+	/**
+	 * Set the listener for evicted bitmaps.
+	 * @param listener listener to be notified, or null to stop notifying
+	 */
+	void setBitmapEvictionListener(BitmapEvictionListener listener);
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.os.Build;
+
+import com.navercorp.volleyextensions.util.Assert;
+
+/**
+ * <pre>
+ * A pool of mutable bitmaps which can be reused by {@code BitmapFactory.Options.inBitmap}.
+ * It is limited by the total byte size of the pooled bitmaps, and drops the oldest bitmap when the limit is exceeded.
+ *
+ * Give the pool only the bitmaps which the caller releases explicitly, because they are not displayed anymore.
+ * (ex. A bitmap of a recycled view which has been decoded by the caller and never shared with an image cache)
+ *
+ *		bitmapPool.put(bitmap);
+ *
+ * And then, the pool can be used while decoding an image.
+ *
+ *		BitmapFactory.Options options = new BitmapFactory.Options();
+ *		options.inJustDecodeBounds = true;
+ *		BitmapFactory.decodeByteArray(data, 0, data.length, options);
+ *		options.inJustDecodeBounds = false;
+ *		bitmapPool.addInBitmapOptions(options);
+ *		Bitmap bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, options);
+ *
+ * - On KitKat or above, a pooled bitmap is reused if its allocation is large enough for the decoded image.
+ * - Below KitKat, a pooled bitmap is reused only if its width, height and config are the same as the decoded image,
+ *   and {@code inSampleSize} is 1.
+ *
+ * <b>WARNING</b>
+ * A bitmap must not be pooled while it is still drawn by a view, because its pixels will be overwritten by a next decoding.
+ * Bitmaps evicted from a memory cache may still be displayed in {@code NetworkImageView}s,
+ * so they must not be given to the pool. (This is why this pool is not a {@link BitmapEvictionListener}.)
+ * And decoding with {@code inBitmap} can throw {@link IllegalArgumentException} if the decoder doesn't support the reuse.
+ * In that case, decode again without {@code inBitmap}.
+ * </pre>
+ */
+public class BitmapPool implements TrimmableMemoryCache, MemoryTrimmable {
+	/** A pooled bitmap is not used for a bitmap which is smaller than 1/8 of it, not to waste the memory */
+	private static final int MAX_SIZE_MULTIPLE = 8;
+
+	/** Pooled bitmaps grouped by their allocation byte sizes */
+	private final TreeMap<Integer, LinkedList<Bitmap>> bitmapsBySize = new TreeMap<Integer, LinkedList<Bitmap>>();
+	/** Pooled bitmaps in the order they were put. The first one is the oldest. */
+	private final LinkedHashSet<Bitmap> bitmapsInOrder = new LinkedHashSet<Bitmap>();
+
+	private final int maxSize;
+	private int size;
+
+	/** @param maxSize Maximum sum of the sizes of the Bitmaps in this pool (in bytes) */
+	public BitmapPool(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be greater than 0.");
+		}
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Put a bitmap released by the caller into this pool. The oldest bitmaps are dropped if the pool is full.
+	 * The bitmap must not be displayed or used anymore.
+	 * @return true if the bitmap is pooled, or false if it is not reusable (immutable or recycled) or too large for this pool.
+	 * @throws NullPointerException if {@code bitmap} is null
+	 */
+	public synchronized boolean put(Bitmap bitmap) {
+		Assert.notNull(bitmap, "bitmap");
+		if (!isReusable(bitmap) || bitmapsInOrder.contains(bitmap)) {
+			return false;
+		}
+
+		int bitmapSize = sizeOf(bitmap);
+		if (bitmapSize > maxSize) {
+			return false;
+		}
+
+		LinkedList<Bitmap> bitmaps = bitmapsBySize.get(bitmapSize);
+		if (bitmaps == null) {
+			bitmaps = new LinkedList<Bitmap>();
+			bitmapsBySize.put(bitmapSize, bitmaps);
+		}
+		bitmaps.addLast(bitmap);
+		bitmapsInOrder.add(bitmap);
+		size += bitmapSize;
+
+		trimToSize(maxSize);
+		return true;
+	}
+
+	/**
+	 * Take a pooled bitmap out, which has the given width, height and config.
+	 * The pixels of the returned bitmap are erased to transparent.
+	 * @return a reused bitmap, or null if there is no suitable bitmap in this pool.
+	 */
+	public Bitmap get(int width, int height, Bitmap.Config config) {
+		Bitmap bitmap = take(width, height, config);
+		if (bitmap == null) {
+			return null;
+		}
+
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+			bitmap.reconfigure(width, height, config);
+		}
+		bitmap.eraseColor(Color.TRANSPARENT);
+		return bitmap;
+	}
+
+	/**
+	 * Set a pooled bitmap into {@code options.inBitmap} if there is one suitable for the image to be decoded.
+	 * {@code options.outWidth} and {@code options.outHeight} must have been filled by decoding with {@code inJustDecodeBounds}.
+	 * {@code options.inMutable} is also set to true when a bitmap is set, because the decoded bitmap is reused as well.
+	 * @return true if {@code options.inBitmap} is set
+	 * @throws NullPointerException if {@code options} is null
+	 */
+	public boolean addInBitmapOptions(BitmapFactory.Options options) {
+		Assert.notNull(options, "options");
+		if (options.outWidth <= 0 || options.outHeight <= 0 || isDensityScaled(options)) {
+			return false;
+		}
+
+		int sampleSize = Math.max(1, options.inSampleSize);
+		if (sampleSize > 1 && Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT) {
+			return false;
+		}
+
+		// Decoders round the sampled dimensions in different ways, so take the larger one.
+		int width = (options.outWidth + sampleSize - 1) / sampleSize;
+		int height = (options.outHeight + sampleSize - 1) / sampleSize;
+		Bitmap.Config config = options.inPreferredConfig != null ? options.inPreferredConfig : Bitmap.Config.ARGB_8888;
+
+		Bitmap bitmap = take(width, height, config);
+		if (bitmap == null) {
+			return false;
+		}
+		options.inMutable = true;
+		options.inBitmap = bitmap;
+		return true;
+	}
+
+	/**
+	 * Drop the oldest bitmaps until the size is not over {@code targetSize}.
+	 * Dropped bitmaps are not recycled, but left to the garbage collector.
+	 */
+	@Override
+	public synchronized void trimToSize(int targetSize) {
+		Iterator<Bitmap> iterator = bitmapsInOrder.iterator();
+		while (size > targetSize && iterator.hasNext()) {
+			Bitmap eldest = iterator.next();
+			iterator.remove();
+			removeFromSizeGroup(eldest);
+		}
+	}
+
+	@Override
+	public void trimMemory(int level) {
+		MemoryTrimmer.trim(this, level);
+	}
+
+	public synchronized void clear() {
+		bitmapsBySize.clear();
+		bitmapsInOrder.clear();
+		size = 0;
+	}
+
+	/**
+	 * @return Sum of the sizes of the pooled bitmaps (in bytes)
+	 */
+	@Override
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * @return Maximum sum of the sizes of the bitmaps in this pool (in bytes)
+	 */
+	@Override
+	public int maxSize() {
+		return maxSize;
+	}
+
+	private synchronized Bitmap take(int width, int height, Bitmap.Config config) {
+		if (width <= 0 || height <= 0 || config == null) {
+			return null;
+		}
+
+		long requiredSize = (long) width * height * bytesPerPixel(config);
+		if (requiredSize > maxSize) {
+			return null;
+		}
+		long sizeLimit = requiredSize * MAX_SIZE_MULTIPLE;
+
+		for (Map.Entry<Integer, LinkedList<Bitmap>> group : bitmapsBySize.tailMap((int) requiredSize).entrySet()) {
+			if (group.getKey() > sizeLimit) {
+				break;
+			}
+			Iterator<Bitmap> iterator = group.getValue().iterator();
+			while (iterator.hasNext()) {
+				Bitmap candidate = iterator.next();
+				if (!canReuse(candidate, width, height, config)) {
+					continue;
+				}
+				iterator.remove();
+				if (group.getValue().isEmpty()) {
+					bitmapsBySize.remove(group.getKey());
+				}
+				bitmapsInOrder.remove(candidate);
+				size -= group.getKey();
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	private void removeFromSizeGroup(Bitmap bitmap) {
+		int bitmapSize = sizeOf(bitmap);
+		LinkedList<Bitmap> bitmaps = bitmapsBySize.get(bitmapSize);
+		if (bitmaps == null) {
+			return;
+		}
+		bitmaps.remove(bitmap);
+		if (bitmaps.isEmpty()) {
+			bitmapsBySize.remove(bitmapSize);
+		}
+		size -= bitmapSize;
+	}
+
+	private static boolean canReuse(Bitmap candidate, int width, int height, Bitmap.Config config) {
+		if (candidate.isRecycled() || candidate.getConfig() != config) {
+			return false;
+		}
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+			return true;
+		}
+		return candidate.getWidth() == width && candidate.getHeight() == height;
+	}
+
+	private static boolean isReusable(Bitmap bitmap) {
+		return bitmap.isMutable() && !bitmap.isRecycled() && bitmap.getConfig() != null;
+	}
+
+	private static boolean isDensityScaled(BitmapFactory.Options options) {
+		return options.inScaled && options.inDensity != 0 && options.inTargetDensity != 0
+				&& options.inDensity != options.inTargetDensity;
+	}
+
+	private static int bytesPerPixel(Bitmap.Config config) {
+		switch (config) {
+		case ALPHA_8:
+			return 1;
+		case RGB_565:
+		case ARGB_4444:
+			return 2;
+		case RGBA_F16:
+			return 8;
+		default:
+			return 4;
+		}
+	}
+
+	/**
+	 * Return the size of the bitmap in bytes.
+	 * It must not change while the bitmap is in this pool.
+	 */
+	protected int sizeOf(Bitmap bitmap) {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+			return bitmap.getAllocationByteCount();
+		}
+		return bitmap.getByteCount();
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("BitmapPool[maxSize=%d,size=%d,count=%d]", maxSize, size, bitmapsInOrder.size());
+	}
+}
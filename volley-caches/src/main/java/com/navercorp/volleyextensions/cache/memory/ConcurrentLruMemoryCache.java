@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import android.graphics.Bitmap;
+import android.os.Build;
+
+import com.navercorp.volleyextensions.util.Assert;
+import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
+
+/**
+ * <pre>
+ * A memory cache for bitmaps which is limited by the total byte size of the bitmaps,
+ * and evicts the least recently used bitmap when the limit is exceeded.
+ *
+ * In contrast with {@code LruMemoryCache} of AUIL which synchronizes every method,
+ * {@link #get(String)} never takes a lock. Because {@code ImageLoader} of Volley calls
+ * {@code getBitmap()} on the main thread, reads must not wait for writers holding a monitor.
+ *
+ * - Reads are a lookup of {@link ConcurrentHashMap} and a stamp of an access order.
+ * - Writes (put, remove, clear and eviction) are serialized by a single lock.
+ * - The size of each bitmap is measured by {@code Bitmap.getAllocationByteCount()} (KitKat or above),
+ *   or by {@code Bitmap.getByteCount()} on older devices.
+ * - Evicted bitmaps are notified to a {@link BitmapEvictionListener} after the lock is released.
+ *
+ * <b>NOTE</b>
+ * The least recently used entry is found by scanning the access orders of the entries on eviction.
+ * A memory cache for bitmaps usually holds at most hundreds of entries, so the scan is cheaper
+ * than maintaining a linked access order which every read would have to lock.
+ * </pre>
+ * @see MemoryCacheAware
+ */
+public class ConcurrentLruMemoryCache implements MemoryCacheAware<String, Bitmap>, BitmapEvictionNotifier,
+		TrimmableMemoryCache, MemoryTrimmable {
+
+	private final ConcurrentHashMap<String, CacheEntry> entries = new ConcurrentHashMap<String, CacheEntry>();
+	/** Serializes all of the mutations so that {@code size} always matches the entries */
+	private final ReentrantLock writeLock = new ReentrantLock();
+	/** Source of access orders. The larger value means more recently used. */
+	private final AtomicLong accessClock = new AtomicLong();
+
+	private final int maxSize;
+	/** Sum of the sizes of the cached bitmaps (in bytes). It is only changed while holding {@code writeLock}. */
+	private volatile int size;
+	private volatile BitmapEvictionListener evictionListener;
+
+	/** @param maxSize Maximum sum of the sizes of the Bitmaps in this cache (in bytes) */
+	public ConcurrentLruMemoryCache(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be greater than 0.");
+		}
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Return the bitmap for {@code key} if it exists in the cache. This method never blocks.
+	 * @return cached bitmap, or null if it doesn't exist
+	 */
+	@Override
+	public Bitmap get(String key) {
+		if (key == null) {
+			return null;
+		}
+
+		CacheEntry entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+
+		entry.accessOrder = accessClock.incrementAndGet();
+		return entry.bitmap;
+	}
+
+	/**
+	 * Cache a bitmap for {@code key}. The least recently used bitmaps are evicted if the cache is full.
+	 * @return true if the bitmap is cached, or false if the bitmap is larger than the maximum size.
+	 */
+	@Override
+	public boolean put(String key, Bitmap value) {
+		Assert.notNull(key, "key");
+		Assert.notNull(value, "value");
+
+		int valueSize = safeSizeOf(key, value);
+		if (valueSize > maxSize) {
+			return false;
+		}
+
+		CacheEntry entry = new CacheEntry(value, valueSize, accessClock.incrementAndGet());
+		List<Map.Entry<String, CacheEntry>> evictedEntries;
+		writeLock.lock();
+		try {
+			CacheEntry previous = entries.put(key, entry);
+			size += valueSize;
+			if (previous != null) {
+				size -= previous.size;
+			}
+			evictedEntries = trimToSizeLocked(maxSize);
+		} finally {
+			writeLock.unlock();
+		}
+		notifyEvicted(evictedEntries);
+		return true;
+	}
+
+	@Override
+	public void remove(String key) {
+		if (key == null) {
+			return;
+		}
+
+		writeLock.lock();
+		try {
+			CacheEntry previous = entries.remove(key);
+			if (previous != null) {
+				size -= previous.size;
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * @return snapshot of the keys in the cache
+	 */
+	@Override
+	public Collection<String> keys() {
+		return new HashSet<String>(entries.keySet());
+	}
+
+	@Override
+	public void clear() {
+		writeLock.lock();
+		try {
+			entries.clear();
+			size = 0;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public void setBitmapEvictionListener(BitmapEvictionListener listener) {
+		this.evictionListener = listener;
+	}
+
+	/**
+	 * Evict the least recently used bitmaps until the size is not over {@code targetSize}.
+	 * The evicted bitmaps are not notified to the {@link BitmapEvictionListener}.
+	 */
+	@Override
+	public void trimToSize(int targetSize) {
+		writeLock.lock();
+		try {
+			trimToSizeLocked(targetSize);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public void trimMemory(int level) {
+		MemoryTrimmer.trim(this, level);
+	}
+
+	/**
+	 * @return Sum of the sizes of the cached bitmaps (in bytes)
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return Maximum sum of the sizes of the bitmaps in this cache (in bytes)
+	 */
+	@Override
+	public int maxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Evict the least recently used entries until the size is not over {@code targetSize}.
+	 * NOTE : This method must be called while holding {@code writeLock}.
+	 * @return evicted entries, which have to be notified after releasing {@code writeLock}
+	 */
+	private List<Map.Entry<String, CacheEntry>> trimToSizeLocked(int targetSize) {
+		List<Map.Entry<String, CacheEntry>> evictedEntries = Collections.emptyList();
+		while (size > targetSize) {
+			Map.Entry<String, CacheEntry> eldest = findEldestEntry();
+			if (eldest == null) {
+				break;
+			}
+			entries.remove(eldest.getKey());
+			size -= eldest.getValue().size;
+			if (evictedEntries.isEmpty()) {
+				evictedEntries = new ArrayList<Map.Entry<String, CacheEntry>>();
+			}
+			evictedEntries.add(eldest);
+		}
+		return evictedEntries;
+	}
+
+	private void notifyEvicted(List<Map.Entry<String, CacheEntry>> evictedEntries) {
+		BitmapEvictionListener listener = evictionListener;
+		if (listener == null) {
+			return;
+		}
+		for (Map.Entry<String, CacheEntry> evicted : evictedEntries) {
+			listener.onBitmapEvicted(evicted.getKey(), evicted.getValue().bitmap);
+		}
+	}
+
+	private Map.Entry<String, CacheEntry> findEldestEntry() {
+		Map.Entry<String, CacheEntry> eldest = null;
+		for (Map.Entry<String, CacheEntry> candidate : entries.entrySet()) {
+			if (eldest == null || candidate.getValue().accessOrder < eldest.getValue().accessOrder) {
+				eldest = candidate;
+			}
+		}
+		return eldest;
+	}
+
+	private int safeSizeOf(String key, Bitmap value) {
+		int valueSize = sizeOf(key, value);
+		if (valueSize < 0) {
+			throw new IllegalStateException("Negative size: " + key + "=" + value);
+		}
+		return valueSize;
+	}
+
+	/**
+	 * Return the size of the bitmap in bytes.
+	 * Override this method if you want to measure the size in another way.
+	 */
+	protected int sizeOf(String key, Bitmap value) {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+			return value.getAllocationByteCount();
+		}
+		return value.getByteCount();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ConcurrentLruMemoryCache[maxSize=%d,size=%d,count=%d]", maxSize, size, entries.size());
+	}
+
+	private static class CacheEntry {
+		private final Bitmap bitmap;
+		private final int size;
+		private volatile long accessOrder;
+
+		private CacheEntry(Bitmap bitmap, int size, long accessOrder) {
+			this.bitmap = bitmap;
+			this.size = size;
+			this.accessOrder = accessOrder;
+		}
+	}
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+/**
+ * <pre>
+ * An object which can release its memory according to the level of {@code ComponentCallbacks2.onTrimMemory()}.
+ * </pre>
+ * @see MemoryTrimmer
+ */
+public interface MemoryTrimmable {
+	/**
+	 * Release memory according to {@code level}.
+	 * @param level one of {@code ComponentCallbacks2.TRIM_MEMORY_*}
+	 * @see MemoryTrimmer#percentageToKeep(int)
+	 */
+	void trimMemory(int level);
+}
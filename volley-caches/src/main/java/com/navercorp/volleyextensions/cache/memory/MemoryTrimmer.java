@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+
+import com.navercorp.volleyextensions.util.Assert;
+
+/**
+ * <pre>
+ * A {@link ComponentCallbacks2} which trims {@link MemoryTrimmable}s when the system asks the application to release memory.
+ *
+ *		MemoryTrimmer memoryTrimmer = MemoryTrimmer.register(context, imageCache, bitmapPool);
+ *		...
+ *		memoryTrimmer.unregister(context);
+ *
+ * Memory caches are trimmed to a percentage of their maximum sizes as follows.
+ *
+ *	- TRIM_MEMORY_COMPLETE, TRIM_MEMORY_MODERATE : 0% (cleared)
+ *	- TRIM_MEMORY_BACKGROUND, TRIM_MEMORY_RUNNING_CRITICAL : 25%
+ *	- TRIM_MEMORY_UI_HIDDEN, TRIM_MEMORY_RUNNING_LOW : 50%
+ *	- TRIM_MEMORY_RUNNING_MODERATE : 100% (not trimmed)
+ *
+ * {@code onLowMemory()} is handled as TRIM_MEMORY_COMPLETE.
+ * </pre>
+ * @see MemoryTrimmable
+ * @see TrimmableMemoryCache
+ */
+public class MemoryTrimmer implements ComponentCallbacks2 {
+	private final List<MemoryTrimmable> trimmables;
+
+	/**
+	 * @param trimmables objects to be trimmed
+	 * @throws NullPointerException if {@code trimmables} or any of them is null
+	 */
+	public MemoryTrimmer(MemoryTrimmable... trimmables) {
+		Assert.notNull(trimmables, "trimmables");
+		for (MemoryTrimmable trimmable : trimmables) {
+			Assert.notNull(trimmable, "trimmable");
+		}
+		this.trimmables = new CopyOnWriteArrayList<MemoryTrimmable>(Arrays.asList(trimmables));
+	}
+
+	/**
+	 * Create a {@link MemoryTrimmer} and register it to the application context of {@code context}.
+	 * @return the registered {@link MemoryTrimmer}, which is needed to unregister
+	 * @throws NullPointerException if {@code context} or {@code trimmables} is null
+	 */
+	public static MemoryTrimmer register(Context context, MemoryTrimmable... trimmables) {
+		Assert.notNull(context, "context");
+		MemoryTrimmer memoryTrimmer = new MemoryTrimmer(trimmables);
+		context.getApplicationContext().registerComponentCallbacks(memoryTrimmer);
+		return memoryTrimmer;
+	}
+
+	/**
+	 * Unregister this from the application context of {@code context}.
+	 * @throws NullPointerException if {@code context} is null
+	 */
+	public void unregister(Context context) {
+		Assert.notNull(context, "context");
+		context.getApplicationContext().unregisterComponentCallbacks(this);
+	}
+
+	@Override
+	public void onTrimMemory(int level) {
+		for (MemoryTrimmable trimmable : trimmables) {
+			trimmable.trimMemory(level);
+		}
+	}
+
+	@Override
+	public void onLowMemory() {
+		onTrimMemory(TRIM_MEMORY_COMPLETE);
+	}
+
+	@Override
+	public void onConfigurationChanged(Configuration newConfig) {
+		// Nothing to do
+	}
+
+	/**
+	 * @param level one of {@code ComponentCallbacks2.TRIM_MEMORY_*}
+	 * @return percentage of the maximum size which a memory cache should keep for {@code level}
+	 */
+	public static int percentageToKeep(int level) {
+		if (level >= TRIM_MEMORY_MODERATE) {
+			return 0;
+		}
+		if (level >= TRIM_MEMORY_BACKGROUND) {
+			return 25;
+		}
+		if (level >= TRIM_MEMORY_UI_HIDDEN) {
+			return 50;
+		}
+		if (level >= TRIM_MEMORY_RUNNING_CRITICAL) {
+			return 25;
+		}
+		if (level >= TRIM_MEMORY_RUNNING_LOW) {
+			return 50;
+		}
+		return 100;
+	}
+
+	/**
+	 * Trim {@code cache} to the percentage of its maximum size for {@code level}.
+	 * @throws NullPointerException if {@code cache} is null
+	 */
+	public static void trim(TrimmableMemoryCache cache, int level) {
+		Assert.notNull(cache, "cache");
+		int percentage = percentageToKeep(level);
+		if (percentage >= 100) {
+			return;
+		}
+		cache.trimToSize((int) ((long) cache.maxSize() * percentage / 100));
+	}
+}
@@ -0,0 +1,435 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.ImageView.ScaleType;
+
+import com.navercorp.volleyextensions.util.Assert;
+import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
+
+/**
+ * <pre>
+ * A memory cache which serves a bitmap decoded for larger bounds, when the bitmap for the requested bounds doesn't exist.
+ *
+ * {@code ImageLoader} of Volley makes a cache key from the max width, the max height, the scale type and the url
+ * (ex. "#W200#H100#S3http://..."), so the same url requested for different sizes is decoded and cached repeatedly.
+ * This cache indexes the keys by the url and the scale type (size class), and when a key misses, returns a bitmap
+ * of the same size class whose bounds cover the requested bounds. (0 means unbounded, as in {@code ImageLoader})
+ *
+ * - When a bitmap is put, the bitmaps of the same size class whose bounds are covered by it are removed,
+ *   because they are not needed anymore.
+ * - If an {@link Executor} is given, a served bitmap much larger than the requested bounds is downscaled by it,
+ *   and the downscaled bitmap is put for the requested key on the main thread. It is not needed to decode again.
+ * - Keys which are not made by {@code ImageLoader} are passed to the wrapped cache as they are.
+ *
+ *		MemoryCacheAware<String, Bitmap> cache = new SizeClassMemoryCache(new UniversalLruLimitedMemoryCache(cacheSize), executor);
+ * </pre>
+ * @see MemoryCacheAware
+ */
+public class SizeClassMemoryCache implements MemoryCacheAware<String, Bitmap>, BitmapEvictionNotifier, MemoryTrimmable {
+	/** A served bitmap is downscaled when it has 4 times as many pixels as the requested size or more */
+	private static final int DOWNSCALE_PIXEL_RATIO = 4;
+	/** The index is pruned when it has more keys than this, to forget the keys evicted by the wrapped cache */
+	private static final int MIN_PRUNE_THRESHOLD = 64;
+
+	private final MemoryCacheAware<String, Bitmap> delegate;
+	private final Executor downscaleExecutor;
+	private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+	/** Keys of the cached bitmaps, grouped by their size classes */
+	private final Map<String, Map<String, ImageKey>> keysBySizeClass = new HashMap<String, Map<String, ImageKey>>();
+	private final Set<String> pendingDownscales = new HashSet<String>();
+	private int indexedKeyCount;
+	private int pruneThreshold = MIN_PRUNE_THRESHOLD;
+
+	/**
+	 * @param delegate Wrapped Memory Cache
+	 * @throws NullPointerException if {@code delegate} is null
+	 */
+	public SizeClassMemoryCache(MemoryCacheAware<String, Bitmap> delegate) {
+		this(delegate, null);
+	}
+
+	/**
+	 * @param delegate Wrapped Memory Cache
+	 * @param downscaleExecutor Executor which downscales the bitmaps served for smaller bounds.
+	 *        If it is null, bitmaps are not downscaled.
+	 * @throws NullPointerException if {@code delegate} is null
+	 */
+	public SizeClassMemoryCache(MemoryCacheAware<String, Bitmap> delegate, Executor downscaleExecutor) {
+		Assert.notNull(delegate, "delegate");
+		this.delegate = delegate;
+		this.downscaleExecutor = downscaleExecutor;
+	}
+
+	/**
+	 * Return the bitmap for {@code key}, or a bitmap of the same size class which was decoded for larger bounds.
+	 */
+	@Override
+	public Bitmap get(String key) {
+		Bitmap hit = delegate.get(key);
+		if (hit != null || key == null) {
+			return hit;
+		}
+
+		ImageKey requested = ImageKey.parse(key);
+		if (requested == null) {
+			return null;
+		}
+
+		for (ImageKey candidate : findCoveringKeys(requested)) {
+			Bitmap larger = delegate.get(candidate.key);
+			if (larger == null) {
+				unindex(candidate);
+				continue;
+			}
+			scheduleDownscale(requested, larger);
+			return larger;
+		}
+		return null;
+	}
+
+	@Override
+	public boolean put(String key, Bitmap value) {
+		boolean putSuccessfully = delegate.put(key, value);
+		ImageKey imageKey = ImageKey.parse(key);
+		if (!putSuccessfully || imageKey == null) {
+			return putSuccessfully;
+		}
+
+		for (ImageKey covered : findCoveredKeys(imageKey)) {
+			delegate.remove(covered.key);
+			unindex(covered);
+		}
+		index(imageKey);
+		return true;
+	}
+
+	@Override
+	public void remove(String key) {
+		delegate.remove(key);
+		ImageKey imageKey = ImageKey.parse(key);
+		if (imageKey != null) {
+			unindex(imageKey);
+		}
+	}
+
+	@Override
+	public Collection<String> keys() {
+		return delegate.keys();
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+		synchronized (this) {
+			keysBySizeClass.clear();
+			indexedKeyCount = 0;
+		}
+	}
+
+	/**
+	 * Set a listener for the bitmaps evicted by the wrapped cache.
+	 * @throws UnsupportedOperationException if the wrapped cache is not a {@link BitmapEvictionNotifier}
+	 */
+	@Override
+	public void setBitmapEvictionListener(BitmapEvictionListener listener) {
+		if (!(delegate instanceof BitmapEvictionNotifier)) {
+			throw new UnsupportedOperationException(delegate.getClass().getName() + " doesn't notify evicted bitmaps.");
+		}
+		((BitmapEvictionNotifier) delegate).setBitmapEvictionListener(listener);
+	}
+
+	@Override
+	public void trimMemory(int level) {
+		if (delegate instanceof MemoryTrimmable) {
+			((MemoryTrimmable) delegate).trimMemory(level);
+		} else if (delegate instanceof TrimmableMemoryCache) {
+			MemoryTrimmer.trim((TrimmableMemoryCache) delegate, level);
+		} else if (MemoryTrimmer.percentageToKeep(level) == 0) {
+			delegate.clear();
+		}
+	}
+
+	/**
+	 * @return keys covering {@code requested} except itself, in ascending order of bounds
+	 */
+	private synchronized List<ImageKey> findCoveringKeys(ImageKey requested) {
+		Map<String, ImageKey> keys = keysBySizeClass.get(requested.sizeClass);
+		if (keys == null) {
+			return Collections.emptyList();
+		}
+
+		List<ImageKey> coveringKeys = new ArrayList<ImageKey>();
+		for (ImageKey candidate : keys.values()) {
+			if (!candidate.key.equals(requested.key) && candidate.covers(requested)) {
+				coveringKeys.add(candidate);
+			}
+		}
+		Collections.sort(coveringKeys, ImageKey.BOUNDS_COMPARATOR);
+		return coveringKeys;
+	}
+
+	/**
+	 * @return keys covered by {@code imageKey} except itself
+	 */
+	private synchronized List<ImageKey> findCoveredKeys(ImageKey imageKey) {
+		Map<String, ImageKey> keys = keysBySizeClass.get(imageKey.sizeClass);
+		if (keys == null) {
+			return Collections.emptyList();
+		}
+
+		List<ImageKey> coveredKeys = new ArrayList<ImageKey>();
+		for (ImageKey candidate : keys.values()) {
+			if (!candidate.key.equals(imageKey.key) && imageKey.covers(candidate)) {
+				coveredKeys.add(candidate);
+			}
+		}
+		return coveredKeys;
+	}
+
+	private synchronized void index(ImageKey imageKey) {
+		Map<String, ImageKey> keys = keysBySizeClass.get(imageKey.sizeClass);
+		if (keys == null) {
+			keys = new HashMap<String, ImageKey>();
+			keysBySizeClass.put(imageKey.sizeClass, keys);
+		}
+		if (keys.put(imageKey.key, imageKey) == null) {
+			indexedKeyCount++;
+		}
+
+		if (indexedKeyCount > pruneThreshold) {
+			pruneIndex();
+		}
+	}
+
+	private synchronized void unindex(ImageKey imageKey) {
+		Map<String, ImageKey> keys = keysBySizeClass.get(imageKey.sizeClass);
+		if (keys == null || keys.remove(imageKey.key) == null) {
+			return;
+		}
+		indexedKeyCount--;
+		if (keys.isEmpty()) {
+			keysBySizeClass.remove(imageKey.sizeClass);
+		}
+	}
+
+	/**
+	 * Forget the keys which have been evicted by the wrapped cache.
+	 * NOTE : This method must be called while holding the lock of this.
+	 */
+	private void pruneIndex() {
+		Set<String> cachedKeys = new HashSet<String>(delegate.keys());
+		Iterator<Map<String, ImageKey>> groups = keysBySizeClass.values().iterator();
+		while (groups.hasNext()) {
+			Map<String, ImageKey> keys = groups.next();
+			Iterator<String> iterator = keys.keySet().iterator();
+			while (iterator.hasNext()) {
+				if (!cachedKeys.contains(iterator.next())) {
+					iterator.remove();
+					indexedKeyCount--;
+				}
+			}
+			if (keys.isEmpty()) {
+				groups.remove();
+			}
+		}
+		pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, indexedKeyCount * 2);
+	}
+
+	private void scheduleDownscale(final ImageKey requested, final Bitmap larger) {
+		if (downscaleExecutor == null) {
+			return;
+		}
+
+		final int width = requested.resizedWidth(larger.getWidth(), larger.getHeight());
+		final int height = requested.resizedHeight(larger.getWidth(), larger.getHeight());
+		if (width <= 0 || height <= 0 || width > larger.getWidth() || height > larger.getHeight()
+				|| (long) larger.getWidth() * larger.getHeight() < (long) width * height * DOWNSCALE_PIXEL_RATIO) {
+			return;
+		}
+
+		synchronized (this) {
+			if (!pendingDownscales.add(requested.key)) {
+				return;
+			}
+		}
+
+		downscaleExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				boolean isPosted = false;
+				try {
+					final Bitmap downscaled = Bitmap.createScaledBitmap(larger, width, height, true);
+					// Put on the main thread, because ImageLoader of Volley uses the cache only on the main thread.
+					isPosted = mainHandler.post(new Runnable() {
+						@Override
+						public void run() {
+							removePendingDownscale(requested.key);
+							if (delegate.get(requested.key) == null) {
+								put(requested.key, downscaled);
+							}
+						}
+					});
+				} finally {
+					// Let the key be downscaled again, if scaling fails (ex. OOM, a recycled bitmap)
+					if (!isPosted) {
+						removePendingDownscale(requested.key);
+					}
+				}
+			}
+		});
+	}
+
+	private synchronized void removePendingDownscale(String key) {
+		pendingDownscales.remove(key);
+	}
+
+	/**
+	 * A parsed cache key of {@code ImageLoader}, which is "#W{maxWidth}#H{maxHeight}#S{scaleType.ordinal()}{url}".
+	 */
+	static class ImageKey {
+		/** Orders keys from the smallest bounds. 0 (unbounded) is the largest. */
+		private static final Comparator<ImageKey> BOUNDS_COMPARATOR = new Comparator<ImageKey>() {
+			@Override
+			public int compare(ImageKey lhs, ImageKey rhs) {
+				int result = compareBound(lhs.maxWidth, rhs.maxWidth);
+				return result != 0 ? result : compareBound(lhs.maxHeight, rhs.maxHeight);
+			}
+
+			private int compareBound(int lhs, int rhs) {
+				long lhsBound = lhs == 0 ? Long.MAX_VALUE : lhs;
+				long rhsBound = rhs == 0 ? Long.MAX_VALUE : rhs;
+				return lhsBound < rhsBound ? -1 : (lhsBound == rhsBound ? 0 : 1);
+			}
+		};
+
+		final String key;
+		final int maxWidth;
+		final int maxHeight;
+		final ScaleType scaleType;
+		/** The scale type and the url */
+		final String sizeClass;
+
+		private ImageKey(String key, int maxWidth, int maxHeight, ScaleType scaleType, String sizeClass) {
+			this.key = key;
+			this.maxWidth = maxWidth;
+			this.maxHeight = maxHeight;
+			this.scaleType = scaleType;
+			this.sizeClass = sizeClass;
+		}
+
+		/**
+		 * @return parsed key, or null if {@code key} is not a cache key of {@code ImageLoader}
+		 */
+		static ImageKey parse(String key) {
+			if (key == null || !key.startsWith("#W")) {
+				return null;
+			}
+			int heightIndex = key.indexOf("#H", 2);
+			int scaleTypeIndex = heightIndex < 0 ? -1 : key.indexOf("#S", heightIndex + 2);
+			// ScaleType has less than 10 values, so its ordinal is a single digit.
+			if (scaleTypeIndex < 0 || scaleTypeIndex + 3 > key.length()) {
+				return null;
+			}
+
+			try {
+				int maxWidth = Integer.parseInt(key.substring(2, heightIndex));
+				int maxHeight = Integer.parseInt(key.substring(heightIndex + 2, scaleTypeIndex));
+				int ordinal = Character.digit(key.charAt(scaleTypeIndex + 2), 10);
+				ScaleType[] scaleTypes = ScaleType.values();
+				if (maxWidth < 0 || maxHeight < 0 || ordinal < 0 || ordinal >= scaleTypes.length) {
+					return null;
+				}
+				return new ImageKey(key, maxWidth, maxHeight, scaleTypes[ordinal], key.substring(scaleTypeIndex + 2));
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+
+		/**
+		 * @return true if a bitmap decoded for this key can be served for {@code other}
+		 */
+		boolean covers(ImageKey other) {
+			return sizeClass.equals(other.sizeClass)
+					&& coversBound(maxWidth, other.maxWidth)
+					&& coversBound(maxHeight, other.maxHeight);
+		}
+
+		private static boolean coversBound(int bound, int otherBound) {
+			return bound == 0 || (otherBound != 0 && bound >= otherBound);
+		}
+
+		int resizedWidth(int actualWidth, int actualHeight) {
+			return resizedDimension(maxWidth, maxHeight, actualWidth, actualHeight, scaleType);
+		}
+
+		int resizedHeight(int actualWidth, int actualHeight) {
+			return resizedDimension(maxHeight, maxWidth, actualHeight, actualWidth, scaleType);
+		}
+
+		/**
+		 * Same as {@code ImageRequest.getResizedDimension()} of Volley, which decides the size of a decoded bitmap.
+		 */
+		private static int resizedDimension(int maxPrimary, int maxSecondary, int actualPrimary, int actualSecondary, ScaleType scaleType) {
+			if (maxPrimary == 0 && maxSecondary == 0) {
+				return actualPrimary;
+			}
+
+			if (scaleType == ScaleType.FIT_XY) {
+				return maxPrimary == 0 ? actualPrimary : maxPrimary;
+			}
+
+			if (maxPrimary == 0) {
+				double ratio = (double) maxSecondary / (double) actualSecondary;
+				return (int) (actualPrimary * ratio);
+			}
+
+			if (maxSecondary == 0) {
+				return maxPrimary;
+			}
+
+			double ratio = (double) actualSecondary / (double) actualPrimary;
+			int resized = maxPrimary;
+			if (scaleType == ScaleType.CENTER_CROP) {
+				if ((resized * ratio) < maxSecondary) {
+					resized = (int) (maxSecondary / ratio);
+				}
+				return resized;
+			}
+
+			if ((resized * ratio) > maxSecondary) {
+				resized = (int) (maxSecondary / ratio);
+			}
+			return resized;
+		}
+	}
+}
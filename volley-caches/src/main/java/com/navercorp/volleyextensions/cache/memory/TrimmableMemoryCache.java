@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+/**
+ * <pre>
+ * A memory cache which is limited by size, and can be trimmed to a smaller size than its limit.
+ * The victims of trimming are chosen by the eviction strategy of each cache. (ex. least recently used, largest)
+ * </pre>
+ * @see MemoryTrimmer
+ */
+public interface TrimmableMemoryCache {
+	/**
+	 * Evict entries until the size is not over {@code maxSize}.
+	 * Entries evicted by this method are not notified to a {@link BitmapEvictionListener}.
+	 * @param maxSize target size. 0 or less evicts all of the entries.
+	 */
+	void trimToSize(int maxSize);
+
+	/**
+	 * @return Current size of the cache
+	 */
+	int size();
+
+	/**
+	 * @return Maximum size of the cache
+	 */
+	int maxSize();
+}
@@ -20,6 +20,11 @@ import java.util.Collection;
 import android.graphics.Bitmap;
 
 import com.android.volley.toolbox.ImageLoader.ImageCache;
+import com.navercorp.volleyextensions.cache.memory.BitmapEvictionListener;
+import com.navercorp.volleyextensions.cache.memory.BitmapEvictionNotifier;
+import com.navercorp.volleyextensions.cache.memory.MemoryTrimmable;
+import com.navercorp.volleyextensions.cache.memory.MemoryTrimmer;
+import com.navercorp.volleyextensions.cache.memory.TrimmableMemoryCache;
 import com.navercorp.volleyextensions.util.Assert;
 import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
 
@@ -27,13 +32,20 @@ import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
  * <pre>
  * A wrapper class for {@link MemoryCacheAware}{@literal <String, Bitmap>}.
  * This class can be used as {@link ImageCache} or {@link MemoryCacheAware}{@literal <String, Bitmap>}.
+ *
+ * If the wrapped cache is a {@link BitmapEvictionNotifier}, the bitmaps evicted by it can be listened
+ * through {@link #setBitmapEvictionListener(BitmapEvictionListener)}. (ex. to count evictions)
+ *
+ * This class can also be trimmed on memory pressure by {@link #trimMemory(int)}. (See {@link MemoryTrimmer})
+ * If the wrapped cache is a {@link MemoryTrimmable} or a {@link TrimmableMemoryCache}, it is trimmed gradually according to the level.
+ * Otherwise, it is cleared only when all of the memory should be released.
  * </pre>
  * @see ImageCache
  * @see MemoryCacheAware
  * 
  */
 public class UniversalImageCache implements ImageCache,
-		MemoryCacheAware<String, Bitmap> {
+		MemoryCacheAware<String, Bitmap>, BitmapEvictionNotifier, MemoryTrimmable {
 
 	private final MemoryCacheAware<String, Bitmap> delegate;
 	/**
@@ -70,6 +82,38 @@ public class UniversalImageCache implements ImageCache,
 		this.delegate.clear();
 	}
 
+	/**
+	 * Set a listener for the bitmaps evicted by the wrapped cache.
+	 * @throws UnsupportedOperationException if the wrapped cache is not a {@link BitmapEvictionNotifier}
+	 */
+	@Override
+	public void setBitmapEvictionListener(BitmapEvictionListener listener) {
+		if (!(this.delegate instanceof BitmapEvictionNotifier)) {
+			throw new UnsupportedOperationException(this.delegate.getClass().getName() + " doesn't notify evicted bitmaps.");
+		}
+		((BitmapEvictionNotifier) this.delegate).setBitmapEvictionListener(listener);
+	}
+
+	/**
+	 * Trim the wrapped cache to the percentage of its maximum size for {@code level}.
+	 * @param level one of {@code ComponentCallbacks2.TRIM_MEMORY_*}
+	 * @see MemoryTrimmer#percentageToKeep(int)
+	 */
+	@Override
+	public void trimMemory(int level) {
+		if (this.delegate instanceof MemoryTrimmable) {
+			((MemoryTrimmable) this.delegate).trimMemory(level);
+			return;
+		}
+		if (this.delegate instanceof TrimmableMemoryCache) {
+			MemoryTrimmer.trim((TrimmableMemoryCache) this.delegate, level);
+			return;
+		}
+		if (MemoryTrimmer.percentageToKeep(level) == 0) {
+			this.delegate.clear();
+		}
+	}
+
 	@Override
 	public Bitmap getBitmap(String key) {
 		return get(key);
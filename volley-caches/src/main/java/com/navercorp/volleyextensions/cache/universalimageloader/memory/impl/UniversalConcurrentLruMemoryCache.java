@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.universalimageloader.memory.impl;
+
+import com.navercorp.volleyextensions.cache.memory.ConcurrentLruMemoryCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.UniversalImageCache;
+/**
+ * <pre>
+ * A wrapper class for {@link ConcurrentLruMemoryCache}
+ *
+ * Use this class instead of {@link UniversalLruMemoryCache}
+ * if {@code getBitmap()} on the main thread should not wait for other threads putting bitmaps.
+ * </pre>
+ * @see UniversalImageCache
+ * @see ConcurrentLruMemoryCache
+ */
+public class UniversalConcurrentLruMemoryCache extends UniversalImageCache {
+	/** @param maxSize Maximum sum of the sizes of the Bitmaps in this cache (in bytes) */
+	public UniversalConcurrentLruMemoryCache(int maxSize) {
+		super(new ConcurrentLruMemoryCache(maxSize));
+	}
+}
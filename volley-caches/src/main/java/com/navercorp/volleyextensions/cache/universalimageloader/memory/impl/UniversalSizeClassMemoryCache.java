@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.universalimageloader.memory.impl;
+
+import java.util.concurrent.Executor;
+
+import android.graphics.Bitmap;
+
+import com.navercorp.volleyextensions.cache.memory.SizeClassMemoryCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.UniversalImageCache;
+import com.nostra13.universalimageloader.cache.memory.MemoryCacheAware;
+/**
+ * <pre>
+ * A wrapper class for {@link SizeClassMemoryCache}
+ *
+ * It serves a bitmap decoded for larger bounds when the same url is requested for smaller bounds.
+ *
+ *		ImageCache imageCache = new UniversalSizeClassMemoryCache(new UniversalLruLimitedMemoryCache(cacheSize));
+ * </pre>
+ * @see UniversalImageCache
+ * @see SizeClassMemoryCache
+ *
+ */
+public class UniversalSizeClassMemoryCache extends UniversalImageCache {
+	/**
+	 * @param delegate Memory cache which stores bitmaps
+	 * @throws NullPointerException if {@code delegate} is null
+	 */
+	public UniversalSizeClassMemoryCache(MemoryCacheAware<String, Bitmap> delegate) {
+		super(new SizeClassMemoryCache(delegate));
+	}
+
+	/**
+	 * @param delegate Memory cache which stores bitmaps
+	 * @param downscaleExecutor Executor which downscales the bitmaps served for smaller bounds
+	 * @throws NullPointerException if {@code delegate} is null
+	 */
+	public UniversalSizeClassMemoryCache(MemoryCacheAware<String, Bitmap> delegate, Executor downscaleExecutor) {
+		super(new SizeClassMemoryCache(delegate, downscaleExecutor));
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * <pre>
+ * Utilities for the cache benchmarks.
+ *
+ * Benchmarks are excluded from the normal unit tests. Run them as below.
+ *
+ *		./gradlew :volley-caches:testDebugUnitTest -Pbenchmark
+ *
+ * - Entry counts can be changed by a system property, "benchmark.entryCounts". (default : 1000,10000,50000)
+ * - Results are printed, and appended to "build/benchmark-results/{suite}.csv" so that CI can archive and compare them.
+ * - A benchmark fails if a result exceeds its regression bound. The bounds are loose enough for CI machines,
+ *   and they can be scaled by a system property, "benchmark.boundScale". (default : 1)
+ * </pre>
+ */
+final class Benchmarks {
+	private static final String DEFAULT_ENTRY_COUNTS = "1000,10000,50000";
+	private static final String DEFAULT_BOUND_SCALE = "1";
+	private static final File RESULT_DIR = new File("build/benchmark-results");
+	/** Number of rounds of gets after a round for warming up JIT */
+	static final int MEASURED_ROUNDS = 3;
+
+	private Benchmarks() {
+	}
+
+	static int[] entryCounts() {
+		String[] values = System.getProperty("benchmark.entryCounts", DEFAULT_ENTRY_COUNTS).split(",");
+		int[] entryCounts = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			entryCounts[i] = Integer.parseInt(values[i].trim());
+		}
+		return entryCounts;
+	}
+
+	static double boundScale() {
+		return Double.parseDouble(System.getProperty("benchmark.boundScale", DEFAULT_BOUND_SCALE).trim());
+	}
+
+	static String keyOf(int index) {
+		return "http://me.do/benchmark/" + index + ".jpg";
+	}
+
+	/**
+	 * @return used heap after trying to collect garbage, which is an approximate value
+	 */
+	static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	static void report(String suite, String cacheName, int entryCount, String metric, double value, String unit) {
+		String line = String.format(Locale.US, "%s,%s,%d,%s,%.1f,%s", suite, cacheName, entryCount, metric, value, unit);
+		System.out.println("[benchmark] " + line);
+		append(suite, line);
+	}
+
+	/**
+	 * Report a result, and fail if it exceeds the bound scaled by {@link #boundScale()}.
+	 */
+	static void reportWithBound(String suite, String cacheName, int entryCount, String metric, double value, String unit,
+			double bound) {
+		report(suite, cacheName, entryCount, metric, value, unit);
+		double scaledBound = bound * boundScale();
+		if (value > scaledBound) {
+			throw new AssertionError(String.format(Locale.US, "%s of %s with %d entries regressed : %.1f %s > %.1f %s",
+					metric, cacheName, entryCount, value, unit, scaledBound, unit));
+		}
+	}
+
+	private static void append(String suite, String line) {
+		if (!RESULT_DIR.isDirectory() && !RESULT_DIR.mkdirs()) {
+			return;
+		}
+		Writer writer = null;
+		try {
+			writer = new FileWriter(new File(RESULT_DIR, suite + ".csv"), true);
+			writer.write(line);
+			writer.write('\n');
+		} catch (IOException e) {
+			System.err.println("[benchmark] Failed to write a result : " + e);
+		} finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException ignored) {
+				}
+			}
+		}
+	}
+}
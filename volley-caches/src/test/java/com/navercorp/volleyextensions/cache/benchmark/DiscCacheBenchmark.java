@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.benchmark;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import com.android.volley.Cache;
+import com.android.volley.Cache.Entry;
+import com.navercorp.volleyextensions.cache.disk.DiskBasedCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.disc.impl.UniversalFileCountLimitedDiscCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.disc.impl.UniversalLimitedAgeDiscCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.disc.impl.UniversalTotalSizeLimitedDiscCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.disc.impl.UniversalUnlimitedDiscCache;
+
+/**
+ * <pre>
+ * Benchmark of put/get latency, warm-up time and memory footprint of disc caches.
+ *
+ * - "fill" : time to put all of the entries into an empty cache
+ * - "warmUp" : time to create a new cache on the filled directory, initialize it and get the first entry.
+ *   It shows the cost of {@code initialize()} which runs when an application starts.
+ *   (AUIL disc caches calculate their sizes on a background thread, which is not included.)
+ * - "heapBytes" : used heap increased by the warmed up cache, which shows the size of its in-memory index.
+ * "put", "get", "warmUpPerEntry" and "heapBytesPerEntry" fail the benchmark if they exceed their regression bounds.
+ * </pre>
+ * @see Benchmarks
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest=Config.NONE)
+public class DiscCacheBenchmark {
+	private static final String SUITE = "disc-cache";
+	private static final int DATA_SIZE = 1024;
+	/** Regression bounds */
+	private static final double MAX_PUT_NANOS = 2000000;
+	private static final double MAX_GET_NANOS = 500000;
+	private static final double MAX_WARM_UP_NANOS_PER_ENTRY = 200000;
+	private static final double MAX_HEAP_BYTES_PER_ENTRY = 8192;
+
+	@Rule public TemporaryFolder folder = new TemporaryFolder();
+
+	private interface CacheFactory {
+		Cache create(File cacheDir, int entryCount);
+	}
+
+	@Test
+	public void diskBasedCache() throws IOException {
+		benchmark("DiskBasedCache", new CacheFactory() {
+			@Override
+			public Cache create(File cacheDir, int entryCount) {
+				return new DiskBasedCache(cacheDir, maxCacheSizeOf(entryCount));
+			}
+		});
+	}
+
+	@Test
+	public void universalFileCountLimitedDiscCache() throws IOException {
+		benchmark("UniversalFileCountLimitedDiscCache", new CacheFactory() {
+			@Override
+			public Cache create(File cacheDir, int entryCount) {
+				return new UniversalFileCountLimitedDiscCache(cacheDir, maxFileCountOf(entryCount));
+			}
+		});
+	}
+
+	@Test
+	public void universalLimitedAgeDiscCache() throws IOException {
+		benchmark("UniversalLimitedAgeDiscCache", new CacheFactory() {
+			@Override
+			public Cache create(File cacheDir, int entryCount) {
+				return new UniversalLimitedAgeDiscCache(cacheDir, 3600);
+			}
+		});
+	}
+
+	@Test
+	public void universalTotalSizeLimitedDiscCache() throws IOException {
+		benchmark("UniversalTotalSizeLimitedDiscCache", new CacheFactory() {
+			@Override
+			public Cache create(File cacheDir, int entryCount) {
+				return new UniversalTotalSizeLimitedDiscCache(cacheDir, maxCacheSizeOf(entryCount));
+			}
+		});
+	}
+
+	@Test
+	public void universalUnlimitedDiscCache() throws IOException {
+		benchmark("UniversalUnlimitedDiscCache", new CacheFactory() {
+			@Override
+			public Cache create(File cacheDir, int entryCount) {
+				return new UniversalUnlimitedDiscCache(cacheDir);
+			}
+		});
+	}
+
+	/** Enough count for all of the entries, with a margin for files being written */
+	private static int maxFileCountOf(int entryCount) {
+		return entryCount * 2;
+	}
+
+	/** Enough size for all of the entries including their headers */
+	private static int maxCacheSizeOf(int entryCount) {
+		return entryCount * DATA_SIZE * 2;
+	}
+
+	private void benchmark(String cacheName, CacheFactory factory) throws IOException {
+		for (int entryCount : Benchmarks.entryCounts()) {
+			measure(cacheName, entryCount, factory);
+		}
+	}
+
+	private void measure(String cacheName, int entryCount, CacheFactory factory) throws IOException {
+		File cacheDir = folder.newFolder();
+		String[] keys = new String[entryCount];
+		for (int i = 0; i < entryCount; i++) {
+			keys[i] = Benchmarks.keyOf(i);
+		}
+
+		Cache cache = factory.create(cacheDir, entryCount);
+		cache.initialize();
+		long startTime = System.nanoTime();
+		for (int i = 0; i < entryCount; i++) {
+			cache.put(keys[i], newEntry(i));
+		}
+		long fillNanos = System.nanoTime() - startTime;
+
+		long heapBefore = Benchmarks.usedHeap();
+		startTime = System.nanoTime();
+		Cache warmedUpCache = factory.create(cacheDir, entryCount);
+		warmedUpCache.initialize();
+		assertNotNull(warmedUpCache.get(keys[0]));
+		long warmUpNanos = System.nanoTime() - startTime;
+		long heapAfter = Benchmarks.usedHeap();
+
+		// A round for warming up JIT, and then measured rounds
+		readAll(warmedUpCache, keys);
+		startTime = System.nanoTime();
+		for (int round = 0; round < Benchmarks.MEASURED_ROUNDS; round++) {
+			readAll(warmedUpCache, keys);
+		}
+		long getNanos = System.nanoTime() - startTime;
+
+		Benchmarks.report(SUITE, cacheName, entryCount, "fill", fillNanos / 1000000.0, "ms");
+		Benchmarks.report(SUITE, cacheName, entryCount, "warmUp", warmUpNanos / 1000000.0, "ms");
+		Benchmarks.reportWithBound(SUITE, cacheName, entryCount, "warmUpPerEntry", (double) warmUpNanos / entryCount, "ns",
+				MAX_WARM_UP_NANOS_PER_ENTRY);
+		Benchmarks.reportWithBound(SUITE, cacheName, entryCount, "put", (double) fillNanos / entryCount, "ns/op", MAX_PUT_NANOS);
+		Benchmarks.reportWithBound(SUITE, cacheName, entryCount, "get",
+				(double) getNanos / (entryCount * Benchmarks.MEASURED_ROUNDS), "ns/op", MAX_GET_NANOS);
+		long heapBytes = Math.max(0, heapAfter - heapBefore);
+		Benchmarks.report(SUITE, cacheName, entryCount, "heapBytes", heapBytes, "bytes");
+		Benchmarks.reportWithBound(SUITE, cacheName, entryCount, "heapBytesPerEntry", (double) heapBytes / entryCount, "bytes",
+				MAX_HEAP_BYTES_PER_ENTRY);
+		warmedUpCache.clear();
+	}
+
+	private static Entry newEntry(int index) {
+		Entry entry = new Entry();
+		entry.data = new byte[DATA_SIZE];
+		Arrays.fill(entry.data, (byte) index);
+		entry.etag = "etag-" + index;
+		entry.serverDate = System.currentTimeMillis();
+		entry.ttl = Long.MAX_VALUE;
+		entry.softTtl = Long.MAX_VALUE;
+		return entry;
+	}
+
+	/** Read in a stride order, so that access patterns are not sequential */
+	private static void readAll(Cache cache, String[] keys) {
+		int stride = 7919;
+		for (int i = 0; i < keys.length; i++) {
+			String key = keys[(int) ((long) i * stride % keys.length)];
+			assertNotNull(key, cache.get(key));
+		}
+	}
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.benchmark;
+
+import static org.junit.Assert.*;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
+
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.UniversalImageCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.impl.UniversalConcurrentLruMemoryCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.impl.UniversalFifoLimitedMemoryCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.impl.UniversalFuzzyKeyMemoryCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.impl.UniversalLargestLimitedMemoryCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.impl.UniversalLimitedAgeMemoryCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.impl.UniversalLruLimitedMemoryCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.impl.UniversalLruMemoryCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.impl.UniversalSizeClassMemoryCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.impl.UniversalUsingFreqLimitedMemoryCache;
+import com.navercorp.volleyextensions.cache.universalimageloader.memory.impl.UniversalWeakMemoryCache;
+import com.nostra13.universalimageloader.cache.memory.impl.LruMemoryCache;
+
+/**
+ * <pre>
+ * Benchmark of put/get latency, warm-up time and memory footprint of memory caches.
+ *
+ * Each cache is given the budget for all of the entries, so every get is a hit.
+ * - "heapBytes" : used heap increased by filling the cache, which shows the overhead of its data structures.
+ *   (Pixels of bitmaps are not allocated in the JVM heap by Robolectric, so the heap doesn't include them.)
+ * "put", "get" and "heapBytesPerEntry" fail the benchmark if they exceed their regression bounds.
+ * </pre>
+ * @see Benchmarks
+ */
+@RunWith(RobolectricTestRunner.class)
+@org.robolectric.annotation.Config(manifest=org.robolectric.annotation.Config.NONE)
+public class MemoryCacheBenchmark {
+	private static final String SUITE = "memory-cache";
+	private static final int BITMAP_WIDTH = 8;
+	private static final int BITMAP_HEIGHT = 8;
+	private static final int BITMAP_BYTES = BITMAP_WIDTH * BITMAP_HEIGHT * 4;
+	/** FuzzyKeyMemoryCache compares the key with all of the keys on each put, so it is not measured at larger counts. */
+	private static final int MAX_ENTRY_COUNT_OF_FUZZY_KEY = 10000;
+	/** Regression bounds */
+	private static final double MAX_PUT_NANOS = 200000;
+	private static final double MAX_PUT_NANOS_OF_FUZZY_KEY = 5000000;
+	private static final double MAX_GET_NANOS = 20000;
+	private static final double MAX_HEAP_BYTES_PER_ENTRY = 8192;
+
+	private interface CacheFactory {
+		UniversalImageCache create(int maxSize);
+	}
+
+	@Test
+	public void universalLruMemoryCache() {
+		benchmark("UniversalLruMemoryCache", new CacheFactory() {
+			@Override
+			public UniversalImageCache create(int maxSize) {
+				return new UniversalLruMemoryCache(maxSize);
+			}
+		});
+	}
+
+	@Test
+	public void universalLruLimitedMemoryCache() {
+		benchmark("UniversalLruLimitedMemoryCache", new CacheFactory() {
+			@Override
+			public UniversalImageCache create(int maxSize) {
+				return new UniversalLruLimitedMemoryCache(maxSize);
+			}
+		});
+	}
+
+	@Test
+	public void universalFifoLimitedMemoryCache() {
+		benchmark("UniversalFifoLimitedMemoryCache", new CacheFactory() {
+			@Override
+			public UniversalImageCache create(int maxSize) {
+				return new UniversalFifoLimitedMemoryCache(maxSize);
+			}
+		});
+	}
+
+	@Test
+	public void universalLargestLimitedMemoryCache() {
+		benchmark("UniversalLargestLimitedMemoryCache", new CacheFactory() {
+			@Override
+			public UniversalImageCache create(int maxSize) {
+				return new UniversalLargestLimitedMemoryCache(maxSize);
+			}
+		});
+	}
+
+	@Test
+	public void universalUsingFreqLimitedMemoryCache() {
+		benchmark("UniversalUsingFreqLimitedMemoryCache", new CacheFactory() {
+			@Override
+			public UniversalImageCache create(int maxSize) {
+				return new UniversalUsingFreqLimitedMemoryCache(maxSize);
+			}
+		});
+	}
+
+	@Test
+	public void universalConcurrentLruMemoryCache() {
+		benchmark("UniversalConcurrentLruMemoryCache", new CacheFactory() {
+			@Override
+			public UniversalImageCache create(int maxSize) {
+				return new UniversalConcurrentLruMemoryCache(maxSize);
+			}
+		});
+	}
+
+	@Test
+	public void universalWeakMemoryCache() {
+		benchmark("UniversalWeakMemoryCache", new CacheFactory() {
+			@Override
+			public UniversalImageCache create(int maxSize) {
+				return new UniversalWeakMemoryCache();
+			}
+		});
+	}
+
+	@Test
+	public void universalLimitedAgeMemoryCache() {
+		benchmark("UniversalLimitedAgeMemoryCache", new CacheFactory() {
+			@Override
+			public UniversalImageCache create(int maxSize) {
+				return new UniversalLimitedAgeMemoryCache(new LruMemoryCache(maxSize), 3600);
+			}
+		});
+	}
+
+	@Test
+	public void universalSizeClassMemoryCache() {
+		benchmark("UniversalSizeClassMemoryCache", new CacheFactory() {
+			@Override
+			public UniversalImageCache create(int maxSize) {
+				return new UniversalSizeClassMemoryCache(new UniversalLruMemoryCache(maxSize));
+			}
+		});
+	}
+
+	@Test
+	public void universalFuzzyKeyMemoryCache() {
+		benchmark("UniversalFuzzyKeyMemoryCache", MAX_ENTRY_COUNT_OF_FUZZY_KEY, MAX_PUT_NANOS_OF_FUZZY_KEY, new CacheFactory() {
+			@Override
+			public UniversalImageCache create(int maxSize) {
+				return new UniversalFuzzyKeyMemoryCache(new LruMemoryCache(maxSize), new Comparator<String>() {
+					@Override
+					public int compare(String lhs, String rhs) {
+						return lhs.compareTo(rhs);
+					}
+				});
+			}
+		});
+	}
+
+	private void benchmark(String cacheName, CacheFactory factory) {
+		benchmark(cacheName, Integer.MAX_VALUE, MAX_PUT_NANOS, factory);
+	}
+
+	private void benchmark(String cacheName, int maxEntryCount, double maxPutNanos, CacheFactory factory) {
+		for (int entryCount : Benchmarks.entryCounts()) {
+			if (entryCount > maxEntryCount) {
+				continue;
+			}
+			measure(cacheName, entryCount, maxPutNanos, factory);
+		}
+	}
+
+	private void measure(String cacheName, int entryCount, double maxPutNanos, CacheFactory factory) {
+		Bitmap[] bitmaps = new Bitmap[entryCount];
+		String[] keys = new String[entryCount];
+		for (int i = 0; i < entryCount; i++) {
+			bitmaps[i] = Bitmap.createBitmap(BITMAP_WIDTH, BITMAP_HEIGHT, Config.ARGB_8888);
+			keys[i] = Benchmarks.keyOf(i);
+		}
+
+		long heapBefore = Benchmarks.usedHeap();
+		UniversalImageCache cache = factory.create(entryCount * BITMAP_BYTES);
+		// Warm-up : time to fill an empty cache
+		long startTime = System.nanoTime();
+		for (int i = 0; i < entryCount; i++) {
+			cache.putBitmap(keys[i], bitmaps[i]);
+		}
+		long fillNanos = System.nanoTime() - startTime;
+		long heapAfter = Benchmarks.usedHeap();
+
+		// A round for warming up JIT, and then measured rounds
+		readAll(cache, keys);
+		startTime = System.nanoTime();
+		for (int round = 0; round < Benchmarks.MEASURED_ROUNDS; round++) {
+			readAll(cache, keys);
+		}
+		long getNanos = System.nanoTime() - startTime;
+
+		Benchmarks.report(SUITE, cacheName, entryCount, "warmUp", fillNanos / 1000000.0, "ms");
+		long heapBytes = Math.max(0, heapAfter - heapBefore);
+		Benchmarks.reportWithBound(SUITE, cacheName, entryCount, "put", (double) fillNanos / entryCount, "ns/op", maxPutNanos);
+		Benchmarks.reportWithBound(SUITE, cacheName, entryCount, "get",
+				(double) getNanos / (entryCount * Benchmarks.MEASURED_ROUNDS), "ns/op", MAX_GET_NANOS);
+		Benchmarks.report(SUITE, cacheName, entryCount, "heapBytes", heapBytes, "bytes");
+		Benchmarks.reportWithBound(SUITE, cacheName, entryCount, "heapBytesPerEntry", (double) heapBytes / entryCount, "bytes",
+				MAX_HEAP_BYTES_PER_ENTRY);
+		cache.clear();
+		// Keep the bitmaps reachable until here, or weakly cached bitmaps can be collected while measuring.
+		assertEquals(entryCount, bitmaps.length);
+	}
+
+	/** Read in a stride order, so that access patterns are not sequential */
+	private static void readAll(UniversalImageCache cache, String[] keys) {
+		int stride = 7919;
+		for (int i = 0; i < keys.length; i++) {
+			String key = keys[(int) ((long) i * stride % keys.length)];
+			assertNotNull(key, cache.getBitmap(key));
+		}
+	}
+}
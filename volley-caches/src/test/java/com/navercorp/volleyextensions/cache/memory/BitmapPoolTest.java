@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
+import android.graphics.BitmapFactory;
+
+@RunWith(RobolectricTestRunner.class)
+@org.robolectric.annotation.Config(manifest=org.robolectric.annotation.Config.NONE)
+public class BitmapPoolTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorShouldThrowIaeWhenMaxSizeIsNotPositive() {
+		new BitmapPool(0);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void putShouldThrowNpeWhenBitmapIsNull() {
+		new BitmapPool(100).put(null);
+	}
+
+	@Test
+	public void mutableBitmapShouldBeReused() {
+		// Given
+		BitmapPool pool = new BitmapPool(1000);
+		Bitmap bitmap = Bitmap.createBitmap(10, 10, Config.ARGB_8888);
+		pool.put(bitmap);
+		// When
+		Bitmap reused = pool.get(10, 10, Config.ARGB_8888);
+		// Then
+		assertThat(reused, is(bitmap));
+		assertThat(pool.size(), is(0));
+	}
+
+	@Test
+	public void immutableBitmapShouldNotBePooled() {
+		// Given
+		BitmapPool pool = new BitmapPool(1000);
+		Bitmap immutable = Bitmap.createBitmap(10, 10, Config.ARGB_8888).copy(Config.ARGB_8888, false);
+		// When
+		boolean pooled = pool.put(immutable);
+		// Then
+		assertThat(pooled, is(false));
+		assertThat(pool.size(), is(0));
+	}
+
+	@Test
+	public void largerBitmapShouldBeReusedForSmallerSize() {
+		// Given
+		BitmapPool pool = new BitmapPool(1000);
+		Bitmap bitmap = Bitmap.createBitmap(10, 10, Config.ARGB_8888);
+		pool.put(bitmap);
+		// When
+		Bitmap reused = pool.get(8, 8, Config.ARGB_8888);
+		// Then
+		assertThat(reused, is(bitmap));
+		assertThat(reused.getWidth(), is(8));
+		assertThat(reused.getHeight(), is(8));
+	}
+
+	@Test
+	public void muchLargerBitmapShouldNotBeReused() {
+		// Given
+		BitmapPool pool = new BitmapPool(1000);
+		pool.put(Bitmap.createBitmap(10, 10, Config.ARGB_8888));
+		// When
+		Bitmap reused = pool.get(2, 2, Config.ARGB_8888);
+		// Then
+		assertNull(reused);
+	}
+
+	@Test
+	public void bitmapOfDifferentConfigShouldNotBeReused() {
+		// Given
+		BitmapPool pool = new BitmapPool(1000);
+		pool.put(Bitmap.createBitmap(10, 10, Config.ARGB_8888));
+		// When
+		Bitmap reused = pool.get(10, 10, Config.RGB_565);
+		// Then
+		assertNull(reused);
+	}
+
+	@Test
+	public void oldestBitmapShouldBeDroppedWhenPoolIsFull() {
+		// Given
+		BitmapPool pool = new BitmapPool(100);
+		Bitmap oldest = Bitmap.createBitmap(1, 60, Config.ALPHA_8);
+		Bitmap newest = Bitmap.createBitmap(1, 50, Config.ALPHA_8);
+		pool.put(oldest);
+		// When
+		pool.put(newest);
+		// Then
+		assertThat(pool.size(), is(50));
+		assertThat(pool.get(1, 60, Config.ALPHA_8), is(nullValue()));
+		assertThat(pool.get(1, 50, Config.ALPHA_8), is(newest));
+	}
+
+	@Test
+	public void inBitmapShouldBeSetForSampledSize() {
+		// Given
+		BitmapPool pool = new BitmapPool(1000);
+		Bitmap bitmap = Bitmap.createBitmap(10, 10, Config.ARGB_8888);
+		pool.put(bitmap);
+		BitmapFactory.Options options = new BitmapFactory.Options();
+		options.outWidth = 20;
+		options.outHeight = 19;
+		options.inSampleSize = 2;
+		// When
+		boolean added = pool.addInBitmapOptions(options);
+		// Then
+		assertThat(added, is(true));
+		assertThat(options.inBitmap, is(bitmap));
+		assertThat(options.inMutable, is(true));
+	}
+
+	@Test
+	public void inBitmapShouldNotBeSetWhenBoundsAreNotDecoded() {
+		// Given
+		BitmapPool pool = new BitmapPool(1000);
+		pool.put(Bitmap.createBitmap(10, 10, Config.ARGB_8888));
+		BitmapFactory.Options options = new BitmapFactory.Options();
+		// When
+		boolean added = pool.addInBitmapOptions(options);
+		// Then
+		assertThat(added, is(false));
+		assertNull(options.inBitmap);
+	}
+}
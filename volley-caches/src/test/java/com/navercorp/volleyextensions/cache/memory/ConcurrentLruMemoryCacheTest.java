@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@org.robolectric.annotation.Config(manifest=org.robolectric.annotation.Config.NONE)
+public class ConcurrentLruMemoryCacheTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorShouldThrowIaeWhenMaxSizeIsNotPositive() {
+		new ConcurrentLruMemoryCache(0);
+	}
+
+	@Test
+	public void sizeShouldBeSumOfBitmapBytes() {
+		// Given
+		ConcurrentLruMemoryCache cache = new ConcurrentLruMemoryCache(100);
+		// When
+		cache.put("a", Bitmap.createBitmap(1, 10, Config.ALPHA_8));
+		cache.put("b", Bitmap.createBitmap(1, 20, Config.ALPHA_8));
+		// Then
+		assertThat(cache.size(), is(30));
+	}
+
+	@Test
+	public void sizeShouldBeReplacedWhenSameKeyIsPut() {
+		// Given
+		ConcurrentLruMemoryCache cache = new ConcurrentLruMemoryCache(100);
+		cache.put("a", Bitmap.createBitmap(1, 10, Config.ALPHA_8));
+		// When
+		cache.put("a", Bitmap.createBitmap(1, 20, Config.ALPHA_8));
+		// Then
+		assertThat(cache.size(), is(20));
+		assertThat(cache.keys().size(), is(1));
+	}
+
+	@Test
+	public void sizeShouldBeDecreasedWhenRemoved() {
+		// Given
+		ConcurrentLruMemoryCache cache = new ConcurrentLruMemoryCache(100);
+		cache.put("a", Bitmap.createBitmap(1, 10, Config.ALPHA_8));
+		cache.put("b", Bitmap.createBitmap(1, 20, Config.ALPHA_8));
+		// When
+		cache.remove("a");
+		// Then
+		assertNull(cache.get("a"));
+		assertThat(cache.size(), is(20));
+	}
+
+	@Test
+	public void putShouldReturnFalseWhenBitmapExceedsMaxSize() {
+		// Given
+		ConcurrentLruMemoryCache cache = new ConcurrentLruMemoryCache(10);
+		// When
+		boolean isCached = cache.put("a", Bitmap.createBitmap(10, 10, Config.ALPHA_8));
+		// Then
+		assertFalse(isCached);
+		assertThat(cache.size(), is(0));
+	}
+
+	@Test
+	public void clearShouldRemoveAllBitmaps() {
+		// Given
+		ConcurrentLruMemoryCache cache = new ConcurrentLruMemoryCache(100);
+		cache.put("a", Bitmap.createBitmap(1, 10, Config.ALPHA_8));
+		// When
+		cache.clear();
+		// Then
+		assertTrue(cache.keys().isEmpty());
+		assertThat(cache.size(), is(0));
+	}
+
+	@Test
+	public void leastRecentlyUsedBitmapShouldBeEvicted() {
+		// Given
+		ConcurrentLruMemoryCache cache = new ConcurrentLruMemoryCache(50);
+		cache.put("a", Bitmap.createBitmap(1, 10, Config.ALPHA_8));
+		cache.put("b", Bitmap.createBitmap(1, 20, Config.ALPHA_8));
+		cache.put("c", Bitmap.createBitmap(1, 10, Config.ALPHA_8));
+		cache.get("a");
+		cache.get("c");
+		// When
+		cache.put("d", Bitmap.createBitmap(1, 20, Config.ALPHA_8));
+		// Then
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+		assertNotNull(cache.get("d"));
+		assertThat(cache.size(), is(40));
+	}
+
+	@Test
+	public void evictedBitmapShouldBeNotifiedToListener() {
+		// Given
+		ConcurrentLruMemoryCache cache = new ConcurrentLruMemoryCache(30);
+		RecordingEvictionListener listener = new RecordingEvictionListener();
+		cache.setBitmapEvictionListener(listener);
+		Bitmap first = Bitmap.createBitmap(1, 20, Config.ALPHA_8);
+		cache.put("a", first);
+		// When
+		cache.put("b", Bitmap.createBitmap(1, 20, Config.ALPHA_8));
+		// Then
+		assertThat(listener.keys.size(), is(1));
+		assertThat(listener.keys.get(0), is("a"));
+		assertThat(listener.bitmaps.get(0), is(first));
+	}
+
+	@Test
+	public void removedBitmapShouldNotBeNotifiedToListener() {
+		// Given
+		ConcurrentLruMemoryCache cache = new ConcurrentLruMemoryCache(30);
+		RecordingEvictionListener listener = new RecordingEvictionListener();
+		cache.setBitmapEvictionListener(listener);
+		cache.put("a", Bitmap.createBitmap(1, 20, Config.ALPHA_8));
+		// When
+		cache.remove("a");
+		cache.clear();
+		// Then
+		assertThat(listener.keys.isEmpty(), is(true));
+	}
+
+	@Test
+	public void leastRecentlyUsedBitmapsShouldBeTrimmedWithoutNotification() {
+		// Given
+		ConcurrentLruMemoryCache cache = new ConcurrentLruMemoryCache(100);
+		RecordingEvictionListener listener = new RecordingEvictionListener();
+		cache.setBitmapEvictionListener(listener);
+		cache.put("a", Bitmap.createBitmap(1, 30, Config.ALPHA_8));
+		cache.put("b", Bitmap.createBitmap(1, 30, Config.ALPHA_8));
+		cache.put("c", Bitmap.createBitmap(1, 30, Config.ALPHA_8));
+		cache.get("a");
+		// When
+		cache.trimToSize(60);
+		// Then
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertThat(cache.size(), is(60));
+		assertThat(listener.keys.isEmpty(), is(true));
+	}
+
+	@Test
+	public void sizeShouldNotExceedMaxSizeOnConcurrentPuts() throws InterruptedException {
+		// Given
+		final int maxSize = 100;
+		final ConcurrentLruMemoryCache cache = new ConcurrentLruMemoryCache(maxSize);
+		final Bitmap bitmap = Bitmap.createBitmap(1, 10, Config.ALPHA_8);
+		int threadCount = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		final CountDownLatch latch = new CountDownLatch(threadCount);
+		// When
+		for (int i = 0; i < threadCount; ++i) {
+			final int thread = i;
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 500; ++j) {
+						cache.put(thread + "-" + j, bitmap);
+						cache.get(thread + "-" + (j / 2));
+					}
+					latch.countDown();
+				}
+			});
+		}
+		latch.await(10, TimeUnit.SECONDS);
+		executor.shutdown();
+		// Then
+		assertThat(cache.size(), is(cache.keys().size() * 10));
+		assertTrue(cache.size() <= maxSize);
+	}
+
+	private static class RecordingEvictionListener implements BitmapEvictionListener {
+		private final List<String> keys = new ArrayList<String>();
+		private final List<Bitmap> bitmaps = new ArrayList<Bitmap>();
+
+		@Override
+		public void onBitmapEvicted(String key, Bitmap bitmap) {
+			keys.add(key);
+			bitmaps.add(bitmap);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+
+@RunWith(RobolectricTestRunner.class)
+@org.robolectric.annotation.Config(manifest=org.robolectric.annotation.Config.NONE)
+public class MemoryTrimmerTest {
+
+	@Test
+	public void percentageToKeepShouldDecreaseAsLevelIsMoreCritical() {
+		assertThat(MemoryTrimmer.percentageToKeep(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE), is(100));
+		assertThat(MemoryTrimmer.percentageToKeep(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW), is(50));
+		assertThat(MemoryTrimmer.percentageToKeep(ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL), is(25));
+		assertThat(MemoryTrimmer.percentageToKeep(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN), is(50));
+		assertThat(MemoryTrimmer.percentageToKeep(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND), is(25));
+		assertThat(MemoryTrimmer.percentageToKeep(ComponentCallbacks2.TRIM_MEMORY_MODERATE), is(0));
+		assertThat(MemoryTrimmer.percentageToKeep(ComponentCallbacks2.TRIM_MEMORY_COMPLETE), is(0));
+	}
+
+	@Test
+	public void cacheShouldBeTrimmedToPercentageOfMaxSize() {
+		// Given
+		TrimmableMemoryCache cache = mock(TrimmableMemoryCache.class);
+		given(cache.maxSize()).willReturn(1000);
+		// When
+		MemoryTrimmer.trim(cache, ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+		// Then
+		verify(cache).trimToSize(250);
+	}
+
+	@Test
+	public void cacheShouldNotBeTrimmedWhenLevelIsModerate() {
+		// Given
+		TrimmableMemoryCache cache = mock(TrimmableMemoryCache.class);
+		given(cache.maxSize()).willReturn(1000);
+		// When
+		MemoryTrimmer.trim(cache, ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+		// Then
+		verify(cache, never()).trimToSize(anyInt());
+	}
+
+	@Test
+	public void trimmablesShouldBeTrimmedOnLowMemory() {
+		// Given
+		MemoryTrimmable first = mock(MemoryTrimmable.class);
+		MemoryTrimmable second = mock(MemoryTrimmable.class);
+		MemoryTrimmer memoryTrimmer = new MemoryTrimmer(first, second);
+		// When
+		memoryTrimmer.onLowMemory();
+		// Then
+		verify(first).trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+		verify(second).trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+	}
+
+	@Test
+	public void memoryTrimmerShouldBeRegisteredToApplicationContext() {
+		// Given
+		Context context = mock(Context.class);
+		Context applicationContext = mock(Context.class);
+		given(context.getApplicationContext()).willReturn(applicationContext);
+		// When
+		MemoryTrimmer memoryTrimmer = MemoryTrimmer.register(context, mock(MemoryTrimmable.class));
+		memoryTrimmer.unregister(context);
+		// Then
+		verify(applicationContext).registerComponentCallbacks(memoryTrimmer);
+		verify(applicationContext).unregisterComponentCallbacks(memoryTrimmer);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void constructorShouldThrowNpeWhenTrimmableIsNull() {
+		new MemoryTrimmer((MemoryTrimmable) null);
+	}
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.cache.memory;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
+import android.widget.ImageView.ScaleType;
+
+@RunWith(RobolectricTestRunner.class)
+@org.robolectric.annotation.Config(manifest=org.robolectric.annotation.Config.NONE)
+public class SizeClassMemoryCacheTest {
+	private static final String URL = "http://me.do/test1.jpg";
+	private static final Executor DIRECT_EXECUTOR = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	@Test(expected = NullPointerException.class)
+	public void constructorShouldThrowNpeWhenDelegateIsNull() {
+		new SizeClassMemoryCache(null);
+	}
+
+	@Test
+	public void largerBitmapShouldBeServedForSmallerBounds() {
+		// Given
+		SizeClassMemoryCache cache = new SizeClassMemoryCache(new ConcurrentLruMemoryCache(1000000));
+		Bitmap larger = Bitmap.createBitmap(200, 200, Config.ARGB_8888);
+		cache.put(keyOf(200, 200, ScaleType.CENTER_INSIDE, URL), larger);
+		// When
+		Bitmap hit = cache.get(keyOf(100, 100, ScaleType.CENTER_INSIDE, URL));
+		// Then
+		assertThat(hit, is(larger));
+	}
+
+	@Test
+	public void unboundedBitmapShouldBeServedForAnyBounds() {
+		// Given
+		SizeClassMemoryCache cache = new SizeClassMemoryCache(new ConcurrentLruMemoryCache(1000000));
+		Bitmap original = Bitmap.createBitmap(200, 200, Config.ARGB_8888);
+		cache.put(keyOf(0, 0, ScaleType.CENTER_INSIDE, URL), original);
+		// When
+		Bitmap hit = cache.get(keyOf(300, 0, ScaleType.CENTER_INSIDE, URL));
+		// Then
+		assertThat(hit, is(original));
+	}
+
+	@Test
+	public void smallerBitmapShouldNotBeServedForLargerBounds() {
+		// Given
+		SizeClassMemoryCache cache = new SizeClassMemoryCache(new ConcurrentLruMemoryCache(1000000));
+		cache.put(keyOf(100, 100, ScaleType.CENTER_INSIDE, URL), Bitmap.createBitmap(100, 100, Config.ARGB_8888));
+		// When
+		Bitmap hit = cache.get(keyOf(200, 100, ScaleType.CENTER_INSIDE, URL));
+		// Then
+		assertNull(hit);
+	}
+
+	@Test
+	public void bitmapOfDifferentScaleTypeShouldNotBeServed() {
+		// Given
+		SizeClassMemoryCache cache = new SizeClassMemoryCache(new ConcurrentLruMemoryCache(1000000));
+		cache.put(keyOf(200, 200, ScaleType.CENTER_INSIDE, URL), Bitmap.createBitmap(200, 200, Config.ARGB_8888));
+		// When
+		Bitmap hit = cache.get(keyOf(100, 100, ScaleType.CENTER_CROP, URL));
+		// Then
+		assertNull(hit);
+	}
+
+	@Test
+	public void coveredBitmapShouldBeRemovedWhenLargerBitmapIsPut() {
+		// Given
+		ConcurrentLruMemoryCache delegate = new ConcurrentLruMemoryCache(1000000);
+		SizeClassMemoryCache cache = new SizeClassMemoryCache(delegate);
+		String smallerKey = keyOf(100, 100, ScaleType.CENTER_INSIDE, URL);
+		cache.put(smallerKey, Bitmap.createBitmap(100, 100, Config.ARGB_8888));
+		// When
+		cache.put(keyOf(200, 200, ScaleType.CENTER_INSIDE, URL), Bitmap.createBitmap(200, 200, Config.ARGB_8888));
+		// Then
+		assertNull(delegate.get(smallerKey));
+	}
+
+	@Test
+	public void evictedBitmapShouldNotBeServed() {
+		// Given
+		SizeClassMemoryCache cache = new SizeClassMemoryCache(new ConcurrentLruMemoryCache(1000000));
+		String largerKey = keyOf(200, 200, ScaleType.CENTER_INSIDE, URL);
+		cache.put(largerKey, Bitmap.createBitmap(200, 200, Config.ARGB_8888));
+		// When
+		cache.remove(largerKey);
+		// Then
+		assertNull(cache.get(keyOf(100, 100, ScaleType.CENTER_INSIDE, URL)));
+	}
+
+	@Test
+	public void keyNotMadeByImageLoaderShouldBePassedAsItIs() {
+		// Given
+		SizeClassMemoryCache cache = new SizeClassMemoryCache(new ConcurrentLruMemoryCache(1000000));
+		Bitmap bitmap = Bitmap.createBitmap(10, 10, Config.ARGB_8888);
+		// When
+		cache.put(URL, bitmap);
+		// Then
+		assertThat(cache.get(URL), is(bitmap));
+		assertThat(cache.keys().contains(URL), is(true));
+	}
+
+	@Test
+	public void muchLargerBitmapShouldBeDownscaledForRequestedKey() {
+		// Given
+		// Bitmaps scaled by Robolectric have no config, so their sizes are measured by pixels.
+		ConcurrentLruMemoryCache delegate = new ConcurrentLruMemoryCache(1000000) {
+			@Override
+			protected int sizeOf(String key, Bitmap value) {
+				return value.getWidth() * value.getHeight();
+			}
+		};
+		SizeClassMemoryCache cache = new SizeClassMemoryCache(delegate, DIRECT_EXECUTOR);
+		cache.put(keyOf(0, 0, ScaleType.CENTER_INSIDE, URL), Bitmap.createBitmap(400, 200, Config.ARGB_8888));
+		String requestedKey = keyOf(100, 100, ScaleType.CENTER_INSIDE, URL);
+		// When
+		cache.get(requestedKey);
+		ShadowLooper.runUiThreadTasks();
+		// Then
+		Bitmap downscaled = cache.get(requestedKey);
+		assertThat(downscaled.getWidth(), is(100));
+		assertThat(downscaled.getHeight(), is(50));
+	}
+
+	@Test
+	public void failedDownscaleShouldBeScheduledAgain() {
+		// Given
+		final List<Runnable> tasks = new ArrayList<Runnable>();
+		SizeClassMemoryCache cache = new SizeClassMemoryCache(new ConcurrentLruMemoryCache(1000000), new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				tasks.add(command);
+			}
+		});
+		Bitmap larger = Bitmap.createBitmap(400, 200, Config.ARGB_8888);
+		cache.put(keyOf(0, 0, ScaleType.CENTER_INSIDE, URL), larger);
+		String requestedKey = keyOf(100, 100, ScaleType.CENTER_INSIDE, URL);
+		cache.get(requestedKey);
+		larger.recycle();
+		// When
+		try {
+			tasks.get(0).run();
+			fail();
+		} catch (RuntimeException e) {
+			// Scaling a recycled bitmap fails.
+		}
+		cache.get(requestedKey);
+		// Then
+		assertThat(tasks.size(), is(2));
+	}
+
+	@Test
+	public void imageLoaderKeyShouldBeParsed() {
+		// When
+		SizeClassMemoryCache.ImageKey imageKey = SizeClassMemoryCache.ImageKey.parse(keyOf(120, 0, ScaleType.FIT_XY, URL));
+		// Then
+		assertThat(imageKey.maxWidth, is(120));
+		assertThat(imageKey.maxHeight, is(0));
+		assertThat(imageKey.scaleType, is(ScaleType.FIT_XY));
+	}
+
+	@Test
+	public void invalidKeyShouldNotBeParsed() {
+		assertNull(SizeClassMemoryCache.ImageKey.parse("#Wabc#H10#S1" + URL));
+		assertNull(SizeClassMemoryCache.ImageKey.parse("#W10#H10" + URL));
+		assertNull(SizeClassMemoryCache.ImageKey.parse(URL));
+	}
+
+	/** Same as {@code ImageLoader.getCacheKey()} of Volley */
+	private static String keyOf(int maxWidth, int maxHeight, ScaleType scaleType, String url) {
+		return "#W" + maxWidth + "#H" + maxHeight + "#S" + scaleType.ordinal() + url;
+	}
+}
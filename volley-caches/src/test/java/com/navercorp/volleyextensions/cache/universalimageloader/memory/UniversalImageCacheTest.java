@@ -30,6 +30,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
 
+import android.content.ComponentCallbacks2;
 import android.graphics.Bitmap;
 import android.graphics.Bitmap.Config;
 
@@ -113,4 +114,26 @@ public class UniversalImageCacheTest {
 		// Then
 		assertTrue(keys.contains(key));
 	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void setBitmapEvictionListenerShouldThrowUoeWhenDelegateDoesNotNotify() {
+		// When
+		imageCache.setBitmapEvictionListener(null);
+	}
+
+	@Test
+	public void clearShouldBeCalledWhenAllMemoryShouldBeReleased() {
+		// When
+		imageCache.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+		// Then
+		verify(delegate).clear();
+	}
+
+	@Test
+	public void clearShouldNotBeCalledWhenUiIsHidden() {
+		// When
+		imageCache.trimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+		// Then
+		verify(delegate, never()).clear();
+	}
 }
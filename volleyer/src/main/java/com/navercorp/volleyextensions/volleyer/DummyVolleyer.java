@@ -61,6 +61,11 @@ class DummyVolleyer extends Volleyer {
 		return null;
 	}
 
+	@Override
+	public void cancelAll(Object tag) {
+		throwError();
+	}
+
 	@Override
 	public Settings settings() {
 		throwError();
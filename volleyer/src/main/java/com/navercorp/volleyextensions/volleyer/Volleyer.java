@@ -23,6 +23,9 @@ import com.android.volley.RequestQueue;
 import com.android.volley.RetryPolicy;
 import com.navercorp.volleyextensions.volleyer.builder.*;
 import com.navercorp.volleyextensions.volleyer.factory.DefaultVolleyerConfigurationFactory;
+import com.navercorp.volleyextensions.volleyer.request.AdaptiveRetryPolicy;
+import com.navercorp.volleyextensions.volleyer.request.RequestGroup;
+import com.navercorp.volleyextensions.volleyer.request.RetryPolicyFactory;
 import com.navercorp.volleyextensions.volleyer.util.Assert;
 import com.navercorp.volleyextensions.volleyer.util.VolleyerLog;
 
@@ -84,6 +87,10 @@ public class Volleyer {
 	 * A RetryPolicy instance which is used by {@code Volleyer}.
 	 */
 	private volatile RetryPolicy retryPolicy;
+	/**
+	 * A RetryPolicyFactory instance which is used by {@code Volleyer} instead of {@code retryPolicy} if it is set.
+	 */
+	private volatile RetryPolicyFactory retryPolicyFactory;
 
 	/**
 	 * Default Constructor
@@ -145,7 +152,7 @@ public class Volleyer {
 	 * @return Builder which can make a request by using method chaining style.
 	 */
 	public GetBuilder get(String url) {
-		return new GetBuilder(requestQueue, configuration, url, retryPolicy);
+		return applyRetryPolicyFactory(new GetBuilder(requestQueue, configuration, url, retryPolicy));
 	}
 
 	/**
@@ -154,7 +161,7 @@ public class Volleyer {
 	 * @return Builder which can make a request by using method chaining style.
 	 */
 	public PostBuilder post(String url) {
-		return new PostBuilder(requestQueue, configuration, url, retryPolicy);
+		return applyRetryPolicyFactory(new PostBuilder(requestQueue, configuration, url, retryPolicy));
 	}
 
 	/**
@@ -163,7 +170,7 @@ public class Volleyer {
 	 * @return Builder which can make a request by using method chaining style.
 	 */
 	public PutBuilder put(String url) {
-		return new PutBuilder(requestQueue, configuration, url, retryPolicy);
+		return applyRetryPolicyFactory(new PutBuilder(requestQueue, configuration, url, retryPolicy));
 	}
 
 	/**
@@ -172,7 +179,35 @@ public class Volleyer {
 	 * @return Builder which can make a request by using method chaining style.
 	 */
 	public DeleteBuilder delete(String url) {
-		return new DeleteBuilder(requestQueue, configuration, url, retryPolicy);
+		return applyRetryPolicyFactory(new DeleteBuilder(requestQueue, configuration, url, retryPolicy));
+	}
+
+	private <B extends RequestBuilder<B>> B applyRetryPolicyFactory(B builder) {
+		RetryPolicyFactory factory = retryPolicyFactory;
+		if (factory != null) {
+			builder.setRetryPolicyFactory(factory);
+		}
+		return builder;
+	}
+
+	/**
+	 * Start to make a batch of requests, which delivers one aggregated result.
+	 * Add ResponseBuilders made by this or another volleyer into it.
+	 * @return Builder which can execute requests together by using method chaining style.
+	 * @see BatchBuilder
+	 */
+	public BatchBuilder batch() {
+		return new BatchBuilder();
+	}
+
+	/**
+	 * Cancel all of the requests which have the tag in the RequestQueue of this volleyer.
+	 * Requests added into a {@link RequestGroup} without their own tags can be canceled by the group as a tag.
+	 * @param tag tag set by {@code setTag()} of the builders, must not be null
+	 */
+	public void cancelAll(Object tag) {
+		Assert.notNull(tag, "Tag");
+		requestQueue.cancelAll(tag);
 	}
 
 	/**
@@ -200,6 +235,7 @@ public class Volleyer {
 	public class Settings {
 		private Settings() {}
 		private VolleyerConfiguration configuration;
+		private RetryPolicyFactory retryPolicyFactory;
 		private boolean isDefaultVolleyer = false;
 
 		/**
@@ -213,6 +249,20 @@ public class Volleyer {
 			return this;
 		}
 
+		/**
+		 * <pre>
+		 * Set a factory which creates a RetryPolicy for each request of this volleyer.
+		 * For example, {@link AdaptiveRetryPolicy.Factory} stops retry storms during incidents of a server.
+		 * </pre>
+		 * @param retryPolicyFactory RetryPolicyFactory instance
+		 * @return this Settings instance.
+		 */
+		public Settings setRetryPolicyFactory(RetryPolicyFactory retryPolicyFactory) {
+			Assert.notNull(retryPolicyFactory, "RetryPolicyFactory");
+			this.retryPolicyFactory = retryPolicyFactory;
+			return this;
+		}
+
 		/**
 		 * <pre>
 		 * Set this volleyer as default.
@@ -230,6 +280,7 @@ public class Volleyer {
 		 */
 		public void done() {
 			setConfigurationToVolleyerIfNotNull();
+			setRetryPolicyFactoryToVolleyerIfNotNull();
 			setDefaultVolleyerIfTrue();
 		}
 
@@ -241,6 +292,14 @@ public class Volleyer {
 			Volleyer.this.configuration = configuration;
 		}
 
+		private void setRetryPolicyFactoryToVolleyerIfNotNull() {
+			if(retryPolicyFactory == null) {
+				return;
+			}
+
+			Volleyer.this.retryPolicyFactory = retryPolicyFactory;
+		}
+
 		private void setDefaultVolleyerIfTrue() {
 			if(isDefaultVolleyer == false) {
 				return;
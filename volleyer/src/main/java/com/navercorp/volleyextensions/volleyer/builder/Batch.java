@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.builder;
+
+import java.util.List;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.android.volley.Request;
+import com.android.volley.Response.ErrorListener;
+import com.android.volley.Response.Listener;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+/**
+ * <pre>
+ * Requests being executed by {@link BatchBuilder}.
+ * It collects results of the requests, and delivers a {@link BatchResult} to {@link BatchListener} once
+ * when the batch is completed by its {@link BatchBuilder.Mode} or its deadline.
+ * Requests which are not completed at that time are canceled.
+ *
+ * A {@link VolleyerRequest} canceled from outside of the batch (ex. {@code RequestQueue.cancelAll(tag)})
+ * is completed as a canceled one, because Volley never delivers its result.
+ * </pre>
+ */
+public final class Batch {
+	private final BatchBuilder.Mode mode;
+	private final BatchListener listener;
+	private final Handler handler = new Handler(Looper.getMainLooper());
+	private final Runnable timeoutRunnable = new Runnable() {
+		@Override
+		public void run() {
+			onTimeout();
+		}
+	};
+
+	/** All of the fields below are guarded by {@code this} */
+	private final Request<?>[] requests;
+	private final Object[] results;
+	private final VolleyError[] errors;
+	private final boolean[] succeeded;
+	private final boolean[] canceled;
+	private int completedCount = 0;
+	private boolean isFinished = false;
+
+	Batch(BatchBuilder.Mode mode, int size, BatchListener listener) {
+		this.mode = mode;
+		this.listener = listener;
+		this.requests = new Request<?>[size];
+		this.results = new Object[size];
+		this.errors = new VolleyError[size];
+		this.succeeded = new boolean[size];
+		this.canceled = new boolean[size];
+	}
+
+	/**
+	 * Add listeners of this batch into the builders, and then execute them.
+	 * The listeners are added before any execution, so that an executed builder cannot make this method fail.
+	 */
+	void start(List<ResponseBuilder<?>> builders, long timeoutMs) {
+		for (int index = 0; index < builders.size(); index++) {
+			addCompletionListeners(builders.get(index), index);
+		}
+		if (timeoutMs > 0) {
+			handler.postDelayed(timeoutRunnable, timeoutMs);
+		}
+		for (int index = 0; index < builders.size(); index++) {
+			if (isFinished()) {
+				return;
+			}
+			execute(builders.get(index), index);
+		}
+	}
+
+	private <T> void addCompletionListeners(ResponseBuilder<T> builder, final int index) {
+		builder.addCompletionListeners(new Listener<T>() {
+			@Override
+			public void onResponse(T response) {
+				onRequestCompleted(index, response, null);
+			}
+		}, new ErrorListener() {
+			@Override
+			public void onErrorResponse(VolleyError error) {
+				onRequestCompleted(index, null, error);
+			}
+		});
+	}
+
+	private void execute(ResponseBuilder<?> builder, int index) {
+		Request<?> request = builder.execute();
+		if (request == null) {
+			onRequestCompleted(index, null, new VolleyError("RequestCreator returned null for the request of index " + index + "."));
+			return;
+		}
+
+		boolean shouldCancel;
+		synchronized (this) {
+			requests[index] = request;
+			shouldCancel = isFinished && !isCompleted(index);
+		}
+		// The batch has been completed while the request was being executed.
+		if (shouldCancel) {
+			request.cancel();
+			return;
+		}
+		if (request instanceof VolleyerRequest) {
+			((VolleyerRequest<?>) request).addOnResultListener(new CancelListener(index));
+		}
+	}
+
+	/**
+	 * Cancel all of the requests in this batch. {@link BatchListener} is not called after this.
+	 */
+	public void cancel() {
+		Request<?>[] requestsToCancel;
+		synchronized (this) {
+			if (isFinished) {
+				return;
+			}
+			isFinished = true;
+			requestsToCancel = requests.clone();
+		}
+		handler.removeCallbacks(timeoutRunnable);
+		cancelAll(requestsToCancel);
+	}
+
+	/**
+	 * @return true if the batch is completed or canceled
+	 */
+	public synchronized boolean isFinished() {
+		return isFinished;
+	}
+
+	private void onRequestCompleted(int index, Object result, VolleyError error) {
+		onRequestCompleted(index, result, error, false);
+	}
+
+	private void onRequestCompleted(int index, Object result, VolleyError error, boolean isCanceled) {
+		BatchResult batchResult;
+		Request<?>[] requestsToCancel;
+		synchronized (this) {
+			if (isFinished || isCompleted(index)) {
+				return;
+			}
+			completedCount++;
+			if (isCanceled) {
+				canceled[index] = true;
+			} else if (error == null) {
+				results[index] = result;
+				succeeded[index] = true;
+			} else {
+				errors[index] = error;
+			}
+			if (!isSatisfied(succeeded[index])) {
+				return;
+			}
+			batchResult = finishLocked();
+			requestsToCancel = requests.clone();
+		}
+		complete(batchResult, requestsToCancel);
+	}
+
+	private void onTimeout() {
+		BatchResult batchResult;
+		Request<?>[] requestsToCancel;
+		synchronized (this) {
+			if (isFinished) {
+				return;
+			}
+			for (int index = 0; index < errors.length; index++) {
+				if (!isCompleted(index)) {
+					errors[index] = new TimeoutError();
+				}
+			}
+			batchResult = finishLocked();
+			requestsToCancel = requests.clone();
+		}
+		complete(batchResult, requestsToCancel);
+	}
+
+	/**
+	 * NOTE : This method must be called while holding the lock of this batch.
+	 * @param isLastSucceeded whether the last completed request succeeded
+	 */
+	private boolean isSatisfied(boolean isLastSucceeded) {
+		boolean isAllCompleted = (completedCount == requests.length);
+		switch (mode) {
+			case ALL:
+				return isAllCompleted || !isLastSucceeded;
+			case FIRST:
+				return isAllCompleted || isLastSucceeded;
+			default:
+				return isAllCompleted;
+		}
+	}
+
+	/**
+	 * NOTE : This method must be called while holding the lock of this batch.
+	 */
+	private boolean isCompleted(int index) {
+		return succeeded[index] || errors[index] != null || canceled[index];
+	}
+
+	/**
+	 * NOTE : This method must be called while holding the lock of this batch.
+	 */
+	private BatchResult finishLocked() {
+		isFinished = true;
+		return new BatchResult(mode, results.clone(), errors.clone(), succeeded.clone(), canceled.clone());
+	}
+
+	private void complete(final BatchResult batchResult, Request<?>[] requestsToCancel) {
+		handler.removeCallbacks(timeoutRunnable);
+		cancelAll(requestsToCancel);
+		if (Looper.myLooper() == Looper.getMainLooper()) {
+			listener.onBatchCompleted(batchResult);
+			return;
+		}
+		handler.post(new Runnable() {
+			@Override
+			public void run() {
+				listener.onBatchCompleted(batchResult);
+			}
+		});
+	}
+
+	/**
+	 * Complete a request canceled from outside of the batch.
+	 * It is ignored for the requests canceled by the batch, because the batch has already been finished.
+	 */
+	private class CancelListener implements VolleyerRequest.OnResultListener {
+		private final int index;
+
+		private CancelListener(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public void onSuccess(VolleyerRequest<?> request) {
+		}
+
+		@Override
+		public void onError(VolleyerRequest<?> request, VolleyError error) {
+		}
+
+		@Override
+		public void onCanceled(VolleyerRequest<?> request) {
+			onRequestCompleted(index, null, null, true);
+		}
+	}
+
+	/**
+	 * Cancelling a completed request does nothing, so all of the requests are canceled.
+	 */
+	private static void cancelAll(Request<?>[] requestsToCancel) {
+		for (Request<?> request : requestsToCancel) {
+			if (request != null) {
+				request.cancel();
+			}
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.builder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+/**
+ * <pre>
+ * A builder class which executes multiple requests concurrently, and delivers one aggregated result on the main thread.
+ * Each request is set up by its own {@link ResponseBuilder}, which must not be executed yet.
+ * Listeners of each ResponseBuilder are still called before the batch receives the result.
+ *
+ * {@code
+ * volleyer().batch()
+ * 		.add(volleyer().get(userUrl).withTargetClass(User.class))
+ * 		.add(volleyer().get(feedUrl).withTargetClass(Feed.class))
+ * 		.withMode(BatchBuilder.Mode.ALL)
+ * 		.withTimeout(5000)
+ * 		.withListener(new BatchListener() {
+ * 			public void onBatchCompleted(BatchResult result) {
+ * 				if (result.isSuccess()) {
+ * 					User user = result.getResult(0);
+ * 					Feed feed = result.getResult(1);
+ * 				}
+ * 			}
+ * 		})
+ * 		.execute();
+ * }
+ * </pre>
+ * @see Batch
+ * @see BatchResult
+ */
+public class BatchBuilder {
+	/**
+	 * Modes which decide when a batch is completed.
+	 */
+	public enum Mode {
+		/** Completed when all of the requests succeed, or at the first error. The others are canceled at the error. */
+		ALL,
+		/** Completed at the first success, or when all of the requests fail. The others are canceled at the success. */
+		FIRST,
+		/** Completed when all of the requests are completed. Each request has a result or an error. */
+		PARTIAL
+	}
+
+	private final List<ResponseBuilder<?>> builders = new ArrayList<ResponseBuilder<?>>();
+	private Mode mode = Mode.ALL;
+	private long timeoutMs = 0;
+	private BatchListener listener;
+
+	private boolean isDoneToBuild = false;
+
+	public BatchBuilder() {
+	}
+
+	/**
+	 * Add a request to the batch. The index of its result is the order of this call.
+	 * @param builder ResponseBuilder which is not executed yet
+	 */
+	public BatchBuilder add(ResponseBuilder<?> builder) {
+		Assert.notNull(builder, "ResponseBuilder");
+		assertFinishState();
+		if (builders.contains(builder)) {
+			throw new IllegalArgumentException("The ResponseBuilder has already been added.");
+		}
+		builders.add(builder);
+		return this;
+	}
+
+	/**
+	 * Set a mode of the batch. Default is {@link Mode#ALL}.
+	 */
+	public BatchBuilder withMode(Mode mode) {
+		Assert.notNull(mode, "Mode");
+		assertFinishState();
+		this.mode = mode;
+		return this;
+	}
+
+	/**
+	 * <pre>
+	 * Set a deadline which is shared by all of the requests. It starts when {@link #execute()} is called.
+	 * Requests which are not completed until the deadline are canceled and have a {@link com.android.volley.TimeoutError}.
+	 * NOTE : Retry policies of the requests still work within the deadline.
+	 * </pre>
+	 * @param timeoutMs deadline in milliseconds, 0 means no deadline
+	 */
+	public BatchBuilder withTimeout(long timeoutMs) {
+		if (timeoutMs < 0) {
+			throw new IllegalArgumentException("Timeout must not be negative.");
+		}
+		assertFinishState();
+		this.timeoutMs = timeoutMs;
+		return this;
+	}
+
+	/**
+	 * Set a listener which receives the aggregated result.
+	 */
+	public BatchBuilder withListener(BatchListener listener) {
+		assertFinishState();
+		this.listener = listener;
+		return this;
+	}
+
+	private void assertFinishState() {
+		if (isDoneToBuild == true) {
+			throw new IllegalStateException("BatchBuilder should not be used any more. Because execute() has been called.");
+		}
+	}
+
+	/**
+	 * Execute all of the requests in the batch.
+	 * @return Batch being executed, which can be canceled
+	 */
+	public Batch execute() {
+		assertFinishState();
+		if (builders.isEmpty()) {
+			throw new IllegalStateException("BatchBuilder has no request. Add a ResponseBuilder before execute().");
+		}
+		setFallbackListenerIfNull();
+
+		Batch batch = new Batch(mode, builders.size(), listener);
+		isDoneToBuild = true;
+		batch.start(builders, timeoutMs);
+		return batch;
+	}
+
+	private void setFallbackListenerIfNull() {
+		if (listener != null) {
+			return;
+		}
+		listener = new BatchListener() {
+			@Override
+			public void onBatchCompleted(BatchResult result) {
+			}
+		};
+	}
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.builder;
+/**
+ * A listener which receives an aggregated result of a batch on the main thread.
+ * @see BatchBuilder
+ */
+public interface BatchListener {
+	/**
+	 * Called once when the batch is completed by its {@link BatchBuilder.Mode} or its deadline.
+	 * It is not called if the batch is canceled by {@link Batch#cancel()}.
+	 */
+	void onBatchCompleted(BatchResult result);
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.builder;
+
+import com.android.volley.VolleyError;
+/**
+ * <pre>
+ * An aggregated result of requests executed by {@link BatchBuilder}.
+ * Results and errors are indexed in the order of {@link BatchBuilder#add(ResponseBuilder)}.
+ *
+ * A request which is not completed has neither a result nor an error, because it is canceled
+ * when the batch is completed early. (ex. the first error of {@link BatchBuilder.Mode#ALL})
+ * A request which is not completed until the deadline has a {@link com.android.volley.TimeoutError}.
+ * A request canceled from outside of the batch has neither a result nor an error, and {@link #isCanceled(int)} is true.
+ * </pre>
+ */
+public final class BatchResult {
+	private final BatchBuilder.Mode mode;
+	private final Object[] results;
+	private final VolleyError[] errors;
+	private final boolean[] succeeded;
+	private final boolean[] canceled;
+	private final int succeededCount;
+
+	BatchResult(BatchBuilder.Mode mode, Object[] results, VolleyError[] errors, boolean[] succeeded, boolean[] canceled) {
+		this.mode = mode;
+		this.results = results;
+		this.errors = errors;
+		this.succeeded = succeeded;
+		this.canceled = canceled;
+		int count = 0;
+		for (boolean isSucceeded : succeeded) {
+			if (isSucceeded) {
+				count++;
+			}
+		}
+		this.succeededCount = count;
+	}
+
+	/**
+	 * <pre>
+	 * Return whether the batch satisfies its mode.
+	 * - ALL : all of the requests succeeded.
+	 * - FIRST : one of the requests succeeded.
+	 * - PARTIAL : at least one of the requests succeeded.
+	 * </pre>
+	 */
+	public boolean isSuccess() {
+		if (mode == BatchBuilder.Mode.ALL) {
+			return succeededCount == size();
+		}
+		return succeededCount > 0;
+	}
+
+	public BatchBuilder.Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * @return the number of requests in the batch
+	 */
+	public int size() {
+		return results.length;
+	}
+
+	public int getSucceededCount() {
+		return succeededCount;
+	}
+
+	/**
+	 * @return true if the request of {@code index} succeeded
+	 */
+	public boolean isSucceeded(int index) {
+		return succeeded[index];
+	}
+
+	/**
+	 * @return true if the request of {@code index} was canceled from outside of the batch before it was completed
+	 */
+	public boolean isCanceled(int index) {
+		return canceled[index];
+	}
+
+	/**
+	 * Return the result of the request of {@code index}.
+	 * @param <R> Target class of the ResponseBuilder which is added as {@code index}
+	 * @return null if the request did not succeed
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> R getResult(int index) {
+		return (R) results[index];
+	}
+
+	/**
+	 * @return null if the request succeeded or is not completed
+	 */
+	public VolleyError getError(int index) {
+		return errors[index];
+	}
+
+	/**
+	 * @return the first error in the order of requests, or null if there is no error
+	 */
+	public VolleyError getFirstError() {
+		for (VolleyError error : errors) {
+			if (error != null) {
+				return error;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the first result in the order of requests, which is useful for {@link BatchBuilder.Mode#FIRST}
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> R getFirstResult() {
+		for (int i = 0; i < succeeded.length; i++) {
+			if (succeeded[i]) {
+				return (R) results[i];
+			}
+		}
+		return null;
+	}
+}
@@ -26,6 +26,8 @@ import com.navercorp.volleyextensions.volleyer.VolleyerConfiguration;
 import com.navercorp.volleyextensions.volleyer.http.HttpContent;
 import com.navercorp.volleyextensions.volleyer.request.creator.RequestCreator;
 import com.navercorp.volleyextensions.volleyer.request.executor.RequestExecutor;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.response.parser.ItemStreamingNetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.util.Assert;
 
@@ -40,9 +42,10 @@ public class BlockingResponseBuilder<T> {
 	private RequestQueue requestQueue;
 	private VolleyerConfiguration configuration;
 	private HttpContent httpContent;
-	private Class<T> clazz;
+	private TargetType<T> targetType;
 	private NetworkResponseParser responseParser;
 	private RetryPolicy retryPolicy;
+	private RequestOptions requestOptions = new RequestOptions();
 
 	private boolean isDoneToBuild = false;
 	/**
@@ -51,20 +54,20 @@ public class BlockingResponseBuilder<T> {
 	 * @param configuration VolleyerConfiguration instance. See {@link VolleyerConfiguration}.
 	 * @param httpContent HttpContent instance which is previously set from {@code RequestBuilder}
 	 * @param retryPolicy RetryPolicy instance which is previously set from {@code RequestBuilder}
-	 * @param clazz Target class that content of a response will be parsed to.
+	 * @param targetType Target type that content of a response will be parsed to.
 	 */
 	BlockingResponseBuilder(RequestQueue requestQueue, VolleyerConfiguration configuration, HttpContent httpContent,
-							Class<T> clazz, @NonNull RetryPolicy retryPolicy) {
+							TargetType<T> targetType, @NonNull RetryPolicy retryPolicy) {
 		Assert.notNull(requestQueue, "RequestQueue");
 		Assert.notNull(configuration, "VolleyerConfiguration");
 		Assert.notNull(httpContent, "HttpContent");
-		Assert.notNull(clazz, "Target class token");
+		Assert.notNull(targetType, "Target type");
 		Assert.notNull(retryPolicy, "RetryPolicy");
 
 		this.requestQueue = requestQueue;
 		this.configuration = configuration;
 		this.httpContent = httpContent;
-		this.clazz = clazz;
+		this.targetType = targetType;
 		this.retryPolicy = retryPolicy;
 	}
 
@@ -77,6 +80,13 @@ public class BlockingResponseBuilder<T> {
 		}
 	}
 
+	/**
+	 * Set options of a request which are previously set from {@code RequestBuilder} or {@code ResponseBuilder}.
+	 */
+	void setRequestOptions(RequestOptions requestOptions) {
+		this.requestOptions = requestOptions.copy();
+	}
+
 	/**
 	 * Set a parser for which content of a response is converted to a target class.
 	 * <pre>
@@ -105,6 +115,9 @@ public class BlockingResponseBuilder<T> {
 		}
 		Request<T> request = requests.first;
 		RequestFuture<T> requestFuture = requests.second;
+		requestOptions.applyTo(request);
+		// Let the streaming parser stop delivering items when the request is canceled
+		ItemStreamingNetworkResponseParser.bindRequestIfStreaming(responseParser, request);
 		executeRequestFuture(request, requestFuture);
 		markFinishState();
 		return requestFuture;
@@ -136,7 +149,8 @@ public class BlockingResponseBuilder<T> {
 		RequestCreator requestCreator = configuration.getRequestCreator();
 		RequestFuture<T> requestFuture = RequestFuture.newFuture();
 		Request<T> request =
-				requestCreator.createRequest(httpContent, clazz, responseParser, requestFuture, requestFuture, retryPolicy);
+				requestCreator.createRequest(httpContent, targetType, responseParser, requestFuture, requestFuture,
+						requestOptions.createRetryPolicy(retryPolicy, httpContent));
 		return request == null ? null : Pair.create(request, requestFuture);
 	}
 
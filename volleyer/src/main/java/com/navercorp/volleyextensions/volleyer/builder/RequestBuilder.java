@@ -17,6 +17,7 @@ package com.navercorp.volleyextensions.volleyer.builder;
 
 import androidx.annotation.NonNull;
 import com.android.volley.Request;
+import com.android.volley.Request.Priority;
 import com.android.volley.RequestQueue;
 import com.android.volley.Response.ErrorListener;
 import com.android.volley.Response.Listener;
@@ -24,8 +25,17 @@ import com.android.volley.RetryPolicy;
 import com.android.volley.toolbox.RequestFuture;
 import com.navercorp.volleyextensions.volleyer.VolleyerConfiguration;
 import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.factory.DefaultNetworkResponseParserFactory;
 import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.request.DeadlineRetryPolicy;
+import com.navercorp.volleyextensions.volleyer.request.RequestGroup;
+import com.navercorp.volleyextensions.volleyer.request.RetryPolicyFactory;
+import com.navercorp.volleyextensions.volleyer.response.ItemListener;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.response.parser.ArrayItemParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.ItemStreamingNetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.util.Assert;
+import com.navercorp.volleyextensions.volleyer.util.MainThreadExecutor;
 /**
  * <pre>
  * Builder class which can set request headers or a Listener, a ErrorListener of Volley.
@@ -37,11 +47,12 @@ import com.navercorp.volleyextensions.volleyer.util.Assert;
  *
  * @param <B> Sub builder of RequestBuilder 
  */
-abstract class RequestBuilder<B extends RequestBuilder<B>> {
+public abstract class RequestBuilder<B extends RequestBuilder<B>> {
 	private RequestQueue requestQueue;
 	private final VolleyerConfiguration configuration;
 	protected final HttpContent httpContent;
 	private RetryPolicy retryPolicy;
+	private final RequestOptions requestOptions = new RequestOptions();
 
 	protected boolean isDoneToBuild = false;
 	/**
@@ -87,6 +98,89 @@ abstract class RequestBuilder<B extends RequestBuilder<B>> {
 		assertFinishState();
 
 		this.retryPolicy = retryPolicy;
+		requestOptions.setRetryPolicyFactory(null);
+		return (B) this;
+	}
+	/**
+	 * <pre>
+	 * Set a factory which creates a RetryPolicy for the request when it is executed.
+	 * It overrides a RetryPolicy set by {@link #setRetryPolicy(RetryPolicy)}.
+	 * </pre>
+	 * @param retryPolicyFactory RetryPolicyFactory, See {@link RetryPolicyFactory}
+	 */
+	@SuppressWarnings("unchecked")
+	public B setRetryPolicyFactory(@NonNull RetryPolicyFactory retryPolicyFactory) {
+		Assert.notNull(retryPolicyFactory, "RetryPolicyFactory");
+		assertFinishState();
+
+		requestOptions.setRetryPolicyFactory(retryPolicyFactory);
+		return (B) this;
+	}
+	/**
+	 * <pre>
+	 * Set priority of a request. RequestQueue takes a request of higher priority first.
+	 * Default is {@link Priority#NORMAL}.
+	 * </pre>
+	 * @param priority Priority of Volley, must not be null
+	 */
+	@SuppressWarnings("unchecked")
+	public B setPriority(Priority priority) {
+		assertFinishState();
+
+		requestOptions.setPriority(priority);
+		return (B) this;
+	}
+	/**
+	 * <pre>
+	 * Set a tag of a request, which can cancel requests together by {@code RequestQueue.cancelAll(tag)}.
+	 * </pre>
+	 * @param tag tag object
+	 */
+	@SuppressWarnings("unchecked")
+	public B setTag(Object tag) {
+		assertFinishState();
+
+		requestOptions.setTag(tag);
+		return (B) this;
+	}
+	/**
+	 * <pre>
+	 * Set whether a response of a request is stored in and read from the cache of RequestQueue.
+	 * Default is true.
+	 * </pre>
+	 */
+	@SuppressWarnings("unchecked")
+	public B setShouldCache(boolean shouldCache) {
+		assertFinishState();
+
+		requestOptions.setShouldCache(shouldCache);
+		return (B) this;
+	}
+	/**
+	 * <pre>
+	 * Set a deadline of a request, which limits the total time including the time waiting in RequestQueue and all of the retries.
+	 * The deadline starts when the request is executed. See {@link DeadlineRetryPolicy}.
+	 * </pre>
+	 * @param deadlineMs total time in milliseconds, 0 means no deadline
+	 */
+	@SuppressWarnings("unchecked")
+	public B setDeadline(long deadlineMs) {
+		assertFinishState();
+
+		requestOptions.setDeadline(deadlineMs);
+		return (B) this;
+	}
+	/**
+	 * <pre>
+	 * Add a request into a group, which can cancel requests together by {@link RequestGroup#cancelAll()}.
+	 * </pre>
+	 * @param requestGroup must not be null
+	 */
+	@SuppressWarnings("unchecked")
+	public B setRequestGroup(RequestGroup requestGroup) {
+		assertFinishState();
+
+		requestOptions.setRequestGroup(requestGroup);
 		return (B) this;
 	}
 	/**
@@ -107,12 +201,61 @@ abstract class RequestBuilder<B extends RequestBuilder<B>> {
 	public <T> ResponseBuilder<T> withTargetClass(Class<T> clazz) {
 		Assert.notNull(clazz, "Target Class token");
 
+		return withTargetType(TargetType.of(clazz));
+	}
+	/**
+	 * <pre>
+	 * Set a target type that content of a response will be parsed to.
+	 * Use it for a generic type like below.
+	 *
+	 *		.withTargetType(new TargetType<List<Tweet>>() {})
+	 * </pre>
+	 * @param targetType Target type, must not be null.
+	 * @return ResponseBuilder for response settings
+	 */
+	public <T> ResponseBuilder<T> withTargetType(TargetType<T> targetType) {
+		Assert.notNull(targetType, "Target type");
+
 		assertFinishState();
 
-		ResponseBuilder<T> builder = new ResponseBuilder<>(requestQueue, configuration, httpContent, clazz, retryPolicy);
+		ResponseBuilder<T> builder = new ResponseBuilder<>(requestQueue, configuration, httpContent, targetType, retryPolicy);
+		builder.setRequestOptions(requestOptions);
 		markFinishState();
 		return builder;
 	}
+	/**
+	 * <pre>
+	 * Set an item listener which receives the elements of a top-level json array in batches on the main thread,
+	 * while the rest of the array is being parsed.
+	 * The Listener of the returned builder receives the number of the elements after all of the batches.
+	 * </pre>
+	 * @param itemClass Class that each element will be parsed to, must not be null.
+	 * @param itemListener listener for the batches of elements, must not be null.
+	 * @return ResponseBuilder for response settings
+	 * @see ItemStreamingNetworkResponseParser
+	 */
+	public <E> ResponseBuilder<Integer> withItemListener(Class<E> itemClass, ItemListener<E> itemListener) {
+		return withItemListener(itemClass, itemListener, ItemStreamingNetworkResponseParser.DEFAULT_BATCH_SIZE);
+	}
+	/**
+	 * Same as {@link #withItemListener(Class, ItemListener)}, but with the maximum number of elements delivered at once.
+	 * @throws IllegalStateException if neither Jackson 2.x nor Gson is present.
+	 */
+	public <E> ResponseBuilder<Integer> withItemListener(Class<E> itemClass, ItemListener<E> itemListener, int batchSize) {
+		Assert.notNull(itemClass, "Item class token");
+		Assert.notNull(itemListener, "ItemListener");
+
+		assertFinishState();
+
+		ArrayItemParser arrayItemParser = DefaultNetworkResponseParserFactory.createArrayItemParser();
+		if (arrayItemParser == null) {
+			throw new IllegalStateException("Jackson 2.x or Gson library is required to parse items of an array.");
+		}
+		ResponseBuilder<Integer> builder = withTargetClass(Integer.class);
+		builder.withResponseParser(new ItemStreamingNetworkResponseParser<E>(arrayItemParser, itemClass, itemListener,
+				batchSize, new MainThreadExecutor()));
+		return builder;
+	}
 	/**
 	 * Make this builder being disabled settings. 
 	 */
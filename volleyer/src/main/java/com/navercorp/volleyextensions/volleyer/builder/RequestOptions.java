@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.builder;
+
+import com.android.volley.Request;
+import com.android.volley.Request.Priority;
+import com.android.volley.RetryPolicy;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.request.DeadlineRetryPolicy;
+import com.navercorp.volleyextensions.volleyer.request.RequestGroup;
+import com.navercorp.volleyextensions.volleyer.request.RetryPolicyFactory;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+import com.navercorp.volleyextensions.volleyer.util.VolleyerLog;
+/**
+ * <pre>
+ * Scheduling options of a request (priority, tag, cacheability, deadline and group), which are not a part of {@code HttpContent}.
+ * They are set by builders, and applied to a {@code Request} after it is created by {@code RequestCreator}.
+ * Options which are not set keep the defaults of the Request.
+ * </pre>
+ */
+final class RequestOptions {
+	private Priority priority;
+	private Object tag;
+	private Boolean shouldCache;
+	private long deadlineMs = 0;
+	private RequestGroup requestGroup;
+	private RetryPolicyFactory retryPolicyFactory;
+
+	void setPriority(Priority priority) {
+		Assert.notNull(priority, "Priority");
+		this.priority = priority;
+	}
+
+	void setTag(Object tag) {
+		this.tag = tag;
+	}
+
+	void setShouldCache(boolean shouldCache) {
+		this.shouldCache = shouldCache;
+	}
+
+	void setDeadline(long deadlineMs) {
+		if (deadlineMs < 0) {
+			throw new IllegalArgumentException("Deadline must not be negative.");
+		}
+		this.deadlineMs = deadlineMs;
+	}
+
+	void setRequestGroup(RequestGroup requestGroup) {
+		Assert.notNull(requestGroup, "RequestGroup");
+		this.requestGroup = requestGroup;
+	}
+
+	/**
+	 * @param retryPolicyFactory null if the RetryPolicy of a builder is used
+	 */
+	void setRetryPolicyFactory(RetryPolicyFactory retryPolicyFactory) {
+		this.retryPolicyFactory = retryPolicyFactory;
+	}
+
+	/**
+	 * Return a RetryPolicy for a new request. The deadline starts from this call.
+	 * @param retryPolicy RetryPolicy of a builder, which is used if RetryPolicyFactory is not set
+	 * @return {@code retryPolicy} itself if neither RetryPolicyFactory nor the deadline is set
+	 */
+	RetryPolicy createRetryPolicy(RetryPolicy retryPolicy, HttpContent httpContent) {
+		RetryPolicy policy = retryPolicy;
+		if (retryPolicyFactory != null) {
+			policy = retryPolicyFactory.createRetryPolicy(httpContent);
+			Assert.notNull(policy, "RetryPolicy from RetryPolicyFactory");
+		}
+		if (deadlineMs == 0) {
+			return policy;
+		}
+		return new DeadlineRetryPolicy(policy, deadlineMs);
+	}
+
+	/**
+	 * Apply the options to a request before it is executed.
+	 * NOTE : Priority is applied only to {@link VolleyerRequest}, because {@code Request} has no setter of it.
+	 */
+	void applyTo(Request<?> request) {
+		if (tag != null) {
+			request.setTag(tag);
+		}
+		if (shouldCache != null) {
+			request.setShouldCache(shouldCache);
+		}
+		if (requestGroup != null) {
+			requestGroup.add(request);
+		}
+		if (retryPolicyFactory != null && retryPolicyFactory.shouldRetryServerErrors()) {
+			request.setShouldRetryServerErrors(true);
+		}
+		if (priority == null) {
+			return;
+		}
+		if (request instanceof VolleyerRequest) {
+			((VolleyerRequest<?>) request).setPriority(priority);
+			return;
+		}
+		VolleyerLog.warn("Priority is ignored, because %s is not a VolleyerRequest.", request.getClass().getName());
+	}
+
+	RequestOptions copy() {
+		RequestOptions options = new RequestOptions();
+		options.priority = priority;
+		options.tag = tag;
+		options.shouldCache = shouldCache;
+		options.deadlineMs = deadlineMs;
+		options.requestGroup = requestGroup;
+		options.retryPolicyFactory = retryPolicyFactory;
+		return options;
+	}
+}
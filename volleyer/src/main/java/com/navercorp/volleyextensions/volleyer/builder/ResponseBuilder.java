@@ -17,15 +17,26 @@ package com.navercorp.volleyextensions.volleyer.builder;
 
 import androidx.annotation.NonNull;
 import com.android.volley.Request;
+import com.android.volley.Request.Priority;
 import com.android.volley.RequestQueue;
 import com.android.volley.Response.ErrorListener;
 import com.android.volley.Response.Listener;
 import com.android.volley.RetryPolicy;
+import com.android.volley.VolleyError;
 import com.navercorp.volleyextensions.volleyer.VolleyerConfiguration;
 import com.navercorp.volleyextensions.volleyer.http.HttpContent;
 import com.navercorp.volleyextensions.volleyer.request.creator.RequestCreator;
 import com.navercorp.volleyextensions.volleyer.request.executor.RequestExecutor;
+import com.navercorp.volleyextensions.volleyer.request.DeadlineRetryPolicy;
+import com.navercorp.volleyextensions.volleyer.request.RequestGroup;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.response.ParsedResponseCache;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.response.Transformer;
+import com.navercorp.volleyextensions.volleyer.response.VolleyerFuture;
+import com.navercorp.volleyextensions.volleyer.response.parser.ItemStreamingNetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.TransformingNetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.util.Assert;
 /**
  * A builder class that enables settings for response and that executes a request.
@@ -38,11 +49,15 @@ public class ResponseBuilder<T> {
 	private RequestQueue requestQueue;
 	private VolleyerConfiguration configuration;
 	private HttpContent httpContent;
-	private Class<T> clazz;
+	private TargetType<T> targetType;
 	private Listener<T> listener;
 	private ErrorListener errorListener;
 	private NetworkResponseParser responseParser;
 	private RetryPolicy retryPolicy;
+	private ParsedResponseCache parsedResponseCache;
+	private RequestOptions requestOptions = new RequestOptions();
+	/** Whether {@code responseParser} is a {@link TransformingNetworkResponseParser} made by {@link #withTransformer(Transformer)} */
+	private boolean isTransformed = false;
 
 	private boolean isDoneToBuild = false;
 	/**
@@ -51,20 +66,20 @@ public class ResponseBuilder<T> {
 	 * @param configuration VolleyerConfiguration instance. See {@link VolleyerConfiguration}.
 	 * @param httpContent HttpContent instance which is previously set from {@code RequestBuilder}
 	 * @param retryPolicy RetryPolicy instance which is previously set from {@code RequestBuilder}
-	 * @param clazz Target class that content of a response will be parsed to.
+	 * @param targetType Target type that content of a response will be parsed to.
 	 */
 	ResponseBuilder(RequestQueue requestQueue, VolleyerConfiguration configuration, HttpContent httpContent,
-					Class<T> clazz, @NonNull RetryPolicy retryPolicy) {
+					TargetType<T> targetType, @NonNull RetryPolicy retryPolicy) {
 		Assert.notNull(requestQueue, "RequestQueue");
 		Assert.notNull(configuration, "VolleyerConfiguration");
 		Assert.notNull(httpContent, "HttpContent");
-		Assert.notNull(clazz, "Target class token");
+		Assert.notNull(targetType, "Target type");
 		Assert.notNull(retryPolicy, "RetryPolicy");
 
 		this.requestQueue = requestQueue;
 		this.configuration = configuration;
 		this.httpContent = httpContent;
-		this.clazz = clazz;
+		this.targetType = targetType;
 		this.retryPolicy = retryPolicy;
 	}
 
@@ -101,6 +116,63 @@ public class ResponseBuilder<T> {
 		}
 	}
 
+	/**
+	 * Add a request into a group, which can cancel requests together by {@link RequestGroup#cancelAll()}.
+	 * @param requestGroup must not be null
+	 */
+	public ResponseBuilder<T> withRequestGroup(RequestGroup requestGroup) {
+		assertFinishState();
+		requestOptions.setRequestGroup(requestGroup);
+		return this;
+	}
+
+	/**
+	 * Set options of a request which are previously set from {@code RequestBuilder}.
+	 */
+	void setRequestOptions(RequestOptions requestOptions) {
+		this.requestOptions = requestOptions.copy();
+	}
+
+	/**
+	 * Set priority of a request. RequestQueue takes a request of higher priority first.
+	 * @param priority Priority of Volley, must not be null
+	 */
+	public ResponseBuilder<T> withPriority(Priority priority) {
+		assertFinishState();
+		requestOptions.setPriority(priority);
+		return this;
+	}
+
+	/**
+	 * Set a tag of a request, which can cancel requests together by {@code RequestQueue.cancelAll(tag)}.
+	 */
+	public ResponseBuilder<T> withTag(Object tag) {
+		assertFinishState();
+		requestOptions.setTag(tag);
+		return this;
+	}
+
+	/**
+	 * Set whether a response of a request is stored in and read from the cache of RequestQueue.
+	 */
+	public ResponseBuilder<T> withShouldCache(boolean shouldCache) {
+		assertFinishState();
+		requestOptions.setShouldCache(shouldCache);
+		return this;
+	}
+
+	/**
+	 * Set a deadline of a request, which limits the total time including the time waiting in RequestQueue and all of the retries.
+	 * The deadline starts when the request is executed.
+	 * @param deadlineMs total time in milliseconds, 0 means no deadline
+	 * @see DeadlineRetryPolicy
+	 */
+	public ResponseBuilder<T> withDeadline(long deadlineMs) {
+		assertFinishState();
+		requestOptions.setDeadline(deadlineMs);
+		return this;
+	}
+
 	/**
 	 * Set a parser for which content of a response is converted to a target class.
 	 * <pre>
@@ -112,10 +184,105 @@ public class ResponseBuilder<T> {
 	public ResponseBuilder<T> withResponseParser(NetworkResponseParser responseParser) {
 		Assert.notNull(responseParser, "Response Parser");
 		assertFinishState();
+		if (isTransformed) {
+			throw new IllegalStateException("withResponseParser() should be called before withTransformer().");
+		}
 		this.responseParser = responseParser;
 		return this;
 	}
 
+	/**
+	 * <pre>
+	 * Set a cache of parsed responses, which lets the request skip parsing a response
+	 * that has been parsed by a previous request for the same resource. (ex. a cache hit of Volley)
+	 *
+	 * NOTE : It is ignored for the requests made by {@code withItemListener()} or {@link #withTransformer(Transformer)},
+	 *        because their parsers deliver or convert results besides parsing.
+	 *        It works only with {@link VolleyerRequest}s created by {@link RequestCreator}.
+	 * </pre>
+	 * @param parsedResponseCache cache which is usually shared by requests, must not be null
+	 * @see ParsedResponseCache
+	 */
+	public ResponseBuilder<T> withParsedResponseCache(ParsedResponseCache parsedResponseCache) {
+		Assert.notNull(parsedResponseCache, "ParsedResponseCache");
+		assertFinishState();
+		this.parsedResponseCache = parsedResponseCache;
+		return this;
+	}
+
+	/**
+	 * <pre>
+	 * Set a transformer which converts a parsed response to R object on a network dispatcher thread,
+	 * before the result is delivered to a listener on the main thread.
+	 * It can be chained, and the transformers are applied in the order of calls.
+	 *
+	 * {@code
+	 * volleyer().get(url)
+	 * 		.withTargetClass(Feed.class)
+	 * 		.withTransformer(new Transformer<Feed, List<Item>>() {
+	 * 			public List<Item> transform(Feed feed) {
+	 * 				return sortByDate(feed.items);
+	 * 			}
+	 * 		})
+	 * 		.withListener(new Listener<List<Item>>() { ... })
+	 * 		.execute();
+	 * }
+	 *
+	 * NOTE : Set a listener after calling this method, because the listener receives the result not the parsed response.
+	 *        An error listener and a response parser are kept. Set a response parser before calling this method.
+	 * </pre>
+	 * @param transformer transformer from a parsed response, must not be null
+	 * @return new ResponseBuilder for the transformed result. This builder must not be used any more.
+	 * @throws IllegalStateException if a listener has been set to this builder
+	 * @see TransformingNetworkResponseParser
+	 */
+	public <R> ResponseBuilder<R> withTransformer(Transformer<? super T, ? extends R> transformer) {
+		Assert.notNull(transformer, "Transformer");
+		assertFinishState();
+		if (listener != null) {
+			throw new IllegalStateException("withListener() should be called after withTransformer().");
+		}
+		setFallbackResponseParserIfNull();
+
+		// The target type of the new builder is not used, because the transforming parser parses to its own source type.
+		@SuppressWarnings("unchecked")
+		TargetType<R> resultType = (TargetType<R>) (TargetType<?>) TargetType.of(Object.class);
+		ResponseBuilder<R> builder = new ResponseBuilder<R>(requestQueue, configuration, httpContent, resultType, retryPolicy);
+		builder.responseParser = new TransformingNetworkResponseParser<T, R>(responseParser, targetType, transformer);
+		builder.isTransformed = true;
+		builder.errorListener = errorListener;
+		builder.requestOptions = requestOptions;
+		markFinishState();
+		return builder;
+	}
+
+	/**
+	 * Wrap the listeners so that {@code completionListener} and {@code completionErrorListener} are called after them.
+	 * It is used by {@link BatchBuilder} and {@link #toFuture()} before executing this builder.
+	 */
+	void addCompletionListeners(final Listener<? super T> completionListener, final ErrorListener completionErrorListener) {
+		assertFinishState();
+		setFallbackListenerIfNull();
+		setFallbackErrorListenerIfNull();
+
+		final Listener<T> listener = this.listener;
+		final ErrorListener errorListener = this.errorListener;
+		this.listener = new Listener<T>() {
+			@Override
+			public void onResponse(T response) {
+				listener.onResponse(response);
+				completionListener.onResponse(response);
+			}
+		};
+		this.errorListener = new ErrorListener() {
+			@Override
+			public void onErrorResponse(VolleyError error) {
+				errorListener.onErrorResponse(error);
+				completionErrorListener.onErrorResponse(error);
+			}
+		};
+	}
+
 	/**
 	 * Execute a request finally on a running RequestQueue.
 	 * @return Request instance being executed
@@ -130,6 +297,10 @@ public class ResponseBuilder<T> {
 		if (request == null) {
 			return request;
 		}
+		requestOptions.applyTo(request);
+		// Let the streaming parser stop delivering items when the request is canceled
+		ItemStreamingNetworkResponseParser.bindRequestIfStreaming(responseParser, request);
+		setParsedResponseCacheIfPossible(request);
 		executeRequest(request);
 		markFinishState();
 		return request;
@@ -184,7 +355,19 @@ public class ResponseBuilder<T> {
 	 */
 	private Request<T> buildRequest() {
 		RequestCreator requestCreator = configuration.getRequestCreator();
-		return requestCreator.createRequest(httpContent, clazz, responseParser, listener, errorListener, retryPolicy);
+		return requestCreator.createRequest(httpContent, targetType, responseParser, listener, errorListener,
+				requestOptions.createRetryPolicy(retryPolicy, httpContent));
+	}
+
+	private void setParsedResponseCacheIfPossible(Request<T> request) {
+		if (parsedResponseCache == null || !(request instanceof VolleyerRequest)) {
+			return;
+		}
+		if (responseParser instanceof ItemStreamingNetworkResponseParser
+				|| responseParser instanceof TransformingNetworkResponseParser) {
+			return;
+		}
+		((VolleyerRequest<T>) request).setParsedResponseCache(parsedResponseCache);
 	}
 
 	/**
@@ -195,7 +378,56 @@ public class ResponseBuilder<T> {
 		executor.executeRequest(requestQueue, request);
 	}
 
+	/**
+	 * <pre>
+	 * Execute a request finally on a running RequestQueue, and return a future of the result.
+	 * The future doesn't block any thread unless {@code get()} is called, and it can be composed with dependent requests.
+	 * Listeners set by {@link #withListener(Listener)} and {@link #withErrorListener(ErrorListener)} are called before the future is completed.
+	 *
+	 * {@code
+	 * volleyer().get(userUrl).withTargetClass(User.class)
+	 * 		.toFuture()
+	 * 		.thenCompose(new Transformer<User, VolleyerFuture<Feed>>() {
+	 * 			public VolleyerFuture<Feed> transform(User user) {
+	 * 				return volleyer().get(user.feedUrl).withTargetClass(Feed.class).toFuture();
+	 * 			}
+	 * 		})
+	 * 		.addListener(feedListener, errorListener);
+	 * }
+	 * </pre>
+	 * @return future which is completed with the result or the error of the request, and cancels the request by {@code cancel()}
+	 * @see VolleyerFuture
+	 */
+	public VolleyerFuture<T> toFuture() {
+		final VolleyerFuture<T> future = new VolleyerFuture<T>();
+		addCompletionListeners(new Listener<T>() {
+			@Override
+			public void onResponse(T response) {
+				future.complete(response);
+			}
+		}, new ErrorListener() {
+			@Override
+			public void onErrorResponse(VolleyError error) {
+				future.completeWithError(error);
+			}
+		});
+
+		Request<T> request = execute();
+		if (request == null) {
+			future.completeWithError(new VolleyError("RequestCreator returned null for the request."));
+			return future;
+		}
+		future.setRequest(request);
+		return future;
+	}
+
 	public BlockingResponseBuilder<T> toBlocking() {
-		return new BlockingResponseBuilder<>(requestQueue, configuration, httpContent, clazz, retryPolicy);
+		BlockingResponseBuilder<T> builder =
+				new BlockingResponseBuilder<>(requestQueue, configuration, httpContent, targetType, retryPolicy);
+		builder.setRequestOptions(requestOptions);
+		if (responseParser != null) {
+			builder.withResponseParser(responseParser);
+		}
+		return builder;
 	}
 }
@@ -15,10 +15,14 @@
  */
 package com.navercorp.volleyextensions.volleyer.factory;
 
+import com.navercorp.volleyextensions.volleyer.response.parser.ArrayItemParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.GsonNetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.response.parser.IntegratedNetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.Jackson2BinaryNetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.response.parser.Jackson2NetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.response.parser.JacksonNetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.ProtobufNetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.response.parser.SimpleXmlNetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.util.ClassUtils;
 /**
@@ -26,27 +30,45 @@ import com.navercorp.volleyextensions.volleyer.util.ClassUtils;
  *
  * NOTE : This creates a json parser and a xml parser only if the library is imported.
  *        If you want this to create a json parser,
- *        you should import Jackson 1.x library or import Jackson 2.x library.
+ *        you should import Jackson 1.x library or import Jackson 2.x library. (Or Gson if neither of them is imported.)
  *        Or if you want this to create a xml parser, you should import Simple Xml library.
+ *        Binary parsers (CBOR, Smile, MessagePack and Protocol Buffers) are also created if each library is imported.
  */
 public class DefaultNetworkResponseParserFactory {
 
 	private static final String JACKSON_2_X_CLASS_NAME = "com.fasterxml.jackson.databind.ObjectMapper";
 	private static final String JACKSON_1_X_CLASS_NAME = "org.codehaus.jackson.map.ObjectMapper";
 	private static final String SIMPLE_XML_CLASS_NAME = "org.simpleframework.xml.core.Persister";
+	private static final String GSON_CLASS_NAME = "com.google.gson.Gson";
 	/**
 	 * <pre>
 	 * Create a response parser supporting json & xml types.
-	 * NOTE : You must import jackson 1.x or 2.x library for supporting json type, or import simple xml library for supporting xml type.  
+	 * NOTE : You must import jackson 1.x, 2.x or gson library for supporting json type, or import simple xml library for supporting xml type.  
 	 * </pre>
 	 * @return {@link IntegratedNetworkResponseParser} instance containing xml or json parser (if each library is present). 
 	 */
 	public static NetworkResponseParser create() {
 		IntegratedNetworkResponseParser.Builder builder = new IntegratedNetworkResponseParser.Builder();
-		addJacksonParserIfPresent(builder);
+		addJsonParserIfPresent(builder);
 		addSimpleXmlParserIfPresent(builder);
+		addBinaryParsersIfPresent(builder);
 		return builder.build();
 	}
+	/**
+	 * <pre>
+	 * Add a json parser of the first present library among jackson 2.x, jackson 1.x and gson.
+	 * NOTE : You can call this method when adding parsers for {@link IntegratedNetworkResponseParser}.
+	 * </pre>
+	 * @param builder must not be null
+	 */
+	public static void addJsonParserIfPresent(IntegratedNetworkResponseParser.Builder builder) {
+		if(ClassUtils.isPresent(JACKSON_2_X_CLASS_NAME) || ClassUtils.isPresent(JACKSON_1_X_CLASS_NAME)) {
+			addJacksonParserIfPresent(builder);
+			return;
+		}
+
+		addGsonParserIfPresent(builder);
+	}
 	/**
 	 * <pre>
 	 * Add simple jackson 2.x or 1.x parser if the library is present.
@@ -68,6 +90,66 @@ public class DefaultNetworkResponseParserFactory {
 
 		// Do nothing if Jackson doesn't exist.
 	}
+	/**
+	 * <pre>
+	 * Add gson parser if the library is present.
+	 * NOTE : You can call this method when adding parsers for {@link IntegratedNetworkResponseParser}.
+	 * </pre>
+	 * @param builder must not be null
+	 */
+	public static void addGsonParserIfPresent(IntegratedNetworkResponseParser.Builder builder) {
+		if(ClassUtils.isPresent(GSON_CLASS_NAME)) {
+			builder.addParser(new GsonNetworkResponseParser());
+		}
+
+		// Do nothing if Gson doesn't exist.
+	}
+	/**
+	 * <pre>
+	 * Add parsers for binary formats if each library is present.
+	 * - CBOR, Smile, MessagePack : jackson 2.x and its dataformat library
+	 * - Protocol Buffers : protobuf-java or protobuf-lite library
+	 * NOTE : You can call this method when adding parsers for {@link IntegratedNetworkResponseParser}.
+	 * </pre>
+	 * @param builder must not be null
+	 */
+	public static void addBinaryParsersIfPresent(IntegratedNetworkResponseParser.Builder builder) {
+		if(ClassUtils.isPresent(JACKSON_2_X_CLASS_NAME)) {
+			addParserIfNotNull(builder, Jackson2BinaryNetworkResponseParser.createCborParser());
+			addParserIfNotNull(builder, Jackson2BinaryNetworkResponseParser.createSmileParser());
+			addParserIfNotNull(builder, Jackson2BinaryNetworkResponseParser.createMessagePackParser());
+		}
+
+		if(ClassUtils.isPresent(ProtobufNetworkResponseParser.PROTOBUF_CLASS_NAME)) {
+			builder.addParser(new ProtobufNetworkResponseParser());
+		}
+
+		// Do nothing if none of the libraries exists.
+	}
+
+	private static void addParserIfNotNull(IntegratedNetworkResponseParser.Builder builder, Jackson2BinaryNetworkResponseParser parser) {
+		if (parser != null) {
+			builder.addParser(parser);
+		}
+	}
+	/**
+	 * <pre>
+	 * Create a parser which reads the elements of a json array one by one.
+	 * Jackson 2.x is used if it is present, or Gson is used instead.
+	 * </pre>
+	 * @return {@link ArrayItemParser} instance, or null if neither of the libraries is present.
+	 */
+	public static ArrayItemParser createArrayItemParser() {
+		if(ClassUtils.isPresent(JACKSON_2_X_CLASS_NAME)) {
+			return new Jackson2NetworkResponseParser();
+		}
+
+		if(ClassUtils.isPresent(GSON_CLASS_NAME)) {
+			return new GsonNetworkResponseParser();
+		}
+
+		return null;
+	}
 	/**
 	 * <pre>
 	 * Add simple xml parser if the library is present.
@@ -35,6 +35,10 @@ public final class ContentType {
 	public static final ContentType CONTENT_TYPE_TEXT_JSON = new ContentType("text/json");
 	public static final ContentType CONTENT_TYPE_TEXT_XML = new ContentType("text/xml");
 	public static final ContentType CONTENT_TYPE_TEXT_PLAIN = new ContentType("text/plain");
+	public static final ContentType CONTENT_TYPE_APPLICATION_CBOR = new ContentType("application/cbor");
+	public static final ContentType CONTENT_TYPE_APPLICATION_SMILE = new ContentType("application/x-jackson-smile");
+	public static final ContentType CONTENT_TYPE_APPLICATION_MSGPACK = new ContentType("application/x-msgpack");
+	public static final ContentType CONTENT_TYPE_APPLICATION_PROTOBUF = new ContentType("application/x-protobuf");
 
 	private static final Map<String, ContentType> DEFAULT_CONTENT_TYPES;
 
@@ -45,6 +49,10 @@ public final class ContentType {
 		DEFAULT_CONTENT_TYPES.put(CONTENT_TYPE_APPLICATION_XML.contentTypeString, CONTENT_TYPE_APPLICATION_XML);
 		DEFAULT_CONTENT_TYPES.put(CONTENT_TYPE_TEXT_XML.contentTypeString, CONTENT_TYPE_TEXT_XML);
 		DEFAULT_CONTENT_TYPES.put(CONTENT_TYPE_TEXT_PLAIN.contentTypeString, CONTENT_TYPE_TEXT_PLAIN);
+		DEFAULT_CONTENT_TYPES.put(CONTENT_TYPE_APPLICATION_CBOR.contentTypeString, CONTENT_TYPE_APPLICATION_CBOR);
+		DEFAULT_CONTENT_TYPES.put(CONTENT_TYPE_APPLICATION_SMILE.contentTypeString, CONTENT_TYPE_APPLICATION_SMILE);
+		DEFAULT_CONTENT_TYPES.put(CONTENT_TYPE_APPLICATION_MSGPACK.contentTypeString, CONTENT_TYPE_APPLICATION_MSGPACK);
+		DEFAULT_CONTENT_TYPES.put(CONTENT_TYPE_APPLICATION_PROTOBUF.contentTypeString, CONTENT_TYPE_APPLICATION_PROTOBUF);
 	}
 
 	private String contentTypeString;
@@ -156,6 +164,10 @@ public final class ContentType {
 	 * @return string which doesn't contain spaces
 	 */
 	private static String deleteSpaces(String contentTypeString) {
+		// Skip compiling a regular expression if there is no space
+		if (contentTypeString.indexOf(' ') < 0) {
+			return contentTypeString;
+		}
 		return contentTypeString.replaceAll(" ", "");
 	}
 
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.http;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.android.volley.Header;
+import com.android.volley.NetworkResponse;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+/**
+ * <pre>
+ * A read-only view of the headers of a {@link NetworkResponse}, whose names are case-insensitive.
+ *
+ * {@code NetworkResponse.headers} can be a case-sensitive map (ex. it is made by a custom stack or a test),
+ * and it keeps only one value of repeated headers.
+ * This view is indexed from {@code NetworkResponse.allHeaders} (or {@code headers} if it is null) only once,
+ * so that the parsers can look up "Content-Type", "content-type" and a charset of the same response without scanning headers again.
+ *
+ * Usage :
+ * {@code
+ * ResponseHeaders headers = ResponseHeaders.of(response);
+ * String contentType = headers.get("content-type");
+ * String charset = headers.getCharset(HTTP.DEFAULT_CONTENT_CHARSET);
+ * }
+ *
+ * NOTE : {@link #of(NetworkResponse)} remembers the last indexed response per thread,
+ *        because a response is parsed by several parsers in turn on the same network thread.
+ * </pre>
+ */
+public final class ResponseHeaders {
+	/** Default charset of HTTP/1.1, which is also used by {@code HttpHeaderParser.parseCharset(Map)} */
+	public static final String DEFAULT_CHARSET = "ISO-8859-1";
+	private static final String CONTENT_TYPE_HEADER_KEY = "Content-Type";
+	private static final String CHARSET_PARAMETER = "charset";
+
+	private static final ThreadLocal<LastIndexed> lastIndexed = new ThreadLocal<LastIndexed>() {
+		@Override
+		protected LastIndexed initialValue() {
+			return new LastIndexed();
+		}
+	};
+
+	private final Map<String, List<String>> headers;
+	private final String charset;
+
+	private ResponseHeaders(Map<String, List<String>> headers) {
+		this.headers = headers;
+		this.charset = parseCharset(get(CONTENT_TYPE_HEADER_KEY));
+	}
+	/**
+	 * Return a header view of the response. The same view is returned while the response is parsed on a thread.
+	 * @param response NetworkResponse which has headers (or not)
+	 */
+	public static ResponseHeaders of(NetworkResponse response) {
+		Assert.notNull(response, "NetworkResponse");
+
+		LastIndexed last = lastIndexed.get();
+		if (last.response != null && last.response.get() == response) {
+			return last.headers;
+		}
+
+		ResponseHeaders headers = index(response);
+		last.response = new WeakReference<NetworkResponse>(response);
+		last.headers = headers;
+		return headers;
+	}
+
+	private static ResponseHeaders index(NetworkResponse response) {
+		Map<String, List<String>> headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+		if (response.allHeaders != null) {
+			for (Header header : response.allHeaders) {
+				addHeader(headers, header.getName(), header.getValue());
+			}
+		} else if (response.headers != null) {
+			for (Map.Entry<String, String> header : response.headers.entrySet()) {
+				addHeader(headers, header.getKey(), header.getValue());
+			}
+		}
+		return new ResponseHeaders(headers);
+	}
+
+	private static void addHeader(Map<String, List<String>> headers, String name, String value) {
+		if (name == null || value == null) {
+			return;
+		}
+
+		List<String> values = headers.get(name);
+		if (values == null) {
+			values = new ArrayList<String>(1);
+			headers.put(name, values);
+		}
+		values.add(value);
+	}
+	/**
+	 * Return the last value of the header, as {@code NetworkResponse.headers} keeps the last one of repeated headers.
+	 * @param name case-insensitive header name
+	 * @return the value, or null if the header doesn't exist
+	 */
+	public String get(String name) {
+		List<String> values = headers.get(name);
+		if (values == null) {
+			return null;
+		}
+		return values.get(values.size() - 1);
+	}
+	/**
+	 * @param name case-insensitive header name
+	 * @return unmodifiable list of all values of the header in received order, or empty list if the header doesn't exist
+	 */
+	public List<String> getAll(String name) {
+		List<String> values = headers.get(name);
+		if (values == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(values);
+	}
+	/**
+	 * @param name case-insensitive header name
+	 */
+	public boolean contains(String name) {
+		return headers.containsKey(name);
+	}
+	/**
+	 * Return the charset parameter of "Content-Type" header like {@code HttpHeaderParser.parseCharset(Map, String)}.
+	 * @param defaultCharset returned if there is no charset (can be null)
+	 */
+	public String getCharset(String defaultCharset) {
+		return charset != null ? charset : defaultCharset;
+	}
+	/**
+	 * Return the charset parameter of "Content-Type" header, or {@link #DEFAULT_CHARSET} if there is no charset.
+	 */
+	public String getCharset() {
+		return getCharset(DEFAULT_CHARSET);
+	}
+
+	private static String parseCharset(String contentType) {
+		if (contentType == null) {
+			return null;
+		}
+
+		String[] params = contentType.split(";");
+		for (int i = 1; i < params.length; i++) {
+			String[] pair = params[i].trim().split("=");
+			if (pair.length == 2 && CHARSET_PARAMETER.equalsIgnoreCase(pair[0].trim())) {
+				return pair[1].trim();
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return "ResponseHeaders" + headers;
+	}
+
+	private static class LastIndexed {
+		/** Weakly referenced not to hold response data of the thread after parsing it */
+		private WeakReference<NetworkResponse> response;
+		private ResponseHeaders headers;
+	}
+}
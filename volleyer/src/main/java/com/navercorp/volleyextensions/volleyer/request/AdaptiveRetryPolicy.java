@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request;
+
+import android.net.Uri;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.RetryPolicy;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.http.ResponseHeaders;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+/**
+ * <pre>
+ * A RetryPolicy which keeps retries from amplifying the load of a failing server.
+ *
+ * - Only idempotent methods (GET, PUT, DELETE) are retried, unless {@code retryNonIdempotent} is set.
+ * - The timeout grows by {@code backoffMultiplier} at each retry, so a slow server gets more time instead of more requests.
+ * - A retry is not made if an error response has {@code Retry-After} longer than 0, because the server asks to come back later.
+ * - A retry is not made if the {@link RetryBudget} of the host is exhausted.
+ *
+ * <b>NOTE</b>
+ * Volley retries a request on a network dispatcher thread at once, so this policy never waits between attempts.
+ * Waiting there would occupy the thread, and slow down the other requests while a server is failing.
+ * Volley retries server errors (5xx) only if {@code Request.setShouldRetryServerErrors(true)} is set.
+ * Set {@link Factory#setRetryServerErrors(boolean)} to let the builders set it.
+ *
+ * Create an instance for each request by {@link Factory}.
+ * </pre>
+ */
+public class AdaptiveRetryPolicy implements RetryPolicy {
+	public static final int DEFAULT_TIMEOUT_MS = 2500;
+	public static final int DEFAULT_MAX_RETRIES = 2;
+	public static final float DEFAULT_BACKOFF_MULTIPLIER = 1f;
+
+	private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+	private final int maxRetries;
+	private final float backoffMultiplier;
+	private final boolean isRetryable;
+	private final String host;
+	private final RetryBudget retryBudget;
+
+	private int currentTimeoutMs;
+	private int currentRetryCount = 0;
+
+	/**
+	 * @param factory settings of this policy
+	 * @param httpContent content of the request which uses this policy
+	 */
+	AdaptiveRetryPolicy(Factory factory, HttpContent httpContent) {
+		this.currentTimeoutMs = factory.timeoutMs;
+		this.maxRetries = factory.maxRetries;
+		this.backoffMultiplier = factory.backoffMultiplier;
+		this.isRetryable = factory.retryNonIdempotent || isIdempotent(httpContent.getMethod());
+		this.host = parseHost(httpContent.getUrl());
+		this.retryBudget = factory.retryBudget;
+
+		if (retryBudget != null) {
+			retryBudget.onRequest(host);
+		}
+	}
+
+	private static boolean isIdempotent(HttpMethod method) {
+		return method != HttpMethod.POST;
+	}
+
+	private static String parseHost(String url) {
+		String host = Uri.parse(url).getHost();
+		return (host == null ? "" : host);
+	}
+
+	@Override
+	public int getCurrentTimeout() {
+		return currentTimeoutMs;
+	}
+
+	@Override
+	public int getCurrentRetryCount() {
+		return currentRetryCount;
+	}
+
+	/**
+	 * Grow the timeout and let Volley retry the request, or throw the error if it must not be retried.
+	 */
+	@Override
+	public void retry(VolleyError error) throws VolleyError {
+		if (!isRetryable || currentRetryCount >= maxRetries) {
+			throw error;
+		}
+		if (parseRetryAfterMs(error.networkResponse) > 0) {
+			throw error;
+		}
+		if (retryBudget != null && !retryBudget.tryRetry(host)) {
+			throw error;
+		}
+
+		currentRetryCount++;
+		long nextTimeoutMs = currentTimeoutMs + (long) (currentTimeoutMs * backoffMultiplier);
+		currentTimeoutMs = (int) Math.min(Integer.MAX_VALUE, nextTimeoutMs);
+	}
+
+	/**
+	 * @return {@code Retry-After} in milliseconds (delta-seconds or HTTP-date), or -1 if it doesn't exist or is invalid
+	 */
+	static long parseRetryAfterMs(NetworkResponse response) {
+		if (response == null) {
+			return -1;
+		}
+		String retryAfter = ResponseHeaders.of(response).get(HEADER_RETRY_AFTER);
+		if (retryAfter == null) {
+			return -1;
+		}
+		retryAfter = retryAfter.trim();
+		try {
+			long seconds = Long.parseLong(retryAfter);
+			return (seconds < 0 ? -1 : seconds * 1000);
+		} catch (NumberFormatException e) {
+			long date = HttpHeaderParser.parseDateAsEpoch(retryAfter);
+			if (date <= 0) {
+				return -1;
+			}
+			return Math.max(0, date - System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * <pre>
+	 * A RetryPolicyFactory which creates {@link AdaptiveRetryPolicy}s with the same settings.
+	 * A RetryBudget is shared by all of the policies created by a factory.
+	 *
+	 * {@code
+	 * volleyer(requestQueue).settings()
+	 * 		.setRetryPolicyFactory(new AdaptiveRetryPolicy.Factory().setMaxRetries(3))
+	 * 		.done();
+	 * }
+	 * </pre>
+	 */
+	public static class Factory implements RetryPolicyFactory {
+		private int timeoutMs = DEFAULT_TIMEOUT_MS;
+		private int maxRetries = DEFAULT_MAX_RETRIES;
+		private float backoffMultiplier = DEFAULT_BACKOFF_MULTIPLIER;
+		private boolean retryNonIdempotent = false;
+		private boolean retryServerErrors = false;
+		private RetryBudget retryBudget = new RetryBudget();
+
+		/**
+		 * @param timeoutMs timeout of the first attempt in milliseconds
+		 */
+		public Factory setTimeoutMs(int timeoutMs) {
+			if (timeoutMs <= 0) {
+				throw new IllegalArgumentException("timeoutMs must be greater than 0.");
+			}
+			this.timeoutMs = timeoutMs;
+			return this;
+		}
+
+		public Factory setMaxRetries(int maxRetries) {
+			if (maxRetries < 0) {
+				throw new IllegalArgumentException("maxRetries must not be negative.");
+			}
+			this.maxRetries = maxRetries;
+			return this;
+		}
+
+		/**
+		 * @param backoffMultiplier The timeout of the next attempt is {@code timeout + timeout * backoffMultiplier}.
+		 */
+		public Factory setBackoffMultiplier(float backoffMultiplier) {
+			if (backoffMultiplier < 0) {
+				throw new IllegalArgumentException("backoffMultiplier must not be negative.");
+			}
+			this.backoffMultiplier = backoffMultiplier;
+			return this;
+		}
+
+		/**
+		 * Retry POST requests too. Set it only if the server handles duplicated requests safely.
+		 */
+		public Factory setRetryNonIdempotent(boolean retryNonIdempotent) {
+			this.retryNonIdempotent = retryNonIdempotent;
+			return this;
+		}
+
+		/**
+		 * Retry server errors (5xx) too, by {@code Request.setShouldRetryServerErrors(true)} of each request.
+		 * A response with {@code Retry-After} is not retried still.
+		 */
+		public Factory setRetryServerErrors(boolean retryServerErrors) {
+			this.retryServerErrors = retryServerErrors;
+			return this;
+		}
+
+		/**
+		 * @param retryBudget budget shared by the policies, or null for no budget
+		 */
+		public Factory setRetryBudget(RetryBudget retryBudget) {
+			this.retryBudget = retryBudget;
+			return this;
+		}
+
+		@Override
+		public RetryPolicy createRetryPolicy(HttpContent httpContent) {
+			Assert.notNull(httpContent, "HttpContent");
+			return new AdaptiveRetryPolicy(this, httpContent);
+		}
+
+		@Override
+		public boolean shouldRetryServerErrors() {
+			return retryServerErrors;
+		}
+	}
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.navercorp.volleyextensions.volleyer.response.parser.ItemStreamingNetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.TransformingNetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+/**
+ * <pre>
+ * A Request which is added into a RequestQueue on behalf of identical {@link VolleyerRequest}s.
+ * It is sent and parsed only once, and the parsed result (or the error) is delivered to all of the attached requests.
+ *
+ * Requests are identical if all of the belows are equal. (See {@link #keyOf(Request)})
+ * - GET method without multipart
+ * - url and headers
+ * - target type and NetworkResponseParser instance
+ * - tag, so that {@code RequestQueue.cancelAll(tag)} cancels all of the attached requests together
+ * - shouldCache, so that a request which skips the cache is never served by a request which uses it
+ *
+ * An attached request which is canceled by {@link Request#cancel()} is skipped on delivery,
+ * and this request itself is regarded as canceled when all of the attached requests are canceled.
+ * Requests cannot be attached after the result is delivered.
+ *
+ * <b>NOTE</b>
+ * The same result object is delivered to every attached request, so listeners must not modify it.
+ * Only the settings of the first request are used to send this request.
+ * Its retry policy (including a deadline set by {@code withDeadline()}) and priority apply to all of the attached requests.
+ * </pre>
+ * @see com.navercorp.volleyextensions.volleyer.request.executor.CoalescingRequestExecutor
+ */
+public class CoalescedRequest<T> extends Request<T> {
+	/**
+	 * A listener which is notified once when a CoalescedRequest delivers its result or error.
+	 */
+	public interface OnDeliveredListener {
+		void onDelivered(CoalescedRequest<?> request);
+	}
+
+	private final VolleyerRequest<T> representativeRequest;
+	private final List<VolleyerRequest<T>> attachedRequests = new ArrayList<VolleyerRequest<T>>();
+	private final OnDeliveredListener onDeliveredListener;
+	/** Guarded by {@code attachedRequests} */
+	private boolean isDelivered = false;
+
+	/**
+	 * @param request The first request, whose settings (url, headers, parser, retry policy, priority...) are used
+	 * @param onDeliveredListener null if it is not needed
+	 */
+	public CoalescedRequest(VolleyerRequest<T> request, OnDeliveredListener onDeliveredListener) {
+		super(requireNonNull(request).getMethod(), request.getUrl(), null);
+		this.representativeRequest = request;
+		this.onDeliveredListener = onDeliveredListener;
+
+		attachedRequests.add(request);
+		setRetryPolicy(request.getRetryPolicy());
+		setShouldCache(request.shouldCache());
+		setTag(request.getTag());
+	}
+
+	private static <T> VolleyerRequest<T> requireNonNull(VolleyerRequest<T> request) {
+		Assert.notNull(request, "Request");
+		return request;
+	}
+
+	/**
+	 * Attach a request which is identical to the first request.
+	 * @return false if the result is already delivered or this request is canceled.
+	 *         In that case, the caller has to execute the request in another way.
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean attach(VolleyerRequest<?> request) {
+		Assert.notNull(request, "Request");
+		if (isCanceled()) {
+			return false;
+		}
+		synchronized (attachedRequests) {
+			if (isDelivered) {
+				return false;
+			}
+			attachedRequests.add((VolleyerRequest<T>) request);
+			return true;
+		}
+	}
+
+	/**
+	 * @return the number of attached requests including the first request
+	 */
+	public int getAttachedCount() {
+		synchronized (attachedRequests) {
+			return attachedRequests.size();
+		}
+	}
+
+	@Override
+	public Map<String, String> getHeaders() throws AuthFailureError {
+		return representativeRequest.getHeaders();
+	}
+
+	@Override
+	public Priority getPriority() {
+		return representativeRequest.getPriority();
+	}
+
+	@Override
+	public void cancel() {
+		super.cancel();
+		for (VolleyerRequest<T> request : copyAttachedRequests()) {
+			request.cancel();
+		}
+	}
+
+	/**
+	 * @return true if this request is canceled, or all of the attached requests are canceled
+	 */
+	@Override
+	public boolean isCanceled() {
+		if (super.isCanceled()) {
+			return true;
+		}
+		for (VolleyerRequest<T> request : copyAttachedRequests()) {
+			if (!request.isCanceled()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	protected Response<T> parseNetworkResponse(NetworkResponse response) {
+		return representativeRequest.parseNetworkResponse(response);
+	}
+
+	@Override
+	protected void deliverResponse(T result) {
+		for (VolleyerRequest<T> request : closeAndGetAttachedRequests()) {
+			if (!request.isCanceled()) {
+				request.deliverResponse(result);
+			}
+		}
+	}
+
+	@Override
+	public void deliverError(VolleyError error) {
+		for (VolleyerRequest<T> request : closeAndGetAttachedRequests()) {
+			if (!request.isCanceled()) {
+				request.deliverError(error);
+			}
+		}
+	}
+
+	private List<VolleyerRequest<T>> copyAttachedRequests() {
+		synchronized (attachedRequests) {
+			return new ArrayList<VolleyerRequest<T>>(attachedRequests);
+		}
+	}
+
+	private List<VolleyerRequest<T>> closeAndGetAttachedRequests() {
+		List<VolleyerRequest<T>> requests;
+		synchronized (attachedRequests) {
+			isDelivered = true;
+			requests = new ArrayList<VolleyerRequest<T>>(attachedRequests);
+		}
+		if (onDeliveredListener != null) {
+			onDeliveredListener.onDelivered(this);
+		}
+		return requests;
+	}
+
+	/**
+	 * Return a key which is equal for identical requests.
+	 * @return null if the request cannot be coalesced
+	 */
+	public static Object keyOf(Request<?> request) {
+		if (!(request instanceof VolleyerRequest)) {
+			return null;
+		}
+		VolleyerRequest<?> volleyerRequest = (VolleyerRequest<?>) request;
+		if (volleyerRequest.getMethod() != Method.GET || volleyerRequest.hasMultipart()) {
+			return null;
+		}
+
+		NetworkResponseParser responseParser = volleyerRequest.getResponseParser();
+		if (isBoundToRequest(responseParser)) {
+			return null;
+		}
+
+		Map<String, String> headers;
+		try {
+			headers = volleyerRequest.getHeaders();
+		} catch (AuthFailureError e) {
+			return null;
+		}
+		return new Key(volleyerRequest.getUrl(), headers, volleyerRequest.getTargetType().getType(), responseParser,
+						volleyerRequest.getTag(), volleyerRequest.shouldCache());
+	}
+
+	private static boolean isBoundToRequest(NetworkResponseParser responseParser) {
+		NetworkResponseParser parser = responseParser;
+		while (parser instanceof TransformingNetworkResponseParser) {
+			parser = ((TransformingNetworkResponseParser<?, ?>) parser).getResponseParser();
+		}
+		return parser instanceof ItemStreamingNetworkResponseParser;
+	}
+
+	private static final class Key {
+		private final String url;
+		private final Map<String, String> headers;
+		private final Type type;
+		private final NetworkResponseParser responseParser;
+		private final Object tag;
+		private final boolean shouldCache;
+		private final int hashCode;
+
+		private Key(String url, Map<String, String> headers, Type type, NetworkResponseParser responseParser, Object tag,
+					boolean shouldCache) {
+			this.url = url;
+			this.headers = (headers == null ? new HashMap<String, String>() : new HashMap<String, String>(headers));
+			this.type = type;
+			this.responseParser = responseParser;
+			this.tag = tag;
+			this.shouldCache = shouldCache;
+			this.hashCode = computeHashCode();
+		}
+
+		private int computeHashCode() {
+			int result = (url == null ? 0 : url.hashCode());
+			result = 31 * result + headers.hashCode();
+			result = 31 * result + type.hashCode();
+			result = 31 * result + System.identityHashCode(responseParser);
+			result = 31 * result + (tag == null ? 0 : tag.hashCode());
+			result = 31 * result + (shouldCache ? 1 : 0);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			}
+			if (!(object instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) object;
+			return hashCode == other.hashCode
+					&& (url == null ? other.url == null : url.equals(other.url))
+					&& headers.equals(other.headers)
+					&& type.equals(other.type)
+					&& responseParser == other.responseParser
+					&& (tag == null ? other.tag == null : tag.equals(other.tag))
+					&& shouldCache == other.shouldCache;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
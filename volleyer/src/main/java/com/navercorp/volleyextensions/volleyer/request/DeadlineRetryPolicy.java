@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request;
+
+import android.os.SystemClock;
+
+import com.android.volley.RetryPolicy;
+import com.android.volley.VolleyError;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+/**
+ * <pre>
+ * A RetryPolicy which limits the total time of a request, including the time waiting in a RequestQueue and all of the retries.
+ * Each timeout of the given RetryPolicy is shortened to the remaining time,
+ * and no more retry is made after the deadline.
+ *
+ * The deadline starts when this policy is created, so create one for each request.
+ * </pre>
+ */
+public class DeadlineRetryPolicy implements RetryPolicy {
+	private final RetryPolicy retryPolicy;
+	private final long deadlineMs;
+	private final long deadlineAt;
+
+	/**
+	 * @param retryPolicy RetryPolicy which decides timeouts and retries within the deadline
+	 * @param deadlineMs Total time allowed for the request in milliseconds, which starts now
+	 */
+	public DeadlineRetryPolicy(RetryPolicy retryPolicy, long deadlineMs) {
+		Assert.notNull(retryPolicy, "RetryPolicy");
+		if (deadlineMs <= 0) {
+			throw new IllegalArgumentException("Deadline must be greater than 0.");
+		}
+		this.retryPolicy = retryPolicy;
+		this.deadlineMs = deadlineMs;
+		this.deadlineAt = SystemClock.elapsedRealtime() + deadlineMs;
+	}
+
+	/**
+	 * @return the timeout of the given RetryPolicy, but not longer than the remaining time. (At least 1 millisecond.)
+	 */
+	@Override
+	public int getCurrentTimeout() {
+		long remainingMs = getRemainingMs();
+		return (int) Math.max(1, Math.min(retryPolicy.getCurrentTimeout(), remainingMs));
+	}
+
+	@Override
+	public int getCurrentRetryCount() {
+		return retryPolicy.getCurrentRetryCount();
+	}
+
+	/**
+	 * @throws VolleyError {@code error} if the deadline has passed, or the given RetryPolicy has no attempt remaining
+	 */
+	@Override
+	public void retry(VolleyError error) throws VolleyError {
+		if (getRemainingMs() <= 0) {
+			throw error;
+		}
+		retryPolicy.retry(error);
+	}
+
+	/**
+	 * @return remaining time until the deadline in milliseconds, which is not positive after the deadline
+	 */
+	public long getRemainingMs() {
+		return deadlineAt - SystemClock.elapsedRealtime();
+	}
+
+	public long getDeadlineMs() {
+		return deadlineMs;
+	}
+
+	/**
+	 * @return true if the deadline has passed
+	 */
+	public boolean isExpired() {
+		return getRemainingMs() <= 0;
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+import com.android.volley.Request;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+/**
+ * <pre>
+ * A group of requests which can be canceled together. (ex. all of the requests of a screen)
+ * Requests are added by {@code setRequestGroup()} of the builders, and can be canceled by {@link #cancelAll()}
+ * wherever they are, including requests which are waiting out of a RequestQueue. (ex. deferred or coalesced requests)
+ * A request which has no tag gets this group as its tag, so {@code RequestQueue.cancelAll(group)} also works.
+ *
+ * {@code
+ * RequestGroup group = new RequestGroup().bindTo(activity);
+ * volleyer().get(url).setRequestGroup(group).withTargetClass(Feed.class).withListener(listener).execute();
+ * }
+ *
+ * After {@link #close()} (or destruction of the bound Activity), requests added into the group are canceled immediately.
+ * The group holds requests weakly, so it doesn't keep finished requests on memory.
+ * </pre>
+ */
+public class RequestGroup {
+	/** All of the fields below are guarded by {@code this} */
+	private final Set<Request<?>> requests = Collections.newSetFromMap(new WeakHashMap<Request<?>, Boolean>());
+	private boolean isClosed = false;
+
+	/**
+	 * Add a request into this group. It is canceled immediately if this group is closed.
+	 */
+	public void add(Request<?> request) {
+		Assert.notNull(request, "Request");
+		if (request.getTag() == null) {
+			request.setTag(this);
+		}
+		synchronized (this) {
+			if (!isClosed) {
+				removeCompletedRequests();
+				requests.add(request);
+				return;
+			}
+		}
+		request.cancel();
+	}
+
+	/**
+	 * Cancel all of the requests in this group. The group can still be used after this.
+	 */
+	public void cancelAll() {
+		List<Request<?>> requestsToCancel;
+		synchronized (this) {
+			requestsToCancel = new ArrayList<Request<?>>(requests);
+			requests.clear();
+		}
+		for (Request<?> request : requestsToCancel) {
+			request.cancel();
+		}
+	}
+
+	/**
+	 * Cancel all of the requests in this group, and cancel requests which will be added after this.
+	 */
+	public void close() {
+		synchronized (this) {
+			isClosed = true;
+		}
+		cancelAll();
+	}
+
+	public synchronized boolean isClosed() {
+		return isClosed;
+	}
+
+	/**
+	 * @return the number of requests which are neither delivered nor canceled
+	 */
+	public synchronized int size() {
+		removeCompletedRequests();
+		return requests.size();
+	}
+
+	/**
+	 * <pre>
+	 * Close this group when the activity is destroyed.
+	 * NOTE : Call it on the main thread, before the activity is destroyed.
+	 * </pre>
+	 * @return this group
+	 */
+	public RequestGroup bindTo(final Activity activity) {
+		Assert.notNull(activity, "Activity");
+		final Application application = activity.getApplication();
+		application.registerActivityLifecycleCallbacks(new ActivityDestroyedCallbacks() {
+			@Override
+			public void onActivityDestroyed(Activity destroyedActivity) {
+				if (destroyedActivity != activity) {
+					return;
+				}
+				application.unregisterActivityLifecycleCallbacks(this);
+				close();
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * NOTE : This method must be called while holding the lock of this group.
+	 */
+	private void removeCompletedRequests() {
+		Iterator<Request<?>> iterator = requests.iterator();
+		while (iterator.hasNext()) {
+			Request<?> request = iterator.next();
+			if (request.hasHadResponseDelivered() || request.isCanceled()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private abstract static class ActivityDestroyedCallbacks implements Application.ActivityLifecycleCallbacks {
+		@Override
+		public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+		}
+
+		@Override
+		public void onActivityStarted(Activity activity) {
+		}
+
+		@Override
+		public void onActivityResumed(Activity activity) {
+		}
+
+		@Override
+		public void onActivityPaused(Activity activity) {
+		}
+
+		@Override
+		public void onActivityStopped(Activity activity) {
+		}
+
+		@Override
+		public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+		}
+	}
+}
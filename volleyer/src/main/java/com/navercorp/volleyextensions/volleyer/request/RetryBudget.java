@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request;
+
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * <pre>
+ * A budget of retries for each host, which keeps retries from amplifying the load of a failing server.
+ *
+ * Each request deposits {@code retryRatio} token into the bucket of its host, and each retry withdraws one token.
+ * A retry is not made if the bucket has less than one token. So retries are limited to about {@code retryRatio}
+ * of the requests in a long run, even if all of the requests fail. (ex. 0.1 means 10% more load at most)
+ * Buckets start with {@code minRetries} tokens, and never have more than {@code maxTokens}.
+ * </pre>
+ * @see AdaptiveRetryPolicy
+ */
+public class RetryBudget {
+	public static final float DEFAULT_RETRY_RATIO = 0.1f;
+	public static final int DEFAULT_MIN_RETRIES = 10;
+	public static final int DEFAULT_MAX_TOKENS = 100;
+
+	private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<String, Bucket>();
+	private final float retryRatio;
+	private final int minRetries;
+	private final int maxTokens;
+
+	public RetryBudget() {
+		this(DEFAULT_RETRY_RATIO, DEFAULT_MIN_RETRIES, DEFAULT_MAX_TOKENS);
+	}
+
+	/**
+	 * @param retryRatio tokens deposited by a request, must be greater than 0
+	 * @param minRetries initial tokens of a host, must not be negative
+	 * @param maxTokens maximum tokens of a host, must not be less than minRetries
+	 */
+	public RetryBudget(float retryRatio, int minRetries, int maxTokens) {
+		if (retryRatio <= 0) {
+			throw new IllegalArgumentException("retryRatio must be greater than 0.");
+		}
+		if (minRetries < 0 || maxTokens < minRetries) {
+			throw new IllegalArgumentException("minRetries must not be negative, and maxTokens must not be less than minRetries.");
+		}
+		this.retryRatio = retryRatio;
+		this.minRetries = minRetries;
+		this.maxTokens = maxTokens;
+	}
+
+	/**
+	 * Deposit a token for a request to the host.
+	 */
+	public void onRequest(String host) {
+		getBucket(host).deposit(retryRatio, maxTokens);
+	}
+
+	/**
+	 * Withdraw a token for a retry to the host.
+	 * @return false if the budget of the host is exhausted and the retry must not be made
+	 */
+	public boolean tryRetry(String host) {
+		return getBucket(host).withdraw();
+	}
+
+	/**
+	 * @return current tokens of the host
+	 */
+	public float getBalance(String host) {
+		return getBucket(host).getTokens();
+	}
+
+	private Bucket getBucket(String host) {
+		String key = (host == null ? "" : host);
+		Bucket bucket = buckets.get(key);
+		if (bucket != null) {
+			return bucket;
+		}
+		Bucket newBucket = new Bucket(minRetries);
+		bucket = buckets.putIfAbsent(key, newBucket);
+		return (bucket == null ? newBucket : bucket);
+	}
+
+	private static class Bucket {
+		private float tokens;
+
+		private Bucket(float tokens) {
+			this.tokens = tokens;
+		}
+
+		private synchronized void deposit(float amount, int maxTokens) {
+			tokens = Math.min(maxTokens, tokens + amount);
+		}
+
+		private synchronized boolean withdraw() {
+			if (tokens < 1) {
+				return false;
+			}
+			tokens -= 1;
+			return true;
+		}
+
+		private synchronized float getTokens() {
+			return tokens;
+		}
+	}
+}
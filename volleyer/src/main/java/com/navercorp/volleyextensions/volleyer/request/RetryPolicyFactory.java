@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request;
+
+import com.android.volley.RetryPolicy;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+/**
+ * <pre>
+ * A factory which creates a RetryPolicy for each request.
+ * RetryPolicy of Volley keeps the state of retries (ex. count, timeout), so it must not be shared by requests.
+ * Set it by {@code Volleyer.Settings.setRetryPolicyFactory()} or {@code setRetryPolicyFactory()} of the builders.
+ * </pre>
+ * @see AdaptiveRetryPolicy.Factory
+ */
+public interface RetryPolicyFactory {
+	/**
+	 * Create a new RetryPolicy for a request, which is called when the request is executed.
+	 * @param httpContent url, method and headers of the request
+	 */
+	RetryPolicy createRetryPolicy(HttpContent httpContent);
+	/**
+	 * @return true if server errors (5xx) should be retried, which is set to each request by {@code Request.setShouldRetryServerErrors()}
+	 */
+	default boolean shouldRetryServerErrors() {
+		return false;
+	}
+}
@@ -15,15 +15,21 @@
  */
 package com.navercorp.volleyextensions.volleyer.request;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import androidx.annotation.NonNull;
 import com.android.volley.*;
 import com.android.volley.Response.ErrorListener;
 import com.android.volley.Response.Listener;
+import com.android.volley.toolbox.HttpHeaderParser;
 import com.navercorp.volleyextensions.volleyer.http.HttpContent;
 import com.navercorp.volleyextensions.volleyer.multipart.Multipart;
 import com.navercorp.volleyextensions.volleyer.multipart.MultipartContainer;
+import com.navercorp.volleyextensions.volleyer.response.ParsedResponseCache;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
 import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.util.Assert;
 /**
@@ -35,11 +41,34 @@ import com.navercorp.volleyextensions.volleyer.util.Assert;
  * </pre>
  */
 public class VolleyerRequest<T> extends Request<T> implements MultipartContainer {
+	/**
+	 * A listener which observes the result of a request before the listeners of the request.
+	 * It is called on the thread which delivers the result (the main thread by default).
+	 */
+	public interface OnResultListener {
+		void onSuccess(VolleyerRequest<?> request);
+
+		void onError(VolleyerRequest<?> request, VolleyError error);
+		/**
+		 * Called once on the thread which cancels the request, if it is canceled before any result is delivered.
+		 * Volley doesn't deliver a result of a canceled request, so neither of the other methods may be called.
+		 */
+		default void onCanceled(VolleyerRequest<?> request) {
+		}
+	}
 
 	private NetworkResponseParser responseParser;
 	private Listener<T> listener;
-	private Class<T> clazz;
+	private TargetType<T> targetType;
 	private HttpContent httpContent;
+	private Priority priority = Priority.NORMAL;
+	/** Optional cache of parsed responses. It is set before this request is added to a RequestQueue. */
+	private volatile ParsedResponseCache parsedResponseCache;
+	private final List<OnResultListener> onResultListeners = new CopyOnWriteArrayList<OnResultListener>();
+	/** Guards the fields below, so that each OnResultListener is notified of a cancellation once */
+	private final Object resultLock = new Object();
+	private boolean isResultDelivered = false;
+	private boolean isCancelNotified = false;
 	/**
 	 * @param httpContent HttpContent instance from builder
 	 * @param clazz Target class from builder
@@ -50,9 +79,20 @@ public class VolleyerRequest<T> extends Request<T> implements MultipartContainer
 	 */
 	public VolleyerRequest(HttpContent httpContent, Class<T> clazz, NetworkResponseParser responseParser,
 						   Listener<T> listener, ErrorListener errorListener, @NonNull RetryPolicy retryPolicy) {
+		this(httpContent, TargetType.of(clazz), responseParser, listener, errorListener, retryPolicy);
+	}
+	/**
+	 * @param httpContent HttpContent instance from builder
+	 * @param targetType Target type from builder, which can be a generic type
+	 * @param responseParser NetworkResponseParser instance from builder
+	 * @param listener Volley listener instance from builder
+	 * @param errorListener error listener instance from builder
+	 */
+	public VolleyerRequest(HttpContent httpContent, TargetType<T> targetType, NetworkResponseParser responseParser,
+						   Listener<T> listener, ErrorListener errorListener, @NonNull RetryPolicy retryPolicy) {
 		super(httpContent.getMethod().getMethodCode(), httpContent.getUrl(), errorListener);
 
-		Assert.notNull(clazz, "Target class token");
+		Assert.notNull(targetType, "Target type");
 		Assert.notNull(responseParser, "NetworkResponseParser");
 		Assert.notNull(listener, "listener");
 		Assert.notNull(retryPolicy, "RetryPolicy");
@@ -60,7 +100,7 @@ public class VolleyerRequest<T> extends Request<T> implements MultipartContainer
 		this.httpContent = httpContent;
 		this.responseParser = responseParser;
 		this.listener = listener;
-		this.clazz = clazz;
+		this.targetType = targetType;
 
 		setRetryPolicy(retryPolicy);
 	}
@@ -75,19 +115,134 @@ public class VolleyerRequest<T> extends Request<T> implements MultipartContainer
 		return httpContent.getBody();
 	}
 
+	@Override
+	public Priority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * Set a priority of this request. RequestQueue takes a request of higher priority first.
+	 * It must be set before this request is added to a RequestQueue.
+	 * @param priority must not be null
+	 */
+	public void setPriority(Priority priority) {
+		Assert.notNull(priority, "Priority");
+		this.priority = priority;
+	}
+
+	/**
+	 * Add a listener which observes the result of this request. It must be added before this request is added to a RequestQueue.
+	 * If this request has already been canceled before any result, {@link OnResultListener#onCanceled(VolleyerRequest)}
+	 * is called at once.
+	 * @param onResultListener must not be null
+	 */
+	public void addOnResultListener(OnResultListener onResultListener) {
+		Assert.notNull(onResultListener, "OnResultListener");
+		boolean isCanceledBefore;
+		synchronized (resultLock) {
+			onResultListeners.add(onResultListener);
+			isCanceledBefore = isCancelNotified;
+		}
+		if (isCanceledBefore) {
+			onResultListener.onCanceled(this);
+		}
+	}
+
 	@Override
 	protected void deliverResponse(T result) {
+		markResultDelivered();
+		for (OnResultListener onResultListener : onResultListeners) {
+			onResultListener.onSuccess(this);
+		}
 		listener.onResponse(result);
 	}
+
+	@Override
+	public void deliverError(VolleyError error) {
+		markResultDelivered();
+		for (OnResultListener onResultListener : onResultListeners) {
+			onResultListener.onError(this, error);
+		}
+		super.deliverError(error);
+	}
+
+	private void markResultDelivered() {
+		synchronized (resultLock) {
+			isResultDelivered = true;
+		}
+	}
+
+	@Override
+	public void cancel() {
+		super.cancel();
+		List<OnResultListener> listenersToNotify;
+		synchronized (resultLock) {
+			if (isResultDelivered || isCancelNotified) {
+				return;
+			}
+			isCancelNotified = true;
+			listenersToNotify = new ArrayList<OnResultListener>(onResultListeners);
+		}
+		for (OnResultListener onResultListener : listenersToNotify) {
+			onResultListener.onCanceled(this);
+		}
+	}
 	/**
 	 * @return Specific type object of an converted object from response data
+	 *         (The raw class if the target type is a generic type.)
 	 */
+	@SuppressWarnings("unchecked")
 	protected Class<T> getTargetClass() {
-		return this.clazz;
+		return (Class<T>) this.targetType.getRawClass();
+	}
+	/**
+	 * @return Target type of an converted object from response data
+	 */
+	protected TargetType<T> getTargetType() {
+		return this.targetType;
+	}
+
+	/**
+	 * @return NetworkResponseParser which parses a response of this request
+	 */
+	NetworkResponseParser getResponseParser() {
+		return this.responseParser;
+	}
+
+	/**
+	 * Set a cache of parsed responses, which lets this request skip parsing a response parsed by another request.
+	 * @param parsedResponseCache null if parsed responses are not cached
+	 * @see ParsedResponseCache
+	 */
+	public void setParsedResponseCache(ParsedResponseCache parsedResponseCache) {
+		this.parsedResponseCache = parsedResponseCache;
 	}
 
 	protected Response<T> parseNetworkResponse(NetworkResponse response) {
-		return responseParser.parseNetworkResponse(response, clazz);
+		ParsedResponseCache parsedResponseCache = this.parsedResponseCache;
+		if (parsedResponseCache == null || !shouldCache()) {
+			return parseByResponseParser(response);
+		}
+
+		@SuppressWarnings("unchecked")
+		T cachedResult = (T) parsedResponseCache.get(getCacheKey(), targetType.getType(), responseParser, response);
+		if (cachedResult != null) {
+			return Response.success(cachedResult, HttpHeaderParser.parseCacheHeaders(response));
+		}
+
+		// The parser parses cache headers of the response, so they are not parsed here
+		Response<T> parsedResponse = parseByResponseParser(response);
+		if (parsedResponse.isSuccess()) {
+			parsedResponseCache.put(getCacheKey(), targetType.getType(), responseParser, response, parsedResponse.result);
+		}
+		return parsedResponse;
+	}
+
+	private Response<T> parseByResponseParser(NetworkResponse response) {
+		if (targetType.isRawClass()) {
+			return responseParser.parseNetworkResponse(response, getTargetClass());
+		}
+		return responseParser.parseNetworkResponse(response, targetType);
 	}
 
 	@Override
@@ -22,6 +22,7 @@ import com.android.volley.Response.Listener;
 import com.android.volley.RetryPolicy;
 import com.navercorp.volleyextensions.volleyer.http.HttpContent;
 import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
 import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
 /**
  * A RequestCreator implementation class which creates VolleyerRequest.
@@ -35,4 +36,12 @@ public class DefaultRequestCreator implements RequestCreator {
 										@NonNull RetryPolicy retryPolicy) {
 		return new VolleyerRequest<>(httpContent, clazz, responseParser, listener, errorListener, retryPolicy);
 	}
+
+	@Override
+	public <T> Request<T> createRequest(HttpContent httpContent,
+										TargetType<T> targetType, NetworkResponseParser responseParser,
+										Listener<T> listener, ErrorListener errorListener,
+										@NonNull RetryPolicy retryPolicy) {
+		return new VolleyerRequest<>(httpContent, targetType, responseParser, listener, errorListener, retryPolicy);
+	}
 }
@@ -21,6 +21,7 @@ import com.android.volley.Response.ErrorListener;
 import com.android.volley.Response.Listener;
 import com.android.volley.RetryPolicy;
 import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
 import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
 /**
  * <pre>
@@ -39,4 +40,26 @@ public interface RequestCreator {
 	<T> Request<T> createRequest(HttpContent httpContent, Class<T> clazz,
 								 NetworkResponseParser responseParser, Listener<T> listener,
 								 ErrorListener errorListener, @NonNull RetryPolicy retryPolicy);
+	/**
+	 * <pre>
+	 * Create a {@code Request} instance for a target type, which can be a generic type such as {@code List<Tweet>}.
+	 * All of the parameters are delivered from {@code ResponseBuilder}.
+	 *
+	 * NOTE : The default implementation only supports a {@code TargetType} of a raw class,
+	 *        and delegates it to {@link #createRequest(HttpContent, Class, NetworkResponseParser, Listener, ErrorListener, RetryPolicy)}.
+	 *        Override this method if the created request can be parsed to generic types.
+	 * </pre>
+	 * @return Request<T> newly created instance
+	 */
+	default <T> Request<T> createRequest(HttpContent httpContent, TargetType<T> targetType,
+										 NetworkResponseParser responseParser, Listener<T> listener,
+										 ErrorListener errorListener, @NonNull RetryPolicy retryPolicy) {
+		if (!targetType.isRawClass()) {
+			throw new UnsupportedOperationException(getClass().getName()
+					+ " cannot create a request for the generic type : " + targetType.getType());
+		}
+		@SuppressWarnings("unchecked")
+		Class<T> clazz = (Class<T>) targetType.getRawClass();
+		return createRequest(httpContent, clazz, responseParser, listener, errorListener, retryPolicy);
+	}
 }
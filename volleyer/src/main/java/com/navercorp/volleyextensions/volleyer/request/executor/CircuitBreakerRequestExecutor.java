@@ -0,0 +1,377 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request.executor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.RequestFuture;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+
+/**
+ * <pre>
+ * A RequestExecutor implementation class which stops sending requests to a host while the host seems to be down.
+ * Without it, every request to a dead host waits out its timeout (and retries) on a network thread of RequestQueue,
+ * which delays requests to healthy hosts.
+ *
+ * This executor keeps a circuit for each host, which tracks the results of the recent requests.
+ * - CLOSED : Requests are executed. If the rate of failed requests among the recent ones reaches the threshold, the circuit opens.
+ *            A request fails if it gets a timeout or a 5xx response, or if it takes longer than the slow call threshold.
+ *            The time of a call is measured from the moment when it is executed by this executor,
+ *            so it includes the time while the request waits in inner executors and RequestQueue.
+ * - OPEN : Requests fail fast with {@link CircuitOpenError} without being added into RequestQueue.
+ *          The error is delivered on the main thread, like errors delivered by RequestQueue.
+ *          After the open duration, the circuit becomes half-open.
+ * - HALF_OPEN : Only one request is executed as a probe, and the others fail fast.
+ *               The circuit closes if the probe succeeds, or opens again if it fails.
+ *               Another probe is executed if the probe is canceled, or if its result does not come within the open duration.
+ *
+ * Only {@link VolleyerRequest}s are tracked. Other requests are executed as they are.
+ * Put this executor outside of a {@link CoalescingRequestExecutor}, because coalesced requests are not VolleyerRequests.
+ * {@code
+ * new CircuitBreakerRequestExecutor(new CoalescingRequestExecutor())
+ * 		.setFailureRateThreshold(0.5f)
+ * 		.setOpenDurationMs(30000);
+ * }
+ * Settings must be set before any request is executed.
+ * </pre>
+ */
+public class CircuitBreakerRequestExecutor implements RequestExecutor {
+	/**
+	 * State of a circuit of a host.
+	 */
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	public static final float DEFAULT_FAILURE_RATE_THRESHOLD = 0.5f;
+	public static final int DEFAULT_WINDOW_SIZE = 20;
+	public static final int DEFAULT_MINIMUM_CALLS = 10;
+	public static final long DEFAULT_SLOW_CALL_THRESHOLD_MS = 10000;
+	public static final long DEFAULT_OPEN_DURATION_MS = 30000;
+
+	private final RequestExecutor requestExecutor;
+	private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<String, Circuit>();
+	private final Handler handler = new Handler(Looper.getMainLooper());
+	private float failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+	private int windowSize = DEFAULT_WINDOW_SIZE;
+	private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+	private long slowCallThresholdMs = DEFAULT_SLOW_CALL_THRESHOLD_MS;
+	private long openDurationMs = DEFAULT_OPEN_DURATION_MS;
+
+	public CircuitBreakerRequestExecutor() {
+		this(new DefaultRequestExecutor());
+	}
+
+	/**
+	 * @param requestExecutor RequestExecutor which executes requests in fact
+	 */
+	public CircuitBreakerRequestExecutor(RequestExecutor requestExecutor) {
+		Assert.notNull(requestExecutor, "RequestExecutor");
+		this.requestExecutor = requestExecutor;
+	}
+
+	/**
+	 * @param failureRateThreshold The circuit opens if the rate of failed requests reaches it. It must be in (0, 1].
+	 */
+	public CircuitBreakerRequestExecutor setFailureRateThreshold(float failureRateThreshold) {
+		if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+			throw new IllegalArgumentException("Failure rate threshold must be in (0, 1].");
+		}
+		this.failureRateThreshold = failureRateThreshold;
+		return this;
+	}
+
+	/**
+	 * @param windowSize The number of recent requests whose results are tracked
+	 * @param minimumCalls The minimum number of tracked results to compute the failure rate. It must be in [1, windowSize].
+	 */
+	public CircuitBreakerRequestExecutor setWindowSize(int windowSize, int minimumCalls) {
+		if (minimumCalls < 1 || minimumCalls > windowSize) {
+			throw new IllegalArgumentException("Minimum calls must be in [1, windowSize].");
+		}
+		this.windowSize = windowSize;
+		this.minimumCalls = minimumCalls;
+		return this;
+	}
+
+	/**
+	 * @param slowCallThresholdMs A successful request is regarded as failed if it takes longer than it.
+	 *            Keep it longer than the usual waiting time in RequestQueue, because the waiting time is included.
+	 */
+	public CircuitBreakerRequestExecutor setSlowCallThresholdMs(long slowCallThresholdMs) {
+		if (slowCallThresholdMs <= 0) {
+			throw new IllegalArgumentException("Slow call threshold must be positive.");
+		}
+		this.slowCallThresholdMs = slowCallThresholdMs;
+		return this;
+	}
+
+	/**
+	 * @param openDurationMs How long the circuit stays open before a probe request is executed
+	 */
+	public CircuitBreakerRequestExecutor setOpenDurationMs(long openDurationMs) {
+		if (openDurationMs <= 0) {
+			throw new IllegalArgumentException("Open duration must be positive.");
+		}
+		this.openDurationMs = openDurationMs;
+		return this;
+	}
+
+	@Override
+	public <T> void executeRequest(RequestQueue requestQueue, Request<T> request) {
+		if (!tryAcquire(request)) {
+			postCircuitOpenError(request);
+			return;
+		}
+		requestExecutor.executeRequest(requestQueue, request);
+	}
+
+	@Override
+	public <T> void executeRequestFuture(RequestQueue requestQueue, Request<T> request, RequestFuture<T> requestFuture) {
+		if (!tryAcquire(request)) {
+			requestFuture.setRequest(request);
+			postCircuitOpenError(request);
+			return;
+		}
+		requestExecutor.executeRequestFuture(requestQueue, request, requestFuture);
+	}
+
+	/**
+	 * @return the state of the circuit of the host
+	 */
+	public State getState(String host) {
+		Circuit circuit = circuits.get(host);
+		if (circuit == null) {
+			return State.CLOSED;
+		}
+		synchronized (circuit) {
+			circuit.updateState(SystemClock.elapsedRealtime());
+			return circuit.state;
+		}
+	}
+
+	/**
+	 * Return whether an error means that the host is unhealthy.
+	 * By default, timeouts and 5xx responses are failures, while the others are not.
+	 * - 4xx responses and parse errors : The host responds properly.
+	 * - Connection errors (ex. {@code NoConnectionError}) : They mostly come from the network of the device, not from the host.
+	 */
+	protected boolean isFailure(VolleyError error) {
+		if (error.networkResponse != null) {
+			// NOTE : ClientError of 4xx responses is a subclass of ServerError.
+			return error.networkResponse.statusCode >= 500;
+		}
+		return error instanceof TimeoutError || error instanceof ServerError;
+	}
+
+	/**
+	 * Deliver CircuitOpenError on the main thread, so that the caller of the executor gets the error
+	 * after it returns, like the errors delivered by RequestQueue.
+	 */
+	private void postCircuitOpenError(final Request<?> request) {
+		final CircuitOpenError error = new CircuitOpenError(hostOf(request));
+		handler.post(new Runnable() {
+			@Override
+			public void run() {
+				if (!request.isCanceled()) {
+					request.deliverError(error);
+				}
+			}
+		});
+	}
+
+	/**
+	 * @return false if the request has to fail fast
+	 */
+	private boolean tryAcquire(Request<?> request) {
+		if (!(request instanceof VolleyerRequest)) {
+			return true;
+		}
+		String host = hostOf(request);
+		Circuit circuit = getCircuit(host);
+		long now = SystemClock.elapsedRealtime();
+		boolean isProbe;
+		synchronized (circuit) {
+			circuit.updateState(now);
+			if (circuit.state == State.CLOSED) {
+				isProbe = false;
+			} else if (circuit.state == State.HALF_OPEN && circuit.probeStartedAt < 0) {
+				circuit.probeStartedAt = now;
+				isProbe = true;
+			} else {
+				return false;
+			}
+		}
+		((VolleyerRequest<?>) request).addOnResultListener(new CallResultListener(circuit, now, isProbe));
+		return true;
+	}
+
+	private Circuit getCircuit(String host) {
+		Circuit circuit = circuits.get(host);
+		if (circuit != null) {
+			return circuit;
+		}
+		circuits.putIfAbsent(host, new Circuit());
+		return circuits.get(host);
+	}
+
+	private static String hostOf(Request<?> request) {
+		String host = Uri.parse(request.getUrl()).getHost();
+		return (host == null ? "" : host);
+	}
+
+	/**
+	 * A circuit of a host. All of the fields are guarded by the circuit itself.
+	 */
+	private class Circuit {
+		private State state = State.CLOSED;
+		private final boolean[] failures = new boolean[windowSize];
+		private int index = 0;
+		private int callCount = 0;
+		private int failureCount = 0;
+		private long openedAt;
+		/** Start time of the probe request in HALF_OPEN state, or -1 if the probe can be executed */
+		private long probeStartedAt = -1;
+
+		private void updateState(long now) {
+			if (state == State.OPEN && now - openedAt >= openDurationMs) {
+				state = State.HALF_OPEN;
+				probeStartedAt = -1;
+			} else if (state == State.HALF_OPEN && probeStartedAt >= 0 && now - probeStartedAt >= openDurationMs) {
+				// The result of the probe is lost.
+				probeStartedAt = -1;
+			}
+		}
+
+		private void onProbeCanceled() {
+			if (state == State.HALF_OPEN) {
+				probeStartedAt = -1;
+			}
+		}
+
+		private void onResult(boolean isFailed, boolean isProbe, long now) {
+			if (isProbe) {
+				if (state != State.HALF_OPEN) {
+					return;
+				}
+				if (isFailed) {
+					open(now);
+				} else {
+					close();
+				}
+				return;
+			}
+			if (state == State.CLOSED) {
+				record(isFailed);
+				if (callCount >= minimumCalls && failureCount >= failureRateThreshold * callCount) {
+					open(now);
+				}
+			}
+			// Results of requests which were executed before the circuit opened are ignored.
+		}
+
+		private void record(boolean isFailed) {
+			if (callCount == failures.length) {
+				if (failures[index]) {
+					failureCount--;
+				}
+			} else {
+				callCount++;
+			}
+			failures[index] = isFailed;
+			if (isFailed) {
+				failureCount++;
+			}
+			index = (index + 1) % failures.length;
+		}
+
+		private void open(long now) {
+			state = State.OPEN;
+			openedAt = now;
+		}
+
+		private void close() {
+			state = State.CLOSED;
+			index = 0;
+			callCount = 0;
+			failureCount = 0;
+			probeStartedAt = -1;
+		}
+	}
+
+	/**
+	 * Records the first result of a call, because a request may deliver more than one response. (ex. a soft-expired cache entry)
+	 */
+	private class CallResultListener implements VolleyerRequest.OnResultListener {
+		private final Circuit circuit;
+		private final long startedAt;
+		private final boolean isProbe;
+		/** It is guarded by the circuit. */
+		private boolean isRecorded = false;
+
+		private CallResultListener(Circuit circuit, long startedAt, boolean isProbe) {
+			this.circuit = circuit;
+			this.startedAt = startedAt;
+			this.isProbe = isProbe;
+		}
+
+		@Override
+		public void onSuccess(VolleyerRequest<?> request) {
+			long now = SystemClock.elapsedRealtime();
+			onResult(now - startedAt > slowCallThresholdMs, now);
+		}
+
+		@Override
+		public void onError(VolleyerRequest<?> request, VolleyError error) {
+			onResult(isFailure(error), SystemClock.elapsedRealtime());
+		}
+
+		@Override
+		public void onCanceled(VolleyerRequest<?> request) {
+			synchronized (circuit) {
+				if (isRecorded) {
+					return;
+				}
+				isRecorded = true;
+				if (isProbe) {
+					circuit.onProbeCanceled();
+				}
+			}
+		}
+
+		private void onResult(boolean isFailed, long now) {
+			synchronized (circuit) {
+				if (isRecorded) {
+					return;
+				}
+				isRecorded = true;
+				circuit.onResult(isFailed, isProbe, now);
+			}
+		}
+	}
+}
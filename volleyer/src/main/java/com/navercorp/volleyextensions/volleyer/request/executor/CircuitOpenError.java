@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request.executor;
+
+import com.android.volley.VolleyError;
+
+/**
+ * An error which is delivered without sending a request, because the circuit of the host is open.
+ * @see CircuitBreakerRequestExecutor
+ */
+public class CircuitOpenError extends VolleyError {
+	private static final long serialVersionUID = 1L;
+
+	private final String host;
+
+	public CircuitOpenError(String host) {
+		super("The circuit of " + host + " is open.");
+		this.host = host;
+	}
+
+	/**
+	 * @return the host whose circuit is open
+	 */
+	public String getHost() {
+		return host;
+	}
+}
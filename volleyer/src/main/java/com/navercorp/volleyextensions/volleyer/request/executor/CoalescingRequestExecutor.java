@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request.executor;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.RequestFuture;
+import com.navercorp.volleyextensions.volleyer.request.CoalescedRequest;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+
+/**
+ * <pre>
+ * A RequestExecutor implementation class which coalesces identical GET requests in flight.
+ * While a request is in flight, an identical request is attached to it instead of being added into {@code RequestQueue},
+ * so the response is fetched and parsed only once and the parsed result is delivered to all of the listeners.
+ * For the conditions of identical requests, see {@link CoalescedRequest#keyOf(Request)}.
+ *
+ * Requests which cannot be coalesced (POST, multipart, item streaming, other Request classes...)
+ * are executed by the given RequestExecutor as they are.
+ *
+ * {@code
+ * VolleyerConfiguration configuration = new VolleyerConfiguration(
+ * 		DefaultVolleyerConfigurationFactory.createRequestCreator(),
+ * 		new CoalescingRequestExecutor(),
+ * 		DefaultVolleyerConfigurationFactory.createNetworkResponseParser(),
+ * 		DefaultVolleyerConfigurationFactory.createErrorListener());
+ * }
+ * </pre>
+ * @see CoalescedRequest
+ */
+public class CoalescingRequestExecutor implements RequestExecutor {
+
+	private final RequestExecutor requestExecutor;
+	/** Requests in flight. Keys are pairs of a RequestQueue and a key of {@link CoalescedRequest#keyOf(Request)}. */
+	private final Map<QueueKey, CoalescedRequest<?>> inFlightRequests = new HashMap<QueueKey, CoalescedRequest<?>>();
+	private final CoalescedRequest.OnDeliveredListener onDeliveredListener = new CoalescedRequest.OnDeliveredListener() {
+		@Override
+		public void onDelivered(CoalescedRequest<?> request) {
+			removeInFlightRequest(request);
+		}
+	};
+
+	public CoalescingRequestExecutor() {
+		this(new DefaultRequestExecutor());
+	}
+
+	/**
+	 * @param requestExecutor RequestExecutor which executes requests in fact
+	 */
+	public CoalescingRequestExecutor(RequestExecutor requestExecutor) {
+		Assert.notNull(requestExecutor, "RequestExecutor");
+		this.requestExecutor = requestExecutor;
+	}
+
+	@Override
+	public <T> void executeRequest(RequestQueue requestQueue, Request<T> request) {
+		Request<T> requestToExecute = coalesce(requestQueue, request);
+		if (requestToExecute == null) {
+			return;
+		}
+		requestExecutor.executeRequest(requestQueue, requestToExecute);
+	}
+
+	@Override
+	public <T> void executeRequestFuture(RequestQueue requestQueue, Request<T> request, RequestFuture<T> requestFuture) {
+		Request<T> requestToExecute = coalesce(requestQueue, request);
+		if (requestToExecute == request) {
+			requestExecutor.executeRequestFuture(requestQueue, request, requestFuture);
+			return;
+		}
+		// The future cancels only its own request, not the others coalesced with it.
+		requestFuture.setRequest(request);
+		if (requestToExecute == null) {
+			return;
+		}
+		requestExecutor.executeRequest(requestQueue, requestToExecute);
+	}
+
+	/**
+	 * @return the number of requests in flight, which are added into RequestQueues by this executor
+	 */
+	public int getInFlightCount() {
+		synchronized (inFlightRequests) {
+			removeCanceledRequests();
+			return inFlightRequests.size();
+		}
+	}
+
+	/**
+	 * Attach the request to an identical request in flight if it exists.
+	 * @return null if the request is attached to a request in flight,
+	 *         a new {@link CoalescedRequest} which has to be executed,
+	 *         or the given request itself if it cannot be coalesced
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> Request<T> coalesce(RequestQueue requestQueue, Request<T> request) {
+		if (requestQueue == null) {
+			return request;
+		}
+		Object requestKey = CoalescedRequest.keyOf(request);
+		if (requestKey == null) {
+			return request;
+		}
+
+		QueueKey key = new QueueKey(requestQueue, requestKey);
+		synchronized (inFlightRequests) {
+			removeCanceledRequests();
+			CoalescedRequest<?> inFlightRequest = inFlightRequests.get(key);
+			if (inFlightRequest != null && inFlightRequest.attach((VolleyerRequest<?>) request)) {
+				return null;
+			}
+
+			CoalescedRequest<T> coalescedRequest = new CoalescedRequest<T>((VolleyerRequest<T>) request, onDeliveredListener);
+			inFlightRequests.put(key, coalescedRequest);
+			return coalescedRequest;
+		}
+	}
+
+	private void removeInFlightRequest(CoalescedRequest<?> request) {
+		synchronized (inFlightRequests) {
+			inFlightRequests.values().remove(request);
+		}
+	}
+
+	/**
+	 * Canceled requests are never delivered, so they are removed here.
+	 * NOTE : This method must be called while holding the lock of {@code inFlightRequests}.
+	 */
+	private void removeCanceledRequests() {
+		Iterator<CoalescedRequest<?>> iterator = inFlightRequests.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().isCanceled()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private static final class QueueKey {
+		private final RequestQueue requestQueue;
+		private final Object requestKey;
+
+		private QueueKey(RequestQueue requestQueue, Object requestKey) {
+			this.requestQueue = requestQueue;
+			this.requestKey = requestKey;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof QueueKey)) {
+				return false;
+			}
+			QueueKey other = (QueueKey) object;
+			return requestQueue == other.requestQueue && requestKey.equals(other.requestKey);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(requestQueue) + requestKey.hashCode();
+		}
+	}
+}
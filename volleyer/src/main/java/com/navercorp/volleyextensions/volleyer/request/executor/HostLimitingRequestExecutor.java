@@ -0,0 +1,440 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request.executor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+
+import android.net.Uri;
+import android.os.SystemClock;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.RequestQueue.RequestFinishedListener;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.RequestFuture;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+
+/**
+ * <pre>
+ * A RequestExecutor implementation class which limits requests in flight per host, and shares network threads fairly among hosts.
+ *
+ * All hosts share the network threads of RequestQueue, so many slow requests to a host (ex. images of a CDN)
+ * can occupy all of the threads and delay requests to the other hosts (ex. API calls).
+ * This executor adds a request into RequestQueue only if the number of requests in flight is under both limits below.
+ * - {@code maxInFlight} : the limit of all hosts. Set it to the number of network threads (4 by default in Volley).
+ * - {@code maxInFlightPerHost} : the limit of each host
+ * Otherwise, the request waits in the queue of its host.
+ * When a request is finished, waiting requests are executed taking turns among hosts (round-robin),
+ * and a request of higher priority is taken first in the queue of a host.
+ * A waiting request which is canceled is dropped.
+ * A request in flight is finished when RequestQueue finishes it, or when a result of a {@link VolleyerRequest} is delivered or it is canceled.
+ * The latter covers a request which never reaches RequestQueue (ex. rejected by {@link CircuitBreakerRequestExecutor}).
+ *
+ * How long requests wait for each host is recorded, and it can be read by {@link #getWaitStats(String)}.
+ *
+ * <b>NOTE</b>
+ * Put this executor inside of a {@link CoalescingRequestExecutor}, because it tracks the requests which are added into RequestQueue by itself.
+ * {@code
+ * new CoalescingRequestExecutor(new HostLimitingRequestExecutor(new DefaultRequestExecutor(), 4, 2))
+ * }
+ * </pre>
+ */
+public class HostLimitingRequestExecutor implements RequestExecutor {
+	public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+	public static final int DEFAULT_MAX_IN_FLIGHT_PER_HOST = 2;
+
+	private static final Comparator<WaitingRequest> WAITING_ORDER = new Comparator<WaitingRequest>() {
+		@Override
+		public int compare(WaitingRequest left, WaitingRequest right) {
+			int priorityOrder = right.request.getPriority().compareTo(left.request.getPriority());
+			if (priorityOrder != 0) {
+				return priorityOrder;
+			}
+			return left.sequence < right.sequence ? -1 : (left.sequence == right.sequence ? 0 : 1);
+		}
+	};
+
+	private final RequestExecutor requestExecutor;
+	private final int maxInFlight;
+	private final int maxInFlightPerHost;
+	/** All of the fields below are guarded by {@code this} */
+	private final Map<RequestQueue, QueueState> queueStates = new WeakHashMap<RequestQueue, QueueState>();
+	private final Map<String, WaitRecord> waitRecords = new HashMap<String, WaitRecord>();
+	private long sequence = 0;
+
+	public HostLimitingRequestExecutor() {
+		this(new DefaultRequestExecutor(), DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_IN_FLIGHT_PER_HOST);
+	}
+
+	/**
+	 * @param requestExecutor RequestExecutor which executes requests in fact
+	 * @param maxInFlight The maximum number of requests in flight of all hosts for each RequestQueue
+	 * @param maxInFlightPerHost The maximum number of requests in flight of a host. It must be in [1, maxInFlight].
+	 */
+	public HostLimitingRequestExecutor(RequestExecutor requestExecutor, int maxInFlight, int maxInFlightPerHost) {
+		Assert.notNull(requestExecutor, "RequestExecutor");
+		if (maxInFlightPerHost < 1 || maxInFlightPerHost > maxInFlight) {
+			throw new IllegalArgumentException("maxInFlightPerHost must be in [1, maxInFlight].");
+		}
+		this.requestExecutor = requestExecutor;
+		this.maxInFlight = maxInFlight;
+		this.maxInFlightPerHost = maxInFlightPerHost;
+	}
+
+	@Override
+	public <T> void executeRequest(RequestQueue requestQueue, Request<T> request) {
+		if (requestQueue == null || !waitOrTrack(requestQueue, request, null)) {
+			releaseOnResult(requestQueue, request);
+			requestExecutor.executeRequest(requestQueue, request);
+		}
+	}
+
+	@Override
+	public <T> void executeRequestFuture(RequestQueue requestQueue, Request<T> request, RequestFuture<T> requestFuture) {
+		if (requestQueue == null || !waitOrTrack(requestQueue, request, requestFuture)) {
+			releaseOnResult(requestQueue, request);
+			requestExecutor.executeRequestFuture(requestQueue, request, requestFuture);
+			return;
+		}
+		// Let the future cancel the request while it is waiting.
+		requestFuture.setRequest(request);
+	}
+
+	/**
+	 * @return the number of waiting requests in all of the RequestQueues
+	 */
+	public synchronized int getWaitingCount() {
+		int count = 0;
+		for (QueueState state : queueStates.values()) {
+			for (HostState hostState : state.hostStates.values()) {
+				count += hostState.waitingRequests.size();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return statistics of waiting time of requests to the host, which are executed so far
+	 */
+	public synchronized WaitStats getWaitStats(String host) {
+		WaitRecord record = waitRecords.get(host);
+		if (record == null) {
+			return new WaitStats(host, 0, 0, 0);
+		}
+		return record.toStats(host);
+	}
+
+	/**
+	 * @return statistics of waiting time of all hosts
+	 */
+	public synchronized List<WaitStats> waitStats() {
+		List<WaitStats> stats = new ArrayList<WaitStats>(waitRecords.size());
+		for (Map.Entry<String, WaitRecord> entry : waitRecords.entrySet()) {
+			stats.add(entry.getValue().toStats(entry.getKey()));
+		}
+		return stats;
+	}
+
+	/**
+	 * @return true if the request waits, or false if it has to be executed now
+	 */
+	private synchronized boolean waitOrTrack(RequestQueue requestQueue, Request<?> request, RequestFuture<?> requestFuture) {
+		QueueState state = getQueueState(requestQueue);
+		String host = hostOf(request);
+		HostState hostState = state.getHostState(host);
+		if (state.inFlightCount < maxInFlight && hostState.inFlightCount < maxInFlightPerHost) {
+			state.track(request, hostState);
+			recordWait(host, 0);
+			return false;
+		}
+
+		boolean isWaitingAlready = !hostState.waitingRequests.isEmpty();
+		hostState.waitingRequests.add(new WaitingRequest(request, requestFuture, sequence++, SystemClock.elapsedRealtime()));
+		if (!isWaitingAlready) {
+			state.waitingHosts.add(hostState);
+		}
+		return true;
+	}
+
+	/**
+	 * Finish a tracked request also when its result is delivered or it is canceled,
+	 * because a wrapped executor may not add it into RequestQueue (ex. an open circuit, or a request joined to the same one).
+	 * NOTE : This method must be called without holding the lock of this executor,
+	 * because the request may be already canceled and then onFinished() is called at once.
+	 */
+	private void releaseOnResult(RequestQueue requestQueue, Request<?> request) {
+		if (requestQueue == null || !(request instanceof VolleyerRequest)) {
+			return;
+		}
+		((VolleyerRequest<?>) request).addOnResultListener(new ReleasingListener(requestQueue));
+	}
+
+	/**
+	 * NOTE : This method must be called while holding the lock of this executor.
+	 */
+	private QueueState getQueueState(final RequestQueue requestQueue) {
+		QueueState state = queueStates.get(requestQueue);
+		if (state != null) {
+			return state;
+		}
+		state = new QueueState();
+		queueStates.put(requestQueue, state);
+		requestQueue.addRequestFinishedListener(new RequestFinishedListener<Object>() {
+			@Override
+			public void onRequestFinished(Request<Object> request) {
+				onFinished(requestQueue, request);
+			}
+		});
+		return state;
+	}
+
+	private void onFinished(RequestQueue requestQueue, Request<?> request) {
+		List<WaitingRequest> requestsToExecute;
+		synchronized (this) {
+			QueueState state = queueStates.get(requestQueue);
+			if (state == null || !state.untrack(request)) {
+				return;
+			}
+			requestsToExecute = takeExecutableRequests(state);
+		}
+		for (WaitingRequest waitingRequest : requestsToExecute) {
+			releaseOnResult(requestQueue, waitingRequest.request);
+			waitingRequest.execute(requestQueue);
+		}
+	}
+
+	/**
+	 * Take waiting requests which can be executed now, taking turns among hosts.
+	 * NOTE : This method must be called while holding the lock of this executor.
+	 */
+	private List<WaitingRequest> takeExecutableRequests(QueueState state) {
+		List<WaitingRequest> requests = new ArrayList<WaitingRequest>();
+		long now = SystemClock.elapsedRealtime();
+		boolean isTaken = true;
+		// Each pass takes a request from each host in turn, until no more requests can be taken.
+		while (isTaken && state.inFlightCount < maxInFlight) {
+			isTaken = false;
+			for (int i = state.waitingHosts.size(); i > 0 && state.inFlightCount < maxInFlight; i--) {
+				HostState hostState = state.waitingHosts.poll();
+				WaitingRequest waitingRequest = (hostState.inFlightCount < maxInFlightPerHost ? pollNotCanceled(hostState) : null);
+				if (waitingRequest != null) {
+					state.track(waitingRequest.request, hostState);
+					recordWait(hostState.host, now - waitingRequest.waitingSince);
+					requests.add(waitingRequest);
+					isTaken = true;
+				}
+				if (!hostState.waitingRequests.isEmpty()) {
+					state.waitingHosts.add(hostState);
+				} else {
+					state.removeIfIdle(hostState);
+				}
+			}
+		}
+		return requests;
+	}
+
+	private WaitingRequest pollNotCanceled(HostState hostState) {
+		WaitingRequest waitingRequest;
+		while ((waitingRequest = hostState.waitingRequests.poll()) != null) {
+			if (!waitingRequest.request.isCanceled()) {
+				return waitingRequest;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * NOTE : This method must be called while holding the lock of this executor.
+	 */
+	private void recordWait(String host, long waitMs) {
+		WaitRecord record = waitRecords.get(host);
+		if (record == null) {
+			record = new WaitRecord();
+			waitRecords.put(host, record);
+		}
+		record.count++;
+		record.totalWaitMs += waitMs;
+		record.maxWaitMs = Math.max(record.maxWaitMs, waitMs);
+	}
+
+	private static String hostOf(Request<?> request) {
+		String host = Uri.parse(request.getUrl()).getHost();
+		return (host == null ? "" : host);
+	}
+
+	/**
+	 * Immutable statistics of waiting time of requests to a host.
+	 * Requests which are executed without waiting are counted with 0ms.
+	 */
+	public static class WaitStats {
+		private final String host;
+		private final long count;
+		private final long totalWaitMs;
+		private final long maxWaitMs;
+
+		WaitStats(String host, long count, long totalWaitMs, long maxWaitMs) {
+			this.host = host;
+			this.count = count;
+			this.totalWaitMs = totalWaitMs;
+			this.maxWaitMs = maxWaitMs;
+		}
+
+		public String getHost() {
+			return host;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getTotalWaitMs() {
+			return totalWaitMs;
+		}
+
+		public long getMaxWaitMs() {
+			return maxWaitMs;
+		}
+		/**
+		 * @return average waiting time, or 0 if nothing is recorded
+		 */
+		public long getMeanWaitMs() {
+			return count == 0 ? 0 : totalWaitMs / count;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("WaitStats[%s,count=%d,meanWaitMs=%d,maxWaitMs=%d]", host, count, getMeanWaitMs(), maxWaitMs);
+		}
+	}
+
+	private static class WaitRecord {
+		private long count;
+		private long totalWaitMs;
+		private long maxWaitMs;
+
+		private WaitStats toStats(String host) {
+			return new WaitStats(host, count, totalWaitMs, maxWaitMs);
+		}
+	}
+
+	private static class QueueState {
+		private final Map<String, HostState> hostStates = new HashMap<String, HostState>();
+		/** Hosts which have waiting requests, in the order of their turns */
+		private final ArrayDeque<HostState> waitingHosts = new ArrayDeque<HostState>();
+		private final Map<Request<?>, HostState> inFlightRequests = new IdentityHashMap<Request<?>, HostState>();
+		private int inFlightCount = 0;
+
+		private HostState getHostState(String host) {
+			HostState hostState = hostStates.get(host);
+			if (hostState == null) {
+				hostState = new HostState(host);
+				hostStates.put(host, hostState);
+			}
+			return hostState;
+		}
+
+		private void track(Request<?> request, HostState hostState) {
+			inFlightRequests.put(request, hostState);
+			hostState.inFlightCount++;
+			inFlightCount++;
+		}
+
+		/**
+		 * @return false if the request is not tracked
+		 */
+		private boolean untrack(Request<?> request) {
+			HostState hostState = inFlightRequests.remove(request);
+			if (hostState == null) {
+				return false;
+			}
+			hostState.inFlightCount--;
+			inFlightCount--;
+			removeIfIdle(hostState);
+			return true;
+		}
+
+		private void removeIfIdle(HostState hostState) {
+			if (hostState.inFlightCount == 0 && hostState.waitingRequests.isEmpty()) {
+				hostStates.remove(hostState.host);
+			}
+		}
+	}
+
+	private static class HostState {
+		private final String host;
+		private final PriorityQueue<WaitingRequest> waitingRequests = new PriorityQueue<WaitingRequest>(4, WAITING_ORDER);
+		private int inFlightCount = 0;
+
+		private HostState(String host) {
+			this.host = host;
+		}
+	}
+
+	private class ReleasingListener implements VolleyerRequest.OnResultListener {
+		private final RequestQueue requestQueue;
+
+		private ReleasingListener(RequestQueue requestQueue) {
+			this.requestQueue = requestQueue;
+		}
+
+		@Override
+		public void onSuccess(VolleyerRequest<?> request) {
+			onFinished(requestQueue, request);
+		}
+
+		@Override
+		public void onError(VolleyerRequest<?> request, VolleyError error) {
+			onFinished(requestQueue, request);
+		}
+
+		@Override
+		public void onCanceled(VolleyerRequest<?> request) {
+			onFinished(requestQueue, request);
+		}
+	}
+
+	private class WaitingRequest {
+		private final Request<?> request;
+		private final RequestFuture<?> requestFuture;
+		private final long sequence;
+		private final long waitingSince;
+
+		private WaitingRequest(Request<?> request, RequestFuture<?> requestFuture, long sequence, long waitingSince) {
+			this.request = request;
+			this.requestFuture = requestFuture;
+			this.sequence = sequence;
+			this.waitingSince = waitingSince;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private void execute(RequestQueue requestQueue) {
+			if (requestFuture == null) {
+				requestExecutor.executeRequest(requestQueue, request);
+				return;
+			}
+			requestExecutor.executeRequestFuture(requestQueue, (Request) request, (RequestFuture) requestFuture);
+		}
+	}
+}
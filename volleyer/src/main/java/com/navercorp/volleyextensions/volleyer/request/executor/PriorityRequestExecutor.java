@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request.executor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.android.volley.Request;
+import com.android.volley.Request.Priority;
+import com.android.volley.RequestQueue;
+import com.android.volley.RequestQueue.RequestFinishedListener;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.RequestFuture;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+
+/**
+ * <pre>
+ * A RequestExecutor implementation class which defers low priority requests (ex. prefetches)
+ * while requests of higher priority (ex. user-visible requests) are in flight.
+ *
+ * RequestQueue of Volley takes a request of higher priority first, but only among the waiting requests.
+ * A low priority request still occupies a network thread (and the bandwidth) if a thread is idle at that moment.
+ * This executor holds a request whose priority is not higher than {@code deferredPriority} (LOW by default)
+ * until all of the other requests executed by this executor are finished, and then executes the held requests at once.
+ * A held request which is canceled is dropped.
+ * A request is held for {@code maxDeferralMs} ({@link #DEFAULT_MAX_DEFERRAL_MS} by default) at most,
+ * so that low priority requests are not starved by a steady stream of the other requests.
+ *
+ * A request is finished when RequestQueue finishes it, or when a result of a {@link VolleyerRequest} is delivered or it is canceled.
+ * The latter covers a request which never reaches RequestQueue (ex. rejected by {@link CircuitBreakerRequestExecutor}).
+ *
+ * <b>NOTE</b>
+ * Put this executor as the innermost one when it is combined with other executors,
+ * because it tracks the requests which are added into RequestQueue by itself.
+ * {@code
+ * new CoalescingRequestExecutor(new PriorityRequestExecutor())
+ * }
+ * </pre>
+ */
+public class PriorityRequestExecutor implements RequestExecutor {
+	public static final long DEFAULT_MAX_DEFERRAL_MS = 10000;
+
+	private final RequestExecutor requestExecutor;
+	private final Priority deferredPriority;
+	private final long maxDeferralMs;
+	private final Handler handler = new Handler(Looper.getMainLooper());
+	/** All of the fields below are guarded by {@code this} */
+	private final Map<RequestQueue, QueueState> queueStates = new WeakHashMap<RequestQueue, QueueState>();
+
+	public PriorityRequestExecutor() {
+		this(new DefaultRequestExecutor(), Priority.LOW);
+	}
+
+	/**
+	 * @param requestExecutor RequestExecutor which executes requests in fact
+	 * @param deferredPriority Requests of this priority or lower are deferred. It must be lower than IMMEDIATE.
+	 */
+	public PriorityRequestExecutor(RequestExecutor requestExecutor, Priority deferredPriority) {
+		this(requestExecutor, deferredPriority, DEFAULT_MAX_DEFERRAL_MS);
+	}
+
+	/**
+	 * @param requestExecutor RequestExecutor which executes requests in fact
+	 * @param deferredPriority Requests of this priority or lower are deferred. It must be lower than IMMEDIATE.
+	 * @param maxDeferralMs A deferred request is executed after this time even if other requests are in flight. 0 means no limit.
+	 */
+	public PriorityRequestExecutor(RequestExecutor requestExecutor, Priority deferredPriority, long maxDeferralMs) {
+		Assert.notNull(requestExecutor, "RequestExecutor");
+		Assert.notNull(deferredPriority, "Priority");
+		if (deferredPriority == Priority.IMMEDIATE) {
+			throw new IllegalArgumentException("IMMEDIATE requests cannot be deferred.");
+		}
+		if (maxDeferralMs < 0) {
+			throw new IllegalArgumentException("maxDeferralMs must not be negative.");
+		}
+		this.requestExecutor = requestExecutor;
+		this.deferredPriority = deferredPriority;
+		this.maxDeferralMs = maxDeferralMs;
+	}
+
+	@Override
+	public <T> void executeRequest(RequestQueue requestQueue, Request<T> request) {
+		if (requestQueue == null || !deferOrTrack(requestQueue, request, null)) {
+			releaseOnResult(requestQueue, request);
+			requestExecutor.executeRequest(requestQueue, request);
+		}
+	}
+
+	@Override
+	public <T> void executeRequestFuture(RequestQueue requestQueue, Request<T> request, RequestFuture<T> requestFuture) {
+		if (requestQueue == null || !deferOrTrack(requestQueue, request, requestFuture)) {
+			releaseOnResult(requestQueue, request);
+			requestExecutor.executeRequestFuture(requestQueue, request, requestFuture);
+			return;
+		}
+		// Let the future cancel the request while it is deferred.
+		requestFuture.setRequest(request);
+	}
+
+	/**
+	 * @return the number of deferred requests in all of the RequestQueues
+	 */
+	public synchronized int getDeferredCount() {
+		int count = 0;
+		for (QueueState state : queueStates.values()) {
+			count += state.deferredRequests.size();
+		}
+		return count;
+	}
+
+	/**
+	 * @return true if the request is deferred, or false if it has to be executed now
+	 */
+	private synchronized boolean deferOrTrack(RequestQueue requestQueue, Request<?> request, RequestFuture<?> requestFuture) {
+		QueueState state = getQueueState(requestQueue);
+		if (isDeferrable(request)) {
+			if (state.inFlightRequests.isEmpty()) {
+				return false;
+			}
+			DeferredRequest deferredRequest = new DeferredRequest(requestQueue, request, requestFuture);
+			state.deferredRequests.add(deferredRequest);
+			if (maxDeferralMs > 0) {
+				handler.postDelayed(deferredRequest, maxDeferralMs);
+			}
+			return true;
+		}
+		state.inFlightRequests.add(request);
+		return false;
+	}
+
+	/**
+	 * Finish a tracked request also when its result is delivered or it is canceled,
+	 * because a wrapped executor may not add it into RequestQueue (ex. an open circuit, or a request joined to the same one).
+	 * NOTE : This method must be called without holding the lock of this executor,
+	 * because the request may be already canceled and then onFinished() is called at once.
+	 */
+	private void releaseOnResult(RequestQueue requestQueue, Request<?> request) {
+		if (requestQueue == null || isDeferrable(request) || !(request instanceof VolleyerRequest)) {
+			return;
+		}
+		((VolleyerRequest<?>) request).addOnResultListener(new ReleasingListener(requestQueue));
+	}
+
+	private boolean isDeferrable(Request<?> request) {
+		return request.getPriority().ordinal() <= deferredPriority.ordinal();
+	}
+
+	/**
+	 * NOTE : This method must be called while holding the lock of this executor.
+	 */
+	private QueueState getQueueState(final RequestQueue requestQueue) {
+		QueueState state = queueStates.get(requestQueue);
+		if (state != null) {
+			return state;
+		}
+		state = new QueueState();
+		queueStates.put(requestQueue, state);
+		requestQueue.addRequestFinishedListener(new RequestFinishedListener<Object>() {
+			@Override
+			public void onRequestFinished(Request<Object> request) {
+				onFinished(requestQueue, request);
+			}
+		});
+		return state;
+	}
+
+	private void onFinished(RequestQueue requestQueue, Request<?> request) {
+		List<DeferredRequest> requestsToExecute;
+		synchronized (this) {
+			QueueState state = queueStates.get(requestQueue);
+			if (state == null || !state.inFlightRequests.remove(request) || !state.inFlightRequests.isEmpty()) {
+				return;
+			}
+			requestsToExecute = new ArrayList<DeferredRequest>(state.deferredRequests);
+			state.deferredRequests.clear();
+		}
+		for (DeferredRequest deferredRequest : requestsToExecute) {
+			handler.removeCallbacks(deferredRequest);
+			deferredRequest.execute(requestQueue);
+		}
+	}
+
+	private void onDeferralExpired(DeferredRequest deferredRequest) {
+		synchronized (this) {
+			QueueState state = queueStates.get(deferredRequest.requestQueue);
+			if (state == null || !state.deferredRequests.remove(deferredRequest)) {
+				return;
+			}
+		}
+		deferredRequest.execute(deferredRequest.requestQueue);
+	}
+
+	private static class QueueState {
+		private final Set<Request<?>> inFlightRequests = Collections.newSetFromMap(new IdentityHashMap<Request<?>, Boolean>());
+		private final List<DeferredRequest> deferredRequests = new ArrayList<DeferredRequest>();
+	}
+
+	private class ReleasingListener implements VolleyerRequest.OnResultListener {
+		private final RequestQueue requestQueue;
+
+		private ReleasingListener(RequestQueue requestQueue) {
+			this.requestQueue = requestQueue;
+		}
+
+		@Override
+		public void onSuccess(VolleyerRequest<?> request) {
+			onFinished(requestQueue, request);
+		}
+
+		@Override
+		public void onError(VolleyerRequest<?> request, VolleyError error) {
+			onFinished(requestQueue, request);
+		}
+
+		@Override
+		public void onCanceled(VolleyerRequest<?> request) {
+			onFinished(requestQueue, request);
+		}
+	}
+
+	/**
+	 * It runs as the timer of the maximum deferral.
+	 */
+	private class DeferredRequest implements Runnable {
+		private final RequestQueue requestQueue;
+		private final Request<?> request;
+		private final RequestFuture<?> requestFuture;
+
+		private DeferredRequest(RequestQueue requestQueue, Request<?> request, RequestFuture<?> requestFuture) {
+			this.requestQueue = requestQueue;
+			this.request = request;
+			this.requestFuture = requestFuture;
+		}
+
+		@Override
+		public void run() {
+			onDeferralExpired(this);
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private void execute(RequestQueue requestQueue) {
+			if (request.isCanceled()) {
+				return;
+			}
+			if (requestFuture == null) {
+				requestExecutor.executeRequest(requestQueue, request);
+				return;
+			}
+			requestExecutor.executeRequestFuture(requestQueue, (Request) request, (RequestFuture) requestFuture);
+		}
+	}
+}
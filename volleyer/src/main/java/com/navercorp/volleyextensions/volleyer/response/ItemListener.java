@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response;
+
+import java.util.List;
+/**
+ * <pre>
+ * A listener which receives the elements of a top-level array in a response batch by batch,
+ * while the rest of the array is still being parsed.
+ *
+ * It is called on the main thread. The batches are delivered in the order of the array.
+ * </pre>
+ * @param <E> Class of the elements
+ */
+public interface ItemListener<E> {
+	/**
+	 * Called when a batch of elements has been parsed.
+	 * @param items parsed elements, which is never empty
+	 */
+	void onItems(List<E> items);
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response;
+
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.android.volley.NetworkResponse;
+import com.navercorp.volleyextensions.volleyer.http.ResponseHeaders;
+import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+/**
+ * <pre>
+ * A memory cache of parsed responses, which lets a request skip parsing the same content again.
+ *
+ * When Volley delivers a cached response (or a response not modified since it was parsed),
+ * {@code VolleyerRequest} looks up this cache before calling its parser.
+ * An entry is keyed by a cache key of a request, a target type and a parser,
+ * and it is valid only while the "ETag", the "Last-Modified" and the length of the content
+ * are the same as when it was parsed. A "304 Not Modified" response keeps them, so it hits the entry.
+ * Responses which have neither "ETag" nor "Last-Modified" are not cached, because they cannot be validated.
+ *
+ * NOTE : "Last-Modified" has a precision of a second. If a resource without "ETag" can be modified
+ *        twice in a second without changing its length, don't use this cache for it.
+ *
+ * The least recently used entry is evicted if the number of entries exceeds the maximum.
+ *
+ * Usage :
+ * {@code
+ * // Share an instance among requests
+ * ParsedResponseCache parsedResponseCache = new ParsedResponseCache(50);
+ *
+ * volleyer().get(url)
+ * 		.withTargetClass(Timeline.class)
+ * 		.withParsedResponseCache(parsedResponseCache)
+ * 		.withListener(listener)
+ * 		.execute();
+ * }
+ *
+ * WARN : The same object is delivered to the listeners of the requests hitting an entry.
+ *        Do not modify a delivered object, or use immutable target classes.
+ * </pre>
+ */
+public class ParsedResponseCache {
+	private final int maxEntries;
+	/** Access ordered map for LRU eviction, which is guarded by {@code this} */
+	private final LinkedHashMap<Key, CacheEntry> entries;
+
+	/**
+	 * @param maxEntries maximum number of parsed responses in this cache
+	 */
+	public ParsedResponseCache(final int maxEntries) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries must be greater than 0.");
+		}
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<Key, CacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, CacheEntry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+	/**
+	 * Return the parsed result if it was parsed from the response which has the same validators.
+	 * @param cacheKey cache key of a request
+	 * @param type target type of a request
+	 * @param parser parser of a request
+	 * @param response response to parse
+	 * @return parsed result, or null if it doesn't exist or it is not valid any more
+	 */
+	public synchronized Object get(String cacheKey, Type type, NetworkResponseParser parser, NetworkResponse response) {
+		Assert.notNull(cacheKey, "Cache key");
+		Assert.notNull(type, "Target type");
+		Assert.notNull(parser, "NetworkResponseParser");
+
+		Validators validators = Validators.of(response);
+		if (validators == null) {
+			return null;
+		}
+
+		CacheEntry entry = entries.get(new Key(cacheKey, type, parser));
+		if (entry == null || !entry.validators.equals(validators)) {
+			return null;
+		}
+		return entry.result;
+	}
+	/**
+	 * Cache a parsed result. The previous result for the same key is replaced.
+	 * @param response response which {@code result} is parsed from
+	 * @param result parsed result (it is not cached if it is null)
+	 */
+	public synchronized void put(String cacheKey, Type type, NetworkResponseParser parser, NetworkResponse response, Object result) {
+		Assert.notNull(cacheKey, "Cache key");
+		Assert.notNull(type, "Target type");
+		Assert.notNull(parser, "NetworkResponseParser");
+
+		Validators validators = Validators.of(response);
+		if (result == null || validators == null) {
+			return;
+		}
+		entries.put(new Key(cacheKey, type, parser), new CacheEntry(validators, result));
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+	/**
+	 * @return number of the cached results
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+	/**
+	 * @return maximum number of the cached results
+	 */
+	public int maxEntries() {
+		return maxEntries;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("ParsedResponseCache[maxEntries=%d,size=%d]", maxEntries, entries.size());
+	}
+
+	private static class Key {
+		private final String cacheKey;
+		private final Type type;
+		/** Parsers are compared by identity, because different parsers can make different results */
+		private final NetworkResponseParser parser;
+
+		private Key(String cacheKey, Type type, NetworkResponseParser parser) {
+			this.cacheKey = cacheKey;
+			this.type = type;
+			this.parser = parser;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return cacheKey.equals(other.cacheKey) && type.equals(other.type) && parser == other.parser;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = cacheKey.hashCode();
+			result = 31 * result + type.hashCode();
+			result = 31 * result + System.identityHashCode(parser);
+			return result;
+		}
+	}
+
+	private static class CacheEntry {
+		private final Validators validators;
+		private final Object result;
+
+		private CacheEntry(Validators validators, Object result) {
+			this.validators = validators;
+			this.result = result;
+		}
+	}
+	/**
+	 * Headers and length of a response, which are the same while the content is not modified.
+	 * The headers are read as they are (case-insensitively), without parsing cache headers of the response.
+	 */
+	private static class Validators {
+		private final String etag;
+		private final String lastModified;
+		private final int contentLength;
+
+		private Validators(String etag, String lastModified, int contentLength) {
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.contentLength = contentLength;
+		}
+		/**
+		 * @return null if the response has neither "ETag" nor "Last-Modified"
+		 */
+		private static Validators of(NetworkResponse response) {
+			if (response == null || response.data == null) {
+				return null;
+			}
+			ResponseHeaders headers = ResponseHeaders.of(response);
+			String etag = headers.get("ETag");
+			String lastModified = headers.get("Last-Modified");
+			if (etag == null && lastModified == null) {
+				return null;
+			}
+			return new Validators(etag, lastModified, response.data.length);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Validators)) {
+				return false;
+			}
+			Validators other = (Validators) obj;
+			return contentLength == other.contentLength
+					&& (etag == null ? other.etag == null : etag.equals(other.etag))
+					&& (lastModified == null ? other.lastModified == null : lastModified.equals(other.lastModified));
+		}
+
+		@Override
+		public int hashCode() {
+			int result = contentLength;
+			result = 31 * result + (etag == null ? 0 : etag.hashCode());
+			result = 31 * result + (lastModified == null ? 0 : lastModified.hashCode());
+			return result;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+/**
+ * <pre>
+ * A target type that content of a response will be parsed to.
+ * Unlike a {@code Class}, it can hold a generic type such as {@code List<Tweet>}.
+ *
+ * Create it as an anonymous subclass, which captures the type argument.
+ *
+ *		TargetType<List<Tweet>> tweetsType = new TargetType<List<Tweet>>() {};
+ *
+ * Or create it from a class by {@link #of(Class)}.
+ *
+ * Two TargetTypes are equal if they have the equal types, so parsers can cache their deserializers by the type.
+ * Keeping a TargetType as a constant saves resolving the type argument for every request.
+ * </pre>
+ * @param <T> Target type that content of a response will be parsed to
+ */
+public class TargetType<T> {
+	private final Type type;
+	private final Class<? super T> rawClass;
+
+	/**
+	 * Capture the type argument of an anonymous subclass.
+	 */
+	@SuppressWarnings("unchecked")
+	protected TargetType() {
+		Type superclass = getClass().getGenericSuperclass();
+		if (!(superclass instanceof ParameterizedType)) {
+			throw new IllegalStateException("TargetType must be created with a type argument. (ex. new TargetType<List<Tweet>>() {})");
+		}
+		this.type = ((ParameterizedType) superclass).getActualTypeArguments()[0];
+		this.rawClass = (Class<? super T>) getRawClass(type);
+	}
+
+	private TargetType(Class<T> clazz) {
+		this.type = clazz;
+		this.rawClass = clazz;
+	}
+
+	/**
+	 * Create a TargetType of a (non-generic) class.
+	 */
+	public static <T> TargetType<T> of(Class<T> clazz) {
+		Assert.notNull(clazz, "Target class token");
+		return new TargetType<T>(clazz);
+	}
+
+	private static Class<?> getRawClass(Type type) {
+		if (type instanceof Class) {
+			return (Class<?>) type;
+		}
+		if (type instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) type).getRawType();
+		}
+		if (type instanceof GenericArrayType) {
+			Type componentType = ((GenericArrayType) type).getGenericComponentType();
+			return Array.newInstance(getRawClass(componentType), 0).getClass();
+		}
+		// A type variable or a wildcard type cannot be resolved at runtime
+		throw new IllegalArgumentException("TargetType cannot be resolved from the type : " + type);
+	}
+
+	/**
+	 * @return Type that content of a response will be parsed to
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return Class of the type without type arguments (ex. {@code List} for {@code List<Tweet>})
+	 */
+	public Class<? super T> getRawClass() {
+		return rawClass;
+	}
+
+	/**
+	 * @return true if the type is a class which has no type arguments
+	 */
+	public boolean isRawClass() {
+		return type instanceof Class;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof TargetType)) {
+			return false;
+		}
+		return type.equals(((TargetType<?>) o).type);
+	}
+
+	@Override
+	public int hashCode() {
+		return type.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "TargetType[" + type + "]";
+	}
+}
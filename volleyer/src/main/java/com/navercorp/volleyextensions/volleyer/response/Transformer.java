@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response;
+/**
+ * <pre>
+ * A function which converts a parsed response to another object before it is delivered to a listener.
+ *
+ * It is called on a network dispatcher thread of Volley, right after the response is parsed.
+ * So heavy post-processing (ex. mapping, sorting, diffing) of a large response does not block the main thread.
+ * Throw a {@link RuntimeException} to deliver an error to the ErrorListener instead.
+ * </pre>
+ * @param <S> Class of a parsed response
+ * @param <R> Class of a transformed result
+ */
+public interface Transformer<S, R> {
+	/**
+	 * Convert a parsed response.
+	 * @param source parsed response (can be null if a parser returns null)
+	 * @return transformed result which will be delivered to a listener
+	 */
+	R transform(S source);
+}
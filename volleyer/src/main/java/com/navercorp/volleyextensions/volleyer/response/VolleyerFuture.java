@@ -0,0 +1,391 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.android.volley.Request;
+import com.android.volley.Response.ErrorListener;
+import com.android.volley.Response.Listener;
+import com.android.volley.VolleyError;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+/**
+ * <pre>
+ * A future of a result of a request, which can be composed without blocking threads.
+ * (Similar to {@code CompletableFuture}, which is not available below API level 24.)
+ *
+ * - {@link #addListener(Listener, ErrorListener)} is called when the future is completed.
+ * - {@link #thenApply(Transformer)} and {@link #thenCompose(Transformer)} return a new future of a converted result.
+ *   Errors are propagated to the new future as they are.
+ * - {@link #cancel(boolean)} cancels the request of this future, and the futures made by {@code thenApply()} or {@code thenCompose()}.
+ *   It does not cancel the futures which this future depends on, because they may have other dependents.
+ *   (Same as {@code CompletableFuture}.) Cancel the first future of a chain to cancel the whole chain.
+ *   A future is also canceled when its request is canceled by others (ex. {@code RequestQueue.cancelAll(tag)}).
+ *
+ * Listeners and transformers are called on the thread which completes the future,
+ * which is the main thread for results of Volley. So do heavy work by {@code ResponseBuilder.withTransformer()} instead.
+ *
+ * <b>WARNING</b> : Do not call {@link #get()} on the main thread for a future of a request, because Volley delivers
+ *                  its result on the main thread. It blocks forever.
+ * </pre>
+ * @param <T> Class of the result
+ */
+public class VolleyerFuture<T> implements Future<T> {
+	private enum State { PENDING, SUCCEEDED, FAILED, CANCELLED }
+
+	/** All of the fields below are guarded by {@code this} */
+	private State state = State.PENDING;
+	private T result;
+	private VolleyError error;
+	private List<ListenerPair<? super T>> listeners = new ArrayList<ListenerPair<? super T>>();
+	/** Futures which depend on this future, and are canceled when this future is canceled */
+	private List<VolleyerFuture<?>> dependents = new ArrayList<VolleyerFuture<?>>();
+	/** A request which is canceled when this future is canceled */
+	private Request<?> request;
+
+	/**
+	 * @return future which has already succeeded with {@code result}
+	 */
+	public static <T> VolleyerFuture<T> completed(T result) {
+		VolleyerFuture<T> future = new VolleyerFuture<T>();
+		future.complete(result);
+		return future;
+	}
+
+	/**
+	 * @return future which has already failed with {@code error}
+	 */
+	public static <T> VolleyerFuture<T> failed(VolleyError error) {
+		VolleyerFuture<T> future = new VolleyerFuture<T>();
+		future.completeWithError(error);
+		return future;
+	}
+
+	/**
+	 * Set a request which is canceled when this future is canceled.
+	 * The request is canceled immediately if this future has already been canceled.
+	 * If the request is a {@link VolleyerRequest}, this future is canceled when the request is canceled by others,
+	 * because Volley never delivers a result of a canceled request.
+	 */
+	public void setRequest(Request<?> request) {
+		Assert.notNull(request, "Request");
+		boolean isCanceledBefore;
+		synchronized (this) {
+			isCanceledBefore = (state == State.CANCELLED);
+			if (!isCanceledBefore) {
+				this.request = request;
+			}
+		}
+		if (isCanceledBefore) {
+			request.cancel();
+			return;
+		}
+		if (request instanceof VolleyerRequest) {
+			((VolleyerRequest<?>) request).addOnResultListener(new CancelingListener());
+		}
+	}
+
+	/**
+	 * Complete this future with a result.
+	 * @return false if this future has already been completed or canceled
+	 */
+	public boolean complete(T result) {
+		List<ListenerPair<? super T>> listenersToNotify;
+		synchronized (this) {
+			if (state != State.PENDING) {
+				return false;
+			}
+			this.result = result;
+			listenersToNotify = finishLocked(State.SUCCEEDED);
+		}
+		for (ListenerPair<? super T> listener : listenersToNotify) {
+			listener.onResponse(result);
+		}
+		return true;
+	}
+
+	/**
+	 * Complete this future with an error.
+	 * @return false if this future has already been completed or canceled
+	 */
+	public boolean completeWithError(VolleyError error) {
+		Assert.notNull(error, "VolleyError");
+		List<ListenerPair<? super T>> listenersToNotify;
+		synchronized (this) {
+			if (state != State.PENDING) {
+				return false;
+			}
+			this.error = error;
+			listenersToNotify = finishLocked(State.FAILED);
+		}
+		for (ListenerPair<? super T> listener : listenersToNotify) {
+			listener.onErrorResponse(error);
+		}
+		return true;
+	}
+
+	/**
+	 * NOTE : This method must be called while holding the lock of this future.
+	 * @return listeners which have to be notified after releasing the lock
+	 */
+	private List<ListenerPair<? super T>> finishLocked(State finishedState) {
+		state = finishedState;
+		List<ListenerPair<? super T>> listenersToNotify = listeners;
+		listeners = null;
+		dependents = null;
+		request = null;
+		notifyAll();
+		return listenersToNotify;
+	}
+
+	/**
+	 * Cancel this future, the request of it and the futures which depend on it. Listeners are not called after this.
+	 * @param mayInterruptIfRunning ignored, because a request of Volley is canceled without interruption
+	 */
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		Request<?> requestToCancel;
+		List<VolleyerFuture<?>> dependentsToCancel;
+		synchronized (this) {
+			if (state != State.PENDING) {
+				return false;
+			}
+			requestToCancel = request;
+			dependentsToCancel = dependents;
+			finishLocked(State.CANCELLED);
+		}
+		if (requestToCancel != null) {
+			requestToCancel.cancel();
+		}
+		for (VolleyerFuture<?> dependent : dependentsToCancel) {
+			dependent.cancel(mayInterruptIfRunning);
+		}
+		return true;
+	}
+
+	@Override
+	public synchronized boolean isCancelled() {
+		return state == State.CANCELLED;
+	}
+
+	@Override
+	public synchronized boolean isDone() {
+		return state != State.PENDING;
+	}
+
+	/**
+	 * @throws ExecutionException if the request failed. Its cause is the {@link VolleyError}.
+	 */
+	@Override
+	public synchronized T get() throws InterruptedException, ExecutionException {
+		while (state == State.PENDING) {
+			wait();
+		}
+		return getResultLocked();
+	}
+
+	/**
+	 * @throws ExecutionException if the request failed. Its cause is the {@link VolleyError}.
+	 */
+	@Override
+	public synchronized T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		long remainingNanos = unit.toNanos(timeout);
+		long deadline = System.nanoTime() + remainingNanos;
+		while (state == State.PENDING) {
+			if (remainingNanos <= 0) {
+				throw new TimeoutException();
+			}
+			TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+			remainingNanos = deadline - System.nanoTime();
+		}
+		return getResultLocked();
+	}
+
+	private T getResultLocked() throws ExecutionException {
+		if (state == State.CANCELLED) {
+			throw new CancellationException();
+		}
+		if (state == State.FAILED) {
+			throw new ExecutionException(error);
+		}
+		return result;
+	}
+
+	/**
+	 * Add listeners which are called when this future is completed.
+	 * They are called immediately if this future has already been completed. They are never called if it is canceled.
+	 * @param errorListener null if errors are not needed
+	 */
+	public VolleyerFuture<T> addListener(Listener<? super T> listener, ErrorListener errorListener) {
+		Assert.notNull(listener, "Listener");
+		ListenerPair<? super T> pair = new ListenerPair<T>(listener, errorListener);
+		State completedState;
+		synchronized (this) {
+			if (state == State.PENDING) {
+				listeners.add(pair);
+				return this;
+			}
+			completedState = state;
+		}
+		if (completedState == State.SUCCEEDED) {
+			pair.onResponse(result);
+		} else if (completedState == State.FAILED) {
+			pair.onErrorResponse(error);
+		}
+		return this;
+	}
+
+	/**
+	 * Return a new future which is completed with the result converted by {@code transformer}.
+	 * A {@link RuntimeException} from the transformer fails the new future with a {@link VolleyError}.
+	 */
+	public <R> VolleyerFuture<R> thenApply(final Transformer<? super T, ? extends R> transformer) {
+		Assert.notNull(transformer, "Transformer");
+		final VolleyerFuture<R> future = new VolleyerFuture<R>();
+		addDependent(future);
+		addListener(new Listener<T>() {
+			@Override
+			public void onResponse(T response) {
+				R transformed;
+				try {
+					transformed = transformer.transform(response);
+				} catch (RuntimeException e) {
+					future.completeWithError(new VolleyError(e));
+					return;
+				}
+				future.complete(transformed);
+			}
+		}, new ForwardingErrorListener(future));
+		return future;
+	}
+
+	/**
+	 * <pre>
+	 * Return a new future which is completed with the future returned by {@code transformer}.
+	 * It is usually used for executing a request which depends on the result of this future.
+	 * Canceling the new future does not cancel this future or the returned future.
+	 * </pre>
+	 */
+	public <R> VolleyerFuture<R> thenCompose(final Transformer<? super T, VolleyerFuture<R>> transformer) {
+		Assert.notNull(transformer, "Transformer");
+		final VolleyerFuture<R> future = new VolleyerFuture<R>();
+		addDependent(future);
+		addListener(new Listener<T>() {
+			@Override
+			public void onResponse(T response) {
+				VolleyerFuture<R> next;
+				try {
+					next = transformer.transform(response);
+				} catch (RuntimeException e) {
+					future.completeWithError(new VolleyError(e));
+					return;
+				}
+				if (next == null) {
+					future.completeWithError(new VolleyError("Transformer returned null instead of a future."));
+					return;
+				}
+				next.addDependent(future);
+				next.addListener(new Listener<R>() {
+					@Override
+					public void onResponse(R result) {
+						future.complete(result);
+					}
+				}, new ForwardingErrorListener(future));
+			}
+		}, new ForwardingErrorListener(future));
+		return future;
+	}
+
+	/**
+	 * Add a future which is canceled when this future is canceled.
+	 * The future is canceled immediately if this future has already been canceled.
+	 */
+	private void addDependent(VolleyerFuture<?> dependent) {
+		synchronized (this) {
+			if (state == State.PENDING) {
+				dependents.add(dependent);
+				return;
+			}
+			if (state != State.CANCELLED) {
+				return;
+			}
+		}
+		dependent.cancel(false);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "VolleyerFuture[" + state + "]";
+	}
+
+	/**
+	 * Cancel this future when its request is canceled by others.
+	 */
+	private class CancelingListener implements VolleyerRequest.OnResultListener {
+		@Override
+		public void onSuccess(VolleyerRequest<?> request) {
+		}
+
+		@Override
+		public void onError(VolleyerRequest<?> request, VolleyError error) {
+		}
+
+		@Override
+		public void onCanceled(VolleyerRequest<?> request) {
+			cancel(false);
+		}
+	}
+
+	private static class ForwardingErrorListener implements ErrorListener {
+		private final VolleyerFuture<?> future;
+
+		private ForwardingErrorListener(VolleyerFuture<?> future) {
+			this.future = future;
+		}
+
+		@Override
+		public void onErrorResponse(VolleyError error) {
+			future.completeWithError(error);
+		}
+	}
+
+	private static class ListenerPair<T> {
+		private final Listener<? super T> listener;
+		private final ErrorListener errorListener;
+
+		private ListenerPair(Listener<? super T> listener, ErrorListener errorListener) {
+			this.listener = listener;
+			this.errorListener = errorListener;
+		}
+
+		private void onResponse(T response) {
+			listener.onResponse(response);
+		}
+
+		private void onErrorResponse(VolleyError error) {
+			if (errorListener != null) {
+				errorListener.onErrorResponse(error);
+			}
+		}
+	}
+}
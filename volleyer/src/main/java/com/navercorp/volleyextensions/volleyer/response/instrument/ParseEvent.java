@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.instrument;
+
+import java.lang.reflect.Type;
+/**
+ * <pre>
+ * A record of parsing a response, which is given to {@link ParseListener}.
+ * </pre>
+ */
+public class ParseEvent {
+	private final Type targetType;
+	private final String contentType;
+	private final int bytes;
+	private final long durationNanos;
+	private final boolean success;
+
+	/**
+	 * @param targetType type that the response is parsed to
+	 * @param contentType "Content-Type" header of the response (can be null)
+	 * @param bytes size of the response body
+	 * @param durationNanos elapsed time of the parse
+	 * @param success whether the parse succeeded
+	 */
+	public ParseEvent(Type targetType, String contentType, int bytes, long durationNanos, boolean success) {
+		this.targetType = targetType;
+		this.contentType = contentType;
+		this.bytes = bytes;
+		this.durationNanos = durationNanos;
+		this.success = success;
+	}
+
+	public Type getTargetType() {
+		return targetType;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public int getBytes() {
+		return bytes;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ParseEvent[%s,contentType=%s,bytes=%d,durationNanos=%d,success=%b]",
+				targetType, contentType, bytes, durationNanos, success);
+	}
+}
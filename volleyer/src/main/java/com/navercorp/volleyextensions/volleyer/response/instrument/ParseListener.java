@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.instrument;
+/**
+ * <pre>
+ * A listener which is notified whenever a response is parsed by
+ * {@link com.navercorp.volleyextensions.volleyer.response.parser.InstrumentedNetworkResponseParser}.
+ *
+ * It is called on a network dispatcher thread right after parsing, so it must return quickly.
+ * (ex. add the event to a queue for reporting later)
+ * </pre>
+ */
+public interface ParseListener {
+	void onParsed(ParseEvent event);
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.instrument;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+/**
+ * <pre>
+ * Lock-free statistics of parsing responses of a content type to a target class.
+ *
+ * It counts parses, failures and bytes, and keeps a histogram of parse durations.
+ * The histogram has a bucket for each power of 2 in microseconds,
+ * so a percentile is reported as the upper bound of the bucket that contains it.
+ *
+ * Recording is called on network dispatcher threads concurrently, and {@link #snapshot()} can be called on any thread.
+ * A snapshot is not atomic across the counters, but each counter is consistent.
+ * </pre>
+ * @see com.navercorp.volleyextensions.volleyer.response.parser.InstrumentedNetworkResponseParser
+ */
+public class ParseMetrics {
+	/** Bucket i counts durations in [2^i, 2^(i+1)) microseconds, and bucket 0 also counts durations under 1 microsecond. */
+	static final int BUCKET_COUNT = 32;
+
+	private final Class<?> targetClass;
+	private final String contentType;
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong failureCount = new AtomicLong();
+	private final AtomicLong totalBytes = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+	/**
+	 * @param contentType content type of the parsed responses, or null for responses without it
+	 */
+	public ParseMetrics(Class<?> targetClass, String contentType) {
+		this.targetClass = targetClass;
+		this.contentType = contentType;
+	}
+	/**
+	 * Record a parse.
+	 * @param durationNanos elapsed time of the parse
+	 * @param bytes size of the response body
+	 * @param success whether the parse succeeded
+	 */
+	public void record(long durationNanos, int bytes, boolean success) {
+		count.incrementAndGet();
+		if (!success) {
+			failureCount.incrementAndGet();
+		}
+		totalBytes.addAndGet(bytes);
+		totalNanos.addAndGet(durationNanos);
+		updateMax(durationNanos);
+		buckets.incrementAndGet(bucketOf(durationNanos));
+	}
+
+	private void updateMax(long durationNanos) {
+		long max;
+		while (durationNanos > (max = maxNanos.get())) {
+			if (maxNanos.compareAndSet(max, durationNanos)) {
+				return;
+			}
+		}
+	}
+
+	static int bucketOf(long durationNanos) {
+		long micros = durationNanos / 1000;
+		if (micros <= 1) {
+			return 0;
+		}
+		int bucket = 63 - Long.numberOfLeadingZeros(micros);
+		return Math.min(bucket, BUCKET_COUNT - 1);
+	}
+
+	public Class<?> getTargetClass() {
+		return targetClass;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+	/**
+	 * @return current values of the statistics
+	 */
+	public Snapshot snapshot() {
+		long[] bucketCounts = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			bucketCounts[i] = buckets.get(i);
+		}
+		return new Snapshot(targetClass, contentType, count.get(), failureCount.get(), totalBytes.get(), totalNanos.get(),
+				maxNanos.get(), bucketCounts);
+	}
+
+	/**
+	 * Immutable values of {@link ParseMetrics} at some moment.
+	 */
+	public static class Snapshot {
+		private final Class<?> targetClass;
+		private final String contentType;
+		private final long count;
+		private final long failureCount;
+		private final long totalBytes;
+		private final long totalNanos;
+		private final long maxNanos;
+		private final long[] bucketCounts;
+
+		Snapshot(Class<?> targetClass, String contentType, long count, long failureCount, long totalBytes, long totalNanos,
+				long maxNanos, long[] bucketCounts) {
+			this.targetClass = targetClass;
+			this.contentType = contentType;
+			this.count = count;
+			this.failureCount = failureCount;
+			this.totalBytes = totalBytes;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+			this.bucketCounts = bucketCounts;
+		}
+
+		public Class<?> getTargetClass() {
+			return targetClass;
+		}
+		/**
+		 * @return content type without parameters (ex. "application/json"), or null for responses without it
+		 */
+		public String getContentType() {
+			return contentType;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getFailureCount() {
+			return failureCount;
+		}
+
+		public long getTotalBytes() {
+			return totalBytes;
+		}
+
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+		/**
+		 * @return average parse duration, or 0 if nothing is recorded
+		 */
+		public long getMeanNanos() {
+			return count == 0 ? 0 : totalNanos / count;
+		}
+		/**
+		 * @return average size of the parsed bodies, or 0 if nothing is recorded
+		 */
+		public long getMeanBytes() {
+			return count == 0 ? 0 : totalBytes / count;
+		}
+		/**
+		 * Return an upper bound of the parse duration at the percentile. (ex. 0.99 for p99)
+		 * @param percentile between 0 and 1
+		 * @return upper bound in nanoseconds, or 0 if nothing is recorded
+		 */
+		public long getPercentileNanos(double percentile) {
+			if (percentile < 0 || percentile > 1) {
+				throw new IllegalArgumentException("percentile must be between 0 and 1.");
+			}
+
+			long total = 0;
+			for (long bucketCount : bucketCounts) {
+				total += bucketCount;
+			}
+			if (total == 0) {
+				return 0;
+			}
+
+			long rank = Math.max(1, (long) Math.ceil(percentile * total));
+			long cumulative = 0;
+			for (int i = 0; i < bucketCounts.length; i++) {
+				cumulative += bucketCounts[i];
+				if (cumulative >= rank) {
+					// Never report more than the actual maximum
+					return Math.min((2L << i) * 1000, maxNanos);
+				}
+			}
+			return maxNanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("ParseMetrics[%s,%s,count=%d,failures=%d,meanBytes=%d,meanNanos=%d,p99Nanos=%d,maxNanos=%d]",
+					targetClass.getName(), contentType, count, failureCount, getMeanBytes(), getMeanNanos(), getPercentileNanos(0.99), maxNanos);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import java.io.IOException;
+
+import com.android.volley.NetworkResponse;
+/**
+ * <pre>
+ * An interface for a parser which can read the elements of a top-level array one by one,
+ * without building the whole array in memory.
+ *
+ * NOTE : It is used by {@link ItemStreamingNetworkResponseParser}.
+ * </pre>
+ */
+public interface ArrayItemParser {
+	/**
+	 * Parse the top-level array of a response element by element,
+	 * and hand each element to {@code handler} as soon as it is parsed.
+	 * @param itemClass Class that each element will be parsed to
+	 * @return Number of the elements accepted by {@code handler} (the element which stopped parsing is not counted)
+	 * @throws IOException if the content is not an array, or an element cannot be parsed to {@code itemClass}
+	 */
+	<E> int parseArrayItems(NetworkResponse response, Class<E> itemClass, ItemHandler<? super E> handler) throws IOException;
+
+	/**
+	 * A callback which receives each element on the thread parsing a response.
+	 */
+	interface ItemHandler<E> {
+		/**
+		 * @return true to continue parsing, or false to stop parsing the rest of the array
+		 */
+		boolean onItem(E item);
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import java.util.Map;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.navercorp.volleyextensions.volleyer.http.ContentType;
+import com.navercorp.volleyextensions.volleyer.util.BoundedConcurrentCache;
+/**
+ * <pre>
+ * Find a parser for a raw "Content-Type" header value such as "application/json; charset=utf-8".
+ *
+ * In contrast with {@link ContentType#createContentType(String)}, the media type is compared in place
+ * with the registered content types, so resolving doesn't allocate any object.
+ * The resolved parsers are also cached by the raw header values, which are usually a few fixed strings.
+ * The cache is bounded, and the least recently used header values are evicted (approximately),
+ * so that values which vary on every response (ex. a random boundary of multipart) don't grow it.
+ *
+ * A media type is matched in the order below.
+ * 1. Exact match, ignoring cases and spaces (ex. "Application/JSON")
+ * 2. Structured syntax suffix (ex. "application/vnd.foo+json" is matched with "application/json")
+ * 3. Wildcard subtype (ex. "image/png" is matched with "image/*")
+ * 4. Wildcard type ("*&#47;*")
+ * </pre>
+ */
+final class ContentTypeResolver {
+	/** Maximum number of the raw header values whose parser is cached */
+	static final int MAX_CACHED_HEADERS = 64;
+	private static final String STRUCTURED_SUFFIX_TYPE = "application/";
+	private static final String WILDCARD_SUBTYPE = "/*";
+	private static final String WILDCARD_TYPE = "*/*";
+	/** Marks a header value that no parser is matched with, because the cache doesn't accept null */
+	private static final NetworkResponseParser NO_PARSER = new NetworkResponseParser() {
+		@Override
+		public <T> Response<T> parseNetworkResponse(NetworkResponse response, Class<T> clazz) {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	private final String[] contentTypes;
+	private final NetworkResponseParser[] parsers;
+	private final BoundedConcurrentCache<String, NetworkResponseParser> cache =
+			new BoundedConcurrentCache<String, NetworkResponseParser>(MAX_CACHED_HEADERS);
+
+	ContentTypeResolver(Map<ContentType, NetworkResponseParser> parsers) {
+		int size = parsers.size();
+		this.contentTypes = new String[size];
+		this.parsers = new NetworkResponseParser[size];
+		int index = 0;
+		for (Map.Entry<ContentType, NetworkResponseParser> entry : parsers.entrySet()) {
+			// toString() returns the filtered content type which is lower-cased and has no spaces
+			this.contentTypes[index] = entry.getKey().toString();
+			this.parsers[index] = entry.getValue();
+			index++;
+		}
+	}
+
+	/**
+	 * @param contentTypeHeader raw value of the "Content-Type" header, must not be null.
+	 * @return matched parser, or null if there is no parser for the content type.
+	 */
+	NetworkResponseParser resolve(String contentTypeHeader) {
+		NetworkResponseParser parser = cache.get(contentTypeHeader);
+		if (parser == null) {
+			parser = find(contentTypeHeader);
+			cache.putIfAbsent(contentTypeHeader, parser != null ? parser : NO_PARSER);
+		}
+		return parser == NO_PARSER ? null : parser;
+	}
+
+	/**
+	 * @return the number of the raw header values whose parser is cached
+	 */
+	int cachedHeaderCount() {
+		return cache.size();
+	}
+
+	private NetworkResponseParser find(String header) {
+		// Find the range of the media type, which is before parameters like charset
+		int end = header.indexOf(';');
+		if (end < 0) {
+			end = header.length();
+		}
+		int start = 0;
+		while (start < end && isSpace(header.charAt(start))) {
+			start++;
+		}
+		while (end > start && isSpace(header.charAt(end - 1))) {
+			end--;
+		}
+		if (start == end) {
+			return null;
+		}
+
+		int index = indexOfExactMatch(header, start, end);
+		if (index < 0) {
+			index = indexOfSuffixMatch(header, start, end);
+		}
+		if (index < 0) {
+			index = indexOfWildcardMatch(header, start, end);
+		}
+		return index < 0 ? null : parsers[index];
+	}
+
+	private int indexOfExactMatch(String header, int start, int end) {
+		for (int i = 0; i < contentTypes.length; i++) {
+			String contentType = contentTypes[i];
+			if (regionMatches(contentType, 0, contentType.length(), header, start, end)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/** Match "application/{suffix}" with a media type like "application/vnd.foo+{suffix}" */
+	private int indexOfSuffixMatch(String header, int start, int end) {
+		int plus = header.lastIndexOf('+', end - 1);
+		int slash = header.indexOf('/', start);
+		if (plus < start || slash < 0 || slash > plus) {
+			return -1;
+		}
+		for (int i = 0; i < contentTypes.length; i++) {
+			String contentType = contentTypes[i];
+			if (contentType.startsWith(STRUCTURED_SUFFIX_TYPE)
+					&& regionMatches(contentType, STRUCTURED_SUFFIX_TYPE.length(), contentType.length(), header, plus + 1, end)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/** Match "{type}/*" first, and "*&#47;*" at last */
+	private int indexOfWildcardMatch(String header, int start, int end) {
+		int slash = header.indexOf('/', start);
+		int typeEnd = slash < 0 || slash > end ? end : slash;
+		int wildcardTypeIndex = -1;
+		for (int i = 0; i < contentTypes.length; i++) {
+			String contentType = contentTypes[i];
+			if (!contentType.endsWith(WILDCARD_SUBTYPE)) {
+				continue;
+			}
+			if (contentType.equals(WILDCARD_TYPE)) {
+				wildcardTypeIndex = i;
+				continue;
+			}
+			int wildcardStart = contentType.length() - WILDCARD_SUBTYPE.length();
+			if (regionMatches(contentType, 0, wildcardStart, header, start, typeEnd)) {
+				return i;
+			}
+		}
+		return wildcardTypeIndex;
+	}
+
+	/**
+	 * Compare {@code expected[expectedStart, expectedEnd)}, which is lower-cased and has no spaces,
+	 * with {@code header[start, end)} ignoring cases and spaces.
+	 */
+	private static boolean regionMatches(String expected, int expectedStart, int expectedEnd, String header, int start, int end) {
+		int expectedIndex = expectedStart;
+		for (int i = start; i < end; i++) {
+			char c = header.charAt(i);
+			if (isSpace(c)) {
+				continue;
+			}
+			if (expectedIndex >= expectedEnd || Character.toLowerCase(c) != expected.charAt(expectedIndex)) {
+				return false;
+			}
+			expectedIndex++;
+		}
+		return expectedIndex == expectedEnd;
+	}
+
+	private static boolean isSpace(char c) {
+		return c == ' ' || c == '\t';
+	}
+}
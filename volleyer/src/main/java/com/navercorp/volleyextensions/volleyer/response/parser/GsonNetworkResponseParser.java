@@ -21,12 +21,28 @@ import com.android.volley.Response;
 import com.android.volley.VolleyError;
 import com.android.volley.toolbox.HttpHeaderParser;
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import com.navercorp.volleyextensions.volleyer.http.ContentType;
 import com.navercorp.volleyextensions.volleyer.http.ContentTypes;
+import com.navercorp.volleyextensions.volleyer.http.ResponseHeaders;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
 import com.navercorp.volleyextensions.volleyer.util.Assert;
+import com.navercorp.volleyextensions.volleyer.util.IoUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Type;
 
 /**
  * <pre>
@@ -36,11 +52,17 @@ import java.io.UnsupportedEncodingException;
  * and the content type of a response is "application/json" or "text/json" type,
  * integrated parser automatically delegates to this class.
  *
+ * A {@link TypeAdapter} for each target type is cached and reused by {@link Gson} itself.
+ * Generic types such as {@code List<Tweet>} are supported by {@link #parseNetworkResponse(NetworkResponse, TargetType)}.
+ * The elements of a top-level array can be read one by one by {@link #parseArrayItems(NetworkResponse, Class, ItemHandler)}.
+ * The body is parsed as {@code Gson.fromJson(String, Class)} does, but it is decoded while being read
+ * by a {@link JsonReader}, so the whole body is never copied into a String.
+ *
  * WARN : You have to import gson library to use this class.
  * If not, this class throws an error when initializing.
  * </pre>
  */
-public class GsonNetworkResponseParser implements TypedNetworkResponseParser {
+public class GsonNetworkResponseParser implements TypedNetworkResponseParser, ArrayItemParser {
     /**
      * Default {@link Gson} is singleton.
      */
@@ -71,7 +93,63 @@ public class GsonNetworkResponseParser implements TypedNetworkResponseParser {
     }
 
     protected final String getBodyString(NetworkResponse response) throws UnsupportedEncodingException {
-        return new String(response.data, HttpHeaderParser.parseCharset(response.headers));
+        return new String(response.data, ResponseHeaders.of(response).getCharset());
+    }
+
+    /**
+     * Create a {@link JsonReader} which decodes the body by the charset of the response while reading it.
+     */
+    private JsonReader createJsonReader(NetworkResponse response) throws UnsupportedEncodingException {
+        Reader bodyReader = new InputStreamReader(new ByteArrayInputStream(response.data),
+                ResponseHeaders.of(response).getCharset());
+        JsonReader reader = gson.newJsonReader(bodyReader);
+        reader.setLenient(true);
+        return reader;
+    }
+
+    /**
+     * NOTE : Gson caches adapters by itself, so they are not cached here.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> TypeAdapter<T> getAdapter(Type type) {
+        return (TypeAdapter<T>) gson.getAdapter(TypeToken.get(type));
+    }
+
+    /**
+     * Read the body by {@code adapter} in the same way as {@code Gson.fromJson(String, Class)}.
+     * An empty body is read as null, and a body which has trailing data is not allowed.
+     */
+    private <T> T readBody(JsonReader reader, TypeAdapter<T> adapter) {
+        boolean isEmpty = true;
+        T result;
+        try {
+            reader.peek();
+            isEmpty = false;
+            result = adapter.read(reader);
+        } catch (EOFException e) {
+            if (!isEmpty) {
+                throw new JsonSyntaxException(e);
+            }
+            return null;
+        } catch (IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+        assertFullConsumption(reader);
+        return result;
+    }
+
+    private static void assertFullConsumption(JsonReader reader) {
+        try {
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonIOException("JSON document was not fully consumed.");
+            }
+        } catch (MalformedJsonException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
     }
 
     @Override
@@ -79,8 +157,22 @@ public class GsonNetworkResponseParser implements TypedNetworkResponseParser {
         Assert.notNull(response, "Response");
         Assert.notNull(clazz, "Class token");
 
+        return parse(response, clazz);
+    }
+
+    @Override
+    public <T> Response<T> parseNetworkResponse(NetworkResponse response, TargetType<T> targetType) {
+        Assert.notNull(response, "Response");
+        Assert.notNull(targetType, "Target type");
+
+        return parse(response, targetType.getType());
+    }
+
+    private <T> Response<T> parse(NetworkResponse response, Type type) {
+        JsonReader reader = null;
         try {
-            T result = gson.fromJson(getBodyString(response), clazz);
+            reader = createJsonReader(response);
+            T result = readBody(reader, this.<T>getAdapter(type));
             return Response.success(result, HttpHeaderParser.parseCacheHeaders(response));
         } catch (JsonSyntaxException e) {
             return Response.error(new ParseError(e));
@@ -88,6 +180,38 @@ public class GsonNetworkResponseParser implements TypedNetworkResponseParser {
             return Response.error(new ParseError(e));
         } catch (Exception e) {
             return Response.error(new VolleyError(e));
+        } finally {
+            IoUtils.closeQuietly(reader);
+        }
+    }
+
+    @Override
+    public <E> int parseArrayItems(NetworkResponse response, Class<E> itemClass, ItemHandler<? super E> handler) throws IOException {
+        Assert.notNull(response, "Response");
+        Assert.notNull(itemClass, "Item class token");
+        Assert.notNull(handler, "ItemHandler");
+
+        TypeAdapter<E> adapter = getAdapter(itemClass);
+        JsonReader reader = createJsonReader(response);
+        try {
+            reader.beginArray();
+            int count = 0;
+            while (reader.hasNext()) {
+                E item = adapter.read(reader);
+                if (!handler.onItem(item)) {
+                    return count;
+                }
+                count++;
+            }
+            reader.endArray();
+            return count;
+        } catch (IllegalStateException e) {
+            // Thrown when a token is not the expected one (ex. the content is not an array)
+            throw new IOException(e);
+        } catch (JsonParseException e) {
+            throw new IOException(e);
+        } finally {
+            IoUtils.closeQuietly(reader);
         }
     }
 
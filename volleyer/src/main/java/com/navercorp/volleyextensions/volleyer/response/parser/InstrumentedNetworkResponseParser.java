@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.navercorp.volleyextensions.volleyer.http.ContentType;
+import com.navercorp.volleyextensions.volleyer.http.ResponseHeaders;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.response.instrument.ParseEvent;
+import com.navercorp.volleyextensions.volleyer.response.instrument.ParseListener;
+import com.navercorp.volleyextensions.volleyer.response.instrument.ParseMetrics;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+import com.navercorp.volleyextensions.volleyer.util.StringUtils;
+import com.navercorp.volleyextensions.volleyer.util.VolleyerLog;
+/**
+ * <pre>
+ * A parser which measures another parser.
+ * It records the duration, the body size and the outcome of each parse into {@link ParseMetrics}
+ * of the content type (without parameters such as charset) and the target class, and notifies {@link ParseListener}s.
+ * An exception thrown by a listener is logged, and it doesn't affect the result of the parse.
+ *
+ * Usage :
+ * {@code
+ * InstrumentedNetworkResponseParser parser =
+ * 		new InstrumentedNetworkResponseParser(DefaultNetworkResponseParserFactory.create());
+ * VolleyerConfiguration configuration = new VolleyerConfiguration(
+ * 		DefaultVolleyerConfigurationFactory.createRequestCreator(),
+ * 		DefaultVolleyerConfigurationFactory.createRequestExecutor(),
+ * 		parser,
+ * 		DefaultVolleyerConfigurationFactory.createErrorListener());
+ * ...
+ * for (ParseMetrics.Snapshot snapshot : parser.snapshots()) {
+ * 		Log.d(TAG, snapshot.toString());
+ * }
+ * }
+ *
+ * NOTE : If it is disabled by {@link #setEnabled(boolean)}, it just delegates without reading a clock.
+ *        Recording doesn't take any lock.
+ * </pre>
+ */
+public class InstrumentedNetworkResponseParser implements NetworkResponseParser {
+	private static final String CONTENT_TYPE_HEADER_KEY = "Content-Type";
+
+	private final NetworkResponseParser responseParser;
+	private final ConcurrentMap<MetricsKey, ParseMetrics> metrics = new ConcurrentHashMap<MetricsKey, ParseMetrics>();
+	private final List<ParseListener> listeners = new CopyOnWriteArrayList<ParseListener>();
+	private volatile boolean enabled = true;
+
+	/**
+	 * @param responseParser parser to be measured
+	 */
+	public InstrumentedNetworkResponseParser(NetworkResponseParser responseParser) {
+		Assert.notNull(responseParser, "NetworkResponseParser");
+		this.responseParser = responseParser;
+	}
+
+	@Override
+	public <T> Response<T> parseNetworkResponse(NetworkResponse response, Class<T> clazz) {
+		if (!enabled) {
+			return responseParser.parseNetworkResponse(response, clazz);
+		}
+
+		long startTime = System.nanoTime();
+		Response<T> parsedResponse = null;
+		try {
+			parsedResponse = responseParser.parseNetworkResponse(response, clazz);
+			return parsedResponse;
+		} finally {
+			record(response, clazz, clazz, System.nanoTime() - startTime, parsedResponse);
+		}
+	}
+
+	@Override
+	public <T> Response<T> parseNetworkResponse(NetworkResponse response, TargetType<T> targetType) {
+		if (!enabled) {
+			return responseParser.parseNetworkResponse(response, targetType);
+		}
+
+		long startTime = System.nanoTime();
+		Response<T> parsedResponse = null;
+		try {
+			parsedResponse = responseParser.parseNetworkResponse(response, targetType);
+			return parsedResponse;
+		} finally {
+			record(response, targetType == null ? null : targetType.getRawClass(),
+					targetType == null ? null : targetType.getType(), System.nanoTime() - startTime, parsedResponse);
+		}
+	}
+
+	private void record(NetworkResponse response, Class<?> targetClass, Type type, long durationNanos, Response<?> parsedResponse) {
+		if (response == null || targetClass == null) {
+			// The delegate has thrown an error for the invalid arguments
+			return;
+		}
+
+		int bytes = response.data == null ? 0 : response.data.length;
+		boolean success = parsedResponse != null && parsedResponse.isSuccess();
+		String contentTypeHeader = ResponseHeaders.of(response).get(CONTENT_TYPE_HEADER_KEY);
+		getOrCreateMetrics(targetClass, toMediaType(contentTypeHeader)).record(durationNanos, bytes, success);
+
+		if (listeners.isEmpty()) {
+			return;
+		}
+		ParseEvent event = new ParseEvent(type, contentTypeHeader, bytes, durationNanos, success);
+		for (ParseListener listener : listeners) {
+			// This is called in a finally block, so an exception must not hide the result of the parse
+			try {
+				listener.onParsed(event);
+			} catch (RuntimeException e) {
+				VolleyerLog.error(e, "ParseListener has thrown an exception : %s", listener);
+			}
+		}
+	}
+
+	private static String toMediaType(String contentTypeHeader) {
+		if (StringUtils.isEmpty(contentTypeHeader)) {
+			return null;
+		}
+		return ContentType.createContentType(contentTypeHeader).toString();
+	}
+
+	private ParseMetrics getOrCreateMetrics(Class<?> targetClass, String contentType) {
+		MetricsKey key = new MetricsKey(targetClass, contentType);
+		ParseMetrics parseMetrics = metrics.get(key);
+		if (parseMetrics != null) {
+			return parseMetrics;
+		}
+		ParseMetrics newMetrics = new ParseMetrics(targetClass, contentType);
+		parseMetrics = metrics.putIfAbsent(key, newMetrics);
+		return parseMetrics != null ? parseMetrics : newMetrics;
+	}
+	/**
+	 * Enable or disable measuring. It is enabled by default.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void addParseListener(ParseListener listener) {
+		Assert.notNull(listener, "ParseListener");
+		listeners.add(listener);
+	}
+
+	public void removeParseListener(ParseListener listener) {
+		listeners.remove(listener);
+	}
+	/**
+	 * @param contentType content type without parameters (ex. "application/json"), or null for responses without it
+	 * @return snapshot of the content type and the target class, or null if it has never been parsed
+	 */
+	public ParseMetrics.Snapshot snapshot(Class<?> targetClass, String contentType) {
+		ParseMetrics parseMetrics = metrics.get(new MetricsKey(targetClass, contentType));
+		return parseMetrics == null ? null : parseMetrics.snapshot();
+	}
+	/**
+	 * @return snapshots of the target class, one for each parsed content type
+	 */
+	public List<ParseMetrics.Snapshot> snapshots(Class<?> targetClass) {
+		List<ParseMetrics.Snapshot> snapshots = new ArrayList<ParseMetrics.Snapshot>();
+		for (ParseMetrics parseMetrics : metrics.values()) {
+			if (parseMetrics.getTargetClass().equals(targetClass)) {
+				snapshots.add(parseMetrics.snapshot());
+			}
+		}
+		return Collections.unmodifiableList(snapshots);
+	}
+	/**
+	 * @return snapshots of all of the parsed target classes
+	 */
+	public List<ParseMetrics.Snapshot> snapshots() {
+		List<ParseMetrics.Snapshot> snapshots = new ArrayList<ParseMetrics.Snapshot>();
+		for (ParseMetrics parseMetrics : metrics.values()) {
+			snapshots.add(parseMetrics.snapshot());
+		}
+		return Collections.unmodifiableList(snapshots);
+	}
+	/**
+	 * Clear the recorded metrics.
+	 */
+	public void reset() {
+		metrics.clear();
+	}
+	/**
+	 * @return parser which is measured
+	 */
+	public NetworkResponseParser getResponseParser() {
+		return responseParser;
+	}
+
+	private static class MetricsKey {
+		private final Class<?> targetClass;
+		private final String contentType;
+
+		private MetricsKey(Class<?> targetClass, String contentType) {
+			this.targetClass = targetClass;
+			this.contentType = contentType;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof MetricsKey)) {
+				return false;
+			}
+			MetricsKey other = (MetricsKey) obj;
+			return targetClass.equals(other.targetClass)
+					&& (contentType == null ? other.contentType == null : contentType.equals(other.contentType));
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * targetClass.hashCode() + (contentType == null ? 0 : contentType.hashCode());
+		}
+	}
+}
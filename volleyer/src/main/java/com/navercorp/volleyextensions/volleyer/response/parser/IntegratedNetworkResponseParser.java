@@ -26,12 +26,16 @@ import com.android.volley.toolbox.HttpHeaderParser;
 import com.navercorp.volleyextensions.volleyer.exception.UnsupportedContentTypeException;
 import com.navercorp.volleyextensions.volleyer.http.ContentType;
 import com.navercorp.volleyextensions.volleyer.http.ContentTypes;
+import com.navercorp.volleyextensions.volleyer.http.ResponseHeaders;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
 import com.navercorp.volleyextensions.volleyer.util.Assert;
 /**
  * <pre>
  * A composite class which can contain several {@code TypedNetworkResponseParser}.
  * This class reads content type of a response when volley receives the response,
  * and choose a right parser among the contained parsers. The chosen parser converts content to T object.
+ * A structured syntax suffix like "application/vnd.foo+json" is handled by the parser of "application/json",
+ * and a parser added for a wildcard type like "image/*" handles the content types which are not added exactly.
  * NOTE : Use {@link Builder} and add actual parsers by using it when creating IntegratedNetworkResponseParser.
  *
  * </pre>
@@ -42,12 +46,15 @@ public class IntegratedNetworkResponseParser implements NetworkResponseParser {
 	private static final NetworkResponseParser STRING_NETWORK_RESPONSE_PARSER = new StringNetworkResponseParser();
 
 	private final Map<ContentType, NetworkResponseParser> parsers = new HashMap<ContentType, NetworkResponseParser>(); 
+	/** Finds a parser from a raw content type header without allocation */
+	private final ContentTypeResolver contentTypeResolver;
 	/**
 	 * Default constructor
 	 * @param parsers Actual parsers from builder
 	 */
 	IntegratedNetworkResponseParser(Map<ContentType, NetworkResponseParser> parsers) {
 		this.parsers.putAll(parsers);
+		this.contentTypeResolver = new ContentTypeResolver(this.parsers);
 	}
 	/**
 	 * Choose a right parser among actual parsers and Parse the data of a response to T object.
@@ -78,30 +85,69 @@ public class IntegratedNetworkResponseParser implements NetworkResponseParser {
 			return successResponse;
 		}
 
+		NetworkResponseParser responseParser;
+		try {
+			responseParser = findResponseParser(response);
+		} catch (UnsupportedContentTypeException e) {
+			return Response.error(new ParseError(e));
+		}
+
+		// Parse the response and return it
+		return responseParser.parseNetworkResponse(response, clazz);
+	}
+	/**
+	 * Choose a right parser among actual parsers and Parse the data of a response to T object of a generic type.
+	 * @param response NetworkResponse instance which has content.
+	 * @param targetType Target type that content of a response will be parsed to.
+	 * 		(If it is a raw class, {@link #parseNetworkResponse(NetworkResponse, Class)} is used instead.)
+	 * @return Response which contains parsed T object or contains some error if it happened.
+	 */
+	@Override
+	public <T> Response<T> parseNetworkResponse(NetworkResponse response, TargetType<T> targetType) {
+		Assert.notNull(response, "NetworkResponse");
+		Assert.notNull(targetType, "Target type");
+
+		if (targetType.isRawClass()) {
+			@SuppressWarnings("unchecked")
+			Class<T> clazz = (Class<T>) targetType.getRawClass();
+			return parseNetworkResponse(response, clazz);
+		}
+
+		NetworkResponseParser responseParser;
+		try {
+			responseParser = findResponseParser(response);
+		} catch (UnsupportedContentTypeException e) {
+			return Response.error(new ParseError(e));
+		}
+
+		// Parse the response and return it
+		return responseParser.parseNetworkResponse(response, targetType);
+	}
+	/**
+	 * Find a parser by the content type of a response.
+	 * @throws UnsupportedContentTypeException if the content type is null, or there is no parser for it.
+	 */
+	private NetworkResponseParser findResponseParser(NetworkResponse response) throws UnsupportedContentTypeException {
 		// Get a content type string from the response header
 		String contentTypeString = getResponseHeader(response, CONTENT_TYPE_HEADER_KEY);
 		// Throw an error if content type is null
 		if (contentTypeString == null) {
-			return Response.error(new ParseError(new UnsupportedContentTypeException("It cannot find any response parser, "
-					+ "because the response content type is null.")));
+			throw new UnsupportedContentTypeException("It cannot find any response parser, "
+					+ "because the response content type is null.");
 		}
 
-		// Create a content type instance
-		ContentType contentType = ContentType.createContentType(contentTypeString);
-		// Get a network response parser from parsers collection
-		NetworkResponseParser responseParser = parsers.get(contentType);
+		// Get a network response parser for the content type (including "+json" suffixes and wildcards)
+		NetworkResponseParser responseParser = contentTypeResolver.resolve(contentTypeString);
 		// Throw an error if it cannot find any response parser
 		if (responseParser == null) {
-			return Response.error(new ParseError(new UnsupportedContentTypeException("It cannot find any response parser "
-					+ "for the response content type.")));	
+			throw new UnsupportedContentTypeException("It cannot find any response parser "
+					+ "for the response content type.");
 		}
-
-		// Parse the response and return it
-		return responseParser.parseNetworkResponse(response, clazz);
+		return responseParser;
 	}
 
 	protected String getResponseHeader(NetworkResponse response, String headerKey) {
-		return response.headers.get(headerKey);
+		return ResponseHeaders.of(response).get(headerKey);
 	}
 
 	/**
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.navercorp.volleyextensions.volleyer.response.ItemListener;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+import com.navercorp.volleyextensions.volleyer.util.MainThreadExecutor;
+/**
+ * <pre>
+ * A parser which delivers the elements of a top-level array to an {@link ItemListener} in batches,
+ * while it is parsing the rest of the array.
+ * The listener can show the first elements of a large array without waiting for the whole array to be parsed.
+ *
+ * The result of the response is the number of the elements, so the target class must be {@code Integer}.
+ * The Listener of the request is called after all of the batches are delivered.
+ *
+ * NOTE : This parser is made for a request. Don't share it among requests.
+ *        If the content is broken in the middle of the array, the elements before it are delivered,
+ *        and then the ErrorListener of the request is called.
+ *        After the request bound by {@link #bindRequest(Request)} is canceled,
+ *        the batches are not delivered and the rest of the array is not parsed.
+ *        The bound request is not cached, because a soft-expired cache hit is parsed twice
+ *        (the cached response and the refreshed one), which would deliver every element twice.
+ * </pre>
+ * @param <E> Class of the elements
+ * @see ArrayItemParser
+ */
+public class ItemStreamingNetworkResponseParser<E> implements NetworkResponseParser {
+	/** Default number of elements delivered at once */
+	public static final int DEFAULT_BATCH_SIZE = 20;
+
+	private final ArrayItemParser arrayItemParser;
+	private final Class<E> itemClass;
+	private final ItemListener<E> itemListener;
+	private final int batchSize;
+	private final Executor deliveryExecutor;
+	private volatile Request<?> request;
+
+	/**
+	 * Create a parser which delivers {@link #DEFAULT_BATCH_SIZE} elements at once on the main thread.
+	 */
+	public ItemStreamingNetworkResponseParser(ArrayItemParser arrayItemParser, Class<E> itemClass, ItemListener<E> itemListener) {
+		this(arrayItemParser, itemClass, itemListener, DEFAULT_BATCH_SIZE, new MainThreadExecutor());
+	}
+
+	/**
+	 * @param batchSize Maximum number of elements delivered at once
+	 * @param deliveryExecutor Executor which calls {@code itemListener}
+	 */
+	public ItemStreamingNetworkResponseParser(ArrayItemParser arrayItemParser, Class<E> itemClass, ItemListener<E> itemListener,
+											  int batchSize, Executor deliveryExecutor) {
+		Assert.notNull(arrayItemParser, "ArrayItemParser");
+		Assert.notNull(itemClass, "Item class token");
+		Assert.notNull(itemListener, "ItemListener");
+		Assert.notNull(deliveryExecutor, "Delivery executor");
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("batchSize must be greater than 0.");
+		}
+
+		this.arrayItemParser = arrayItemParser;
+		this.itemClass = itemClass;
+		this.itemListener = itemListener;
+		this.batchSize = batchSize;
+		this.deliveryExecutor = deliveryExecutor;
+	}
+
+	/**
+	 * Bind the request which uses this parser. The batches are not delivered after the request is canceled.
+	 * The response of the request is not cached, so that the elements are delivered only once.
+	 */
+	public void bindRequest(Request<?> request) {
+		Assert.notNull(request, "Request");
+		request.setShouldCache(false);
+		this.request = request;
+	}
+
+	/**
+	 * Bind a request to the streaming parser which {@code responseParser} is, or wraps with {@link TransformingNetworkResponseParser}s.
+	 * Nothing is done if {@code responseParser} is not a streaming one.
+	 * @see #bindRequest(Request)
+	 */
+	public static void bindRequestIfStreaming(NetworkResponseParser responseParser, Request<?> request) {
+		NetworkResponseParser parser = responseParser;
+		while (parser instanceof TransformingNetworkResponseParser) {
+			parser = ((TransformingNetworkResponseParser<?, ?>) parser).getResponseParser();
+		}
+		if (parser instanceof ItemStreamingNetworkResponseParser) {
+			((ItemStreamingNetworkResponseParser<?>) parser).bindRequest(request);
+		}
+	}
+
+	@Override
+	public <T> Response<T> parseNetworkResponse(NetworkResponse response, Class<T> clazz) {
+		Assert.notNull(response, "NetworkResponse");
+		Assert.notNull(clazz, "Target class token");
+
+		BatchingHandler handler = new BatchingHandler();
+		try {
+			int count = arrayItemParser.parseArrayItems(response, itemClass, handler);
+			handler.flush();
+			return Response.success(clazz.cast(count), HttpHeaderParser.parseCacheHeaders(response));
+		} catch (IOException e) {
+			return Response.error(new ParseError(e));
+		} catch (Exception e) {
+			return Response.error(new VolleyError(e));
+		}
+	}
+
+	private boolean isCanceled() {
+		Request<?> boundRequest = request;
+		return boundRequest != null && boundRequest.isCanceled();
+	}
+
+	/**
+	 * Collect elements on the parsing thread, and post them to {@code deliveryExecutor} when a batch is full.
+	 */
+	private class BatchingHandler implements ArrayItemParser.ItemHandler<E> {
+		private List<E> batch = new ArrayList<E>(batchSize);
+
+		@Override
+		public boolean onItem(E item) {
+			// Stop parsing the rest of the array, because nothing will be delivered any more
+			if (isCanceled()) {
+				return false;
+			}
+			batch.add(item);
+			if (batch.size() >= batchSize) {
+				flush();
+			}
+			return true;
+		}
+
+		private void flush() {
+			if (batch.isEmpty()) {
+				return;
+			}
+			final List<E> items = batch;
+			batch = new ArrayList<E>(batchSize);
+			deliveryExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					if (isCanceled()) {
+						return;
+					}
+					itemListener.onItems(items);
+				}
+			});
+		}
+	}
+}
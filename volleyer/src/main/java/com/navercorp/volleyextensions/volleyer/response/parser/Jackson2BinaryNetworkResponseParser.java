@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import java.lang.reflect.InvocationTargetException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navercorp.volleyextensions.volleyer.http.ContentType;
+import com.navercorp.volleyextensions.volleyer.http.ContentTypes;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+import com.navercorp.volleyextensions.volleyer.util.ClassUtils;
+/**
+ * <pre>
+ * A parser class which converts binary json data (CBOR, Smile, MessagePack) to T object by a Jackson 2.x dataformat.
+ *
+ * Binary formats are smaller than text json and can be read without decoding characters.
+ * The body is always given to Jackson as bytes regardless of a charset of the response.
+ * Everything else (cached readers, generic types, array items) works as {@link Jackson2NetworkResponseParser}.
+ *
+ * Parsers for the known dataformats can be created without a compile-time dependency.
+ * They return null if the dataformat library is not imported.
+ * {@code
+ * Jackson2BinaryNetworkResponseParser cborParser = Jackson2BinaryNetworkResponseParser.createCborParser();
+ * }
+ * Or give your own {@link ObjectMapper} with a dataformat factory.
+ * {@code
+ * new Jackson2BinaryNetworkResponseParser(new ObjectMapper(new CBORFactory()), ContentType.CONTENT_TYPE_APPLICATION_CBOR);
+ * }
+ *
+ * NOTE : If this class is added into {@link IntegratedNetworkResponseParser},
+ * integrated parser delegates the responses of the given content types to this class.
+ *
+ * WARN : You have to import jackson 2.x library and its dataformat library to use this class.
+ * </pre>
+ */
+public class Jackson2BinaryNetworkResponseParser extends Jackson2NetworkResponseParser {
+	/** {@code com.fasterxml.jackson.dataformat:jackson-dataformat-cbor} */
+	public static final String CBOR_FACTORY_CLASS_NAME = "com.fasterxml.jackson.dataformat.cbor.CBORFactory";
+	/** {@code com.fasterxml.jackson.dataformat:jackson-dataformat-smile} */
+	public static final String SMILE_FACTORY_CLASS_NAME = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
+	/** {@code org.msgpack:jackson-dataformat-msgpack} */
+	public static final String MSGPACK_FACTORY_CLASS_NAME = "org.msgpack.jackson.dataformat.MessagePackFactory";
+
+	private final ContentTypes contentTypes;
+
+	/**
+	 * @param objectMapper ObjectMapper which is created with a binary dataformat factory
+	 * @param contentTypes content types of the dataformat (1 or more)
+	 */
+	public Jackson2BinaryNetworkResponseParser(ObjectMapper objectMapper, ContentType... contentTypes) {
+		super(objectMapper, true);
+		this.contentTypes = new ContentTypes(contentTypes);
+	}
+	/**
+	 * Create a CBOR parser for "application/cbor".
+	 * @return parser, or null if jackson-dataformat-cbor is not present.
+	 */
+	public static Jackson2BinaryNetworkResponseParser createCborParser() {
+		return createParser(CBOR_FACTORY_CLASS_NAME, ContentType.CONTENT_TYPE_APPLICATION_CBOR);
+	}
+	/**
+	 * Create a Smile parser for "application/x-jackson-smile".
+	 * @return parser, or null if jackson-dataformat-smile is not present.
+	 */
+	public static Jackson2BinaryNetworkResponseParser createSmileParser() {
+		return createParser(SMILE_FACTORY_CLASS_NAME, ContentType.CONTENT_TYPE_APPLICATION_SMILE);
+	}
+	/**
+	 * Create a MessagePack parser for "application/x-msgpack".
+	 * @return parser, or null if jackson-dataformat-msgpack is not present.
+	 */
+	public static Jackson2BinaryNetworkResponseParser createMessagePackParser() {
+		return createParser(MSGPACK_FACTORY_CLASS_NAME, ContentType.CONTENT_TYPE_APPLICATION_MSGPACK);
+	}
+
+	private static Jackson2BinaryNetworkResponseParser createParser(String factoryClassName, ContentType contentType) {
+		ObjectMapper objectMapper = createObjectMapper(factoryClassName);
+		if (objectMapper == null) {
+			return null;
+		}
+		return new Jackson2BinaryNetworkResponseParser(objectMapper, contentType);
+	}
+	/**
+	 * <pre>
+	 * Create an {@link ObjectMapper} with a dataformat factory, which is configured as the default mapper of
+	 * {@link Jackson2NetworkResponseParser}. (unknown properties are ignored)
+	 * </pre>
+	 * @param factoryClassName full class name of a subclass of {@link JsonFactory}
+	 * @return ObjectMapper, or null if the factory class is not present
+	 */
+	public static ObjectMapper createObjectMapper(String factoryClassName) {
+		Assert.notNull(factoryClassName, "Factory class name");
+
+		if (!ClassUtils.isPresent(factoryClassName)) {
+			return null;
+		}
+
+		JsonFactory factory;
+		try {
+			factory = (JsonFactory) Class.forName(factoryClassName).getDeclaredConstructor().newInstance();
+		} catch (InvocationTargetException e) {
+			throw new IllegalArgumentException("Cannot create a JsonFactory : " + factoryClassName, e.getCause());
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Cannot create a JsonFactory : " + factoryClassName, e);
+		}
+		ObjectMapper objectMapper = new ObjectMapper(factory);
+		objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		return objectMapper;
+	}
+
+	@Override
+	public ContentTypes getContentTypes() {
+		return contentTypes;
+	}
+}
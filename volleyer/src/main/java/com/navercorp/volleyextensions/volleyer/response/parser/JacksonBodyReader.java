@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Type;
+import java.util.Locale;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.navercorp.volleyextensions.volleyer.http.ResponseHeaders;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+import com.navercorp.volleyextensions.volleyer.util.BoundedConcurrentCache;
+/**
+ * <pre>
+ * Reads the body of a response with an {@link ObjectMapper}.
+ * It is shared by {@link JacksonNetworkResponseParser} and {@link Jackson2NetworkResponseParser}.
+ *
+ * The body is given to Jackson as bytes without being converted to a String.
+ * If the format is binary, or the charset of the response is not specified or is one of UTF-8, UTF-16 and UTF-32,
+ * Jackson detects the encoding by itself. Other charsets are decoded while Jackson reads the body.
+ * An {@link ObjectReader} is built once for each target type and reused by the following responses.
+ * </pre>
+ */
+final class JacksonBodyReader {
+	/** Maximum number of the target types whose {@link ObjectReader} is cached */
+	private static final int MAX_CACHED_READERS = 256;
+
+	private final ObjectMapper objectMapper;
+	/** Whether the format of {@code objectMapper} is binary (ex. CBOR, Smile), which must not be decoded by a charset */
+	private final boolean binaryFormat;
+	/** {@link ObjectReader}s for target types, which skip resolving a type and looking up a deserializer for every response */
+	private final BoundedConcurrentCache<Type, ObjectReader> readerCache =
+			new BoundedConcurrentCache<Type, ObjectReader>(MAX_CACHED_READERS);
+
+	JacksonBodyReader(ObjectMapper objectMapper, boolean binaryFormat) {
+		Assert.notNull(objectMapper, "ObjectMapper");
+		this.objectMapper = objectMapper;
+		this.binaryFormat = binaryFormat;
+	}
+
+	<T> Response<T> parse(NetworkResponse response, Type type) {
+		try {
+			T result = readBody(response, type);
+			return Response.success(result, HttpHeaderParser.parseCacheHeaders(response));
+		} catch (JsonParseException e) {
+			return Response.error(new ParseError(e));
+		} catch (JsonMappingException e) {
+			return Response.error(new ParseError(e));
+		} catch (UnsupportedEncodingException e) {
+			return Response.error(new ParseError(e));
+		} catch (IOException e) {
+			return Response.error(new VolleyError(e));
+		} catch (Exception e) {
+			return Response.error(new VolleyError(e));
+		}
+	}
+
+	<E> int parseArrayItems(NetworkResponse response, Class<E> itemClass, ArrayItemParser.ItemHandler<? super E> handler)
+			throws IOException {
+		ObjectReader reader = getReader(itemClass);
+		JsonParser parser = createParser(reader, response);
+		try {
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw new JsonParseException(parser, "The content is not an array.");
+			}
+			int count = 0;
+			JsonToken token;
+			while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+				if (token == null) {
+					throw new JsonParseException(parser, "The array is not closed.");
+				}
+				E item = reader.readValue(parser);
+				if (!handler.onItem(item)) {
+					break;
+				}
+				count++;
+			}
+			return count;
+		} finally {
+			parser.close();
+		}
+	}
+
+	private <T> T readBody(NetworkResponse response, Type type) throws IOException {
+		ObjectReader reader = getReader(type);
+		String charset = ResponseHeaders.of(response).getCharset(null);
+		if (isReadAsBytes(charset)) {
+			return reader.readValue(response.data, 0, response.data.length);
+		}
+		return reader.readValue(new InputStreamReader(new ByteArrayInputStream(response.data), charset));
+	}
+
+	private ObjectReader getReader(Type type) {
+		ObjectReader reader = readerCache.get(type);
+		if (reader != null) {
+			return reader;
+		}
+		return readerCache.putIfAbsent(type, objectMapper.readerFor(objectMapper.getTypeFactory().constructType(type)));
+	}
+
+	private JsonParser createParser(ObjectReader reader, NetworkResponse response) throws IOException {
+		String charset = ResponseHeaders.of(response).getCharset(null);
+		if (isReadAsBytes(charset)) {
+			return reader.getFactory().createParser(response.data, 0, response.data.length);
+		}
+		return reader.getFactory().createParser(new InputStreamReader(new ByteArrayInputStream(response.data), charset));
+	}
+
+	private boolean isReadAsBytes(String charset) {
+		return binaryFormat || charset == null || isUnicodeCharset(charset);
+	}
+
+	/** Jackson detects UTF-8, UTF-16 and UTF-32 from the bytes. */
+	private static boolean isUnicodeCharset(String charset) {
+		String upperCase = charset.trim().toUpperCase(Locale.US);
+		return upperCase.startsWith("UTF-8") || upperCase.startsWith("UTF8")
+				|| upperCase.startsWith("UTF-16") || upperCase.startsWith("UTF-32");
+	}
+}
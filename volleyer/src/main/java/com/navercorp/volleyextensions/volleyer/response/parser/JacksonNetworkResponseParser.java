@@ -19,17 +19,15 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 
 import com.android.volley.NetworkResponse;
-import com.android.volley.ParseError;
 import com.android.volley.Response;
-import com.android.volley.VolleyError;
-import com.android.volley.toolbox.HttpHeaderParser;
-import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.navercorp.volleyextensions.volleyer.http.ContentType;
 import com.navercorp.volleyextensions.volleyer.http.ContentTypes;
+import com.navercorp.volleyextensions.volleyer.http.ResponseHeaders;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
 import com.navercorp.volleyextensions.volleyer.util.Assert;
 /**
  * <pre>
@@ -39,11 +37,21 @@ import com.navercorp.volleyextensions.volleyer.util.Assert;
  * and the content type of a response is "application/json" or "text/json" type,
  * integrated parser automatically delegates to this class.
  *
+ * The body is given to Jackson as bytes without being converted to a String.
+ * If the charset of the response is not specified or is one of UTF-8, UTF-16 and UTF-32,
+ * Jackson detects the encoding by itself. Other charsets are decoded while Jackson reads the body.
+ *
+ * An {@link ObjectReader} is built once for each target type and reused by the following responses.
+ * Generic types such as {@code List<Tweet>} are supported by {@link #parseNetworkResponse(NetworkResponse, TargetType)}.
+ * The elements of a top-level array can be read one by one by {@link #parseArrayItems(NetworkResponse, Class, ItemHandler)}.
+ * Because the readers take the configuration of the {@link ObjectMapper} when they are built,
+ * configure the {@link ObjectMapper} before giving it to this class.
+ *
  * WARN : You have to import jackson 1.x library to use this class. 
  * If not, this class throws an error when initializing.
  * </pre>
  */
-public class JacksonNetworkResponseParser implements TypedNetworkResponseParser {
+public class JacksonNetworkResponseParser implements TypedNetworkResponseParser, ArrayItemParser {
 	/** Default {@link ObjectMapper} is singleton. */
 	private static class ObjectMapperHolder {
 		private static final ObjectMapper objectMapper;
@@ -61,6 +69,8 @@ public class JacksonNetworkResponseParser implements TypedNetworkResponseParser
 	}
 	/** {@code objectMapper} is immutable(but not severely). */
 	private final ObjectMapper objectMapper;
+	/** Reads the body with {@code objectMapper}, and caches an {@link ObjectReader} for each target type */
+	private final JacksonBodyReader bodyReader;
 
 	public JacksonNetworkResponseParser() {
 		this(ObjectMapperHolder.defaultObjectMapper());
@@ -69,10 +79,11 @@ public class JacksonNetworkResponseParser implements TypedNetworkResponseParser
 	public JacksonNetworkResponseParser(ObjectMapper objectMapper) {
 		Assert.notNull(objectMapper, "ObjectMapper");
 		this.objectMapper = objectMapper;
+		this.bodyReader = new JacksonBodyReader(objectMapper, false);
 	}
 
 	protected final String getBodyString(NetworkResponse response) throws UnsupportedEncodingException {
-		return new String(response.data, HttpHeaderParser.parseCharset(response.headers));
+		return new String(response.data, ResponseHeaders.of(response).getCharset());
 	}
 
 	@Override
@@ -80,20 +91,24 @@ public class JacksonNetworkResponseParser implements TypedNetworkResponseParser
 		Assert.notNull(response, "Response");
 		Assert.notNull(clazz, "Class token");
 
-		try {
-			T result = objectMapper.readValue(getBodyString(response), clazz);
-			return Response.success(result, HttpHeaderParser.parseCacheHeaders(response));
-		} catch (JsonParseException e) {
-			return Response.error(new ParseError(e));
-		} catch (JsonMappingException e) {
-			return Response.error(new ParseError(e));
-		} catch (UnsupportedEncodingException e) {
-			return Response.error(new ParseError(e));
-		} catch (IOException e) {
-			return Response.error(new VolleyError(e));
-		} catch (Exception e) {
-			return Response.error(new VolleyError(e));
-		}
+		return bodyReader.parse(response, clazz);
+	}
+
+	@Override
+	public <T> Response<T> parseNetworkResponse(NetworkResponse response, TargetType<T> targetType) {
+		Assert.notNull(response, "Response");
+		Assert.notNull(targetType, "Target type");
+
+		return bodyReader.parse(response, targetType.getType());
+	}
+
+	@Override
+	public <E> int parseArrayItems(NetworkResponse response, Class<E> itemClass, ItemHandler<? super E> handler) throws IOException {
+		Assert.notNull(response, "Response");
+		Assert.notNull(itemClass, "Item class token");
+		Assert.notNull(handler, "ItemHandler");
+
+		return bodyReader.parseArrayItems(response, itemClass, handler);
 	}
 
 	@Override
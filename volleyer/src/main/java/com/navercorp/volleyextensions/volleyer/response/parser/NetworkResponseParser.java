@@ -16,7 +16,10 @@
 package com.navercorp.volleyextensions.volleyer.response.parser;
 
 import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
 import com.android.volley.Response;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
 /**
  * <pre>
  * An interface for helping to parse data of {@code NetworkResponse} to a target class.
@@ -34,4 +37,26 @@ public interface NetworkResponseParser {
 	 * @return Response which contains parsed T object or contains some error if it happened.
 	 */
 	<T> Response<T> parseNetworkResponse(NetworkResponse response, Class<T> clazz);
+	/**
+	 * <pre>
+	 * Parse data of {@code NetworkResponse} to T object, which can be a generic type such as {@code List<Tweet>}.
+	 *
+	 * NOTE : The default implementation only supports a {@code TargetType} of a raw class,
+	 *        and delegates it to {@link #parseNetworkResponse(NetworkResponse, Class)}.
+	 *        Override this method if the parser can parse generic types.
+	 * </pre>
+	 * @param <T> Target type that data will be parsed to.
+	 * @return Response which contains parsed T object or contains some error if it happened.
+	 */
+	default <T> Response<T> parseNetworkResponse(NetworkResponse response, TargetType<T> targetType) {
+		Assert.notNull(targetType, "Target type");
+
+		if (!targetType.isRawClass()) {
+			return Response.error(new ParseError(new UnsupportedOperationException(getClass().getName()
+					+ " cannot parse a response to the generic type : " + targetType.getType())));
+		}
+		@SuppressWarnings("unchecked")
+		Class<T> clazz = (Class<T>) targetType.getRawClass();
+		return parseNetworkResponse(response, clazz);
+	}
 }
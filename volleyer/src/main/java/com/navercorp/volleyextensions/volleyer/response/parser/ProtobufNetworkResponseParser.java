@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.navercorp.volleyextensions.volleyer.http.ContentType;
+import com.navercorp.volleyextensions.volleyer.http.ContentTypes;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+import com.navercorp.volleyextensions.volleyer.util.BoundedConcurrentCache;
+/**
+ * <pre>
+ * A parser class which converts Protocol Buffers data to a message class generated by protoc (full or lite runtime).
+ *
+ * Generated message classes have a static {@code parseFrom(byte[])} method,
+ * so this class calls it by reflection without a compile-time dependency on the protobuf runtime.
+ * The method is looked up once for each target class and reused by the following responses.
+ *
+ * NOTE : If this class is added into {@link IntegratedNetworkResponseParser},
+ * and the content type of a response is "application/x-protobuf",
+ * integrated parser automatically delegates to this class.
+ * Generic target types are not supported, because a protobuf message is always a concrete class.
+ *
+ * WARN : You have to import protobuf-java or protobuf-lite library to use this class.
+ * </pre>
+ */
+public class ProtobufNetworkResponseParser implements TypedNetworkResponseParser {
+	/** A class which exists in both of the full and the lite runtime */
+	public static final String PROTOBUF_CLASS_NAME = "com.google.protobuf.MessageLite";
+	private static final String PARSE_METHOD_NAME = "parseFrom";
+	/** Maximum number of the message classes whose parse method is cached */
+	private static final int MAX_CACHED_METHODS = 256;
+	private static final ContentTypes CONTENT_TYPES = new ContentTypes(ContentType.CONTENT_TYPE_APPLICATION_PROTOBUF);
+
+	private final BoundedConcurrentCache<Class<?>, Method> methodCache =
+			new BoundedConcurrentCache<Class<?>, Method>(MAX_CACHED_METHODS);
+
+	@Override
+	public <T> Response<T> parseNetworkResponse(NetworkResponse response, Class<T> clazz) {
+		Assert.notNull(response, "Response");
+		Assert.notNull(clazz, "Class token");
+
+		Method parseMethod;
+		try {
+			parseMethod = getParseMethod(clazz);
+		} catch (NoSuchMethodException e) {
+			return Response.error(new VolleyError(new IllegalArgumentException(
+					clazz.getName() + " is not a protobuf message class.", e)));
+		}
+
+		try {
+			T result = clazz.cast(parseMethod.invoke(null, (Object) response.data));
+			return Response.success(result, HttpHeaderParser.parseCacheHeaders(response));
+		} catch (InvocationTargetException e) {
+			// InvalidProtocolBufferException is thrown for a malformed payload
+			return Response.error(new ParseError(e.getCause()));
+		} catch (Exception e) {
+			return Response.error(new VolleyError(e));
+		}
+	}
+
+	private Method getParseMethod(Class<?> clazz) throws NoSuchMethodException {
+		Method parseMethod = methodCache.get(clazz);
+		if (parseMethod != null) {
+			return parseMethod;
+		}
+
+		parseMethod = clazz.getMethod(PARSE_METHOD_NAME, byte[].class);
+		if (!Modifier.isStatic(parseMethod.getModifiers()) || !clazz.isAssignableFrom(parseMethod.getReturnType())) {
+			throw new NoSuchMethodException(clazz.getName() + "." + PARSE_METHOD_NAME + "(byte[]) is not a static factory method.");
+		}
+		return methodCache.putIfAbsent(clazz, parseMethod);
+	}
+
+	@Override
+	public ContentTypes getContentTypes() {
+		return CONTENT_TYPES;
+	}
+}
@@ -16,6 +16,7 @@
 package com.navercorp.volleyextensions.volleyer.response.parser;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
@@ -31,6 +32,7 @@ import com.android.volley.VolleyError;
 import com.android.volley.toolbox.HttpHeaderParser;
 import com.navercorp.volleyextensions.volleyer.http.ContentType;
 import com.navercorp.volleyextensions.volleyer.http.ContentTypes;
+import com.navercorp.volleyextensions.volleyer.http.ResponseHeaders;
 import com.navercorp.volleyextensions.volleyer.util.Assert;
 import com.navercorp.volleyextensions.volleyer.util.IoUtils;
 /**
@@ -41,6 +43,11 @@ import com.navercorp.volleyextensions.volleyer.util.IoUtils;
  * and the content type of a response is "application/xml" or "text/xml" type,
  * integrated parser automatically delegates to this class.
  *
+ * If the response doesn't specify a charset, the body is given to the xml pull parser as bytes,
+ * so the encoding is detected from the xml declaration (UTF-8 if it is not declared) without a Reader.
+ * Simple xml caches the schema of each class in a {@link Persister}, so share a {@link Persister} among parsers
+ * instead of creating it for each request. The default constructor uses a shared one.
+ *
  * WARN : You have to import simple xml library to use this class.
  * If not, this class throws an error when initializing.
  * </pre>
@@ -69,11 +76,17 @@ public class SimpleXmlNetworkResponseParser implements TypedNetworkResponseParse
 	@Override
 	public <T> Response<T> parseNetworkResponse(NetworkResponse response,
 			Class<T> clazz) {
-		String charset = HttpHeaderParser.parseCharset(response.headers);
+		String charset = ResponseHeaders.of(response).getCharset(null);
+		InputStream body = new ByteArrayInputStream(response.data);
 		Reader reader = null;
 		try {
-			reader = new InputStreamReader(new ByteArrayInputStream(response.data), charset);
-			T result = persister.read(clazz, reader);
+			T result;
+			if (charset == null) {
+				result = persister.read(clazz, body);
+			} else {
+				reader = new InputStreamReader(body, charset);
+				result = persister.read(clazz, reader);
+			}
 			return Response.success(result,
 					HttpHeaderParser.parseCacheHeaders(response));
 		} catch (UnsupportedEncodingException e) {
@@ -21,6 +21,7 @@ import com.android.volley.NetworkResponse;
 import com.android.volley.ParseError;
 import com.android.volley.Response;
 import com.android.volley.toolbox.HttpHeaderParser;
+import com.navercorp.volleyextensions.volleyer.http.ResponseHeaders;
 import com.navercorp.volleyextensions.volleyer.util.Assert;
 /**
  * A parser class which converts data to string.
@@ -32,7 +33,7 @@ public class StringNetworkResponseParser implements NetworkResponseParser {
 	}
 
 	protected final String getBodyString(NetworkResponse response) throws UnsupportedEncodingException {
-		return new String(response.data, HttpHeaderParser.parseCharset(response.headers));
+		return new String(response.data, ResponseHeaders.of(response).getCharset());
 	}
 
 	@Override
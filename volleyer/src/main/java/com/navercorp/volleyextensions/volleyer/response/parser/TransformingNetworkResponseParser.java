@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.response.Transformer;
+import com.navercorp.volleyextensions.volleyer.util.Assert;
+/**
+ * <pre>
+ * A parser which parses a response to S object by another parser, and then converts it to R object by a {@link Transformer}.
+ *
+ * Both of parsing and transforming run on a network dispatcher thread of Volley before the result is delivered,
+ * so a listener on the main thread receives the transformed result only.
+ *
+ * NOTE : This parser ignores a target type given to {@code parseNetworkResponse()},
+ *        because the response is always parsed to its own source type.
+ *        An exception thrown by the transformer is returned as a {@link VolleyError}.
+ * </pre>
+ * @param <S> Class that content of a response is parsed to
+ * @param <R> Class of the transformed result
+ * @see com.navercorp.volleyextensions.volleyer.builder.ResponseBuilder#withTransformer(Transformer)
+ */
+public class TransformingNetworkResponseParser<S, R> implements NetworkResponseParser {
+	private final NetworkResponseParser responseParser;
+	private final TargetType<S> sourceType;
+	private final Transformer<? super S, ? extends R> transformer;
+
+	/**
+	 * @param responseParser parser for the source type
+	 * @param sourceType type that content of a response is parsed to
+	 * @param transformer transformer from the source type to the result
+	 */
+	public TransformingNetworkResponseParser(NetworkResponseParser responseParser, TargetType<S> sourceType,
+			Transformer<? super S, ? extends R> transformer) {
+		Assert.notNull(responseParser, "NetworkResponseParser");
+		Assert.notNull(sourceType, "Source type");
+		Assert.notNull(transformer, "Transformer");
+
+		this.responseParser = responseParser;
+		this.sourceType = sourceType;
+		this.transformer = transformer;
+	}
+
+	@Override
+	public <T> Response<T> parseNetworkResponse(NetworkResponse response, Class<T> clazz) {
+		Assert.notNull(response, "Response");
+
+		return parseAndTransform(response);
+	}
+
+	@Override
+	public <T> Response<T> parseNetworkResponse(NetworkResponse response, TargetType<T> targetType) {
+		Assert.notNull(response, "Response");
+
+		return parseAndTransform(response);
+	}
+
+	/**
+	 * @return parser for the source type
+	 */
+	public NetworkResponseParser getResponseParser() {
+		return responseParser;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> Response<T> parseAndTransform(NetworkResponse response) {
+		Response<S> parsed = parseSource(response);
+		if (!parsed.isSuccess()) {
+			return Response.error(parsed.error);
+		}
+
+		R result;
+		try {
+			result = transformer.transform(parsed.result);
+		} catch (RuntimeException e) {
+			return Response.error(new VolleyError(e));
+		}
+		// The caller gives the type of R as the target type
+		return Response.success((T) result, parsed.cacheEntry);
+	}
+
+	private Response<S> parseSource(NetworkResponse response) {
+		if (sourceType.isRawClass()) {
+			@SuppressWarnings("unchecked")
+			Class<S> clazz = (Class<S>) sourceType.getRawClass();
+			return responseParser.parseNetworkResponse(response, clazz);
+		}
+		return responseParser.parseNetworkResponse(response, sourceType);
+	}
+}
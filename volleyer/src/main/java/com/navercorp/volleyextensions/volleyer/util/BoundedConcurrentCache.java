@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.util;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <pre>
+ * A thread-safe map which holds at most {@code maxSize} entries.
+ *
+ * It is used to keep objects which are expensive to build and are looked up on every request
+ * (e.g. deserializers keyed by a target class).
+ * When it is full, an entry which has not been used recently is evicted to cache a new one.
+ * The eviction approximates LRU by the CLOCK algorithm, so that reading an entry only marks it
+ * instead of reordering a list under a lock.
+ * - An entry is marked as used by {@link #get(Object)} and {@link #putIfAbsent(Object, Object)}.
+ * - Entries are visited in the order they were cached. A marked entry is unmarked and given another chance,
+ *   and the first unmarked entry is evicted.
+ *
+ * - {@link #get(Object)} never takes a lock, and doesn't allocate any object.
+ * - Two threads can build a value for the same key at the same time. The value cached first wins.
+ * </pre>
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class BoundedConcurrentCache<K, V> {
+	private final ConcurrentHashMap<K, Entry<V>> map;
+	/** Keys in the order they are visited for eviction. Guarded by {@code this} */
+	private final ArrayDeque<K> clock = new ArrayDeque<K>();
+	private final int maxSize;
+
+	/** @param maxSize Maximum number of the entries in this cache */
+	public BoundedConcurrentCache(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be greater than 0.");
+		}
+		this.maxSize = maxSize;
+		this.map = new ConcurrentHashMap<K, Entry<V>>();
+	}
+
+	/**
+	 * @return cached value, or null if it doesn't exist
+	 */
+	public V get(K key) {
+		Assert.notNull(key, "Key");
+		return valueOf(map.get(key));
+	}
+
+	/**
+	 * Cache {@code value} for {@code key} unless another value is already cached for it.
+	 * If this cache is full, an entry which has not been used recently is evicted.
+	 * @return the value cached for {@code key}
+	 */
+	public V putIfAbsent(K key, V value) {
+		Assert.notNull(key, "Key");
+		Assert.notNull(value, "Value");
+
+		Entry<V> cached = map.get(key);
+		if (cached != null) {
+			return valueOf(cached);
+		}
+		synchronized (this) {
+			cached = map.get(key);
+			if (cached != null) {
+				return valueOf(cached);
+			}
+			while (map.size() >= maxSize && evictOne()) {
+			}
+			map.put(key, new Entry<V>(value));
+			clock.addLast(key);
+			return value;
+		}
+	}
+
+	/**
+	 * NOTE : This method must be called while holding the lock of this cache.
+	 * @return false if there is nothing to evict
+	 */
+	private boolean evictOne() {
+		K key;
+		while ((key = clock.pollFirst()) != null) {
+			Entry<V> entry = map.get(key);
+			if (entry == null) {
+				continue;
+			}
+			if (entry.isUsed) {
+				entry.isUsed = false;
+				clock.addLast(key);
+				continue;
+			}
+			map.remove(key);
+			return true;
+		}
+		return false;
+	}
+
+	private static <V> V valueOf(Entry<V> entry) {
+		if (entry == null) {
+			return null;
+		}
+		// Avoid writing the shared field on every read
+		if (!entry.isUsed) {
+			entry.isUsed = true;
+		}
+		return entry.value;
+	}
+
+	public int size() {
+		return map.size();
+	}
+
+	public int maxSize() {
+		return maxSize;
+	}
+
+	public synchronized void clear() {
+		map.clear();
+		clock.clear();
+	}
+
+	private static class Entry<V> {
+		private final V value;
+		private volatile boolean isUsed = false;
+
+		private Entry(V value) {
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.util;
+
+import java.util.concurrent.Executor;
+
+import android.os.Handler;
+import android.os.Looper;
+/**
+ * An {@link Executor} which runs tasks on the main thread.
+ */
+public class MainThreadExecutor implements Executor {
+	private final Handler handler = new Handler(Looper.getMainLooper());
+
+	@Override
+	public void execute(Runnable command) {
+		Assert.notNull(command, "Runnable");
+		handler.post(command);
+	}
+}
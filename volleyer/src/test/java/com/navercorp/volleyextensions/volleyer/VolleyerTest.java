@@ -22,12 +22,18 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
 import com.android.volley.RequestQueue;
+import com.android.volley.RetryPolicy;
 import com.navercorp.volleyextensions.volleyer.builder.*;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.request.RetryPolicyFactory;
 
 import static com.navercorp.volleyextensions.volleyer.Volleyer.*;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE)
@@ -77,4 +83,30 @@ public class VolleyerTest {
 		assertNotNull(put);
 		assertNotNull(delete);
 	}
+
+	@Test
+	public void cancelAllShouldCancelRequestsOfTagInRequestQueue() {
+		// Given
+		Object tag = new Object();
+		// When
+		volleyer(requestQueue).cancelAll(tag);
+		// Then
+		verify(requestQueue).cancelAll(tag);
+	}
+
+	@Test
+	public void retryPolicyFactoryOfSettingsShouldCreateRetryPolicyOfRequest() {
+		// Given
+		final RetryPolicy retryPolicy = new DefaultRetryPolicy();
+		volleyer(requestQueue).settings().setRetryPolicyFactory(new RetryPolicyFactory() {
+			@Override
+			public RetryPolicy createRetryPolicy(HttpContent httpContent) {
+				return retryPolicy;
+			}
+		}).done();
+		// When
+		Request<String> request = volleyer(requestQueue).get("http://test").withTargetClass(String.class).execute();
+		// Then
+		assertSame(retryPolicy, request.getRetryPolicy());
+	}
 }
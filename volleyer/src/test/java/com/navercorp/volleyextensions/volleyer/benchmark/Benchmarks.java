@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * <pre>
+ * Utilities for the volleyer benchmarks.
+ *
+ * Benchmarks are excluded from the normal unit tests. Run them as below.
+ *
+ *		./gradlew :volleyer:testDebugUnitTest -Pbenchmark
+ *
+ * Results are printed, and appended to "build/benchmark-results/{suite}.csv" so that CI can archive and compare them.
+ * </pre>
+ */
+final class Benchmarks {
+	private static final File RESULT_DIR = new File("build/benchmark-results");
+	/** Number of iterations for warming up JIT before measuring */
+	static final int WARM_UP_ITERATIONS = 5;
+	static final int MEASURED_ITERATIONS = 10;
+
+	private Benchmarks() {
+	}
+
+	/**
+	 * @return bytes allocated by the current thread so far, or -1 if the JVM doesn't support to measure it
+	 */
+	static long allocatedBytes() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+			return -1;
+		}
+		return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Run {@code task} for warming up, and then report the average latency and allocation of the measured iterations.
+	 */
+	static void measure(String suite, String subject, String variant, Runnable task) {
+		measure(suite, subject, variant, WARM_UP_ITERATIONS, MEASURED_ITERATIONS, task);
+	}
+
+	/**
+	 * Same as {@link #measure(String, String, String, Runnable)}, but with the given numbers of iterations.
+	 * Use it for a task which is too short to be measured by a few iterations.
+	 */
+	static void measure(String suite, String subject, String variant, int warmUpIterations, int measuredIterations, Runnable task) {
+		for (int i = 0; i < warmUpIterations; i++) {
+			task.run();
+		}
+
+		long allocatedBefore = allocatedBytes();
+		long startTime = System.nanoTime();
+		for (int i = 0; i < measuredIterations; i++) {
+			task.run();
+		}
+		long elapsedNanos = System.nanoTime() - startTime;
+		long allocatedAfter = allocatedBytes();
+
+		report(suite, subject, variant, "latency", elapsedNanos / 1000.0 / measuredIterations, "us/op");
+		if (allocatedBefore >= 0) {
+			report(suite, subject, variant, "allocation", (double) (allocatedAfter - allocatedBefore) / measuredIterations, "bytes/op");
+		}
+	}
+
+	static void report(String suite, String subject, String variant, String metric, double value, String unit) {
+		String line = String.format(Locale.US, "%s,%s,%s,%s,%.1f,%s", suite, subject, variant, metric, value, unit);
+		System.out.println("[benchmark] " + line);
+		append(suite, line);
+	}
+
+	private static void append(String suite, String line) {
+		if (!RESULT_DIR.isDirectory() && !RESULT_DIR.mkdirs()) {
+			return;
+		}
+		Writer writer = null;
+		try {
+			writer = new FileWriter(new File(RESULT_DIR, suite + ".csv"), true);
+			writer.write(line);
+			writer.write('\n');
+		} catch (IOException e) {
+			System.err.println("[benchmark] Failed to write a result : " + e);
+		} finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException ignored) {
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.benchmark;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navercorp.volleyextensions.volleyer.http.ContentType;
+import com.navercorp.volleyextensions.volleyer.response.parser.Jackson2BinaryNetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.Jackson2NetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
+
+/**
+ * <pre>
+ * Benchmark of parsing the same feed (about 1MB as json) in binary formats compared to json.
+ *
+ * - "json" : {@link Jackson2NetworkResponseParser}
+ * - "cbor", "smile", "msgpack" : {@link Jackson2BinaryNetworkResponseParser} (skipped if the dataformat is not imported)
+ *
+ * The size of each payload is reported as "payload" metric.
+ * </pre>
+ * @see Benchmarks
+ */
+public class BinaryParseBenchmark {
+	private static final String SUITE = "binary-parse";
+	private static final int ITEM_COUNT = 5000;
+
+	private static final Feed FEED = createFeed(ITEM_COUNT);
+
+	@Test
+	public void parseJsonPayload() throws Exception {
+		ObjectMapper jsonMapper = new ObjectMapper()
+				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		measure("json", jsonMapper, new Jackson2NetworkResponseParser(jsonMapper), "application/json", FEED);
+	}
+
+	@Test
+	public void parseCborPayload() throws Exception {
+		measureIfPresent("cbor", Jackson2BinaryNetworkResponseParser.CBOR_FACTORY_CLASS_NAME,
+				ContentType.CONTENT_TYPE_APPLICATION_CBOR, FEED);
+	}
+
+	@Test
+	public void parseSmilePayload() throws Exception {
+		measureIfPresent("smile", Jackson2BinaryNetworkResponseParser.SMILE_FACTORY_CLASS_NAME,
+				ContentType.CONTENT_TYPE_APPLICATION_SMILE, FEED);
+	}
+
+	@Test
+	public void parseMsgpackPayload() throws Exception {
+		measureIfPresent("msgpack", Jackson2BinaryNetworkResponseParser.MSGPACK_FACTORY_CLASS_NAME,
+				ContentType.CONTENT_TYPE_APPLICATION_MSGPACK, FEED);
+	}
+
+	private static void measureIfPresent(String format, String factoryClassName, ContentType contentType, Feed feed) throws Exception {
+		ObjectMapper objectMapper = Jackson2BinaryNetworkResponseParser.createObjectMapper(factoryClassName);
+		// Reported as a skipped test, not as a passed one
+		assumeTrue(format + " is not measured, because " + factoryClassName + " is not present.", objectMapper != null);
+		NetworkResponseParser parser = new Jackson2BinaryNetworkResponseParser(objectMapper, contentType);
+		measure(format, objectMapper, parser, contentType.toString(), feed);
+	}
+
+	private static void measure(String format, ObjectMapper objectMapper, final NetworkResponseParser parser,
+			String contentType, Feed feed) throws Exception {
+		byte[] payload = objectMapper.writeValueAsBytes(feed);
+		final NetworkResponse response = createResponse(payload, contentType);
+		String subject = ITEM_COUNT + "items";
+
+		Benchmarks.report(SUITE, subject, format, "payload", payload.length, "bytes");
+		Benchmarks.measure(SUITE, subject, format, new Runnable() {
+			@Override
+			public void run() {
+				Response<Feed> parsed = parser.parseNetworkResponse(response, Feed.class);
+				assertTrue(parsed.isSuccess());
+			}
+		});
+	}
+
+	private static NetworkResponse createResponse(byte[] payload, String contentType) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", contentType);
+		return new NetworkResponse(200, payload, headers, false);
+	}
+
+	private static Feed createFeed(int itemCount) {
+		Feed feed = new Feed();
+		feed.items = new ArrayList<Item>(itemCount);
+		for (int index = 0; index < itemCount; index++) {
+			Item item = new Item();
+			item.id = index;
+			item.title = "Volley extensions 볼리 익스텐션 #" + index;
+			item.imageUrl = "http://static.naver.com/volley-ext/" + index + ".jpg";
+			item.score = index * 0.5;
+			item.tags = Arrays.asList("volley", "android", "binary");
+			feed.items.add(item);
+		}
+		return feed;
+	}
+
+	public static class Feed {
+		public List<Item> items;
+	}
+
+	public static class Item {
+		public long id;
+		public String title;
+		public String imageUrl;
+		public double score;
+		public List<String> tags;
+	}
+}
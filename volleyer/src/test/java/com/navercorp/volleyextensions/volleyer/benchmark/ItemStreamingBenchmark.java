@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.benchmark;
+
+import static org.junit.Assert.*;
+
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.navercorp.volleyextensions.volleyer.response.ItemListener;
+import com.navercorp.volleyextensions.volleyer.response.parser.ItemStreamingNetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.Jackson2NetworkResponseParser;
+
+/**
+ * <pre>
+ * Benchmark of the time until the first elements of a large json array are available.
+ *
+ * - "whole" : the whole array is parsed to {@code Item[]} before any element is available
+ * - "streaming" : {@link ItemStreamingNetworkResponseParser}, which delivers the first batch while parsing the rest
+ * </pre>
+ * @see Benchmarks
+ */
+public class ItemStreamingBenchmark {
+	private static final String SUITE = "item-streaming";
+	private static final int[] PAYLOAD_SIZES = {1024 * 1024, 5 * 1024 * 1024};
+
+	private final Jackson2NetworkResponseParser parser = new Jackson2NetworkResponseParser();
+	private final Executor directExecutor = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	@Test
+	public void measureTimeToFirstItem() throws Exception {
+		for (int payloadSize : PAYLOAD_SIZES) {
+			NetworkResponse response = createResponse(createPayload(payloadSize));
+			String subject = (payloadSize / 1024) + "KB";
+
+			long wholeNanos = 0;
+			long streamingFirstNanos = 0;
+			long streamingTotalNanos = 0;
+			for (int i = 0; i < Benchmarks.WARM_UP_ITERATIONS + Benchmarks.MEASURED_ITERATIONS; i++) {
+				long startTime = System.nanoTime();
+				Response<Item[]> whole = parser.parseNetworkResponse(response, Item[].class);
+				assertTrue(whole.isSuccess());
+				long elapsedWhole = System.nanoTime() - startTime;
+
+				FirstItemListener listener = new FirstItemListener();
+				ItemStreamingNetworkResponseParser<Item> streamingParser = new ItemStreamingNetworkResponseParser<Item>(
+						parser, Item.class, listener, ItemStreamingNetworkResponseParser.DEFAULT_BATCH_SIZE, directExecutor);
+				startTime = System.nanoTime();
+				assertTrue(streamingParser.parseNetworkResponse(response, Integer.class).isSuccess());
+				long elapsedStreaming = System.nanoTime() - startTime;
+
+				if (i >= Benchmarks.WARM_UP_ITERATIONS) {
+					wholeNanos += elapsedWhole;
+					streamingFirstNanos += listener.firstItemTime - startTime;
+					streamingTotalNanos += elapsedStreaming;
+				}
+			}
+
+			int iterations = Benchmarks.MEASURED_ITERATIONS;
+			Benchmarks.report(SUITE, subject, "whole", "first-item", wholeNanos / 1000.0 / iterations, "us");
+			Benchmarks.report(SUITE, subject, "streaming", "first-item", streamingFirstNanos / 1000.0 / iterations, "us");
+			Benchmarks.report(SUITE, subject, "whole", "total", wholeNanos / 1000.0 / iterations, "us");
+			Benchmarks.report(SUITE, subject, "streaming", "total", streamingTotalNanos / 1000.0 / iterations, "us");
+		}
+	}
+
+	private static NetworkResponse createResponse(byte[] payload) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/json; charset=UTF-8");
+		return new NetworkResponse(200, payload, headers, false);
+	}
+
+	private static byte[] createPayload(int size) throws UnsupportedEncodingException {
+		StringBuilder builder = new StringBuilder(size + 256);
+		builder.append('[');
+		int index = 0;
+		while (builder.length() < size) {
+			if (index > 0) {
+				builder.append(',');
+			}
+			builder.append("{\"id\":").append(index)
+					.append(",\"title\":\"Volley extensions 볼리 익스텐션 #").append(index)
+					.append("\",\"imageUrl\":\"http://static.naver.com/volley-ext/").append(index)
+					.append(".jpg\",\"score\":").append(index * 0.5).append('}');
+			index++;
+		}
+		builder.append(']');
+		return builder.toString().getBytes("UTF-8");
+	}
+
+	private static class FirstItemListener implements ItemListener<Item> {
+		private long firstItemTime;
+
+		@Override
+		public void onItems(List<Item> items) {
+			if (firstItemTime == 0) {
+				firstItemTime = System.nanoTime();
+			}
+		}
+	}
+
+	public static class Item {
+		public long id;
+		public String title;
+		public String imageUrl;
+		public double score;
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.benchmark;
+
+import static org.junit.Assert.*;
+
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navercorp.volleyextensions.volleyer.response.parser.Jackson2NetworkResponseParser;
+
+/**
+ * <pre>
+ * Benchmark of parsing json payloads from 100KB to 5MB by {@link Jackson2NetworkResponseParser}.
+ *
+ * - "string" : the previous way, which converts the body to a String and parses it
+ * - "bytes" : the parser, which gives the body to Jackson as bytes
+ * </pre>
+ * @see Benchmarks
+ */
+public class JsonParseBenchmark {
+	private static final String SUITE = "json-parse";
+	private static final int[] PAYLOAD_SIZES = {100 * 1024, 1024 * 1024, 5 * 1024 * 1024};
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	private final Jackson2NetworkResponseParser parser = new Jackson2NetworkResponseParser(objectMapper);
+
+	@Test
+	public void parseJsonPayloads() throws Exception {
+		for (int payloadSize : PAYLOAD_SIZES) {
+			final NetworkResponse response = createResponse(createPayload(payloadSize));
+			String subject = (payloadSize / 1024) + "KB";
+
+			Benchmarks.measure(SUITE, subject, "string", new Runnable() {
+				@Override
+				public void run() {
+					try {
+						String body = new String(response.data, HttpHeaderParser.parseCharset(response.headers, "UTF-8"));
+						assertNotNull(objectMapper.readValue(body, Feed.class));
+					} catch (Exception e) {
+						throw new AssertionError(e);
+					}
+				}
+			});
+			Benchmarks.measure(SUITE, subject, "bytes", new Runnable() {
+				@Override
+				public void run() {
+					Response<Feed> parsed = parser.parseNetworkResponse(response, Feed.class);
+					assertTrue(parsed.isSuccess());
+				}
+			});
+		}
+	}
+
+	private static NetworkResponse createResponse(byte[] payload) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/json; charset=UTF-8");
+		return new NetworkResponse(200, payload, headers, false);
+	}
+
+	/** Create a json payload which is about {@code size} bytes, and contains non-ascii characters */
+	private static byte[] createPayload(int size) throws UnsupportedEncodingException {
+		StringBuilder builder = new StringBuilder(size + 256);
+		builder.append("{\"items\":[");
+		int index = 0;
+		while (builder.length() < size) {
+			if (index > 0) {
+				builder.append(',');
+			}
+			builder.append("{\"id\":").append(index)
+					.append(",\"title\":\"Volley extensions 볼리 익스텐션 #").append(index)
+					.append("\",\"imageUrl\":\"http://static.naver.com/volley-ext/").append(index)
+					.append(".jpg\",\"score\":").append(index * 0.5)
+					.append(",\"tags\":[\"volley\",\"android\",\"json\"]}");
+			index++;
+		}
+		builder.append("]}");
+		return builder.toString().getBytes("UTF-8");
+	}
+
+	public static class Feed {
+		public List<Item> items;
+	}
+
+	public static class Item {
+		public long id;
+		public String title;
+		public String imageUrl;
+		public double score;
+		public List<String> tags;
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.benchmark;
+
+import static org.junit.Assert.*;
+
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.response.parser.GsonNetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.Jackson2NetworkResponseParser;
+
+/**
+ * <pre>
+ * Benchmark of parsing small responses of the same model class repeatedly,
+ * which is the common case of an app calling the same API again and again.
+ *
+ * - "jackson-mapper" : {@code ObjectMapper.readValue()}, which looks up a deserializer for every call
+ * - "jackson-parser" : {@link Jackson2NetworkResponseParser}, which reuses an {@code ObjectReader} for the class
+ * - "gson-fromJson" : {@code Gson.fromJson()}, which looks up a type adapter for every call
+ * - "gson-parser" : {@link GsonNetworkResponseParser}, which reuses a {@code TypeAdapter} for the class
+ *
+ * Parsing a list of the model is also compared between a raw array class and a generic {@link TargetType}.
+ *
+ * - "{library}-class" : parsed to {@code Profile[].class}
+ * - "{library}-generic" : parsed to {@code TargetType<List<Profile>>}
+ * </pre>
+ * @see Benchmarks
+ */
+public class RepeatedParseBenchmark {
+	private static final String SUITE = "repeated-parse";
+	private static final int WARM_UP_ITERATIONS = 2000;
+	private static final int MEASURED_ITERATIONS = 20000;
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	private final Jackson2NetworkResponseParser jacksonParser = new Jackson2NetworkResponseParser(objectMapper);
+	private final Gson gson = new Gson();
+	private final GsonNetworkResponseParser gsonParser = new GsonNetworkResponseParser(gson);
+
+	@Test
+	public void parseSameClassRepeatedly() throws Exception {
+		final NetworkResponse response = createResponse(createPayload());
+		String subject = response.data.length + "B";
+
+		Benchmarks.measure(SUITE, subject, "jackson-mapper", WARM_UP_ITERATIONS, MEASURED_ITERATIONS, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					assertNotNull(objectMapper.readValue(response.data, 0, response.data.length, Profile.class));
+				} catch (Exception e) {
+					throw new AssertionError(e);
+				}
+			}
+		});
+		Benchmarks.measure(SUITE, subject, "jackson-parser", WARM_UP_ITERATIONS, MEASURED_ITERATIONS, new Runnable() {
+			@Override
+			public void run() {
+				Response<Profile> parsed = jacksonParser.parseNetworkResponse(response, Profile.class);
+				assertTrue(parsed.isSuccess());
+			}
+		});
+		Benchmarks.measure(SUITE, subject, "gson-fromJson", WARM_UP_ITERATIONS, MEASURED_ITERATIONS, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					String body = new String(response.data, HttpHeaderParser.parseCharset(response.headers));
+					assertNotNull(gson.fromJson(body, Profile.class));
+				} catch (UnsupportedEncodingException e) {
+					throw new AssertionError(e);
+				}
+			}
+		});
+		Benchmarks.measure(SUITE, subject, "gson-parser", WARM_UP_ITERATIONS, MEASURED_ITERATIONS, new Runnable() {
+			@Override
+			public void run() {
+				Response<Profile> parsed = gsonParser.parseNetworkResponse(response, Profile.class);
+				assertTrue(parsed.isSuccess());
+			}
+		});
+	}
+
+	@Test
+	public void parseGenericTypeRepeatedly() throws Exception {
+		final NetworkResponse response = createResponse(createListPayload(10));
+		final TargetType<List<Profile>> targetType = new TargetType<List<Profile>>() {};
+		String subject = "list-" + response.data.length + "B";
+
+		Benchmarks.measure(SUITE, subject, "jackson-class", WARM_UP_ITERATIONS, MEASURED_ITERATIONS, new Runnable() {
+			@Override
+			public void run() {
+				assertTrue(jacksonParser.parseNetworkResponse(response, Profile[].class).isSuccess());
+			}
+		});
+		Benchmarks.measure(SUITE, subject, "jackson-generic", WARM_UP_ITERATIONS, MEASURED_ITERATIONS, new Runnable() {
+			@Override
+			public void run() {
+				assertTrue(jacksonParser.parseNetworkResponse(response, targetType).isSuccess());
+			}
+		});
+		Benchmarks.measure(SUITE, subject, "gson-class", WARM_UP_ITERATIONS, MEASURED_ITERATIONS, new Runnable() {
+			@Override
+			public void run() {
+				assertTrue(gsonParser.parseNetworkResponse(response, Profile[].class).isSuccess());
+			}
+		});
+		Benchmarks.measure(SUITE, subject, "gson-generic", WARM_UP_ITERATIONS, MEASURED_ITERATIONS, new Runnable() {
+			@Override
+			public void run() {
+				assertTrue(gsonParser.parseNetworkResponse(response, targetType).isSuccess());
+			}
+		});
+	}
+
+	private static NetworkResponse createResponse(byte[] payload) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/json; charset=UTF-8");
+		return new NetworkResponse(200, payload, headers, false);
+	}
+
+	private static byte[] createListPayload(int count) throws UnsupportedEncodingException {
+		String profile = new String(createPayload(), "UTF-8");
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				builder.append(',');
+			}
+			builder.append(profile);
+		}
+		return builder.append(']').toString().getBytes("UTF-8");
+	}
+
+	private static byte[] createPayload() throws UnsupportedEncodingException {
+		String payload = "{\"id\":1024,\"name\":\"volley-extensions\",\"description\":\"Volley extensions 볼리 익스텐션\","
+				+ "\"followers\":512,\"verified\":true,\"score\":4.5,"
+				+ "\"links\":[\"https://github.com/naver/volley-extensions\",\"http://static.naver.com/volley-ext/\"]}";
+		return payload.getBytes("UTF-8");
+	}
+
+	public static class Profile {
+		public long id;
+		public String name;
+		public String description;
+		public int followers;
+		public boolean verified;
+		public double score;
+		public List<String> links;
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.benchmark;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.simpleframework.xml.Element;
+import org.simpleframework.xml.ElementList;
+import org.simpleframework.xml.Root;
+import org.simpleframework.xml.core.Persister;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.navercorp.volleyextensions.volleyer.response.parser.SimpleXmlNetworkResponseParser;
+
+/**
+ * <pre>
+ * Benchmark of parsing xml feeds of shopping items from 100KB to 1MB by {@link SimpleXmlNetworkResponseParser}.
+ *
+ * - "new-persister" : a Persister is created for each response, so the schema of classes is scanned every time
+ * - "reader" : the previous way, which decodes the body by a Reader with a shared Persister
+ * - "bytes" : the parser, which gives the body to the xml parser as bytes with a shared Persister
+ * </pre>
+ * @see Benchmarks
+ */
+public class XmlParseBenchmark {
+	private static final String SUITE = "xml-parse";
+	private static final int[] PAYLOAD_SIZES = {100 * 1024, 1024 * 1024};
+
+	private final Persister persister = new Persister();
+	private final SimpleXmlNetworkResponseParser parser = new SimpleXmlNetworkResponseParser(persister);
+
+	@Test
+	public void parseXmlPayloads() throws Exception {
+		for (int payloadSize : PAYLOAD_SIZES) {
+			final NetworkResponse response = createResponse(createPayload(payloadSize));
+			String subject = (payloadSize / 1024) + "KB";
+
+			Benchmarks.measure(SUITE, subject, "new-persister", new Runnable() {
+				@Override
+				public void run() {
+					try {
+						InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(response.data), "UTF-8");
+						assertNotNull(new Persister().read(ShoppingItems.class, reader));
+					} catch (Exception e) {
+						throw new AssertionError(e);
+					}
+				}
+			});
+			Benchmarks.measure(SUITE, subject, "reader", new Runnable() {
+				@Override
+				public void run() {
+					try {
+						InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(response.data), "UTF-8");
+						assertNotNull(persister.read(ShoppingItems.class, reader));
+					} catch (Exception e) {
+						throw new AssertionError(e);
+					}
+				}
+			});
+			Benchmarks.measure(SUITE, subject, "bytes", new Runnable() {
+				@Override
+				public void run() {
+					Response<ShoppingItems> parsed = parser.parseNetworkResponse(response, ShoppingItems.class);
+					assertTrue(parsed.isSuccess());
+				}
+			});
+		}
+	}
+
+	private static NetworkResponse createResponse(byte[] payload) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/xml");
+		return new NetworkResponse(200, payload, headers, false);
+	}
+
+	/** Create a xml payload which is about {@code size} bytes, and contains non-ascii characters */
+	private static byte[] createPayload(int size) throws UnsupportedEncodingException {
+		StringBuilder builder = new StringBuilder(size + 256);
+		builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?><items>");
+		int index = 0;
+		while (builder.length() < size) {
+			builder.append("<item><asin>B00").append(index)
+					.append("</asin><title>Volley extensions 볼리 익스텐션 #").append(index)
+					.append("</title><imageUrl>http://static.naver.com/volley-ext/").append(index)
+					.append(".jpg</imageUrl><price>").append(index * 0.5)
+					.append("</price></item>");
+			index++;
+		}
+		builder.append("</items>");
+		return builder.toString().getBytes("UTF-8");
+	}
+
+	@Root(name = "items")
+	public static class ShoppingItems {
+		@ElementList(inline = true, entry = "item")
+		public List<ShoppingItem> items;
+	}
+
+	@Root(name = "item")
+	public static class ShoppingItem {
+		@Element
+		public String asin;
+		@Element
+		public String title;
+		@Element
+		public String imageUrl;
+		@Element
+		public double price;
+	}
+}
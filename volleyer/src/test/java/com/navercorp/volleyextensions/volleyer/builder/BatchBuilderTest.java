@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.builder;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response.ErrorListener;
+import com.android.volley.Response.Listener;
+import com.android.volley.RetryPolicy;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.RequestFuture;
+import com.navercorp.volleyextensions.volleyer.VolleyerConfiguration;
+import com.navercorp.volleyextensions.volleyer.factory.DefaultVolleyerConfigurationFactory;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.request.creator.RequestCreator;
+import com.navercorp.volleyextensions.volleyer.request.executor.RequestExecutor;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class BatchBuilderTest {
+	RequestQueue requestQueue = mock(RequestQueue.class);
+	CapturingRequestCreator requestCreator;
+	VolleyerConfiguration configuration;
+	List<BatchResult> batchResults;
+	BatchListener batchListener;
+
+	@Before
+	public void setUp() {
+		requestCreator = new CapturingRequestCreator();
+		configuration = new VolleyerConfiguration(requestCreator, new NoOpRequestExecutor(),
+				DefaultVolleyerConfigurationFactory.createNetworkResponseParser(),
+				DefaultVolleyerConfigurationFactory.createErrorListener());
+		batchResults = new ArrayList<BatchResult>();
+		batchListener = new BatchListener() {
+			@Override
+			public void onBatchCompleted(BatchResult result) {
+				batchResults.add(result);
+			}
+		};
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void executeShouldThrowIseWhenNoRequestIsAdded() {
+		new BatchBuilder().execute();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void addShouldThrowIaeWhenSameBuilderIsAddedTwice() {
+		// Given
+		ResponseBuilder<String> builder = createBuilder();
+		// When & Then
+		new BatchBuilder().add(builder).add(builder);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void executeShouldThrowIseWhenBuilderIsAlreadyExecuted() {
+		// Given
+		ResponseBuilder<String> builder = createBuilder();
+		builder.execute();
+		// When & Then
+		new BatchBuilder().add(builder).execute();
+	}
+
+	@Test
+	public void allModeShouldDeliverAllResultsInOrderOfAddition() {
+		// Given
+		final List<String> itemResponses = new ArrayList<String>();
+		ResponseBuilder<String> first = createBuilder().withListener(new Listener<String>() {
+			@Override
+			public void onResponse(String response) {
+				itemResponses.add(response);
+			}
+		});
+		new BatchBuilder().add(first).add(createBuilder()).withListener(batchListener).execute();
+		// When
+		requestCreator.listeners.get(1).onResponse("second");
+		requestCreator.listeners.get(0).onResponse("first");
+		// Then
+		assertEquals(1, batchResults.size());
+		BatchResult result = batchResults.get(0);
+		assertTrue(result.isSuccess());
+		assertEquals("first", result.getResult(0));
+		assertEquals("second", result.getResult(1));
+		assertEquals(1, itemResponses.size());
+	}
+
+	@Test
+	public void allModeShouldFailAndCancelOthersAtFirstError() {
+		// Given
+		new BatchBuilder().add(createBuilder()).add(createBuilder()).withListener(batchListener).execute();
+		VolleyError error = new VolleyError();
+		// When
+		requestCreator.errorListeners.get(0).onErrorResponse(error);
+		// Then
+		assertEquals(1, batchResults.size());
+		assertFalse(batchResults.get(0).isSuccess());
+		assertSame(error, batchResults.get(0).getFirstError());
+		assertTrue(requestCreator.requests.get(1).isCanceled());
+	}
+
+	@Test
+	public void firstModeShouldSucceedAndCancelOthersAtFirstSuccess() {
+		// Given
+		new BatchBuilder().add(createBuilder()).add(createBuilder()).add(createBuilder())
+				.withMode(BatchBuilder.Mode.FIRST).withListener(batchListener).execute();
+		// When
+		requestCreator.errorListeners.get(0).onErrorResponse(new VolleyError());
+		requestCreator.listeners.get(1).onResponse("second");
+		// Then
+		assertEquals(1, batchResults.size());
+		assertTrue(batchResults.get(0).isSuccess());
+		assertEquals("second", batchResults.get(0).getFirstResult());
+		assertTrue(requestCreator.requests.get(2).isCanceled());
+	}
+
+	@Test
+	public void partialModeShouldWaitForAllRequests() {
+		// Given
+		new BatchBuilder().add(createBuilder()).add(createBuilder())
+				.withMode(BatchBuilder.Mode.PARTIAL).withListener(batchListener).execute();
+		// When
+		requestCreator.errorListeners.get(0).onErrorResponse(new VolleyError());
+		// Then
+		assertTrue(batchResults.isEmpty());
+		// When
+		requestCreator.listeners.get(1).onResponse("second");
+		// Then
+		assertEquals(1, batchResults.size());
+		assertTrue(batchResults.get(0).isSuccess());
+		assertFalse(batchResults.get(0).isSucceeded(0));
+		assertEquals(1, batchResults.get(0).getSucceededCount());
+	}
+
+	@Test
+	public void deadlineShouldCompleteBatchWithTimeoutErrors() {
+		// Given
+		new BatchBuilder().add(createBuilder()).add(createBuilder())
+				.withMode(BatchBuilder.Mode.PARTIAL).withTimeout(1000).withListener(batchListener).execute();
+		requestCreator.listeners.get(0).onResponse("first");
+		// When
+		ShadowLooper.idleMainLooper(1000);
+		// Then
+		assertEquals(1, batchResults.size());
+		assertEquals("first", batchResults.get(0).getResult(0));
+		assertTrue(batchResults.get(0).getError(1) instanceof TimeoutError);
+		assertTrue(requestCreator.requests.get(1).isCanceled());
+	}
+
+	@Test
+	public void canceledBatchShouldNotBeDelivered() {
+		// Given
+		Batch batch = new BatchBuilder().add(createBuilder()).withListener(batchListener).execute();
+		// When
+		batch.cancel();
+		requestCreator.listeners.get(0).onResponse("first");
+		// Then
+		assertTrue(batch.isFinished());
+		assertTrue(requestCreator.requests.get(0).isCanceled());
+		assertTrue(batchResults.isEmpty());
+	}
+
+	@Test
+	public void requestCanceledFromOutsideShouldBeCompletedAsCanceled() {
+		// Given
+		new BatchBuilder().add(createBuilder()).add(createBuilder())
+				.withMode(BatchBuilder.Mode.PARTIAL).withListener(batchListener).execute();
+		requestCreator.listeners.get(0).onResponse("first");
+		// When
+		requestCreator.requests.get(1).cancel();
+		// Then
+		assertEquals(1, batchResults.size());
+		BatchResult result = batchResults.get(0);
+		assertEquals("first", result.getResult(0));
+		assertTrue(result.isCanceled(1));
+		assertNull(result.getError(1));
+	}
+
+	@Test
+	public void allModeShouldFailWhenRequestIsCanceledFromOutside() {
+		// Given
+		new BatchBuilder().add(createBuilder()).add(createBuilder()).withListener(batchListener).execute();
+		// When
+		requestCreator.requests.get(0).cancel();
+		// Then
+		assertEquals(1, batchResults.size());
+		assertFalse(batchResults.get(0).isSuccess());
+		assertTrue(batchResults.get(0).isCanceled(0));
+		assertFalse(batchResults.get(0).isCanceled(1));
+		assertTrue(requestCreator.requests.get(1).isCanceled());
+	}
+
+	private ResponseBuilder<String> createBuilder() {
+		HttpContent httpContent = new HttpContent("http://test", HttpMethod.GET);
+		return new ResponseBuilder<String>(requestQueue, configuration, httpContent, TargetType.of(String.class),
+											new DefaultRetryPolicy());
+	}
+
+	private static class CapturingRequestCreator implements RequestCreator {
+		final List<Listener<Object>> listeners = new ArrayList<Listener<Object>>();
+		final List<ErrorListener> errorListeners = new ArrayList<ErrorListener>();
+		final List<Request<?>> requests = new ArrayList<Request<?>>();
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T> Request<T> createRequest(HttpContent httpContent, Class<T> clazz, NetworkResponseParser responseParser,
+											Listener<T> listener, ErrorListener errorListener, RetryPolicy retryPolicy) {
+			Request<T> request = new VolleyerRequest<T>(httpContent, clazz, responseParser, listener, errorListener, retryPolicy);
+			listeners.add((Listener<Object>) listener);
+			errorListeners.add(errorListener);
+			requests.add(request);
+			return request;
+		}
+	}
+
+	private static class NoOpRequestExecutor implements RequestExecutor {
+		@Override
+		public <T> void executeRequest(RequestQueue requestQueue, Request<T> request) {
+		}
+
+		@Override
+		public <T> void executeRequestFuture(RequestQueue requestQueue, Request<T> request, RequestFuture<T> requestFuture) {
+		}
+	}
+}
@@ -18,6 +18,8 @@ package com.navercorp.volleyextensions.volleyer.builder;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.util.List;
+
 import com.android.volley.*;
 import org.junit.Before;
 import org.junit.Test;
@@ -30,6 +32,11 @@ import com.android.volley.Response.Listener;
 import com.navercorp.volleyextensions.volleyer.VolleyerConfiguration;
 import com.navercorp.volleyextensions.volleyer.factory.DefaultVolleyerConfigurationFactory;
 import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.request.AdaptiveRetryPolicy;
+import com.navercorp.volleyextensions.volleyer.request.RequestGroup;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.response.ItemListener;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE)
@@ -244,6 +251,91 @@ public class RequestBuilderTest {
 		builder.withTargetClass(clazz);
 	}	
 
+	@Test(expected = NullPointerException.class)
+	public void withTargetTypeMethodShouldThrowNpeWhenTargetTypeIsNull() {
+		// Given
+		String url = "test";
+		HttpMethod method = HttpMethod.GET;
+		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
+		RetryPolicy retryPolicy = new DefaultRetryPolicy();
+		TestPurposeRequestBuilder builder =
+				new TestPurposeRequestBuilder(requestQueue, configuration, url, method, retryPolicy);
+		TargetType<String> nullTargetType = null;
+		// When & Then
+		builder.withTargetType(nullTargetType);
+	}
+
+	@Test
+	public void requestShouldBeExecutedWhenTargetTypeIsGeneric() {
+		// Given
+		String url = "http://test";
+		HttpMethod method = HttpMethod.GET;
+		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
+		RetryPolicy retryPolicy = new DefaultRetryPolicy();
+		TestPurposeRequestBuilder builder =
+				new TestPurposeRequestBuilder(requestQueue, configuration, url, method, retryPolicy);
+		TargetType<List<String>> targetType = new TargetType<List<String>>() {};
+		// When
+		Request<List<String>> request = builder.withTargetType(targetType).execute();
+		// Then
+		assertTrue(request instanceof VolleyerRequest);
+		verify(requestQueue).add(request);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void withItemListenerMethodShouldThrowNpeWhenItemListenerIsNull() {
+		// Given
+		String url = "test";
+		HttpMethod method = HttpMethod.GET;
+		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
+		RetryPolicy retryPolicy = new DefaultRetryPolicy();
+		TestPurposeRequestBuilder builder =
+				new TestPurposeRequestBuilder(requestQueue, configuration, url, method, retryPolicy);
+		ItemListener<String> nullItemListener = null;
+		// When & Then
+		builder.withItemListener(String.class, nullItemListener);
+	}
+
+	@Test
+	public void requestShouldBeExecutedWhenItemListenerIsSet() {
+		// Given
+		String url = "http://test";
+		HttpMethod method = HttpMethod.GET;
+		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
+		RetryPolicy retryPolicy = new DefaultRetryPolicy();
+		TestPurposeRequestBuilder builder =
+				new TestPurposeRequestBuilder(requestQueue, configuration, url, method, retryPolicy);
+		ItemListener<String> itemListener = new ItemListener<String>() {
+			@Override
+			public void onItems(List<String> items) {
+			}
+		};
+		// When
+		Request<Integer> request = builder.withItemListener(String.class, itemListener).execute();
+		// Then
+		verify(requestQueue).add(request);
+	}
+
+	@Test
+	public void requestWithItemListenerShouldNotBeCached() {
+		// Given
+		String url = "http://test";
+		HttpMethod method = HttpMethod.GET;
+		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
+		RetryPolicy retryPolicy = new DefaultRetryPolicy();
+		TestPurposeRequestBuilder builder =
+				new TestPurposeRequestBuilder(requestQueue, configuration, url, method, retryPolicy);
+		ItemListener<String> itemListener = new ItemListener<String>() {
+			@Override
+			public void onItems(List<String> items) {
+			}
+		};
+		// When
+		Request<Integer> request = builder.withItemListener(String.class, itemListener).execute();
+		// Then
+		assertFalse(request.shouldCache());
+	}
+
 	@Test()
 	public void requestQueueShouldBeExecutedWhenExecuteMethodIsCalled() {
 		// Given
@@ -313,4 +405,50 @@ public class RequestBuilderTest {
 		// Then
 		builder.withErrorListener(errorListener);
 	}
+
+	@Test
+	public void requestOptionsShouldBeDeliveredToResponseBuilder() {
+		// Given
+		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
+		TestPurposeRequestBuilder builder =
+				new TestPurposeRequestBuilder(requestQueue, configuration, "http://test", HttpMethod.GET, new DefaultRetryPolicy());
+		Object tag = new Object();
+		// When
+		Request<String> request = builder.setPriority(Request.Priority.LOW)
+										.setTag(tag)
+										.withTargetClass(String.class)
+										.execute();
+		// Then
+		assertSame(Request.Priority.LOW, request.getPriority());
+		assertSame(tag, request.getTag());
+	}
+
+	@Test
+	public void requestShouldBeAddedIntoRequestGroup() {
+		// Given
+		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
+		TestPurposeRequestBuilder builder =
+				new TestPurposeRequestBuilder(requestQueue, configuration, "http://test", HttpMethod.GET, new DefaultRetryPolicy());
+		RequestGroup group = new RequestGroup();
+		Request<String> request = builder.setRequestGroup(group).withTargetClass(String.class).execute();
+		// When
+		group.cancelAll();
+		// Then
+		assertTrue(request.isCanceled());
+	}
+
+	@Test
+	public void serverErrorsShouldBeRetriedWhenRetryPolicyFactoryAllowsThem() {
+		// Given
+		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
+		TestPurposeRequestBuilder builder =
+				new TestPurposeRequestBuilder(requestQueue, configuration, "http://test", HttpMethod.GET, new DefaultRetryPolicy());
+		// When
+		Request<String> request = builder.setRetryPolicyFactory(new AdaptiveRetryPolicy.Factory().setRetryServerErrors(true))
+										.withTargetClass(String.class)
+										.execute();
+		// Then
+		assertTrue(request.shouldRetryServerErrors());
+		assertTrue(request.getRetryPolicy() instanceof AdaptiveRetryPolicy);
+	}
 }
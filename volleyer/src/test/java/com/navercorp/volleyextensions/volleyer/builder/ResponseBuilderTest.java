@@ -15,13 +15,24 @@
  */
 package com.navercorp.volleyextensions.volleyer.builder;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
 import com.android.volley.RetryPolicy;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
@@ -34,6 +45,15 @@ import com.navercorp.volleyextensions.volleyer.VolleyerConfiguration;
 import com.navercorp.volleyextensions.volleyer.factory.DefaultVolleyerConfigurationFactory;
 import com.navercorp.volleyextensions.volleyer.http.HttpContent;
 import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.request.DeadlineRetryPolicy;
+import com.navercorp.volleyextensions.volleyer.request.creator.RequestCreator;
+import com.navercorp.volleyextensions.volleyer.request.executor.RequestExecutor;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.response.Transformer;
+import com.navercorp.volleyextensions.volleyer.response.VolleyerFuture;
+import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.StringNetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.TransformingNetworkResponseParser;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE)
@@ -47,10 +67,10 @@ public class ResponseBuilderTest {
 		HttpMethod method = HttpMethod.GET;
 		HttpContent httpContent = new HttpContent(url, method);
 		VolleyerConfiguration nullConfiguration = null;
-		Class<String> clazz = String.class;
+		TargetType<String> targetType = TargetType.of(String.class);
 		RetryPolicy retryPolicy = new DefaultRetryPolicy();
 		// When & Then
-		new ResponseBuilder<String>(requestQueue, nullConfiguration, httpContent, clazz, retryPolicy);
+		new ResponseBuilder<String>(requestQueue, nullConfiguration, httpContent, targetType, retryPolicy);
 	}
 
 	@Test(expected=NullPointerException.class)
@@ -58,23 +78,23 @@ public class ResponseBuilderTest {
 		// Given
 		HttpContent nullHttpContent = null;
 		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
-		Class<String> clazz = String.class;
+		TargetType<String> targetType = TargetType.of(String.class);
 		RetryPolicy retryPolicy = new DefaultRetryPolicy();
 		// When & Then
-		new ResponseBuilder<String>(requestQueue, configuration, nullHttpContent, clazz, retryPolicy);
+		new ResponseBuilder<String>(requestQueue, configuration, nullHttpContent, targetType, retryPolicy);
 	}
 	
 	@Test(expected=NullPointerException.class)
-	public void responseBuilderConstructorShouldThrowNpeWhenTargetClasstIsNull() {
+	public void responseBuilderConstructorShouldThrowNpeWhenTargetTypeIsNull() {
 		// Given
 		String url = "http://test";
 		HttpMethod method = HttpMethod.GET;
 		HttpContent httpContent = new HttpContent(url, method);
 		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
-		Class<String> nullClazz = null;
+		TargetType<String> nullTargetType = null;
 		RetryPolicy retryPolicy = new DefaultRetryPolicy();
 		// When & Then
-		new ResponseBuilder<String>(requestQueue, configuration, httpContent, nullClazz, retryPolicy);
+		new ResponseBuilder<String>(requestQueue, configuration, httpContent, nullTargetType, retryPolicy);
 	}
 
 	@Test
@@ -84,10 +104,10 @@ public class ResponseBuilderTest {
 		HttpMethod method = HttpMethod.GET;
 		HttpContent httpContent = new HttpContent(url, method);
 		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
-		Class<String> clazz = String.class;
+		TargetType<String> targetType = TargetType.of(String.class);
 		RetryPolicy retryPolicy = new DefaultRetryPolicy();
 		ResponseBuilder<String> builder =
-				new ResponseBuilder<String>(requestQueue, configuration, httpContent, clazz, retryPolicy);
+				new ResponseBuilder<String>(requestQueue, configuration, httpContent, targetType, retryPolicy);
 		Listener<String> listener = new Listener<String>(){
 			@Override
 			public void onResponse(String response) {
@@ -105,10 +125,10 @@ public class ResponseBuilderTest {
 		HttpMethod method = HttpMethod.GET;
 		HttpContent httpContent = new HttpContent(url, method);
 		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
-		Class<String> clazz = String.class;
+		TargetType<String> targetType = TargetType.of(String.class);
 		RetryPolicy retryPolicy = new DefaultRetryPolicy();
 		ResponseBuilder<String> builder =
-				new ResponseBuilder<String>(requestQueue, configuration, httpContent, clazz, retryPolicy);
+				new ResponseBuilder<String>(requestQueue, configuration, httpContent, targetType, retryPolicy);
 		ErrorListener errorListener = new ErrorListener (){
 			@Override
 			public void onErrorResponse(VolleyError error) {
@@ -126,10 +146,10 @@ public class ResponseBuilderTest {
 		HttpMethod method = HttpMethod.GET;
 		HttpContent httpContent = new HttpContent(url, method);
 		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
-		Class<String> clazz = String.class;
+		TargetType<String> targetType = TargetType.of(String.class);
 		RetryPolicy retryPolicy = new DefaultRetryPolicy();
 		ResponseBuilder<String> builder =
-				new ResponseBuilder<String>(requestQueue, configuration, httpContent, clazz, retryPolicy);
+				new ResponseBuilder<String>(requestQueue, configuration, httpContent, targetType, retryPolicy);
 		Listener<String> listener = new Listener<String>(){
 			@Override
 			public void onResponse(String response) {
@@ -147,10 +167,10 @@ public class ResponseBuilderTest {
 		HttpMethod method = HttpMethod.GET;
 		HttpContent httpContent = new HttpContent(url, method);
 		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
-		Class<String> clazz = String.class;
+		TargetType<String> targetType = TargetType.of(String.class);
 		RetryPolicy retryPolicy = new DefaultRetryPolicy();
 		ResponseBuilder<String> builder =
-				new ResponseBuilder<String>(requestQueue, configuration, httpContent, clazz, retryPolicy);
+				new ResponseBuilder<String>(requestQueue, configuration, httpContent, targetType, retryPolicy);
 		ErrorListener errorListener = new ErrorListener (){
 			@Override
 			public void onErrorResponse(VolleyError error) {
@@ -161,4 +181,172 @@ public class ResponseBuilderTest {
 		builder.withErrorListener(errorListener);
 	}
 
+	@Test
+	public void withTransformerMethodShouldGiveTransformingParserToRequestCreator() {
+		// Given
+		RequestCreator requestCreator = mock(RequestCreator.class);
+		VolleyerConfiguration configuration = new VolleyerConfiguration(requestCreator, mock(RequestExecutor.class),
+				new StringNetworkResponseParser(), mock(ErrorListener.class));
+		HttpContent httpContent = new HttpContent("http://test", HttpMethod.GET);
+		ResponseBuilder<String> builder = new ResponseBuilder<String>(requestQueue, configuration, httpContent,
+				TargetType.of(String.class), new DefaultRetryPolicy());
+		// When
+		builder.withTransformer(new Transformer<String, Integer>() {
+			@Override
+			public Integer transform(String source) {
+				return source.length();
+			}
+		}).execute();
+		// Then
+		ArgumentCaptor<NetworkResponseParser> parserCaptor = ArgumentCaptor.forClass(NetworkResponseParser.class);
+		verify(requestCreator).createRequest(any(HttpContent.class), any(TargetType.class), parserCaptor.capture(),
+				any(Listener.class), any(ErrorListener.class), any(RetryPolicy.class));
+		assertTrue(parserCaptor.getValue() instanceof TransformingNetworkResponseParser);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void withTransformerMethodShouldMakeOriginalBuilderBeFinished() {
+		// Given
+		ResponseBuilder<String> builder = createStringResponseBuilder();
+		builder.withTransformer(new Transformer<String, Integer>() {
+			@Override
+			public Integer transform(String source) {
+				return source.length();
+			}
+		});
+		// When & Then
+		builder.withListener(mock(Listener.class));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void withResponseParserMethodShouldThrowIllegalStateExceptionAfterWithTransformer() {
+		// Given
+		ResponseBuilder<Integer> builder = createStringResponseBuilder().withTransformer(new Transformer<String, Integer>() {
+			@Override
+			public Integer transform(String source) {
+				return source.length();
+			}
+		});
+		// When & Then
+		builder.withResponseParser(new StringNetworkResponseParser());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test(expected = IllegalStateException.class)
+	public void withTransformerMethodShouldThrowIllegalStateExceptionWhenListenerIsSet() {
+		// Given
+		ResponseBuilder<String> builder = createStringResponseBuilder().withListener(mock(Listener.class));
+		// When & Then
+		builder.withTransformer(new Transformer<String, Integer>() {
+			@Override
+			public Integer transform(String source) {
+				return source.length();
+			}
+		});
+	}
+
+	private ResponseBuilder<String> createStringResponseBuilder() {
+		HttpContent httpContent = new HttpContent("http://test", HttpMethod.GET);
+		VolleyerConfiguration configuration = DefaultVolleyerConfigurationFactory.create();
+		return new ResponseBuilder<String>(requestQueue, configuration, httpContent, TargetType.of(String.class),
+				new DefaultRetryPolicy());
+	}
+
+	@Test
+	public void toFutureShouldBeCompletedWithErrorOfRequest() throws Exception {
+		// Given
+		HttpContent httpContent = new HttpContent("http://test", HttpMethod.GET);
+		RequestCreator requestCreator = DefaultVolleyerConfigurationFactory.createRequestCreator();
+		RequestExecutor requestExecutor = mock(RequestExecutor.class);
+		VolleyerConfiguration configuration = new VolleyerConfiguration(requestCreator, requestExecutor,
+				DefaultVolleyerConfigurationFactory.createNetworkResponseParser(),
+				DefaultVolleyerConfigurationFactory.createErrorListener());
+		ResponseBuilder<String> builder = new ResponseBuilder<String>(requestQueue, configuration, httpContent,
+				TargetType.of(String.class), new DefaultRetryPolicy());
+		VolleyError error = new VolleyError();
+		// When
+		VolleyerFuture<String> future = builder.toFuture();
+		ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+		verify(requestExecutor).executeRequest(any(RequestQueue.class), captor.capture());
+		captor.getValue().deliverError(error);
+		// Then
+		assertTrue(future.isDone());
+		try {
+			future.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertSame(error, e.getCause());
+		}
+	}
+
+	@Test
+	public void cancelOfFutureShouldCancelRequest() {
+		// Given
+		HttpContent httpContent = new HttpContent("http://test", HttpMethod.GET);
+		RequestExecutor requestExecutor = mock(RequestExecutor.class);
+		VolleyerConfiguration configuration = new VolleyerConfiguration(
+				DefaultVolleyerConfigurationFactory.createRequestCreator(), requestExecutor,
+				DefaultVolleyerConfigurationFactory.createNetworkResponseParser(),
+				DefaultVolleyerConfigurationFactory.createErrorListener());
+		ResponseBuilder<String> builder = new ResponseBuilder<String>(requestQueue, configuration, httpContent,
+				TargetType.of(String.class), new DefaultRetryPolicy());
+		VolleyerFuture<String> future = builder.toFuture();
+		ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+		verify(requestExecutor).executeRequest(any(RequestQueue.class), captor.capture());
+		// When
+		future.cancel(false);
+		// Then
+		assertTrue(captor.getValue().isCanceled());
+	}
+
+	@Test
+	public void futureShouldBeCanceledWhenRequestIsCanceledByOthers() throws Exception {
+		// Given
+		HttpContent httpContent = new HttpContent("http://test", HttpMethod.GET);
+		RequestExecutor requestExecutor = mock(RequestExecutor.class);
+		VolleyerConfiguration configuration = new VolleyerConfiguration(
+				DefaultVolleyerConfigurationFactory.createRequestCreator(), requestExecutor,
+				DefaultVolleyerConfigurationFactory.createNetworkResponseParser(),
+				DefaultVolleyerConfigurationFactory.createErrorListener());
+		ResponseBuilder<String> builder = new ResponseBuilder<String>(requestQueue, configuration, httpContent,
+				TargetType.of(String.class), new DefaultRetryPolicy());
+		VolleyerFuture<String> future = builder.toFuture();
+		ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+		verify(requestExecutor).executeRequest(any(RequestQueue.class), captor.capture());
+		// When
+		captor.getValue().cancel();
+		// Then
+		assertTrue(future.isCancelled());
+		try {
+			future.get(1, TimeUnit.SECONDS);
+			fail();
+		} catch (CancellationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void requestOptionsShouldBeAppliedToRequest() {
+		// Given
+		HttpContent httpContent = new HttpContent("http://test", HttpMethod.GET);
+		RequestExecutor requestExecutor = mock(RequestExecutor.class);
+		VolleyerConfiguration configuration = new VolleyerConfiguration(
+				DefaultVolleyerConfigurationFactory.createRequestCreator(), requestExecutor,
+				DefaultVolleyerConfigurationFactory.createNetworkResponseParser(),
+				DefaultVolleyerConfigurationFactory.createErrorListener());
+		ResponseBuilder<String> builder = new ResponseBuilder<String>(requestQueue, configuration, httpContent,
+				TargetType.of(String.class), new DefaultRetryPolicy());
+		Object tag = new Object();
+		// When
+		Request<String> request = builder.withPriority(Request.Priority.HIGH)
+										.withTag(tag)
+										.withShouldCache(false)
+										.withDeadline(3000)
+										.execute();
+		// Then
+		assertSame(Request.Priority.HIGH, request.getPriority());
+		assertSame(tag, request.getTag());
+		assertFalse(request.shouldCache());
+		assertTrue(request.getRetryPolicy() instanceof DeadlineRetryPolicy);
+	}
 }
@@ -38,6 +38,8 @@ public class DefaultNetworkResponseParserFactoryTest {
 	static final String JACKSON_2_X_CLASS_NAME = "com.fasterxml.jackson.databind.ObjectMapper";
 	static final String JACKSON_1_X_CLASS_NAME = "org.codehaus.jackson.map.ObjectMapper";
 	static final String SIMPLE_XML_CLASS_NAME = "org.simpleframework.xml.core.Persister";
+	static final String GSON_CLASS_NAME = "com.google.gson.Gson";
+	static final String PROTOBUF_CLASS_NAME = "com.google.protobuf.MessageLite";
 
 	private Builder builder;
 
@@ -149,6 +151,97 @@ public class DefaultNetworkResponseParserFactoryTest {
 		verify(builder, never()).addParser(ArgumentMatchers.argThat(matcher));
 	}
 
+	@Test
+	public void shouldAddGsonNetworkResponseParserIfPresent() {
+		// Given
+		given(ClassUtils.isPresent(GSON_CLASS_NAME)).willReturn(true);
+		ArgumentMatcher<TypedNetworkResponseParser> matcher = argMatcher(new PlainMatcher(){
+
+			@Override
+			public boolean matches(Object item) {
+				if (item instanceof GsonNetworkResponseParser) {
+					return true;
+				}
+				return false;
+			}});
+		// When
+		DefaultNetworkResponseParserFactory.addGsonParserIfPresent(builder);
+		// Then
+		verify(builder).addParser(ArgumentMatchers.argThat(matcher));
+	}
+
+	@Test
+	public void shouldAddGsonAsJsonParserIfJacksonsAreNotPresent() {
+		// Given
+		given(ClassUtils.isPresent(JACKSON_2_X_CLASS_NAME)).willReturn(false);
+		given(ClassUtils.isPresent(JACKSON_1_X_CLASS_NAME)).willReturn(false);
+		given(ClassUtils.isPresent(GSON_CLASS_NAME)).willReturn(true);
+		ArgumentMatcher<TypedNetworkResponseParser> matcher = argMatcher(new PlainMatcher(){
+
+			@Override
+			public boolean matches(Object item) {
+				if (item instanceof GsonNetworkResponseParser) {
+					return true;
+				}
+				return false;
+			}});
+		// When
+		DefaultNetworkResponseParserFactory.addJsonParserIfPresent(builder);
+		// Then
+		verify(builder).addParser(ArgumentMatchers.argThat(matcher));
+	}
+
+	@Test
+	public void shouldPreferJackson2ToGsonAsJsonParser() {
+		// Given
+		given(ClassUtils.isPresent(JACKSON_2_X_CLASS_NAME)).willReturn(true);
+		given(ClassUtils.isPresent(GSON_CLASS_NAME)).willReturn(true);
+		ArgumentMatcher<TypedNetworkResponseParser> matcher = argMatcher(new PlainMatcher(){
+
+			@Override
+			public boolean matches(Object item) {
+				if (item instanceof GsonNetworkResponseParser) {
+					return true;
+				}
+				return false;
+			}});
+		// When
+		DefaultNetworkResponseParserFactory.addJsonParserIfPresent(builder);
+		// Then
+		verify(builder, never()).addParser(ArgumentMatchers.argThat(matcher));
+		verify(builder).addParser(ArgumentMatchers.<TypedNetworkResponseParser>any());
+	}
+
+	@Test
+	public void shouldAddProtobufNetworkResponseParserIfPresent() {
+		// Given
+		given(ClassUtils.isPresent(PROTOBUF_CLASS_NAME)).willReturn(true);
+		ArgumentMatcher<TypedNetworkResponseParser> matcher = argMatcher(new PlainMatcher(){
+
+			@Override
+			public boolean matches(Object item) {
+				if (item instanceof ProtobufNetworkResponseParser) {
+					return true;
+				}
+				return false;
+			}});
+		// When
+		DefaultNetworkResponseParserFactory.addBinaryParsersIfPresent(builder);
+		// Then
+		verify(builder).addParser(ArgumentMatchers.argThat(matcher));
+	}
+
+	@Test
+	public void shouldNotAddBinaryParsersIfNotPresent() {
+		// Given
+		given(ClassUtils.isPresent(JACKSON_2_X_CLASS_NAME)).willReturn(true);
+		given(ClassUtils.isPresent(PROTOBUF_CLASS_NAME)).willReturn(false);
+		// When
+		DefaultNetworkResponseParserFactory.addBinaryParsersIfPresent(builder);
+		// Then
+		verify(builder, never()).addParser(ArgumentMatchers.<TypedNetworkResponseParser>any());
+	}
+
 	private static ArgumentMatcher<TypedNetworkResponseParser> argMatcher(final PlainMatcher plainMatcher) {
 		return new ArgumentMatcher<TypedNetworkResponseParser>(){
 
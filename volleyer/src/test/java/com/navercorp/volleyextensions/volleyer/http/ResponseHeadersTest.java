@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.http;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.android.volley.Header;
+import com.android.volley.NetworkResponse;
+
+public class ResponseHeadersTest {
+
+	@Test(expected = NullPointerException.class)
+	public void ofShouldThrowNpeWhenResponseIsNull() {
+		// Given
+		NetworkResponse nullResponse = null;
+		// When & Then
+		ResponseHeaders.of(nullResponse);
+	}
+
+	@Test
+	public void getShouldIgnoreCasesOfHeaderNames() {
+		// Given
+		NetworkResponse response = createResponse(new Header("content-type", "application/json"));
+		// When
+		ResponseHeaders headers = ResponseHeaders.of(response);
+		// Then
+		assertThat(headers.get("Content-Type"), is("application/json"));
+		assertThat(headers.get("CONTENT-TYPE"), is("application/json"));
+		assertTrue(headers.contains("Content-type"));
+		assertNull(headers.get("Accept"));
+	}
+
+	@Test
+	public void getShouldIgnoreCasesEvenIfHeadersMapIsCaseSensitive() {
+		// Given
+		Map<String, String> headerMap = new HashMap<String, String>();
+		headerMap.put("content-type", "text/plain; charset=euc-kr");
+		NetworkResponse response = new NetworkResponse(200, new byte[0], headerMap, false);
+		// When
+		ResponseHeaders headers = ResponseHeaders.of(response);
+		// Then
+		assertThat(headers.get("Content-Type"), is("text/plain; charset=euc-kr"));
+		assertThat(headers.getCharset(), is("euc-kr"));
+	}
+
+	@Test
+	public void getAllShouldReturnRepeatedValuesInReceivedOrder() {
+		// Given
+		NetworkResponse response = createResponse(new Header("Set-Cookie", "a=1"),
+				new Header("set-cookie", "b=2"));
+		// When
+		ResponseHeaders headers = ResponseHeaders.of(response);
+		// Then
+		assertThat(headers.getAll("Set-Cookie"), is(Arrays.asList("a=1", "b=2")));
+		assertThat(headers.get("Set-Cookie"), is("b=2"));
+		assertTrue(headers.getAll("Accept").isEmpty());
+	}
+
+	@Test
+	public void getCharsetShouldReturnCharsetParameterOfContentType() {
+		// Given
+		NetworkResponse response = createResponse(new Header("content-type", "application/json; Charset=UTF-8"));
+		// When
+		ResponseHeaders headers = ResponseHeaders.of(response);
+		// Then
+		assertThat(headers.getCharset(), is("UTF-8"));
+		assertThat(headers.getCharset(null), is("UTF-8"));
+	}
+
+	@Test
+	public void getCharsetShouldReturnDefaultCharsetWhenThereIsNoCharset() {
+		// Given
+		NetworkResponse response = createResponse(new Header("Content-Type", "application/json"));
+		// When
+		ResponseHeaders headers = ResponseHeaders.of(response);
+		// Then
+		assertThat(headers.getCharset(), is(ResponseHeaders.DEFAULT_CHARSET));
+		assertNull(headers.getCharset(null));
+	}
+
+	@Test
+	public void ofShouldReuseIndexedHeadersOfSameResponse() {
+		// Given
+		NetworkResponse response = createResponse(new Header("Content-Type", "application/json"));
+		NetworkResponse otherResponse = createResponse(new Header("Content-Type", "application/xml"));
+		// When
+		ResponseHeaders headers = ResponseHeaders.of(response);
+		ResponseHeaders sameHeaders = ResponseHeaders.of(response);
+		ResponseHeaders otherHeaders = ResponseHeaders.of(otherResponse);
+		// Then
+		assertSame(headers, sameHeaders);
+		assertThat(otherHeaders.get("content-type"), is("application/xml"));
+	}
+
+	private static NetworkResponse createResponse(Header... headers) {
+		List<Header> allHeaders = new ArrayList<Header>(Arrays.asList(headers));
+		return new NetworkResponse(200, new byte[0], false, 0, allHeaders);
+	}
+}
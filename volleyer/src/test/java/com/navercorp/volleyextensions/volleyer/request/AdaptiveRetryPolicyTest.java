@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class AdaptiveRetryPolicyTest {
+	final HttpContent getContent = new HttpContent("http://test.com/feed", HttpMethod.GET);
+
+	@Test
+	public void getRequestShouldBeRetriedUntilMaxRetries() throws VolleyError {
+		// Given
+		AdaptiveRetryPolicy policy = createPolicy(new AdaptiveRetryPolicy.Factory().setMaxRetries(2), getContent);
+		TimeoutError error = new TimeoutError();
+		// When
+		policy.retry(error);
+		policy.retry(error);
+		// Then
+		assertEquals(2, policy.getCurrentRetryCount());
+		assertRetryFails(policy, error);
+	}
+
+	@Test
+	public void postRequestShouldNotBeRetriedByDefault() {
+		// Given
+		HttpContent postContent = new HttpContent("http://test.com/feed", HttpMethod.POST);
+		AdaptiveRetryPolicy policy = createPolicy(new AdaptiveRetryPolicy.Factory(), postContent);
+		// Then
+		assertRetryFails(policy, new TimeoutError());
+	}
+
+	@Test
+	public void postRequestShouldBeRetriedWhenNonIdempotentRetryIsAllowed() throws VolleyError {
+		// Given
+		HttpContent postContent = new HttpContent("http://test.com/feed", HttpMethod.POST);
+		AdaptiveRetryPolicy policy = createPolicy(new AdaptiveRetryPolicy.Factory().setRetryNonIdempotent(true), postContent);
+		// When
+		policy.retry(new TimeoutError());
+		// Then
+		assertEquals(1, policy.getCurrentRetryCount());
+	}
+
+	@Test
+	public void timeoutShouldGrowByBackoffMultiplier() throws VolleyError {
+		// Given
+		AdaptiveRetryPolicy.Factory factory = new AdaptiveRetryPolicy.Factory()
+				.setTimeoutMs(1000)
+				.setMaxRetries(3)
+				.setBackoffMultiplier(1f)
+				.setRetryBudget(null);
+		AdaptiveRetryPolicy policy = createPolicy(factory, getContent);
+		// When
+		List<Integer> timeouts = new ArrayList<Integer>();
+		timeouts.add(policy.getCurrentTimeout());
+		for (int i = 0; i < 3; i++) {
+			policy.retry(new TimeoutError());
+			timeouts.add(policy.getCurrentTimeout());
+		}
+		// Then
+		assertEquals(Arrays.asList(1000, 2000, 4000, 8000), timeouts);
+	}
+
+	@Test
+	public void retryShouldBeMadeWhenRetryAfterIsZero() throws VolleyError {
+		// Given
+		AdaptiveRetryPolicy policy = createPolicy(new AdaptiveRetryPolicy.Factory(), getContent);
+		// When
+		policy.retry(createServerError("0"));
+		// Then
+		assertEquals(1, policy.getCurrentRetryCount());
+	}
+
+	@Test
+	public void retryShouldNotBeMadeWhenRetryAfterIsLongerThanZero() {
+		// Given
+		AdaptiveRetryPolicy policy = createPolicy(new AdaptiveRetryPolicy.Factory(), getContent);
+		// Then
+		assertRetryFails(policy, createServerError("2"));
+		assertEquals(0, policy.getCurrentRetryCount());
+	}
+
+	@Test
+	public void factoryShouldNotRetryServerErrorsByDefault() {
+		assertFalse(new AdaptiveRetryPolicy.Factory().shouldRetryServerErrors());
+		assertTrue(new AdaptiveRetryPolicy.Factory().setRetryServerErrors(true).shouldRetryServerErrors());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setBackoffMultiplierShouldThrowIaeWhenItIsNegative() {
+		new AdaptiveRetryPolicy.Factory().setBackoffMultiplier(-1f);
+	}
+
+	@Test
+	public void retryShouldNotBeMadeWhenBudgetIsExhausted() {
+		// Given
+		AdaptiveRetryPolicy.Factory factory = new AdaptiveRetryPolicy.Factory().setRetryBudget(new RetryBudget(0.1f, 0, 10));
+		AdaptiveRetryPolicy policy = createPolicy(factory, getContent);
+		// Then
+		assertRetryFails(policy, new TimeoutError());
+	}
+
+	@Test
+	public void retryAfterShouldBeParsedAsHttpDate() {
+		// Given
+		NetworkResponse response = createResponse("Wed, 21 Oct 2015 07:28:00 GMT");
+		// Then
+		assertEquals(0, AdaptiveRetryPolicy.parseRetryAfterMs(response));
+		assertEquals(-1, AdaptiveRetryPolicy.parseRetryAfterMs(createResponse("invalid")));
+	}
+
+	private void assertRetryFails(AdaptiveRetryPolicy policy, VolleyError error) {
+		try {
+			policy.retry(error);
+			fail();
+		} catch (VolleyError e) {
+			assertSame(error, e);
+		}
+	}
+
+	private AdaptiveRetryPolicy createPolicy(AdaptiveRetryPolicy.Factory factory, HttpContent httpContent) {
+		return new AdaptiveRetryPolicy(factory, httpContent);
+	}
+
+	private ServerError createServerError(String retryAfter) {
+		return new ServerError(createResponse(retryAfter));
+	}
+
+	private NetworkResponse createResponse(String retryAfter) {
+		Map<String, String> headers = Collections.singletonMap("Retry-After", retryAfter);
+		return new NetworkResponse(503, new byte[0], headers, false);
+	}
+}
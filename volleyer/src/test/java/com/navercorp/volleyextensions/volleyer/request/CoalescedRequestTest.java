@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.android.volley.Response.ErrorListener;
+import com.android.volley.Response.Listener;
+import com.android.volley.VolleyError;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.StringNetworkResponseParser;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class CoalescedRequestTest {
+
+	final String url = "http://test";
+	final NetworkResponseParser responseParser = new StringNetworkResponseParser();
+	final List<String> responses = new ArrayList<String>();
+	final Listener<String> listener = new Listener<String>() {
+		@Override
+		public void onResponse(String response) {
+			responses.add(response);
+		}
+	};
+	final ErrorListener errorListener = new ErrorListener() {
+		@Override
+		public void onErrorResponse(VolleyError error) {
+		}
+	};
+
+	@Test(expected = NullPointerException.class)
+	public void constructorShouldThrowNpeWhenRequestIsNull() {
+		new CoalescedRequest<String>(null, null);
+	}
+
+	@Test
+	public void responseShouldBeParsedOnceAndDeliveredToAllOfAttachedRequests() {
+		// Given
+		CountingParser countingParser = new CountingParser();
+		CoalescedRequest<String> coalescedRequest = new CoalescedRequest<String>(createRequest(countingParser), null);
+		coalescedRequest.attach(createRequest(countingParser));
+		// When
+		Response<String> response = coalescedRequest.parseNetworkResponse(new NetworkResponse("hello".getBytes()));
+		coalescedRequest.deliverResponse(response.result);
+		// Then
+		assertEquals(1, countingParser.count);
+		assertEquals(2, responses.size());
+		assertSame(responses.get(0), responses.get(1));
+	}
+
+	@Test
+	public void requestShouldNotBeAttachedAfterDelivery() {
+		// Given
+		final List<CoalescedRequest<?>> delivered = new ArrayList<CoalescedRequest<?>>();
+		CoalescedRequest<String> coalescedRequest = new CoalescedRequest<String>(createRequest(responseParser),
+				new CoalescedRequest.OnDeliveredListener() {
+					@Override
+					public void onDelivered(CoalescedRequest<?> request) {
+						delivered.add(request);
+					}
+				});
+		// When
+		coalescedRequest.deliverResponse("hello");
+		// Then
+		assertFalse(coalescedRequest.attach(createRequest(responseParser)));
+		assertEquals(1, delivered.size());
+	}
+
+	@Test
+	public void coalescedRequestShouldBeCanceledWhenAllOfAttachedRequestsAreCanceled() {
+		// Given
+		VolleyerRequest<String> first = createRequest(responseParser);
+		VolleyerRequest<String> second = createRequest(responseParser);
+		CoalescedRequest<String> coalescedRequest = new CoalescedRequest<String>(first, null);
+		coalescedRequest.attach(second);
+		// When
+		first.cancel();
+		// Then
+		assertFalse(coalescedRequest.isCanceled());
+		// When
+		second.cancel();
+		// Then
+		assertTrue(coalescedRequest.isCanceled());
+	}
+
+	@Test
+	public void cancelShouldCancelAllOfAttachedRequests() {
+		// Given
+		VolleyerRequest<String> first = createRequest(responseParser);
+		VolleyerRequest<String> second = createRequest(responseParser);
+		CoalescedRequest<String> coalescedRequest = new CoalescedRequest<String>(first, null);
+		coalescedRequest.attach(second);
+		// When
+		coalescedRequest.cancel();
+		// Then
+		assertTrue(first.isCanceled());
+		assertTrue(second.isCanceled());
+	}
+
+	@Test
+	public void keysShouldBeEqualForIdenticalRequests() {
+		assertEquals(CoalescedRequest.keyOf(createRequest(responseParser)),
+					CoalescedRequest.keyOf(createRequest(responseParser)));
+	}
+
+	@Test
+	public void keysShouldBeDifferentWhenHeadersTagsOrParsersAreDifferent() {
+		// Given
+		Object key = CoalescedRequest.keyOf(createRequest(responseParser));
+		HttpContent httpContent = new HttpContent(url, HttpMethod.GET);
+		httpContent.addHeader("hello", "world");
+		VolleyerRequest<String> tagged = createRequest(responseParser);
+		tagged.setTag("tag");
+		// Then
+		assertFalse(key.equals(CoalescedRequest.keyOf(createRequest(httpContent, responseParser))));
+		assertFalse(key.equals(CoalescedRequest.keyOf(tagged)));
+		assertFalse(key.equals(CoalescedRequest.keyOf(createRequest(new StringNetworkResponseParser()))));
+	}
+
+	@Test
+	public void keysShouldBeDifferentWhenShouldCacheIsDifferent() {
+		// Given
+		Object key = CoalescedRequest.keyOf(createRequest(responseParser));
+		VolleyerRequest<String> forceFresh = createRequest(responseParser);
+		forceFresh.setShouldCache(false);
+		// Then
+		assertFalse(key.equals(CoalescedRequest.keyOf(forceFresh)));
+	}
+
+	@Test
+	public void keyShouldBeNullForPostRequest() {
+		assertNull(CoalescedRequest.keyOf(createRequest(new HttpContent(url, HttpMethod.POST), responseParser)));
+	}
+
+	private VolleyerRequest<String> createRequest(NetworkResponseParser parser) {
+		return createRequest(new HttpContent(url, HttpMethod.GET), parser);
+	}
+
+	private VolleyerRequest<String> createRequest(HttpContent httpContent, NetworkResponseParser parser) {
+		return new VolleyerRequest<String>(httpContent, String.class, parser, listener, errorListener,
+											new DefaultRetryPolicy());
+	}
+
+	private static class CountingParser extends StringNetworkResponseParser {
+		int count = 0;
+
+		@Override
+		public <T> Response<T> parseNetworkResponse(NetworkResponse response, Class<T> clazz) {
+			count++;
+			return super.parseNetworkResponse(response, clazz);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.SystemClock;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class DeadlineRetryPolicyTest {
+
+	@Test(expected = NullPointerException.class)
+	public void constructorShouldThrowNpeWhenRetryPolicyIsNull() {
+		new DeadlineRetryPolicy(null, 1000);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorShouldThrowIaeWhenDeadlineIsNotPositive() {
+		new DeadlineRetryPolicy(new DefaultRetryPolicy(), 0);
+	}
+
+	@Test
+	public void timeoutShouldBeShortenedToRemainingTime() {
+		// Given
+		DeadlineRetryPolicy retryPolicy = new DeadlineRetryPolicy(new DefaultRetryPolicy(10000, 1, 1f), 3000);
+		// When
+		SystemClock.sleep(1000);
+		// Then
+		assertEquals(2000, retryPolicy.getCurrentTimeout());
+	}
+
+	@Test
+	public void timeoutShouldBeThatOfGivenPolicyWhenItIsShorter() {
+		// Given
+		DeadlineRetryPolicy retryPolicy = new DeadlineRetryPolicy(new DefaultRetryPolicy(500, 1, 1f), 3000);
+		// Then
+		assertEquals(500, retryPolicy.getCurrentTimeout());
+	}
+
+	@Test
+	public void retryShouldBeMadeBeforeDeadline() throws VolleyError {
+		// Given
+		DefaultRetryPolicy defaultRetryPolicy = new DefaultRetryPolicy(500, 3, 1f);
+		DeadlineRetryPolicy retryPolicy = new DeadlineRetryPolicy(defaultRetryPolicy, 3000);
+		// When
+		retryPolicy.retry(new TimeoutError());
+		// Then
+		assertEquals(1, retryPolicy.getCurrentRetryCount());
+	}
+
+	@Test
+	public void retryShouldNotBeMadeAfterDeadline() {
+		// Given
+		DeadlineRetryPolicy retryPolicy = new DeadlineRetryPolicy(new DefaultRetryPolicy(500, 3, 1f), 3000);
+		TimeoutError error = new TimeoutError();
+		SystemClock.sleep(3000);
+		// When
+		try {
+			retryPolicy.retry(error);
+			fail();
+		} catch (VolleyError e) {
+			// Then
+			assertSame(error, e);
+			assertTrue(retryPolicy.isExpired());
+			assertEquals(1, retryPolicy.getCurrentTimeout());
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import android.app.Activity;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
+import com.android.volley.Response.Listener;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.response.parser.StringNetworkResponseParser;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class RequestGroupTest {
+
+	@Test(expected = NullPointerException.class)
+	public void addShouldThrowNpeWhenRequestIsNull() {
+		new RequestGroup().add(null);
+	}
+
+	@Test
+	public void cancelAllShouldCancelAllOfRequestsInGroup() {
+		// Given
+		RequestGroup group = new RequestGroup();
+		Request<String> first = createRequest();
+		Request<String> second = createRequest();
+		group.add(first);
+		group.add(second);
+		// When
+		group.cancelAll();
+		// Then
+		assertTrue(first.isCanceled());
+		assertTrue(second.isCanceled());
+		assertEquals(0, group.size());
+		assertFalse(group.isClosed());
+	}
+
+	@Test
+	public void groupShouldBeTagOfRequestWithoutTag() {
+		// Given
+		RequestGroup group = new RequestGroup();
+		Request<String> request = createRequest();
+		Request<String> taggedRequest = createRequest();
+		Object tag = new Object();
+		taggedRequest.setTag(tag);
+		// When
+		group.add(request);
+		group.add(taggedRequest);
+		// Then
+		assertSame(group, request.getTag());
+		assertSame(tag, taggedRequest.getTag());
+	}
+
+	@Test
+	public void requestAddedAfterCloseShouldBeCanceledImmediately() {
+		// Given
+		RequestGroup group = new RequestGroup();
+		group.close();
+		Request<String> request = createRequest();
+		// When
+		group.add(request);
+		// Then
+		assertTrue(request.isCanceled());
+		assertEquals(0, group.size());
+	}
+
+	@Test
+	public void canceledRequestShouldBeRemovedFromGroup() {
+		// Given
+		RequestGroup group = new RequestGroup();
+		Request<String> request = createRequest();
+		group.add(request);
+		// When
+		request.cancel();
+		// Then
+		assertEquals(0, group.size());
+	}
+
+	@Test
+	public void groupShouldBeClosedWhenBoundActivityIsDestroyed() {
+		// Given
+		ActivityController<Activity> controller = Robolectric.buildActivity(Activity.class).create();
+		RequestGroup group = new RequestGroup().bindTo(controller.get());
+		Request<String> request = createRequest();
+		group.add(request);
+		// When
+		controller.destroy();
+		// Then
+		assertTrue(group.isClosed());
+		assertTrue(request.isCanceled());
+	}
+
+	@Test
+	public void groupShouldNotBeClosedWhenAnotherActivityIsDestroyed() {
+		// Given
+		ActivityController<Activity> bound = Robolectric.buildActivity(Activity.class).create();
+		ActivityController<Activity> another = Robolectric.buildActivity(Activity.class).create();
+		RequestGroup group = new RequestGroup().bindTo(bound.get());
+		// When
+		another.destroy();
+		// Then
+		assertFalse(group.isClosed());
+	}
+
+	private Request<String> createRequest() {
+		return new VolleyerRequest<String>(new HttpContent("http://test", HttpMethod.GET), String.class,
+				new StringNetworkResponseParser(), new Listener<String>() {
+					@Override
+					public void onResponse(String response) {
+					}
+				}, null, new DefaultRetryPolicy());
+	}
+}
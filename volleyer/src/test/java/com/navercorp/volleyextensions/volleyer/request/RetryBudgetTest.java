@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RetryBudgetTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorShouldThrowIaeWhenRetryRatioIsNotPositive() {
+		new RetryBudget(0f, 10, 100);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorShouldThrowIaeWhenMaxTokensIsLessThanMinRetries() {
+		new RetryBudget(0.1f, 10, 5);
+	}
+
+	@Test
+	public void retriesShouldBeLimitedToMinRetriesAtFirst() {
+		// Given
+		RetryBudget budget = new RetryBudget(0.1f, 2, 100);
+		// Then
+		assertTrue(budget.tryRetry("host"));
+		assertTrue(budget.tryRetry("host"));
+		assertFalse(budget.tryRetry("host"));
+	}
+
+	@Test
+	public void requestsShouldDepositTokensByRetryRatio() {
+		// Given
+		RetryBudget budget = new RetryBudget(0.5f, 0, 100);
+		// When
+		budget.onRequest("host");
+		budget.onRequest("host");
+		// Then
+		assertTrue(budget.tryRetry("host"));
+		assertFalse(budget.tryRetry("host"));
+	}
+
+	@Test
+	public void budgetShouldBeSeparatedByHost() {
+		// Given
+		RetryBudget budget = new RetryBudget(0.1f, 1, 100);
+		// When
+		budget.tryRetry("failing");
+		// Then
+		assertFalse(budget.tryRetry("failing"));
+		assertTrue(budget.tryRetry("healthy"));
+	}
+
+	@Test
+	public void tokensShouldNotExceedMaxTokens() {
+		// Given
+		RetryBudget budget = new RetryBudget(1f, 0, 2);
+		// When
+		for (int i = 0; i < 10; i++) {
+			budget.onRequest("host");
+		}
+		// Then
+		assertEquals(2f, budget.getBalance("host"), 0f);
+	}
+}
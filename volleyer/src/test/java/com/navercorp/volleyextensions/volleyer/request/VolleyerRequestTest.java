@@ -17,6 +17,12 @@ package com.navercorp.volleyextensions.volleyer.request;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import com.android.volley.*;
 import org.junit.Before;
@@ -29,6 +35,9 @@ import com.android.volley.Response.ErrorListener;
 import com.android.volley.Response.Listener;
 import com.navercorp.volleyextensions.volleyer.http.HttpContent;
 import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.response.ParsedResponseCache;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.response.parser.Jackson2NetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.response.parser.JacksonNetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
 import com.navercorp.volleyextensions.volleyer.response.parser.StringNetworkResponseParser;
@@ -158,6 +167,37 @@ public class VolleyerRequestTest {
 		assertThat(response.result, is(content));
 	}
 
+	@Test
+	public void responseShouldBeParsedToGenericTypeWhenTargetTypeIsGeneric() {
+		// Given
+		TargetType<List<String>> targetType = new TargetType<List<String>>() {};
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/json");
+		NetworkResponse networkResponse = new NetworkResponse(200, "[\"first\",\"second\"]".getBytes(), headers, false);
+		Listener<List<String>> listListener = new TestListener<List<String>>(null);
+		// When
+		VolleyerRequest<List<String>> request = new VolleyerRequest<List<String>>(httpContent, targetType,
+				new Jackson2NetworkResponseParser(), listListener, errorListener, retryPolicy);
+		Response<List<String>> response = request.parseNetworkResponse(networkResponse);
+		// Then
+		assertEquals(List.class, request.getTargetClass());
+		assertThat(response.result.get(1), is("second"));
+	}
+
+	@Test
+	public void responseShouldFailWhenNetworkResponseParserDoesNotSupportGenericType() {
+		// Given
+		TargetType<List<String>> targetType = new TargetType<List<String>>() {};
+		NetworkResponse networkResponse = new NetworkResponse("test response".getBytes());
+		Listener<List<String>> listListener = new TestListener<List<String>>(null);
+		// When
+		VolleyerRequest<List<String>> request = new VolleyerRequest<List<String>>(httpContent, targetType,
+				responseParser, listListener, errorListener, retryPolicy);
+		Response<List<String>> response = request.parseNetworkResponse(networkResponse);
+		// Then
+		assertThat(response.isSuccess(), is(false));
+	}
+
 	@Test
 	public void responseShouldFailWhenNetworkResponseParserIsWrong() {
 		// Given
@@ -172,6 +212,50 @@ public class VolleyerRequestTest {
 		assertThat(response.isSuccess(), is(false));
 	}
 
+	@Test
+	public void responseShouldBeParsedOnceWhenParsedResponseCacheHasSameResponse() {
+		// Given
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Date", "Thu, 01 Jan 2015 00:00:00 GMT");
+		headers.put("ETag", "\"v1\"");
+		NetworkResponse networkResponse = new NetworkResponse(200, "test response".getBytes(), headers, false);
+		CountingResponseParser countingParser = new CountingResponseParser();
+		ParsedResponseCache parsedResponseCache = new ParsedResponseCache(10);
+		VolleyerRequest<String> request =
+				new VolleyerRequest<String>(httpContent, clazz, countingParser, listener, errorListener, retryPolicy);
+		VolleyerRequest<String> sameRequest =
+				new VolleyerRequest<String>(httpContent, clazz, countingParser, listener, errorListener, retryPolicy);
+		request.setParsedResponseCache(parsedResponseCache);
+		sameRequest.setParsedResponseCache(parsedResponseCache);
+		// When
+		Response<String> response = request.parseNetworkResponse(networkResponse);
+		Response<String> cachedResponse = sameRequest.parseNetworkResponse(networkResponse);
+		// Then
+		assertThat(countingParser.count, is(1));
+		assertSame(response.result, cachedResponse.result);
+		assertNotNull(cachedResponse.cacheEntry);
+	}
+
+	@Test
+	public void responseShouldBeParsedAgainWhenETagIsChanged() {
+		// Given
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("ETag", "\"v1\"");
+		Map<String, String> changedHeaders = new HashMap<String, String>();
+		changedHeaders.put("ETag", "\"v2\"");
+		CountingResponseParser countingParser = new CountingResponseParser();
+		ParsedResponseCache parsedResponseCache = new ParsedResponseCache(10);
+		VolleyerRequest<String> request =
+				new VolleyerRequest<String>(httpContent, clazz, countingParser, listener, errorListener, retryPolicy);
+		request.setParsedResponseCache(parsedResponseCache);
+		// When
+		request.parseNetworkResponse(new NetworkResponse(200, "v1".getBytes(), headers, false));
+		Response<String> response = request.parseNetworkResponse(new NetworkResponse(200, "v2".getBytes(), changedHeaders, false));
+		// Then
+		assertThat(countingParser.count, is(2));
+		assertThat(response.result, is("v2"));
+	}
+
 	@Test
 	public void responseShouldBeDeliveredWhenDeliveredResponseIsCalled() {
 		// Given
@@ -185,6 +269,86 @@ public class VolleyerRequestTest {
 		assertThat(testListener.isDelivered(), is(true));
 	}
 
+	@Test
+	public void onResultListenerShouldBeNotifiedOfResults() {
+		// Given
+		final List<Object> results = new ArrayList<Object>();
+		VolleyerRequest<String> request =
+				new VolleyerRequest<String>(httpContent, clazz, responseParser, listener, errorListener, retryPolicy);
+		request.addOnResultListener(new VolleyerRequest.OnResultListener() {
+			@Override
+			public void onSuccess(VolleyerRequest<?> request) {
+				results.add("success");
+			}
+
+			@Override
+			public void onError(VolleyerRequest<?> request, VolleyError error) {
+				results.add(error);
+			}
+		});
+		VolleyError error = new VolleyError();
+		// When
+		request.deliverResponse("test response");
+		request.deliverError(error);
+		// Then
+		assertEquals("success", results.get(0));
+		assertSame(error, results.get(1));
+	}
+
+	@Test
+	public void onResultListenerShouldBeNotifiedOfCancellationOnce() {
+		// Given
+		VolleyerRequest<String> request =
+				new VolleyerRequest<String>(httpContent, clazz, responseParser, listener, errorListener, retryPolicy);
+		VolleyerRequest.OnResultListener onResultListener = mock(VolleyerRequest.OnResultListener.class);
+		request.addOnResultListener(onResultListener);
+		// When
+		request.cancel();
+		request.cancel();
+		// Then
+		verify(onResultListener, times(1)).onCanceled(request);
+	}
+
+	@Test
+	public void onResultListenerShouldBeNotifiedAtOnceWhenItIsAddedAfterCancellation() {
+		// Given
+		VolleyerRequest<String> request =
+				new VolleyerRequest<String>(httpContent, clazz, responseParser, listener, errorListener, retryPolicy);
+		VolleyerRequest.OnResultListener onResultListener = mock(VolleyerRequest.OnResultListener.class);
+		request.cancel();
+		// When
+		request.addOnResultListener(onResultListener);
+		// Then
+		verify(onResultListener).onCanceled(request);
+	}
+
+	@Test
+	public void onResultListenerShouldNotBeNotifiedOfCancellationAfterResult() {
+		// Given
+		VolleyerRequest<String> request =
+				new VolleyerRequest<String>(httpContent, clazz, responseParser, listener, errorListener, retryPolicy);
+		VolleyerRequest.OnResultListener onResultListener = mock(VolleyerRequest.OnResultListener.class);
+		request.addOnResultListener(onResultListener);
+		request.deliverResponse("test response");
+		// When
+		request.cancel();
+		// Then
+		verify(onResultListener, never()).onCanceled(request);
+	}
+
+	/**
+	 * A string parser which counts the number of parsing.
+	 */
+	static class CountingResponseParser extends StringNetworkResponseParser {
+		int count = 0;
+
+		@Override
+		public <T> Response<T> parseNetworkResponse(NetworkResponse response, Class<T> clazz) {
+			count++;
+			return super.parseNetworkResponse(response, clazz);
+		}
+	}
+
 	/**
 	 * This class is just for tests.
 	 */
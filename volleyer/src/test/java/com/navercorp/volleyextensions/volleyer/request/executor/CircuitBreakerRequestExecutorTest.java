@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request.executor;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import android.os.SystemClock;
+
+import com.android.volley.ClientError;
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.ExecutorDelivery;
+import com.android.volley.NetworkError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.NoConnectionError;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.Response.ErrorListener;
+import com.android.volley.Response.Listener;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.RequestFuture;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.request.executor.CircuitBreakerRequestExecutor.State;
+import com.navercorp.volleyextensions.volleyer.response.parser.StringNetworkResponseParser;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class CircuitBreakerRequestExecutorTest {
+	static final long OPEN_DURATION_MS = 1000;
+
+	RequestQueue requestQueue;
+	CircuitBreakerRequestExecutor executor;
+	VolleyError deliveredError;
+	ExecutorDelivery delivery = new ExecutorDelivery(new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	});
+
+	@Before
+	public void setUp() {
+		requestQueue = mock(RequestQueue.class);
+		executor = new CircuitBreakerRequestExecutor()
+				.setWindowSize(4, 4)
+				.setFailureRateThreshold(0.5f)
+				.setOpenDurationMs(OPEN_DURATION_MS);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setWindowSizeShouldThrowIaeWhenMinimumCallsIsLargerThanWindowSize() {
+		executor.setWindowSize(4, 5);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setFailureRateThresholdShouldThrowIaeWhenThresholdIsNotPositive() {
+		executor.setFailureRateThreshold(0f);
+	}
+
+	@Test
+	public void circuitShouldOpenWhenFailureRateReachesThreshold() {
+		// Given
+		deliverSuccess(execute("http://test.com/a"));
+		deliverSuccess(execute("http://test.com/b"));
+		deliverFailure(execute("http://test.com/c"), new TimeoutError());
+		// When
+		deliverFailure(execute("http://test.com/d"), new TimeoutError());
+		// Then
+		assertEquals(State.OPEN, executor.getState("test.com"));
+	}
+
+	@Test
+	public void requestShouldFailFastWhileCircuitIsOpen() {
+		// Given
+		openCircuit("test.com");
+		ShadowLooper.pauseMainLooper();
+		// When
+		VolleyerRequest<String> request = execute("http://test.com/feed");
+		// Then
+		verify(requestQueue, never()).add(request);
+		assertNull(deliveredError);
+		// When
+		ShadowLooper.unPauseMainLooper();
+		// Then
+		assertTrue(deliveredError instanceof CircuitOpenError);
+		assertEquals("test.com", ((CircuitOpenError) deliveredError).getHost());
+	}
+
+	@Test
+	public void circuitOpenErrorShouldNotBeDeliveredWhenRequestIsCanceled() {
+		// Given
+		openCircuit("test.com");
+		ShadowLooper.pauseMainLooper();
+		VolleyerRequest<String> request = execute("http://test.com/feed");
+		// When
+		request.cancel();
+		ShadowLooper.unPauseMainLooper();
+		// Then
+		assertNull(deliveredError);
+	}
+
+	@Test
+	public void circuitShouldStayClosedOnClientErrors() {
+		// When
+		for (int i = 0; i < 4; i++) {
+			deliverFailure(execute("http://test.com/feed"), new ClientError(new NetworkResponse(404, new byte[0], null, false)));
+		}
+		// Then
+		assertEquals(State.CLOSED, executor.getState("test.com"));
+	}
+
+	@Test
+	public void circuitShouldStayClosedOnConnectionErrors() {
+		// When
+		for (int i = 0; i < 4; i++) {
+			deliverFailure(execute("http://test.com/feed"), (i % 2 == 0 ? new NoConnectionError() : new NetworkError()));
+		}
+		// Then
+		assertEquals(State.CLOSED, executor.getState("test.com"));
+	}
+
+	@Test
+	public void serverErrorResponsesShouldBeRegardedAsFailures() {
+		// When
+		for (int i = 0; i < 4; i++) {
+			deliverFailure(execute("http://test.com/feed"), new ServerError(new NetworkResponse(503, new byte[0], null, false)));
+		}
+		// Then
+		assertEquals(State.OPEN, executor.getState("test.com"));
+	}
+
+	@Test
+	public void slowSuccessShouldBeRegardedAsFailure() {
+		// Given
+		executor.setSlowCallThresholdMs(100);
+		// When
+		for (int i = 0; i < 4; i++) {
+			VolleyerRequest<String> request = execute("http://test.com/feed");
+			SystemClock.sleep(200);
+			deliverSuccess(request);
+		}
+		// Then
+		assertEquals(State.OPEN, executor.getState("test.com"));
+	}
+
+	@Test
+	public void circuitsShouldBeSeparatedByHost() {
+		// Given
+		openCircuit("down.com");
+		// When
+		VolleyerRequest<String> request = execute("http://up.com/feed");
+		// Then
+		verify(requestQueue).add(request);
+		assertEquals(State.CLOSED, executor.getState("up.com"));
+	}
+
+	@Test
+	public void onlyOneProbeShouldBeExecutedWhenCircuitIsHalfOpen() {
+		// Given
+		openCircuit("test.com");
+		SystemClock.sleep(OPEN_DURATION_MS);
+		assertEquals(State.HALF_OPEN, executor.getState("test.com"));
+		// When
+		VolleyerRequest<String> probe = execute("http://test.com/feed");
+		VolleyerRequest<String> other = execute("http://test.com/feed");
+		// Then
+		verify(requestQueue).add(probe);
+		verify(requestQueue, never()).add(other);
+	}
+
+	@Test
+	public void circuitShouldCloseWhenProbeSucceeds() {
+		// Given
+		openCircuit("test.com");
+		SystemClock.sleep(OPEN_DURATION_MS);
+		VolleyerRequest<String> probe = execute("http://test.com/feed");
+		// When
+		deliverSuccess(probe);
+		// Then
+		assertEquals(State.CLOSED, executor.getState("test.com"));
+	}
+
+	@Test
+	public void circuitShouldOpenAgainWhenProbeFails() {
+		// Given
+		openCircuit("test.com");
+		SystemClock.sleep(OPEN_DURATION_MS);
+		VolleyerRequest<String> probe = execute("http://test.com/feed");
+		// When
+		deliverFailure(probe, new TimeoutError());
+		// Then
+		assertEquals(State.OPEN, executor.getState("test.com"));
+	}
+
+	@Test
+	public void anotherProbeShouldBeExecutedWhenProbeIsCanceled() {
+		// Given
+		openCircuit("test.com");
+		SystemClock.sleep(OPEN_DURATION_MS);
+		execute("http://test.com/feed").cancel();
+		// When
+		VolleyerRequest<String> probe = execute("http://test.com/feed");
+		// Then
+		verify(requestQueue).add(probe);
+	}
+
+	@Test
+	public void anotherProbeShouldBeExecutedWhenResultOfProbeIsLost() {
+		// Given
+		openCircuit("test.com");
+		SystemClock.sleep(OPEN_DURATION_MS);
+		execute("http://test.com/feed");
+		// When
+		SystemClock.sleep(OPEN_DURATION_MS);
+		VolleyerRequest<String> probe = execute("http://test.com/feed");
+		// Then
+		verify(requestQueue).add(probe);
+	}
+
+	@Test
+	public void futureShouldFailFastWhileCircuitIsOpen() throws InterruptedException {
+		// Given
+		openCircuit("test.com");
+		RequestFuture<String> future = RequestFuture.newFuture();
+		VolleyerRequest<String> request = createRequest("http://test.com/feed", future, future);
+		// When
+		executor.executeRequestFuture(requestQueue, request, future);
+		ShadowLooper.idleMainLooper();
+		// Then
+		try {
+			future.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof CircuitOpenError);
+		}
+	}
+
+	private void openCircuit(String host) {
+		for (int i = 0; i < 4; i++) {
+			deliverFailure(execute("http://" + host + "/feed"), new TimeoutError());
+		}
+		assertEquals(State.OPEN, executor.getState(host));
+		deliveredError = null;
+	}
+
+	private VolleyerRequest<String> execute(String url) {
+		VolleyerRequest<String> request = createRequest(url, new Listener<String>() {
+			@Override
+			public void onResponse(String response) {
+			}
+		}, new ErrorListener() {
+			@Override
+			public void onErrorResponse(VolleyError error) {
+				deliveredError = error;
+			}
+		});
+		executor.executeRequest(requestQueue, request);
+		return request;
+	}
+
+	private void deliverSuccess(VolleyerRequest<String> request) {
+		delivery.postResponse(request, Response.success("response", null));
+	}
+
+	private void deliverFailure(VolleyerRequest<String> request, VolleyError error) {
+		delivery.postError(request, error);
+	}
+
+	private VolleyerRequest<String> createRequest(String url, Listener<String> listener, ErrorListener errorListener) {
+		return new VolleyerRequest<String>(new HttpContent(url, HttpMethod.GET), String.class,
+				new StringNetworkResponseParser(), listener, errorListener, new DefaultRetryPolicy());
+	}
+}
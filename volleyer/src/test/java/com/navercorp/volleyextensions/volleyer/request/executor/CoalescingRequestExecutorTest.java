@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request.executor;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response.ErrorListener;
+import com.android.volley.Response.Listener;
+import com.android.volley.VolleyError;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.request.CoalescedRequest;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
+import com.navercorp.volleyextensions.volleyer.response.parser.StringNetworkResponseParser;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class CoalescingRequestExecutorTest {
+
+	final String url = "http://test";
+	final NetworkResponseParser responseParser = new StringNetworkResponseParser();
+	final List<VolleyError> errors = new ArrayList<VolleyError>();
+	final Listener<String> listener = new Listener<String>() {
+		@Override
+		public void onResponse(String response) {
+		}
+	};
+	final ErrorListener errorListener = new ErrorListener() {
+		@Override
+		public void onErrorResponse(VolleyError error) {
+			errors.add(error);
+		}
+	};
+
+	RequestQueue requestQueue;
+	CoalescingRequestExecutor executor;
+
+	@Before
+	public void setUp() {
+		requestQueue = mock(RequestQueue.class);
+		executor = new CoalescingRequestExecutor();
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void constructorShouldThrowNpeWhenRequestExecutorIsNull() {
+		new CoalescingRequestExecutor(null);
+	}
+
+	@Test
+	public void identicalGetRequestsShouldBeAddedIntoQueueOnlyOnce() {
+		// Given
+		Request<String> first = createRequest(url, HttpMethod.GET);
+		Request<String> second = createRequest(url, HttpMethod.GET);
+		// When
+		executor.executeRequest(requestQueue, first);
+		executor.executeRequest(requestQueue, second);
+		// Then
+		ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+		verify(requestQueue, times(1)).add(captor.capture());
+		assertTrue(captor.getValue() instanceof CoalescedRequest);
+		assertEquals(2, ((CoalescedRequest<?>) captor.getValue()).getAttachedCount());
+		assertEquals(1, executor.getInFlightCount());
+	}
+
+	@Test
+	public void differentRequestsShouldNotBeCoalesced() {
+		// Given
+		Request<String> first = createRequest(url, HttpMethod.GET);
+		Request<String> second = createRequest(url + "/other", HttpMethod.GET);
+		// When
+		executor.executeRequest(requestQueue, first);
+		executor.executeRequest(requestQueue, second);
+		// Then
+		verify(requestQueue, times(2)).add(any(Request.class));
+		assertEquals(2, executor.getInFlightCount());
+	}
+
+	@Test
+	public void postRequestsShouldBeExecutedAsTheyAre() {
+		// Given
+		Request<String> first = createRequest(url, HttpMethod.POST);
+		Request<String> second = createRequest(url, HttpMethod.POST);
+		// When
+		executor.executeRequest(requestQueue, first);
+		executor.executeRequest(requestQueue, second);
+		// Then
+		verify(requestQueue).add(first);
+		verify(requestQueue).add(second);
+		assertEquals(0, executor.getInFlightCount());
+	}
+
+	@Test
+	public void errorShouldBeDeliveredToAllOfCoalescedRequestsExceptCanceledOnes() {
+		// Given
+		Request<String> first = createRequest(url, HttpMethod.GET);
+		Request<String> second = createRequest(url, HttpMethod.GET);
+		Request<String> canceled = createRequest(url, HttpMethod.GET);
+		executor.executeRequest(requestQueue, first);
+		executor.executeRequest(requestQueue, second);
+		executor.executeRequest(requestQueue, canceled);
+		canceled.cancel();
+		ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+		verify(requestQueue).add(captor.capture());
+		// When
+		captor.getValue().deliverError(new VolleyError());
+		// Then
+		assertEquals(2, errors.size());
+		assertEquals(0, executor.getInFlightCount());
+	}
+
+	@Test
+	public void requestShouldBeAddedAgainAfterPreviousOneIsDelivered() {
+		// Given
+		executor.executeRequest(requestQueue, createRequest(url, HttpMethod.GET));
+		ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+		verify(requestQueue).add(captor.capture());
+		captor.getValue().deliverError(new VolleyError());
+		// When
+		executor.executeRequest(requestQueue, createRequest(url, HttpMethod.GET));
+		// Then
+		verify(requestQueue, times(2)).add(any(Request.class));
+	}
+
+	@Test
+	public void requestShouldBeAddedAgainWhenAllOfCoalescedRequestsAreCanceled() {
+		// Given
+		Request<String> canceled = createRequest(url, HttpMethod.GET);
+		executor.executeRequest(requestQueue, canceled);
+		canceled.cancel();
+		// When
+		executor.executeRequest(requestQueue, createRequest(url, HttpMethod.GET));
+		// Then
+		verify(requestQueue, times(2)).add(any(Request.class));
+		assertEquals(1, executor.getInFlightCount());
+	}
+
+	@Test
+	public void errorShouldBeDeliveredWhenRequestQueueIsNull() {
+		// When
+		executor.executeRequest(null, createRequest(url, HttpMethod.GET));
+		// Then
+		assertEquals(1, errors.size());
+	}
+
+	private Request<String> createRequest(String url, HttpMethod method) {
+		HttpContent httpContent = new HttpContent(url, method);
+		return new VolleyerRequest<String>(httpContent, String.class, responseParser, listener, errorListener,
+											new DefaultRetryPolicy());
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request.executor;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import android.os.SystemClock;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
+import com.android.volley.Request.Priority;
+import com.android.volley.RequestQueue;
+import com.android.volley.RequestQueue.RequestFinishedListener;
+import com.android.volley.Response.ErrorListener;
+import com.android.volley.Response.Listener;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.RequestFuture;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.request.executor.HostLimitingRequestExecutor.WaitStats;
+import com.navercorp.volleyextensions.volleyer.response.parser.StringNetworkResponseParser;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class HostLimitingRequestExecutorTest {
+	RequestQueue requestQueue;
+	HostLimitingRequestExecutor executor;
+
+	@Before
+	public void setUp() {
+		requestQueue = mock(RequestQueue.class);
+		executor = new HostLimitingRequestExecutor(new DefaultRequestExecutor(), 3, 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorShouldThrowIaeWhenPerHostLimitIsLargerThanTotalLimit() {
+		new HostLimitingRequestExecutor(new DefaultRequestExecutor(), 2, 3);
+	}
+
+	@Test
+	public void requestShouldWaitUntilInFlightRequestOfSameHostIsFinished() {
+		// Given
+		Request<String> first = execute("http://cdn.com/1");
+		execute("http://cdn.com/2");
+		// When
+		Request<String> third = execute("http://cdn.com/3");
+		// Then
+		verify(requestQueue, never()).add(third);
+		assertEquals(1, executor.getWaitingCount());
+		// When
+		captureFinishedListener().onRequestFinished((Request) first);
+		// Then
+		verify(requestQueue).add(third);
+		assertEquals(0, executor.getWaitingCount());
+	}
+
+	@Test
+	public void requestOfOtherHostShouldNotWaitForBusyHost() {
+		// Given
+		execute("http://cdn.com/1");
+		execute("http://cdn.com/2");
+		execute("http://cdn.com/3");
+		// When
+		Request<String> api = execute("http://api.com/feed");
+		// Then
+		verify(requestQueue).add(api);
+	}
+
+	@Test
+	public void waitingRequestsShouldBeExecutedInTurnsAmongHosts() {
+		// Given
+		executor = new HostLimitingRequestExecutor(new DefaultRequestExecutor(), 2, 2);
+		Request<String> cdn1 = execute("http://cdn.com/1");
+		Request<String> cdn2 = execute("http://cdn.com/2");
+		Request<String> cdn3 = execute("http://cdn.com/3");
+		Request<String> cdn4 = execute("http://cdn.com/4");
+		Request<String> api1 = execute("http://api.com/1");
+		RequestFinishedListener<Object> finishedListener = captureFinishedListener();
+		// When
+		finishedListener.onRequestFinished((Request) cdn1);
+		finishedListener.onRequestFinished((Request) cdn2);
+		// Then
+		InOrder inOrder = inOrder(requestQueue);
+		inOrder.verify(requestQueue).add(cdn3);
+		inOrder.verify(requestQueue).add(api1);
+		verify(requestQueue, never()).add(cdn4);
+	}
+
+	@Test
+	public void waitingRequestOfHigherPriorityShouldBeExecutedFirst() {
+		// Given
+		Request<String> first = execute("http://cdn.com/1");
+		execute("http://cdn.com/2");
+		Request<String> prefetch = execute("http://cdn.com/3", Priority.LOW);
+		Request<String> visible = execute("http://cdn.com/4", Priority.HIGH);
+		// When
+		captureFinishedListener().onRequestFinished((Request) first);
+		// Then
+		verify(requestQueue).add(visible);
+		verify(requestQueue, never()).add(prefetch);
+	}
+
+	@Test
+	public void canceledWaitingRequestShouldBeDropped() {
+		// Given
+		Request<String> first = execute("http://cdn.com/1");
+		execute("http://cdn.com/2");
+		Request<String> canceled = execute("http://cdn.com/3");
+		Request<String> next = execute("http://cdn.com/4");
+		canceled.cancel();
+		// When
+		captureFinishedListener().onRequestFinished((Request) first);
+		// Then
+		verify(requestQueue, never()).add(canceled);
+		verify(requestQueue).add(next);
+	}
+
+	@Test
+	public void waitingTimeShouldBeRecordedPerHost() {
+		// Given
+		Request<String> first = execute("http://cdn.com/1");
+		execute("http://cdn.com/2");
+		execute("http://cdn.com/3");
+		SystemClock.sleep(100);
+		// When
+		captureFinishedListener().onRequestFinished((Request) first);
+		// Then
+		WaitStats stats = executor.getWaitStats("cdn.com");
+		assertEquals(3, stats.getCount());
+		assertTrue(stats.getMaxWaitMs() >= 100);
+		assertEquals(0, executor.getWaitStats("api.com").getCount());
+	}
+
+	@Test
+	public void waitingFutureRequestShouldBeExecutedLater() {
+		// Given
+		Request<String> first = execute("http://cdn.com/1");
+		execute("http://cdn.com/2");
+		RequestFuture<String> future = RequestFuture.newFuture();
+		Request<String> request = createRequest("http://cdn.com/3", Priority.NORMAL);
+		executor.executeRequestFuture(requestQueue, request, future);
+		// When
+		captureFinishedListener().onRequestFinished((Request) first);
+		// Then
+		verify(requestQueue).add(request);
+	}
+
+	@Test
+	public void waitingRequestShouldBeExecutedWhenResultOfInFlightRequestIsDelivered() {
+		// Given
+		Request<String> first = execute("http://cdn.com/1");
+		execute("http://cdn.com/2");
+		Request<String> third = execute("http://cdn.com/3");
+		// When
+		first.deliverError(new TimeoutError());
+		// Then
+		verify(requestQueue).add(third);
+		// When
+		captureFinishedListener().onRequestFinished((Request) first);
+		first.cancel();
+		// Then
+		assertEquals(0, executor.getWaitingCount());
+		Request<String> fourth = execute("http://cdn.com/4");
+		verify(requestQueue, never()).add(fourth);
+	}
+
+	@Test
+	public void slotsShouldBeReleasedWhenCircuitIsOpen() {
+		// Given
+		CircuitBreakerRequestExecutor circuitBreaker = new CircuitBreakerRequestExecutor().setWindowSize(1, 1);
+		Request<String> failed = createRequest("http://down.com/0", Priority.NORMAL);
+		circuitBreaker.executeRequest(requestQueue, failed);
+		failed.deliverError(new TimeoutError());
+		executor = new HostLimitingRequestExecutor(circuitBreaker, 1, 1);
+		final List<VolleyError> errors = new ArrayList<VolleyError>();
+		ErrorListener errorListener = new ErrorListener() {
+			@Override
+			public void onErrorResponse(VolleyError error) {
+				errors.add(error);
+			}
+		};
+		// When
+		for (int i = 1; i <= 3; i++) {
+			executor.executeRequest(requestQueue, createRequest("http://down.com/" + i, Priority.NORMAL, errorListener));
+		}
+		ShadowLooper.idleMainLooper();
+		// Then
+		assertEquals(3, errors.size());
+		for (VolleyError error : errors) {
+			assertTrue(error instanceof CircuitOpenError);
+		}
+		assertEquals(0, executor.getWaitingCount());
+		Request<String> request = execute("http://up.com/1");
+		verify(requestQueue).add(request);
+	}
+
+	@SuppressWarnings("unchecked")
+	private RequestFinishedListener<Object> captureFinishedListener() {
+		ArgumentCaptor<RequestFinishedListener> captor = ArgumentCaptor.forClass(RequestFinishedListener.class);
+		verify(requestQueue).addRequestFinishedListener(captor.capture());
+		return captor.getValue();
+	}
+
+	private Request<String> execute(String url) {
+		return execute(url, Priority.NORMAL);
+	}
+
+	private Request<String> execute(String url, Priority priority) {
+		Request<String> request = createRequest(url, priority);
+		executor.executeRequest(requestQueue, request);
+		return request;
+	}
+
+	private Request<String> createRequest(String url, Priority priority) {
+		return createRequest(url, priority, null);
+	}
+
+	private Request<String> createRequest(String url, Priority priority, ErrorListener errorListener) {
+		VolleyerRequest<String> request = new VolleyerRequest<String>(new HttpContent(url, HttpMethod.GET),
+				String.class, new StringNetworkResponseParser(), new Listener<String>() {
+					@Override
+					public void onResponse(String response) {
+					}
+				}, errorListener, new DefaultRetryPolicy());
+		request.setPriority(priority);
+		return request;
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.request.executor;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
+import com.android.volley.Request.Priority;
+import com.android.volley.RequestQueue;
+import com.android.volley.RequestQueue.RequestFinishedListener;
+import com.android.volley.Response.Listener;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.RequestFuture;
+import com.navercorp.volleyextensions.volleyer.http.HttpContent;
+import com.navercorp.volleyextensions.volleyer.http.HttpMethod;
+import com.navercorp.volleyextensions.volleyer.request.VolleyerRequest;
+import com.navercorp.volleyextensions.volleyer.response.parser.StringNetworkResponseParser;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PriorityRequestExecutorTest {
+	RequestQueue requestQueue;
+	PriorityRequestExecutor executor;
+
+	@Before
+	public void setUp() {
+		requestQueue = mock(RequestQueue.class);
+		executor = new PriorityRequestExecutor();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorShouldThrowIaeWhenDeferredPriorityIsImmediate() {
+		new PriorityRequestExecutor(new DefaultRequestExecutor(), Priority.IMMEDIATE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorShouldThrowIaeWhenMaxDeferralMsIsNegative() {
+		new PriorityRequestExecutor(new DefaultRequestExecutor(), Priority.LOW, -1);
+	}
+
+	@Test
+	public void lowPriorityRequestShouldBeExecutedWhenNothingIsInFlight() {
+		// Given
+		Request<String> prefetch = createRequest(Priority.LOW);
+		// When
+		executor.executeRequest(requestQueue, prefetch);
+		// Then
+		verify(requestQueue).add(prefetch);
+	}
+
+	@Test
+	public void lowPriorityRequestShouldBeDeferredUntilHigherRequestsAreFinished() {
+		// Given
+		Request<String> visible = createRequest(Priority.NORMAL);
+		Request<String> prefetch = createRequest(Priority.LOW);
+		executor.executeRequest(requestQueue, visible);
+		// When
+		executor.executeRequest(requestQueue, prefetch);
+		// Then
+		verify(requestQueue, never()).add(prefetch);
+		assertEquals(1, executor.getDeferredCount());
+		// When
+		captureFinishedListener().onRequestFinished((Request) visible);
+		// Then
+		verify(requestQueue).add(prefetch);
+		assertEquals(0, executor.getDeferredCount());
+	}
+
+	@Test
+	public void canceledDeferredRequestShouldBeDropped() {
+		// Given
+		Request<String> visible = createRequest(Priority.HIGH);
+		Request<String> prefetch = createRequest(Priority.LOW);
+		executor.executeRequest(requestQueue, visible);
+		executor.executeRequest(requestQueue, prefetch);
+		prefetch.cancel();
+		// When
+		captureFinishedListener().onRequestFinished((Request) visible);
+		// Then
+		verify(requestQueue, never()).add(prefetch);
+	}
+
+	@Test
+	public void unknownFinishedRequestShouldNotReleaseDeferredRequests() {
+		// Given
+		executor.executeRequest(requestQueue, createRequest(Priority.NORMAL));
+		Request<String> prefetch = createRequest(Priority.LOW);
+		executor.executeRequest(requestQueue, prefetch);
+		// When
+		captureFinishedListener().onRequestFinished((Request) createRequest(Priority.NORMAL));
+		// Then
+		verify(requestQueue, never()).add(prefetch);
+	}
+
+	@Test
+	public void deferredRequestShouldBeExecutedWhenResultOfHigherRequestIsDelivered() {
+		// Given
+		VolleyerRequest<String> visible = createRequest(Priority.NORMAL);
+		Request<String> prefetch = createRequest(Priority.LOW);
+		executor.executeRequest(requestQueue, visible);
+		executor.executeRequest(requestQueue, prefetch);
+		// When
+		visible.deliverError(new VolleyError());
+		// Then
+		verify(requestQueue).add(prefetch);
+		assertEquals(0, executor.getDeferredCount());
+	}
+
+	@Test
+	public void deferredRequestShouldBeExecutedWhenHigherRequestIsNotAddedIntoQueue() {
+		// Given
+		executor = new PriorityRequestExecutor(new RequestExecutor() {
+			@Override
+			public <T> void executeRequest(RequestQueue requestQueue, Request<T> request) {
+				// Never adds the request into RequestQueue, like an open circuit.
+			}
+
+			@Override
+			public <T> void executeRequestFuture(RequestQueue requestQueue, Request<T> request, RequestFuture<T> requestFuture) {
+			}
+		}, Priority.LOW);
+		VolleyerRequest<String> visible = createRequest(Priority.NORMAL);
+		executor.executeRequest(requestQueue, visible);
+		executor.executeRequest(requestQueue, createRequest(Priority.LOW));
+		// When
+		visible.cancel();
+		// Then
+		assertEquals(0, executor.getDeferredCount());
+	}
+
+	@Test
+	public void resultOfHigherRequestShouldReleaseDeferredRequestOnlyOnce() {
+		// Given
+		VolleyerRequest<String> visible = createRequest(Priority.NORMAL);
+		VolleyerRequest<String> other = createRequest(Priority.HIGH);
+		Request<String> prefetch = createRequest(Priority.LOW);
+		executor.executeRequest(requestQueue, visible);
+		executor.executeRequest(requestQueue, other);
+		executor.executeRequest(requestQueue, prefetch);
+		// When
+		visible.deliverError(new VolleyError());
+		captureFinishedListener().onRequestFinished((Request) visible);
+		// Then
+		verify(requestQueue, never()).add(prefetch);
+		// When
+		other.deliverError(new VolleyError());
+		// Then
+		verify(requestQueue).add(prefetch);
+	}
+
+	@Test
+	public void deferredRequestShouldBeExecutedAfterMaxDeferralMs() {
+		// Given
+		executor = new PriorityRequestExecutor(new DefaultRequestExecutor(), Priority.LOW, 1000);
+		executor.executeRequest(requestQueue, createRequest(Priority.NORMAL));
+		Request<String> prefetch = createRequest(Priority.LOW);
+		executor.executeRequest(requestQueue, prefetch);
+		// When
+		ShadowLooper.idleMainLooper(999);
+		// Then
+		verify(requestQueue, never()).add(prefetch);
+		// When
+		ShadowLooper.idleMainLooper(1);
+		// Then
+		verify(requestQueue).add(prefetch);
+		assertEquals(0, executor.getDeferredCount());
+	}
+
+	@Test
+	public void deferredRequestShouldBeExecutedOnlyOnceWhenItIsReleasedBeforeMaxDeferralMs() {
+		// Given
+		executor = new PriorityRequestExecutor(new DefaultRequestExecutor(), Priority.LOW, 1000);
+		VolleyerRequest<String> visible = createRequest(Priority.NORMAL);
+		Request<String> prefetch = createRequest(Priority.LOW);
+		executor.executeRequest(requestQueue, visible);
+		executor.executeRequest(requestQueue, prefetch);
+		visible.deliverError(new VolleyError());
+		// When
+		ShadowLooper.idleMainLooper(1000);
+		// Then
+		verify(requestQueue, times(1)).add(prefetch);
+	}
+
+	@SuppressWarnings("unchecked")
+	private RequestFinishedListener<Object> captureFinishedListener() {
+		ArgumentCaptor<RequestFinishedListener> captor = ArgumentCaptor.forClass(RequestFinishedListener.class);
+		verify(requestQueue).addRequestFinishedListener(captor.capture());
+		return captor.getValue();
+	}
+
+	private VolleyerRequest<String> createRequest(Priority priority) {
+		VolleyerRequest<String> request = new VolleyerRequest<String>(new HttpContent("http://test", HttpMethod.GET),
+				String.class, new StringNetworkResponseParser(), new Listener<String>() {
+					@Override
+					public void onResponse(String response) {
+					}
+				}, null, new DefaultRetryPolicy());
+		request.setPriority(priority);
+		return request;
+	}
+}
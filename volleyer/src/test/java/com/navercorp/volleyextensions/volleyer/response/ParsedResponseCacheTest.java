@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.android.volley.NetworkResponse;
+import com.navercorp.volleyextensions.volleyer.response.parser.NetworkResponseParser;
+
+public class ParsedResponseCacheTest {
+	private static final String KEY = "http://test/feed";
+	private static final String LAST_MODIFIED = "Thu, 01 Jan 2015 00:00:00 GMT";
+
+	private final NetworkResponseParser parser = mock(NetworkResponseParser.class);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorShouldThrowIllegalArgumentExceptionWhenMaxEntriesIsNotPositive() {
+		new ParsedResponseCache(0);
+	}
+
+	@Test
+	public void getShouldReturnResultWhenValidatorsAreSame() {
+		// Given
+		ParsedResponseCache cache = new ParsedResponseCache(10);
+		Object result = new Object();
+		cache.put(KEY, String.class, parser, createResponse("v1", "\"v1\"", null), result);
+		// When
+		Object cachedResult = cache.get(KEY, String.class, parser, createResponse("v1", "\"v1\"", null));
+		// Then
+		assertSame(result, cachedResult);
+	}
+
+	@Test
+	public void getShouldReturnResultWhenDateIsChangedByNotModifiedResponse() {
+		// Given
+		ParsedResponseCache cache = new ParsedResponseCache(10);
+		Object result = new Object();
+		NetworkResponse response = createResponse("v1", "\"v1\"", LAST_MODIFIED);
+		response.headers.put("Date", "Thu, 01 Jan 2015 00:00:00 GMT");
+		cache.put(KEY, String.class, parser, response, result);
+		// When
+		NetworkResponse notModifiedResponse = createResponse("v1", "\"v1\"", LAST_MODIFIED);
+		notModifiedResponse.headers.put("Date", "Thu, 01 Jan 2015 01:00:00 GMT");
+		Object cachedResult = cache.get(KEY, String.class, parser, notModifiedResponse);
+		// Then
+		assertSame(result, cachedResult);
+	}
+
+	@Test
+	public void getShouldReturnNullWhenValidatorsAreChanged() {
+		// Given
+		ParsedResponseCache cache = new ParsedResponseCache(10);
+		cache.put(KEY, String.class, parser, createResponse("v1", "\"v1\"", LAST_MODIFIED), new Object());
+		// When & Then
+		assertNull(cache.get(KEY, String.class, parser, createResponse("v1", "\"v2\"", LAST_MODIFIED)));
+		assertNull(cache.get(KEY, String.class, parser, createResponse("v1", "\"v1\"", "Thu, 01 Jan 2015 00:00:01 GMT")));
+		assertNull(cache.get(KEY, String.class, parser, createResponse("v1", null, LAST_MODIFIED)));
+	}
+
+	@Test
+	public void getShouldReturnNullWhenContentLengthIsChangedWithSameLastModified() {
+		// Given
+		ParsedResponseCache cache = new ParsedResponseCache(10);
+		cache.put(KEY, String.class, parser, createResponse("v1", null, LAST_MODIFIED), new Object());
+		// When & Then
+		assertNull(cache.get(KEY, String.class, parser, createResponse("v1.1", null, LAST_MODIFIED)));
+	}
+
+	@Test
+	public void getShouldReturnNullWhenTypeOrParserIsDifferent() {
+		// Given
+		ParsedResponseCache cache = new ParsedResponseCache(10);
+		NetworkResponse response = createResponse("v1", "\"v1\"", null);
+		cache.put(KEY, String.class, parser, response, new Object());
+		// When & Then
+		assertNull(cache.get(KEY, Integer.class, parser, response));
+		assertNull(cache.get(KEY, String.class, mock(NetworkResponseParser.class), response));
+		assertNull(cache.get("http://test/other", String.class, parser, response));
+	}
+
+	@Test
+	public void validatorsShouldBeReadFromLowerCaseHeaders() {
+		// Given
+		ParsedResponseCache cache = new ParsedResponseCache(10);
+		Object result = new Object();
+		// When
+		cache.put(KEY, String.class, parser, createLowerCaseResponse("v1", "\"v1\"", LAST_MODIFIED), result);
+		// Then
+		assertThat(cache.size(), is(1));
+		assertThat(cache.get(KEY, String.class, parser, createLowerCaseResponse("v1", "\"v1\"", LAST_MODIFIED)), is(result));
+		assertThat(cache.get(KEY, String.class, parser, createResponse("v1", "\"v1\"", LAST_MODIFIED)), is(result));
+		assertNull(cache.get(KEY, String.class, parser, createLowerCaseResponse("v1", "\"v2\"", LAST_MODIFIED)));
+	}
+
+	@Test
+	public void putShouldNotCacheWhenResponseCannotBeValidated() {
+		// Given
+		ParsedResponseCache cache = new ParsedResponseCache(10);
+		NetworkResponse responseWithDateOnly = createResponse("v1", null, null);
+		responseWithDateOnly.headers.put("Date", "Thu, 01 Jan 2015 00:00:00 GMT");
+		// When
+		cache.put(KEY, String.class, parser, responseWithDateOnly, new Object());
+		cache.put(KEY, String.class, parser, null, new Object());
+		// Then
+		assertThat(cache.size(), is(0));
+	}
+
+	@Test
+	public void leastRecentlyUsedEntryShouldBeEvictedWhenCacheIsFull() {
+		// Given
+		ParsedResponseCache cache = new ParsedResponseCache(2);
+		NetworkResponse response = createResponse("v1", null, LAST_MODIFIED);
+		cache.put("first", String.class, parser, response, "first");
+		cache.put("second", String.class, parser, response, "second");
+		cache.get("first", String.class, parser, response);
+		// When
+		cache.put("third", String.class, parser, response, "third");
+		// Then
+		assertThat(cache.size(), is(2));
+		assertThat(cache.get("first", String.class, parser, response), is((Object) "first"));
+		assertNull(cache.get("second", String.class, parser, response));
+	}
+
+	private static NetworkResponse createResponse(String content, String etag, String lastModified) {
+		Map<String, String> headers = new HashMap<String, String>();
+		if (etag != null) {
+			headers.put("ETag", etag);
+		}
+		if (lastModified != null) {
+			headers.put("Last-Modified", lastModified);
+		}
+		return new NetworkResponse(200, content.getBytes(), headers, false);
+	}
+
+	/** Header names as HTTP/2 servers send them, kept in a case-sensitive map as disk caches read them back */
+	private static NetworkResponse createLowerCaseResponse(String content, String etag, String lastModified) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("etag", etag);
+		headers.put("last-modified", lastModified);
+		return new NetworkResponse(200, content.getBytes(), headers, false);
+	}
+}
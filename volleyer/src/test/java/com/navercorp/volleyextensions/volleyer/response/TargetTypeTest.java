@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TargetTypeTest {
+
+	@Test(expected = NullPointerException.class)
+	public void ofShouldThrowNpeWhenClassIsNull() {
+		TargetType.of(null);
+	}
+
+	@Test
+	public void targetTypeShouldBeRawClassWhenItIsCreatedFromClass() {
+		// When
+		TargetType<String> targetType = TargetType.of(String.class);
+		// Then
+		assertTrue(targetType.isRawClass());
+		assertEquals(String.class, targetType.getType());
+		assertEquals(String.class, targetType.getRawClass());
+	}
+
+	@Test
+	public void targetTypeShouldCaptureTypeArgumentOfAnonymousSubclass() {
+		// When
+		TargetType<Map<String, List<Integer>>> targetType = new TargetType<Map<String, List<Integer>>>() {};
+		// Then
+		assertFalse(targetType.isRawClass());
+		assertTrue(targetType.getType() instanceof ParameterizedType);
+		assertEquals(Map.class, targetType.getRawClass());
+	}
+
+	@Test
+	public void rawClassShouldBeArrayClassWhenTypeIsGenericArray() {
+		// When
+		TargetType<List<String>[]> targetType = new TargetType<List<String>[]>() {};
+		// Then
+		assertEquals(List[].class, targetType.getRawClass());
+	}
+
+	@Test
+	public void targetTypesShouldBeEqualWhenTypesAreEqual() {
+		// Given
+		TargetType<List<String>> targetType = new TargetType<List<String>>() {};
+		TargetType<List<String>> otherTargetType = new TargetType<List<String>>() {};
+		// When & Then
+		assertThat(targetType, is(otherTargetType));
+		assertThat(targetType.hashCode(), is(otherTargetType.hashCode()));
+		assertThat(TargetType.of(String.class), is(TargetType.of(String.class)));
+		assertThat(targetType, is(not(new TargetType<List<Integer>>() {})));
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Test(expected = IllegalStateException.class)
+	public void targetTypeShouldThrowIllegalStateExceptionWhenTypeArgumentIsMissing() {
+		new TargetType() {};
+	}
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import com.android.volley.Request;
+import com.android.volley.Response.ErrorListener;
+import com.android.volley.Response.Listener;
+import com.android.volley.VolleyError;
+
+public class VolleyerFutureTest {
+	private final List<Object> responses = new ArrayList<Object>();
+	private final List<VolleyError> errors = new ArrayList<VolleyError>();
+	private final Listener<Object> listener = new Listener<Object>() {
+		@Override
+		public void onResponse(Object response) {
+			responses.add(response);
+		}
+	};
+	private final ErrorListener errorListener = new ErrorListener() {
+		@Override
+		public void onErrorResponse(VolleyError error) {
+			errors.add(error);
+		}
+	};
+
+	@Test
+	public void listenerShouldBeCalledWhenFutureIsCompleted() throws Exception {
+		// Given
+		VolleyerFuture<String> future = new VolleyerFuture<String>();
+		future.addListener(listener, errorListener);
+		// When
+		future.complete("hello");
+		// Then
+		assertEquals(1, responses.size());
+		assertEquals("hello", future.get());
+		assertTrue(future.isDone());
+	}
+
+	@Test
+	public void listenerShouldBeCalledImmediatelyWhenFutureHasAlreadyBeenCompleted() {
+		// Given
+		VolleyerFuture<String> future = VolleyerFuture.completed("hello");
+		// When
+		future.addListener(listener, errorListener);
+		// Then
+		assertEquals("hello", responses.get(0));
+	}
+
+	@Test
+	public void futureShouldBeCompletedOnlyOnce() {
+		// Given
+		VolleyerFuture<String> future = new VolleyerFuture<String>();
+		// When
+		future.complete("first");
+		// Then
+		assertFalse(future.complete("second"));
+		assertFalse(future.completeWithError(new VolleyError()));
+	}
+
+	@Test
+	public void getShouldThrowExecutionExceptionWithVolleyErrorWhenFutureFailed() throws Exception {
+		// Given
+		VolleyError error = new VolleyError();
+		VolleyerFuture<String> future = VolleyerFuture.failed(error);
+		// When
+		try {
+			future.get();
+			fail();
+		} catch (ExecutionException e) {
+			// Then
+			assertSame(error, e.getCause());
+		}
+	}
+
+	@Test(expected = TimeoutException.class)
+	public void getShouldThrowTimeoutExceptionWhenFutureIsNotCompleted() throws Exception {
+		new VolleyerFuture<String>().get(10, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void thenApplyShouldConvertResult() {
+		// Given
+		VolleyerFuture<String> future = new VolleyerFuture<String>();
+		future.thenApply(new Transformer<String, Integer>() {
+			@Override
+			public Integer transform(String source) {
+				return source.length();
+			}
+		}).addListener(listener, errorListener);
+		// When
+		future.complete("hello");
+		// Then
+		assertEquals(5, responses.get(0));
+	}
+
+	@Test
+	public void thenApplyShouldFailWhenTransformerThrowsException() {
+		// Given
+		VolleyerFuture<String> future = new VolleyerFuture<String>();
+		future.thenApply(new Transformer<String, Integer>() {
+			@Override
+			public Integer transform(String source) {
+				throw new IllegalStateException();
+			}
+		}).addListener(listener, errorListener);
+		// When
+		future.complete("hello");
+		// Then
+		assertTrue(errors.get(0).getCause() instanceof IllegalStateException);
+	}
+
+	@Test
+	public void thenComposeShouldBeCompletedWithReturnedFuture() {
+		// Given
+		VolleyerFuture<String> future = new VolleyerFuture<String>();
+		final VolleyerFuture<Integer> next = new VolleyerFuture<Integer>();
+		future.thenCompose(new Transformer<String, VolleyerFuture<Integer>>() {
+			@Override
+			public VolleyerFuture<Integer> transform(String source) {
+				return next;
+			}
+		}).addListener(listener, errorListener);
+		// When
+		future.complete("hello");
+		// Then
+		assertTrue(responses.isEmpty());
+		// When
+		next.complete(1);
+		// Then
+		assertEquals(1, responses.get(0));
+	}
+
+	@Test
+	public void errorShouldBePropagatedToDependentFutures() {
+		// Given
+		VolleyerFuture<String> future = new VolleyerFuture<String>();
+		future.thenApply(new Transformer<String, Integer>() {
+			@Override
+			public Integer transform(String source) {
+				return source.length();
+			}
+		}).addListener(listener, errorListener);
+		VolleyError error = new VolleyError();
+		// When
+		future.completeWithError(error);
+		// Then
+		assertSame(error, errors.get(0));
+	}
+
+	@Test
+	public void cancelShouldCancelRequestAndDependentFutures() {
+		// Given
+		Request<?> request = mock(Request.class);
+		VolleyerFuture<String> future = new VolleyerFuture<String>();
+		future.setRequest(request);
+		VolleyerFuture<Integer> dependent = future.thenApply(new Transformer<String, Integer>() {
+			@Override
+			public Integer transform(String source) {
+				return source.length();
+			}
+		});
+		dependent.addListener(listener, errorListener);
+		// When
+		future.cancel(false);
+		// Then
+		assertTrue(dependent.isCancelled());
+		verify(request).cancel();
+		assertFalse(future.complete("hello"));
+		assertTrue(responses.isEmpty());
+	}
+
+	@Test
+	public void cancelingDependentFutureShouldNotCancelSourceAndSiblingFutures() {
+		// Given
+		Request<?> request = mock(Request.class);
+		VolleyerFuture<String> source = new VolleyerFuture<String>();
+		source.setRequest(request);
+		VolleyerFuture<Integer> canceled = source.thenApply(new Transformer<String, Integer>() {
+			@Override
+			public Integer transform(String source) {
+				return source.length();
+			}
+		});
+		VolleyerFuture<Integer> sibling = source.thenApply(new Transformer<String, Integer>() {
+			@Override
+			public Integer transform(String source) {
+				return source.length() * 2;
+			}
+		});
+		sibling.addListener(listener, errorListener);
+		// When
+		canceled.cancel(false);
+		source.complete("hello");
+		// Then
+		assertTrue(canceled.isCancelled());
+		assertFalse(source.isCancelled());
+		verify(request, never()).cancel();
+		assertFalse(sibling.isCancelled());
+		assertEquals(Integer.valueOf(10), responses.get(0));
+	}
+
+	@Test
+	public void cancelingComposedFutureShouldNotCancelReturnedFuture() {
+		// Given
+		VolleyerFuture<String> source = new VolleyerFuture<String>();
+		final VolleyerFuture<Integer> next = new VolleyerFuture<Integer>();
+		VolleyerFuture<Integer> composed = source.thenCompose(new Transformer<String, VolleyerFuture<Integer>>() {
+			@Override
+			public VolleyerFuture<Integer> transform(String source) {
+				return next;
+			}
+		});
+		source.complete("hello");
+		// When
+		composed.cancel(false);
+		// Then
+		assertTrue(composed.isCancelled());
+		assertFalse(next.isCancelled());
+	}
+
+	@Test
+	public void dependentFuturesShouldBeCanceledWhenTheyCannotBeCompleted() {
+		// Given
+		VolleyerFuture<String> source = new VolleyerFuture<String>();
+		VolleyerFuture<Integer> applied = source.thenApply(new Transformer<String, Integer>() {
+			@Override
+			public Integer transform(String source) {
+				return source.length();
+			}
+		});
+		VolleyerFuture<String> composedSource = new VolleyerFuture<String>();
+		final VolleyerFuture<Integer> next = new VolleyerFuture<Integer>();
+		VolleyerFuture<Integer> composed = composedSource.thenCompose(new Transformer<String, VolleyerFuture<Integer>>() {
+			@Override
+			public VolleyerFuture<Integer> transform(String source) {
+				return next;
+			}
+		});
+		composedSource.complete("hello");
+		// When
+		source.cancel(false);
+		next.cancel(false);
+		// Then
+		assertTrue(applied.isCancelled());
+		assertTrue(composed.isCancelled());
+	}
+
+	@Test(expected = CancellationException.class)
+	public void getShouldThrowCancellationExceptionWhenFutureIsCanceled() throws Exception {
+		// Given
+		VolleyerFuture<String> future = new VolleyerFuture<String>();
+		// When
+		future.cancel(true);
+		// Then
+		future.get();
+	}
+
+	@Test
+	public void requestShouldBeCanceledWhenItIsSetAfterCancel() {
+		// Given
+		Request<?> request = mock(Request.class);
+		VolleyerFuture<String> future = new VolleyerFuture<String>();
+		future.cancel(false);
+		// When
+		future.setRequest(request);
+		// Then
+		verify(request).cancel();
+	}
+}
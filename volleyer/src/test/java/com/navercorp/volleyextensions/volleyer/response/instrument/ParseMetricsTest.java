@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.instrument;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ParseMetricsTest {
+
+	@Test
+	public void snapshotShouldContainRecordedValues() {
+		// Given
+		ParseMetrics metrics = new ParseMetrics(String.class, "application/json");
+		// When
+		metrics.record(1000000L, 100, true);
+		metrics.record(3000000L, 300, false);
+		ParseMetrics.Snapshot snapshot = metrics.snapshot();
+		// Then
+		assertEquals(String.class, snapshot.getTargetClass());
+		assertThat(snapshot.getCount(), is(2L));
+		assertThat(snapshot.getFailureCount(), is(1L));
+		assertThat(snapshot.getTotalBytes(), is(400L));
+		assertThat(snapshot.getMeanBytes(), is(200L));
+		assertThat(snapshot.getMeanNanos(), is(2000000L));
+		assertThat(snapshot.getMaxNanos(), is(3000000L));
+	}
+
+	@Test
+	public void percentileShouldBeUpperBoundOfBucket() {
+		// Given
+		ParseMetrics metrics = new ParseMetrics(String.class, "application/json");
+		for (int i = 0; i < 99; i++) {
+			// 100us is in the bucket of [64us, 128us)
+			metrics.record(100000L, 10, true);
+		}
+		// 10ms is in the bucket of [8192us, 16384us)
+		metrics.record(10000000L, 10, true);
+		// When
+		ParseMetrics.Snapshot snapshot = metrics.snapshot();
+		// Then
+		assertThat(snapshot.getPercentileNanos(0.5), is(128000L));
+		assertThat(snapshot.getPercentileNanos(0.99), is(128000L));
+		// Not more than the maximum
+		assertThat(snapshot.getPercentileNanos(1.0), is(10000000L));
+	}
+
+	@Test
+	public void percentileShouldBeZeroWhenNothingIsRecorded() {
+		assertThat(new ParseMetrics(String.class, "application/json").snapshot().getPercentileNanos(0.99), is(0L));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void percentileShouldThrowIllegalArgumentExceptionWhenItIsOutOfRange() {
+		new ParseMetrics(String.class, "application/json").snapshot().getPercentileNanos(1.5);
+	}
+
+	@Test
+	public void bucketShouldBeLog2OfMicroseconds() {
+		assertThat(ParseMetrics.bucketOf(0L), is(0));
+		assertThat(ParseMetrics.bucketOf(1999L), is(0));
+		assertThat(ParseMetrics.bucketOf(2000L), is(1));
+		assertThat(ParseMetrics.bucketOf(100000L), is(6));
+		assertThat(ParseMetrics.bucketOf(Long.MAX_VALUE), is(ParseMetrics.BUCKET_COUNT - 1));
+	}
+}
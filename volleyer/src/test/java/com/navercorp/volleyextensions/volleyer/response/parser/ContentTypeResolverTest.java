@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.navercorp.volleyextensions.volleyer.http.ContentType;
+
+public class ContentTypeResolverTest {
+	private final NetworkResponseParser jsonParser = mock(NetworkResponseParser.class);
+	private final NetworkResponseParser xmlParser = mock(NetworkResponseParser.class);
+	private final NetworkResponseParser imageParser = mock(NetworkResponseParser.class);
+	private final NetworkResponseParser anyParser = mock(NetworkResponseParser.class);
+
+	private Map<ContentType, NetworkResponseParser> parsers;
+
+	@Before
+	public void setUp() {
+		parsers = new HashMap<ContentType, NetworkResponseParser>();
+		parsers.put(ContentType.CONTENT_TYPE_APPLICATION_JSON, jsonParser);
+		parsers.put(ContentType.CONTENT_TYPE_APPLICATION_XML, xmlParser);
+	}
+
+	@Test
+	public void resolverShouldMatchExactlyIgnoringCharsetCasesAndSpaces() {
+		// Given
+		ContentTypeResolver resolver = new ContentTypeResolver(parsers);
+		// When & Then
+		assertSame(jsonParser, resolver.resolve("application/json"));
+		assertSame(jsonParser, resolver.resolve(" Application/JSON ; charset=UTF-8"));
+		assertSame(xmlParser, resolver.resolve("application / xml;charset=euc-kr"));
+	}
+
+	@Test
+	public void resolverShouldReturnSameParserWhenHeaderIsCached() {
+		// Given
+		ContentTypeResolver resolver = new ContentTypeResolver(parsers);
+		String header = "application/json; charset=utf-8";
+		// When
+		NetworkResponseParser first = resolver.resolve(header);
+		NetworkResponseParser second = resolver.resolve(header);
+		// Then
+		assertSame(jsonParser, first);
+		assertSame(jsonParser, second);
+	}
+
+	@Test
+	public void cachedHeadersShouldBeBoundedWhenHeadersVaryOnEveryResponse() {
+		// Given
+		ContentTypeResolver resolver = new ContentTypeResolver(parsers);
+		String frequentHeader = "application/json; charset=utf-8";
+		// When
+		for (int i = 0; i < ContentTypeResolver.MAX_CACHED_HEADERS * 4; i++) {
+			resolver.resolve(frequentHeader);
+			assertSame(xmlParser, resolver.resolve("application/xml; boundary=" + i));
+		}
+		// Then
+		assertEquals(ContentTypeResolver.MAX_CACHED_HEADERS, resolver.cachedHeaderCount());
+		assertSame(jsonParser, resolver.resolve(frequentHeader));
+	}
+
+	@Test
+	public void resolverShouldMatchStructuredSyntaxSuffix() {
+		// Given
+		ContentTypeResolver resolver = new ContentTypeResolver(parsers);
+		// When & Then
+		assertSame(jsonParser, resolver.resolve("application/vnd.foo+json; charset=utf-8"));
+		assertSame(jsonParser, resolver.resolve("application/problem+JSON"));
+		assertSame(xmlParser, resolver.resolve("application/atom+xml"));
+	}
+
+	@Test
+	public void resolverShouldReturnNullWhenNothingIsMatched() {
+		// Given
+		ContentTypeResolver resolver = new ContentTypeResolver(parsers);
+		// When & Then
+		assertNull(resolver.resolve("text/html"));
+		assertNull(resolver.resolve("application/jsonp"));
+		assertNull(resolver.resolve("application/vnd.foo+yaml"));
+		assertNull(resolver.resolve(" ; charset=utf-8"));
+		// Cached misses are still misses
+		assertNull(resolver.resolve("text/html"));
+	}
+
+	@Test
+	public void resolverShouldMatchWildcardSubtypeBeforeWildcardType() {
+		// Given
+		parsers.put(ContentType.createContentType("image/*"), imageParser);
+		parsers.put(ContentType.createContentType("*/*"), anyParser);
+		ContentTypeResolver resolver = new ContentTypeResolver(parsers);
+		// When & Then
+		assertSame(imageParser, resolver.resolve("image/png"));
+		assertSame(anyParser, resolver.resolve("text/html"));
+		assertSame(jsonParser, resolver.resolve("application/json"));
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Response;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+
+public class GsonNetworkResponseParserTest {
+	private final GsonNetworkResponseParser parser = new GsonNetworkResponseParser();
+
+	@Test(expected = NullPointerException.class)
+	public void parserShouldThrowNpeWhenClassIsNull() throws Exception {
+		Class<News> nullClazz = null;
+		parser.parseNetworkResponse(createNetworkResponse("{}"), nullClazz);
+	}
+
+	@Test
+	public void parserShouldParseEachResponseWhenTargetClassIsRepeated() throws Exception {
+		// Given
+		NetworkResponse first = createNetworkResponse("{\"title\":\"first\"}");
+		NetworkResponse second = createNetworkResponse("{\"title\":\"second\"}");
+		NetworkResponse other = createNetworkResponse("{\"name\":\"other\"}");
+		// When
+		Response<News> firstResponse = parser.parseNetworkResponse(first, News.class);
+		Response<News> secondResponse = parser.parseNetworkResponse(second, News.class);
+		Response<Author> otherResponse = parser.parseNetworkResponse(other, Author.class);
+		// Then
+		assertThat(firstResponse.result.title, is("first"));
+		assertThat(secondResponse.result.title, is("second"));
+		assertThat(otherResponse.result.name, is("other"));
+	}
+
+	@Test
+	public void resultShouldBeNullWhenBodyIsEmpty() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse("  ");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertTrue(response.isSuccess());
+		assertNull(response.result);
+	}
+
+	@Test
+	public void parseErrorShouldBeReturnedWhenBodyIsTruncated() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse("{\"title\":");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.error, is(instanceOf(ParseError.class)));
+	}
+
+	@Test
+	public void errorShouldBeReturnedWhenBodyIsNotFullyConsumed() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse("{\"title\":\"first\"} {\"title\":\"second\"}");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertFalse(response.isSuccess());
+	}
+
+	@Test
+	public void genericTypeShouldBeParsedWhenTargetTypeIsGeneric() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse("[{\"title\":\"first\"},{\"title\":\"second\"}]");
+		TargetType<List<News>> targetType = new TargetType<List<News>>() {};
+		// When
+		Response<List<News>> response = parser.parseNetworkResponse(networkResponse, targetType);
+		// Then
+		assertThat(response.result.size(), is(2));
+		assertThat(response.result.get(1).title, is("second"));
+	}
+
+	@Test
+	public void bodyShouldBeDecodedByCharsetOfResponse() throws Exception {
+		// Given
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/json; charset=EUC-KR");
+		byte[] data = "{\"title\":\"볼리 익스텐션\"}".getBytes("EUC-KR");
+		NetworkResponse networkResponse = new NetworkResponse(200, data, headers, false);
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.result.title, is("볼리 익스텐션"));
+	}
+
+	@Test
+	public void parseErrorShouldBeReturnedWhenCharsetIsUnsupported() throws Exception {
+		// Given
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/json; charset=unknown-charset");
+		NetworkResponse networkResponse = new NetworkResponse(200, "{}".getBytes("UTF-8"), headers, false);
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.error, is(instanceOf(ParseError.class)));
+	}
+
+	private static NetworkResponse createNetworkResponse(String content) throws Exception {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/json; charset=UTF-8");
+		return new NetworkResponse(200, content.getBytes("UTF-8"), headers, false);
+	}
+
+	private static class News {
+		public String title;
+	}
+
+	private static class Author {
+		public String name;
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Response;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.response.instrument.ParseEvent;
+import com.navercorp.volleyextensions.volleyer.response.instrument.ParseListener;
+import com.navercorp.volleyextensions.volleyer.response.instrument.ParseMetrics;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class InstrumentedNetworkResponseParserTest {
+	private final NetworkResponseParser responseParser = mock(NetworkResponseParser.class);
+	private final NetworkResponse networkResponse = createNetworkResponse("test response");
+
+	@Test(expected = NullPointerException.class)
+	public void constructorShouldThrowNpeWhenParserIsNull() {
+		new InstrumentedNetworkResponseParser(null);
+	}
+
+	@Test
+	public void parseShouldBeRecordedForTargetClass() {
+		// Given
+		Response<String> success = Response.success("test response", null);
+		when(responseParser.parseNetworkResponse(networkResponse, String.class)).thenReturn(success);
+		when(responseParser.parseNetworkResponse(networkResponse, Integer.class)).thenReturn(Response.<Integer>error(new ParseError()));
+		InstrumentedNetworkResponseParser parser = new InstrumentedNetworkResponseParser(responseParser);
+		// When
+		Response<String> response = parser.parseNetworkResponse(networkResponse, String.class);
+		parser.parseNetworkResponse(networkResponse, String.class);
+		parser.parseNetworkResponse(networkResponse, Integer.class);
+		// Then
+		assertSame(success, response);
+		ParseMetrics.Snapshot snapshot = parser.snapshot(String.class, "text/plain");
+		assertThat(snapshot.getCount(), is(2L));
+		assertThat(snapshot.getFailureCount(), is(0L));
+		assertThat(snapshot.getTotalBytes(), is(2L * "test response".length()));
+		assertThat(parser.snapshot(Integer.class, "text/plain").getFailureCount(), is(1L));
+		assertThat(parser.snapshots().size(), is(2));
+	}
+
+	@Test
+	public void genericTargetTypeShouldBeRecordedForRawClass() {
+		// Given
+		TargetType<List<String>> targetType = new TargetType<List<String>>() {};
+		when(responseParser.parseNetworkResponse(networkResponse, targetType))
+				.thenReturn(Response.<List<String>>success(new ArrayList<String>(), null));
+		InstrumentedNetworkResponseParser parser = new InstrumentedNetworkResponseParser(responseParser);
+		final List<ParseEvent> events = new ArrayList<ParseEvent>();
+		parser.addParseListener(new ParseListener() {
+			@Override
+			public void onParsed(ParseEvent event) {
+				events.add(event);
+			}
+		});
+		// When
+		parser.parseNetworkResponse(networkResponse, targetType);
+		// Then
+		assertThat(parser.snapshot(List.class, "text/plain").getCount(), is(1L));
+		assertThat(events.size(), is(1));
+		assertEquals(targetType.getType(), events.get(0).getTargetType());
+		assertThat(events.get(0).getContentType(), is("text/plain"));
+		assertThat(events.get(0).isSuccess(), is(true));
+	}
+
+	@Test
+	public void nothingShouldBeRecordedWhenDisabled() {
+		// Given
+		when(responseParser.parseNetworkResponse(networkResponse, String.class)).thenReturn(Response.success("", null));
+		InstrumentedNetworkResponseParser parser = new InstrumentedNetworkResponseParser(responseParser);
+		ParseListener listener = mock(ParseListener.class);
+		parser.addParseListener(listener);
+		parser.setEnabled(false);
+		// When
+		parser.parseNetworkResponse(networkResponse, String.class);
+		// Then
+		assertNull(parser.snapshot(String.class, "text/plain"));
+		verifyZeroInteractions(listener);
+	}
+
+	@Test
+	public void failureShouldBeRecordedWhenParserThrowsException() {
+		// Given
+		when(responseParser.parseNetworkResponse(networkResponse, String.class)).thenThrow(new IllegalStateException());
+		InstrumentedNetworkResponseParser parser = new InstrumentedNetworkResponseParser(responseParser);
+		// When
+		try {
+			parser.parseNetworkResponse(networkResponse, String.class);
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		// Then
+		assertThat(parser.snapshot(String.class, "text/plain").getFailureCount(), is(1L));
+	}
+
+	@Test
+	public void parseShouldBeRecordedForEachContentType() {
+		// Given
+		NetworkResponse jsonResponse = createNetworkResponse("{}", "application/json; charset=UTF-8");
+		when(responseParser.parseNetworkResponse(ArgumentMatchers.any(NetworkResponse.class), eq(String.class)))
+				.thenReturn(Response.success("", null));
+		InstrumentedNetworkResponseParser parser = new InstrumentedNetworkResponseParser(responseParser);
+		// When
+		parser.parseNetworkResponse(networkResponse, String.class);
+		parser.parseNetworkResponse(jsonResponse, String.class);
+		parser.parseNetworkResponse(jsonResponse, String.class);
+		// Then
+		assertThat(parser.snapshot(String.class, "text/plain").getCount(), is(1L));
+		assertThat(parser.snapshot(String.class, "application/json").getCount(), is(2L));
+		assertThat(parser.snapshots(String.class).size(), is(2));
+	}
+
+	@Test
+	public void exceptionOfListenerShouldNotAffectResult() {
+		// Given
+		Response<String> success = Response.success("test response", null);
+		when(responseParser.parseNetworkResponse(networkResponse, String.class)).thenReturn(success);
+		InstrumentedNetworkResponseParser parser = new InstrumentedNetworkResponseParser(responseParser);
+		ParseListener throwingListener = mock(ParseListener.class);
+		doThrow(new IllegalStateException()).when(throwingListener).onParsed(ArgumentMatchers.any(ParseEvent.class));
+		ParseListener listener = mock(ParseListener.class);
+		parser.addParseListener(throwingListener);
+		parser.addParseListener(listener);
+		// When
+		Response<String> response = parser.parseNetworkResponse(networkResponse, String.class);
+		// Then
+		assertSame(success, response);
+		verify(listener).onParsed(ArgumentMatchers.any(ParseEvent.class));
+	}
+
+	private static NetworkResponse createNetworkResponse(String content) {
+		return createNetworkResponse(content, "text/plain");
+	}
+
+	private static NetworkResponse createNetworkResponse(String content, String contentType) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", contentType);
+		return new NetworkResponse(200, content.getBytes(), headers, false);
+	}
+}
@@ -20,6 +20,7 @@ import static org.junit.Assert.*;
 import static org.mockito.BDDMockito.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Before;
@@ -28,6 +29,7 @@ import org.junit.Test;
 import com.android.volley.NetworkResponse;
 import com.android.volley.Response;
 import com.navercorp.volleyextensions.volleyer.http.ContentType;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
 
 public class IntegratedNetworkResponseParserTest {
 
@@ -87,6 +89,46 @@ public class IntegratedNetworkResponseParserTest {
 		verify(responseParser).parseNetworkResponse(networkResponse, clazz);
 	}
 
+	@Test
+	public void parserShouldDelegateTargetTypeWhenTargetTypeIsGeneric() {
+		// Given
+		networkResponse = createJsonNetworkResponse();
+		NetworkResponseParser responseParser = mock(NetworkResponseParser.class);
+		parsers.put(ContentType.CONTENT_TYPE_APPLICATION_JSON, responseParser);
+		integratedResponseParser = createIntegratedNetworkResponseParser(parsers);
+		TargetType<List<News>> targetType = new TargetType<List<News>>() {};
+		// When
+		integratedResponseParser.parseNetworkResponse(networkResponse, targetType);
+		// Then
+		verify(responseParser).parseNetworkResponse(networkResponse, targetType);
+	}
+
+	@Test
+	public void parserShouldDelegateClassWhenTargetTypeIsRawClass() {
+		// Given
+		networkResponse = createJsonNetworkResponse();
+		NetworkResponseParser responseParser = mock(NetworkResponseParser.class);
+		parsers.put(ContentType.CONTENT_TYPE_APPLICATION_JSON, responseParser);
+		integratedResponseParser = createIntegratedNetworkResponseParser(parsers);
+		// When
+		integratedResponseParser.parseNetworkResponse(networkResponse, TargetType.of(News.class));
+		// Then
+		verify(responseParser).parseNetworkResponse(networkResponse, News.class);
+	}
+
+	@Test
+	public void parserShouldReturnVolleyErrorWhenContentTypeOfGenericTypeIsNotSpecified() {
+		// Given
+		networkResponse = new NetworkResponse(jsonContent.getBytes());
+		NetworkResponseParser responseParser = mock(NetworkResponseParser.class);
+		parsers.put(ContentType.CONTENT_TYPE_APPLICATION_JSON, responseParser);
+		integratedResponseParser = createIntegratedNetworkResponseParser(parsers);
+		// When
+		Response<List<News>> response = integratedResponseParser.parseNetworkResponse(networkResponse, new TargetType<List<News>>() {});
+		// Then
+		assertNotNull(response.error);
+	}
+
 	@Test
 	public void parserShouldReturnVolleyErrorWhenContentTypeIsNotMappedIntoResponseParser() {
 		// Given
@@ -115,6 +157,22 @@ public class IntegratedNetworkResponseParserTest {
 		assertNotNull(response.error);
 	}
 
+	@Test
+	public void parserShouldFindContentTypeHeaderRegardlessOfCases() {
+		// Given
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("content-type", "application/json; charset=utf-8");
+		networkResponse = new NetworkResponse(DEFAULT_STATUS_CODE, jsonContent.getBytes(), headers, false);
+		NetworkResponseParser responseParser = mock(NetworkResponseParser.class);
+		parsers.put(ContentType.CONTENT_TYPE_APPLICATION_JSON, responseParser);
+		integratedResponseParser = createIntegratedNetworkResponseParser(parsers);
+		Class<News> clazz = News.class;
+		// When
+		integratedResponseParser.parseNetworkResponse(networkResponse, clazz);
+		// Then
+		verify(responseParser).parseNetworkResponse(networkResponse, clazz);
+	}
+
 	private static NetworkResponse createJsonNetworkResponse() {
 		Map<String, String> headers = new HashMap<String, String>();
 		headers.put("Content-Type", "application/json; charset=utf-8");
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.navercorp.volleyextensions.volleyer.response.ItemListener;
+
+public class ItemStreamingNetworkResponseParserTest {
+	private static final String arrayContent = "[{\"title\":\"1\"},{\"title\":\"2\"},{\"title\":\"3\"},{\"title\":\"4\"},{\"title\":\"5\"}]";
+
+	private final Executor directExecutor = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parserShouldThrowIllegalArgumentExceptionWhenBatchSizeIsZero() {
+		new ItemStreamingNetworkResponseParser<News>(new Jackson2NetworkResponseParser(), News.class,
+				new CollectingListener(), 0, directExecutor);
+	}
+
+	@Test
+	public void itemsShouldBeDeliveredInBatchesWithJackson() throws Exception {
+		assertItemsDeliveredInBatches(new Jackson2NetworkResponseParser());
+	}
+
+	@Test
+	public void itemsShouldBeDeliveredInBatchesWithGson() throws Exception {
+		assertItemsDeliveredInBatches(new GsonNetworkResponseParser());
+	}
+
+	private void assertItemsDeliveredInBatches(ArrayItemParser arrayItemParser) throws Exception {
+		// Given
+		CollectingListener listener = new CollectingListener();
+		ItemStreamingNetworkResponseParser<News> parser =
+				new ItemStreamingNetworkResponseParser<News>(arrayItemParser, News.class, listener, 2, directExecutor);
+		// When
+		Response<Integer> response = parser.parseNetworkResponse(createNetworkResponse(arrayContent), Integer.class);
+		// Then
+		assertThat(response.result, is(5));
+		assertThat(listener.batchSizes, is(listOf(2, 2, 1)));
+		assertThat(listener.titles, is(listOf("1", "2", "3", "4", "5")));
+	}
+
+	@Test
+	public void resultShouldBeZeroWhenArrayIsEmpty() throws Exception {
+		// Given
+		CollectingListener listener = new CollectingListener();
+		ItemStreamingNetworkResponseParser<News> parser = new ItemStreamingNetworkResponseParser<News>(
+				new Jackson2NetworkResponseParser(), News.class, listener, 2, directExecutor);
+		// When
+		Response<Integer> response = parser.parseNetworkResponse(createNetworkResponse("[]"), Integer.class);
+		// Then
+		assertThat(response.result, is(0));
+		assertTrue(listener.batchSizes.isEmpty());
+	}
+
+	@Test
+	public void parseErrorShouldBeReturnedWhenContentIsNotArray() throws Exception {
+		// Given
+		CollectingListener listener = new CollectingListener();
+		ItemStreamingNetworkResponseParser<News> parser = new ItemStreamingNetworkResponseParser<News>(
+				new GsonNetworkResponseParser(), News.class, listener, 2, directExecutor);
+		// When
+		Response<Integer> response = parser.parseNetworkResponse(createNetworkResponse("{\"title\":\"1\"}"), Integer.class);
+		// Then
+		assertThat(response.error, is(instanceOf(ParseError.class)));
+	}
+
+	@Test
+	public void itemsBeforeBrokenContentShouldBeDeliveredWithError() throws Exception {
+		// Given
+		CollectingListener listener = new CollectingListener();
+		ItemStreamingNetworkResponseParser<News> parser = new ItemStreamingNetworkResponseParser<News>(
+				new Jackson2NetworkResponseParser(), News.class, listener, 2, directExecutor);
+		// When
+		Response<Integer> response = parser.parseNetworkResponse(
+				createNetworkResponse("[{\"title\":\"1\"},{\"title\":\"2\"},{\"title\""), Integer.class);
+		// Then
+		assertThat(response.error, is(instanceOf(ParseError.class)));
+		assertThat(listener.titles, is(listOf("1", "2")));
+	}
+
+	@Test
+	public void itemsShouldNotBeDeliveredWhenRequestIsCanceled() throws Exception {
+		// Given
+		CollectingListener listener = new CollectingListener();
+		ItemStreamingNetworkResponseParser<News> parser = new ItemStreamingNetworkResponseParser<News>(
+				new Jackson2NetworkResponseParser(), News.class, listener, 2, directExecutor);
+		Request<?> request = mock(Request.class);
+		when(request.isCanceled()).thenReturn(true);
+		parser.bindRequest(request);
+		// When
+		parser.parseNetworkResponse(createNetworkResponse(arrayContent), Integer.class);
+		// Then
+		assertTrue(listener.batchSizes.isEmpty());
+	}
+
+	@Test
+	public void rejectedItemShouldNotBeCountedWithJackson() throws Exception {
+		assertRejectedItemNotCounted(new Jackson2NetworkResponseParser());
+	}
+
+	@Test
+	public void rejectedItemShouldNotBeCountedWithGson() throws Exception {
+		assertRejectedItemNotCounted(new GsonNetworkResponseParser());
+	}
+
+	private void assertRejectedItemNotCounted(ArrayItemParser arrayItemParser) throws Exception {
+		// Given
+		final List<News> acceptedItems = new ArrayList<News>();
+		ArrayItemParser.ItemHandler<News> handler = new ArrayItemParser.ItemHandler<News>() {
+			@Override
+			public boolean onItem(News item) {
+				if (acceptedItems.size() == 2) {
+					return false;
+				}
+				acceptedItems.add(item);
+				return true;
+			}
+		};
+		// When
+		int count = arrayItemParser.parseArrayItems(createNetworkResponse(arrayContent), News.class, handler);
+		// Then
+		assertThat(count, is(2));
+		assertThat(acceptedItems.size(), is(2));
+	}
+
+	private static NetworkResponse createNetworkResponse(String content) throws Exception {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/json; charset=UTF-8");
+		return new NetworkResponse(200, content.getBytes("UTF-8"), headers, false);
+	}
+
+	private static <E> List<E> listOf(E... elements) {
+		List<E> list = new ArrayList<E>();
+		for (E element : elements) {
+			list.add(element);
+		}
+		return list;
+	}
+
+	private static class CollectingListener implements ItemListener<News> {
+		private final List<Integer> batchSizes = new ArrayList<Integer>();
+		private final List<String> titles = new ArrayList<String>();
+
+		@Override
+		public void onItems(List<News> items) {
+			batchSizes.add(items.size());
+			for (News news : items) {
+				titles.add(news.title);
+			}
+		}
+	}
+
+	private static class News {
+		public String title;
+	}
+}
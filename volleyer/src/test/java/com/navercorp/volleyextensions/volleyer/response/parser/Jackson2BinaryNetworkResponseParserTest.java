@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navercorp.volleyextensions.volleyer.http.ContentType;
+
+public class Jackson2BinaryNetworkResponseParserTest {
+	private static final String jsonContent = "{\"title\":\"볼리 익스텐션 Volley extension\"}";
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parserShouldThrowIllegalArgumentExceptionWhenContentTypesAreEmpty() {
+		new Jackson2BinaryNetworkResponseParser(new ObjectMapper());
+	}
+
+	@Test
+	public void contentTypesShouldBeGivenContentTypes() {
+		// Given
+		Jackson2BinaryNetworkResponseParser parser = new Jackson2BinaryNetworkResponseParser(new ObjectMapper(),
+				ContentType.CONTENT_TYPE_APPLICATION_CBOR);
+		// When
+		List<ContentType> contentTypes = parser.getContentTypes().getListOfContentTypes();
+		// Then
+		assertThat(contentTypes.size(), is(1));
+		assertThat(contentTypes.get(0), is(ContentType.CONTENT_TYPE_APPLICATION_CBOR));
+	}
+
+	@Test
+	public void bodyShouldBeReadAsBytesRegardlessOfCharset() throws Exception {
+		// Given
+		Jackson2BinaryNetworkResponseParser parser = new Jackson2BinaryNetworkResponseParser(new ObjectMapper(),
+				ContentType.CONTENT_TYPE_APPLICATION_CBOR);
+		// A charset given to a binary format must be ignored
+		NetworkResponse networkResponse = createNetworkResponse(jsonContent.getBytes("UTF-8"), "application/cbor; charset=ISO-8859-1");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.result.title, is("볼리 익스텐션 Volley extension"));
+	}
+
+	@Test
+	public void createObjectMapperShouldReturnNullWhenFactoryIsNotPresent() {
+		assertNull(Jackson2BinaryNetworkResponseParser.createObjectMapper("com.navercorp.NotExistingFactory"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void createObjectMapperShouldThrowIllegalArgumentExceptionWhenClassIsNotJsonFactory() {
+		Jackson2BinaryNetworkResponseParser.createObjectMapper(String.class.getName());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void createObjectMapperShouldThrowIllegalArgumentExceptionWhenFactoryHasNoDefaultConstructor() {
+		Jackson2BinaryNetworkResponseParser.createObjectMapper(NoDefaultConstructorJsonFactory.class.getName());
+	}
+
+	@Test
+	public void createObjectMapperShouldCreateMapperWithGivenFactory() {
+		// When
+		ObjectMapper objectMapper = Jackson2BinaryNetworkResponseParser.createObjectMapper(TestJsonFactory.class.getName());
+		// Then
+		assertThat(objectMapper.getFactory(), is(instanceOf(TestJsonFactory.class)));
+	}
+
+	private static NetworkResponse createNetworkResponse(byte[] data, String contentType) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", contentType);
+		return new NetworkResponse(200, data, headers, false);
+	}
+
+	public static class TestJsonFactory extends com.fasterxml.jackson.core.JsonFactory {
+	}
+
+	public static class NoDefaultConstructorJsonFactory extends com.fasterxml.jackson.core.JsonFactory {
+		public NoDefaultConstructorJsonFactory(String name) {
+		}
+	}
+
+	private static class News {
+		public String title;
+	}
+}
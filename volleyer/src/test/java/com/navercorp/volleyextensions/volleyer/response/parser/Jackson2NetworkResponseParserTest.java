@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Response;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+
+public class Jackson2NetworkResponseParserTest {
+	private static final String jsonContent = "{\"title\":\"볼리 익스텐션 Volley extension\",\"content\":\"Très bien\"}";
+
+	private final Jackson2NetworkResponseParser parser = new Jackson2NetworkResponseParser();
+
+	@Test(expected = NullPointerException.class)
+	public void parserShouldThrowNpeWhenResponseIsNull() {
+		parser.parseNetworkResponse(null, News.class);
+	}
+
+	@Test
+	public void utf8BodyShouldBeParsedWhenCharsetIsNotSpecified() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse(jsonContent.getBytes("UTF-8"), "application/json");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.result.title, is("볼리 익스텐션 Volley extension"));
+		assertThat(response.result.content, is("Très bien"));
+	}
+
+	@Test
+	public void utf16BodyShouldBeParsedWhenCharsetIsUtf16() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse(jsonContent.getBytes("UTF-16"), "application/json; charset=UTF-16");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.result.title, is("볼리 익스텐션 Volley extension"));
+	}
+
+	@Test
+	public void bodyShouldBeDecodedBySpecifiedCharset() throws Exception {
+		// Given
+		String latin1Content = "{\"title\":\"Volley\",\"content\":\"Très bien\"}";
+		NetworkResponse networkResponse = createNetworkResponse(latin1Content.getBytes("ISO-8859-1"), "application/json; charset=ISO-8859-1");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.result.content, is("Très bien"));
+	}
+
+	@Test
+	public void parseErrorShouldBeReturnedWhenBodyIsInvalid() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse("{\"title\":".getBytes("UTF-8"), "application/json");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.error, is(instanceOf(ParseError.class)));
+	}
+
+	@Test
+	public void parseErrorShouldBeReturnedWhenCharsetIsUnsupported() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse(jsonContent.getBytes("UTF-8"), "application/json; charset=unknown-charset");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.error, is(instanceOf(ParseError.class)));
+	}
+
+	@Test
+	public void parserShouldParseEachResponseWhenTargetClassIsRepeated() throws Exception {
+		// Given
+		NetworkResponse first = createNetworkResponse("{\"title\":\"first\"}".getBytes("UTF-8"), "application/json");
+		NetworkResponse second = createNetworkResponse("{\"title\":\"second\"}".getBytes("UTF-8"), "application/json");
+		NetworkResponse other = createNetworkResponse("{\"name\":\"other\"}".getBytes("UTF-8"), "application/json");
+		// When
+		Response<News> firstResponse = parser.parseNetworkResponse(first, News.class);
+		Response<News> secondResponse = parser.parseNetworkResponse(second, News.class);
+		Response<Author> otherResponse = parser.parseNetworkResponse(other, Author.class);
+		// Then
+		assertThat(firstResponse.result.title, is("first"));
+		assertThat(secondResponse.result.title, is("second"));
+		assertThat(otherResponse.result.name, is("other"));
+	}
+
+	@Test
+	public void genericTypeShouldBeParsedWhenTargetTypeIsGeneric() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse("[{\"title\":\"first\"},{\"title\":\"second\"}]".getBytes("UTF-8"), "application/json");
+		TargetType<List<News>> targetType = new TargetType<List<News>>() {};
+		// When
+		Response<List<News>> response = parser.parseNetworkResponse(networkResponse, targetType);
+		// Then
+		assertThat(response.result.size(), is(2));
+		assertThat(response.result.get(1).title, is("second"));
+	}
+
+	private static NetworkResponse createNetworkResponse(byte[] data, String contentType) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", contentType);
+		return new NetworkResponse(200, data, headers, false);
+	}
+
+	private static class News {
+		public String title;
+		public String content;
+	}
+
+	private static class Author {
+		public String name;
+	}
+}
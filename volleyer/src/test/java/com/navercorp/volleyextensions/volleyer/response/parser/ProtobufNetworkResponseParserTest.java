@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Response;
+import com.navercorp.volleyextensions.volleyer.http.ContentType;
+
+public class ProtobufNetworkResponseParserTest {
+
+	private final ProtobufNetworkResponseParser parser = new ProtobufNetworkResponseParser();
+
+	@Test(expected = NullPointerException.class)
+	public void parserShouldThrowNpeWhenResponseIsNull() {
+		parser.parseNetworkResponse(null, FakeMessage.class);
+	}
+
+	@Test
+	public void parserShouldCallParseFromOfMessageClass() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse("volley".getBytes("UTF-8"));
+		// When
+		Response<FakeMessage> response = parser.parseNetworkResponse(networkResponse, FakeMessage.class);
+		Response<FakeMessage> secondResponse = parser.parseNetworkResponse(networkResponse, FakeMessage.class);
+		// Then
+		assertThat(response.result.value, is("volley"));
+		assertThat(secondResponse.result.value, is("volley"));
+	}
+
+	@Test
+	public void parserShouldReturnParseErrorWhenPayloadIsMalformed() {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse(new byte[0]);
+		// When
+		Response<FakeMessage> response = parser.parseNetworkResponse(networkResponse, FakeMessage.class);
+		// Then
+		assertThat(response.error, is(instanceOf(ParseError.class)));
+		assertThat(response.error.getCause(), is(instanceOf(IOException.class)));
+	}
+
+	@Test
+	public void parserShouldReturnErrorWhenTargetClassIsNotMessage() {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse(new byte[0]);
+		// When
+		Response<Object> response = parser.parseNetworkResponse(networkResponse, Object.class);
+		// Then
+		assertNotNull(response.error);
+		assertThat(response.error.getCause(), is(instanceOf(IllegalArgumentException.class)));
+	}
+
+	@Test
+	public void contentTypeShouldBeProtobuf() {
+		assertThat(parser.getContentTypes().getListOfContentTypes().get(0), is(ContentType.CONTENT_TYPE_APPLICATION_PROTOBUF));
+	}
+
+	private static NetworkResponse createNetworkResponse(byte[] data) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/x-protobuf");
+		return new NetworkResponse(200, data, headers, false);
+	}
+
+	/** Same shape as a class generated by protoc */
+	public static class FakeMessage {
+		private final String value;
+
+		private FakeMessage(String value) {
+			this.value = value;
+		}
+
+		public static FakeMessage parseFrom(byte[] data) throws IOException {
+			if (data.length == 0) {
+				throw new IOException("Truncated message");
+			}
+			try {
+				return new FakeMessage(new String(data, "UTF-8"));
+			} catch (UnsupportedEncodingException e) {
+				throw new IOException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.simpleframework.xml.Element;
+import org.simpleframework.xml.ElementList;
+import org.simpleframework.xml.Root;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Response;
+
+public class SimpleXmlNetworkResponseParserTest {
+	private static final String xmlContent = "<news><title>볼리 익스텐션 Volley extension</title>"
+			+ "<tags><tag>volley</tag><tag>xml</tag></tags></news>";
+
+	private final SimpleXmlNetworkResponseParser parser = new SimpleXmlNetworkResponseParser();
+
+	@Test
+	public void utf8BodyShouldBeParsedWhenCharsetIsNotSpecified() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse(xmlContent.getBytes("UTF-8"), "application/xml");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.result.title, is("볼리 익스텐션 Volley extension"));
+		assertThat(response.result.tags.size(), is(2));
+	}
+
+	@Test
+	public void bodyShouldBeParsedByEncodingOfXmlDeclarationWhenCharsetIsNotSpecified() throws Exception {
+		// Given
+		String declaredContent = "<?xml version=\"1.0\" encoding=\"EUC-KR\"?>" + xmlContent;
+		NetworkResponse networkResponse = createNetworkResponse(declaredContent.getBytes("EUC-KR"), "text/xml");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.result.title, is("볼리 익스텐션 Volley extension"));
+	}
+
+	@Test
+	public void bodyShouldBeDecodedByCharsetWhenCharsetIsSpecified() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse(xmlContent.getBytes("EUC-KR"), "application/xml; charset=EUC-KR");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.result.title, is("볼리 익스텐션 Volley extension"));
+	}
+
+	@Test
+	public void errorShouldBeReturnedWhenBodyIsMalformed() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse("<news><title>".getBytes("UTF-8"), "application/xml");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertNotNull(response.error);
+	}
+
+	@Test
+	public void parseErrorShouldBeReturnedWhenCharsetIsUnsupported() throws Exception {
+		// Given
+		NetworkResponse networkResponse = createNetworkResponse(xmlContent.getBytes("UTF-8"), "application/xml; charset=unknown-charset");
+		// When
+		Response<News> response = parser.parseNetworkResponse(networkResponse, News.class);
+		// Then
+		assertThat(response.error, is(instanceOf(ParseError.class)));
+	}
+
+	private static NetworkResponse createNetworkResponse(byte[] data, String contentType) {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", contentType);
+		return new NetworkResponse(200, data, headers, false);
+	}
+
+	@Root(name = "news")
+	public static class News {
+		@Element
+		public String title;
+		@ElementList(entry = "tag")
+		public List<String> tags;
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.response.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Response;
+import com.navercorp.volleyextensions.volleyer.response.TargetType;
+import com.navercorp.volleyextensions.volleyer.response.Transformer;
+
+public class TransformingNetworkResponseParserTest {
+	private final NetworkResponse networkResponse = new NetworkResponse("3".getBytes());
+	private final NetworkResponseParser responseParser = mock(NetworkResponseParser.class);
+
+	private final Transformer<String, Integer> parseInt = new Transformer<String, Integer>() {
+		@Override
+		public Integer transform(String source) {
+			return Integer.parseInt(source);
+		}
+	};
+
+	@Test(expected = NullPointerException.class)
+	public void constructorShouldThrowNpeWhenTransformerIsNull() {
+		Transformer<String, Integer> nullTransformer = null;
+		new TransformingNetworkResponseParser<String, Integer>(responseParser, TargetType.of(String.class), nullTransformer);
+	}
+
+	@Test
+	public void resultShouldBeTransformedFromParsedResponse() {
+		// Given
+		when(responseParser.parseNetworkResponse(networkResponse, String.class)).thenReturn(Response.success("3", null));
+		NetworkResponseParser parser = new TransformingNetworkResponseParser<String, Integer>(responseParser,
+				TargetType.of(String.class), parseInt);
+		// When
+		Response<Object> response = parser.parseNetworkResponse(networkResponse, Object.class);
+		// Then
+		assertThat(response.result, is((Object) 3));
+	}
+
+	@Test
+	public void genericSourceTypeShouldBeGivenToParser() {
+		// Given
+		TargetType<List<String>> sourceType = new TargetType<List<String>>() {};
+		when(responseParser.parseNetworkResponse(networkResponse, sourceType))
+				.thenReturn(Response.success((List<String>) java.util.Arrays.asList("a", "b"), null));
+		NetworkResponseParser parser = new TransformingNetworkResponseParser<List<String>, Integer>(responseParser,
+				sourceType, new Transformer<List<String>, Integer>() {
+					@Override
+					public Integer transform(List<String> source) {
+						return source.size();
+					}
+				});
+		// When
+		Response<Object> response = parser.parseNetworkResponse(networkResponse, Object.class);
+		// Then
+		assertThat(response.result, is((Object) 2));
+	}
+
+	@Test
+	public void parseErrorShouldBeReturnedWithoutTransforming() {
+		// Given
+		ParseError parseError = new ParseError();
+		when(responseParser.parseNetworkResponse(networkResponse, String.class)).thenReturn(Response.<String>error(parseError));
+		@SuppressWarnings("unchecked")
+		Transformer<String, Integer> transformer = mock(Transformer.class);
+		NetworkResponseParser parser = new TransformingNetworkResponseParser<String, Integer>(responseParser,
+				TargetType.of(String.class), transformer);
+		// When
+		Response<Object> response = parser.parseNetworkResponse(networkResponse, Object.class);
+		// Then
+		assertSame(parseError, response.error);
+		verifyZeroInteractions(transformer);
+	}
+
+	@Test
+	public void errorShouldBeReturnedWhenTransformerThrowsException() {
+		// Given
+		when(responseParser.parseNetworkResponse(networkResponse, String.class)).thenReturn(Response.success("NaN", null));
+		NetworkResponseParser parser = new TransformingNetworkResponseParser<String, Integer>(responseParser,
+				TargetType.of(String.class), parseInt);
+		// When
+		Response<Object> response = parser.parseNetworkResponse(networkResponse, Object.class);
+		// Then
+		assertNotNull(response.error);
+		assertThat(response.error.getCause(), is(instanceOf(NumberFormatException.class)));
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2014 Naver Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.volleyextensions.volleyer.util;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class BoundedConcurrentCacheTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void cacheShouldThrowIllegalArgumentExceptionWhenMaxSizeIsZero() {
+		new BoundedConcurrentCache<String, String>(0);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void putIfAbsentShouldThrowNpeWhenValueIsNull() {
+		// Given
+		BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<String, String>(2);
+		// When
+		cache.putIfAbsent("key", null);
+	}
+
+	@Test
+	public void putIfAbsentShouldReturnCachedValue() {
+		// Given
+		BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<String, String>(2);
+		// When
+		String first = cache.putIfAbsent("key", "first");
+		String second = cache.putIfAbsent("key", "second");
+		// Then
+		assertThat(first, is("first"));
+		assertThat(second, is("first"));
+		assertThat(cache.get("key"), is("first"));
+	}
+
+	@Test
+	public void cacheShouldEvictEntryToCacheNewKeyWhenItIsFull() {
+		// Given
+		BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<String, String>(2);
+		cache.putIfAbsent("key1", "value1");
+		cache.putIfAbsent("key2", "value2");
+		// When
+		String value = cache.putIfAbsent("key3", "value3");
+		// Then
+		assertThat(value, is("value3"));
+		assertThat(cache.get("key3"), is("value3"));
+		assertNull(cache.get("key1"));
+		assertThat(cache.size(), is(2));
+	}
+
+	@Test
+	public void recentlyUsedEntryShouldNotBeEvicted() {
+		// Given
+		BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<String, String>(2);
+		cache.putIfAbsent("key1", "value1");
+		cache.putIfAbsent("key2", "value2");
+		cache.get("key1");
+		// When
+		cache.putIfAbsent("key3", "value3");
+		// Then
+		assertThat(cache.get("key1"), is("value1"));
+		assertNull(cache.get("key2"));
+	}
+
+	@Test
+	public void cacheShouldKeepCachingNewKeysAfterItIsFull() {
+		// Given
+		BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<String, String>(4);
+		// When
+		for (int i = 0; i < 100; i++) {
+			cache.putIfAbsent("key" + i, "value" + i);
+			cache.get("key" + i);
+		}
+		// Then
+		assertThat(cache.get("key99"), is("value99"));
+		assertThat(cache.size(), is(4));
+	}
+
+	@Test
+	public void cacheShouldReturnCachedValueWhenItIsFull() {
+		// Given
+		BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<String, String>(1);
+		cache.putIfAbsent("key", "first");
+		// When
+		String value = cache.putIfAbsent("key", "second");
+		// Then
+		assertThat(value, is("first"));
+	}
+
+	@Test
+	public void clearShouldRemoveAllValues() {
+		// Given
+		BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<String, String>(2);
+		cache.putIfAbsent("key", "value");
+		// When
+		cache.clear();
+		// Then
+		assertNull(cache.get("key"));
+		assertThat(cache.size(), is(0));
+	}
+}